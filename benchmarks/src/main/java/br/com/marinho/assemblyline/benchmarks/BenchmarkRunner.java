@@ -0,0 +1,29 @@
+package br.com.marinho.assemblyline.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Main class of the benchmarks. It accepts the same arguments as the JMH runner and always adds the GC profiler, so
+ * the allocation rate of each benchmark is reported together with its time.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args JMH arguments, as in {@code -p lines=1000 ParseBenchmark}.
+     * @throws CommandLineOptionException If an argument isn't valid.
+     * @throws RunnerException            If there is a problem while running the benchmarks.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.marinho.assemblyline.benchmarks;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import br.com.marinho.assemblyline.utils.ConcurrentOrganizer;
+import br.com.marinho.assemblyline.utils.MappedFileLineUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the concurrent organizer with different amounts of assembly lines running at the same time. With a
+ * heap of the free times, the cost per activity grows with the logarithm of the assembly lines, not with them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentOrganizeBenchmark {
+
+    /** Amount of lines of the step file. */
+    @Param({"1000000"})
+    public int lines;
+
+    /** Amount of assembly lines running at the same time. */
+    @Param({"1", "16", "256", "1024"})
+    public int assemblyLines;
+
+    /** Activities of the step file. */
+    private StepTable table;
+
+    /**
+     * Reads the step file, generating it if it wasn't generated yet.
+     *
+     * @throws IOException If there is a problem while writing the file.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.table = MappedFileLineUtils.getStepTable(StepFileGenerator.getStepFile(this.lines));
+    }
+
+    /**
+     * Spreads the activities over the concurrent assembly lines.
+     *
+     * @return The amount of written characters.
+     * @throws IOException If there is a problem while writing.
+     */
+    @Benchmark
+    public long concurrent() throws IOException {
+        DiscardingWriter writer = new DiscardingWriter();
+        new ConcurrentOrganizer(this.assemblyLines).organize(this.table, writer);
+        return writer.getWritten();
+    }
+}
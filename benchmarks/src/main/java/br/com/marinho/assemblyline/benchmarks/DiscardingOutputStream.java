@@ -0,0 +1,32 @@
+package br.com.marinho.assemblyline.benchmarks;
+
+import java.io.OutputStream;
+
+/**
+ * Stream that only counts the written bytes, so the benchmarks measure the encoding and not the output. The count is
+ * returned by the benchmarks, so the writes can't be removed by the JIT.
+ */
+final class DiscardingOutputStream extends OutputStream {
+
+    /** Amount of written bytes. */
+    private long written;
+
+    @Override
+    public void write(int value) {
+        this.written++;
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) {
+        this.written += length;
+    }
+
+    /**
+     * Gets the amount of written bytes.
+     *
+     * @return The amount of written bytes.
+     */
+    long getWritten() {
+        return this.written;
+    }
+}
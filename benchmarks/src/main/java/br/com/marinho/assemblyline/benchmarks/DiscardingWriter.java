@@ -0,0 +1,40 @@
+package br.com.marinho.assemblyline.benchmarks;
+
+import java.io.Writer;
+
+/**
+ * Writer that only counts the written characters, so the benchmarks measure the organization and not the output.
+ * The count is returned by the benchmarks, so the writes can't be removed by the JIT.
+ */
+final class DiscardingWriter extends Writer {
+
+    /** Amount of written characters. */
+    private long written;
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+        this.written += length;
+    }
+
+    @Override
+    public void write(String text, int offset, int length) {
+        this.written += length;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Gets the amount of written characters.
+     *
+     * @return The amount of written characters.
+     */
+    long getWritten() {
+        return this.written;
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.marinho.assemblyline.benchmarks;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import br.com.marinho.assemblyline.utils.BinaryScheduleEncoder;
+import br.com.marinho.assemblyline.utils.CsvScheduleEncoder;
+import br.com.marinho.assemblyline.utils.JsonLinesScheduleEncoder;
+import br.com.marinho.assemblyline.utils.MappedFileLineUtils;
+import br.com.marinho.assemblyline.utils.Organizer;
+import br.com.marinho.assemblyline.utils.ScheduleEncoder;
+import br.com.marinho.assemblyline.utils.TextScheduleEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the output formats, from the activities to the encoded bytes. The text report written through a
+ * UTF-8 writer, as the program does, is the baseline of the encoders, which build the structured assembly lines and
+ * write their bytes straight to a buffer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncodeBenchmark {
+
+    /** Amount of lines of the step file. */
+    @Param({"1000", "1000000"})
+    public int lines;
+
+    /** Activities of the step file. */
+    private StepTable table;
+
+    /**
+     * Reads the step file, generating it if it wasn't generated yet.
+     *
+     * @throws IOException If there is a problem while writing the file.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.table = MappedFileLineUtils.getStepTable(StepFileGenerator.getStepFile(this.lines));
+    }
+
+    /**
+     * Writes the text report of the greedy organizer through a UTF-8 writer.
+     *
+     * @return The amount of written bytes.
+     * @throws IOException If there is a problem while writing.
+     */
+    @Benchmark
+    public long report() throws IOException {
+        DiscardingOutputStream output = new DiscardingOutputStream();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        new Organizer().organize(this.table, writer);
+        writer.flush();
+        return output.getWritten();
+    }
+
+    /**
+     * Builds the structured assembly lines and writes them with the encoder of the format.
+     *
+     * @param encoding Encoder of the format.
+     * @return The amount of written bytes.
+     * @throws IOException If there is a problem while writing.
+     */
+    @Benchmark
+    public long encode(Encoding encoding) throws IOException {
+        DiscardingOutputStream output = new DiscardingOutputStream();
+        new Organizer().encode(this.table, encoding.encoder, output);
+        return output.getWritten();
+    }
+
+    /**
+     * Encoder of each format, in its own state so the text report isn't measured once per format.
+     */
+    @State(Scope.Benchmark)
+    public static class Encoding {
+
+        /** Output format of the encoder. */
+        @Param({"text", "csv", "jsonl", "binary"})
+        public String format;
+
+        /** Encoder of the format. */
+        private ScheduleEncoder encoder;
+
+        /**
+         * Builds the encoder of the format.
+         */
+        @Setup
+        public void setUp() {
+            switch (this.format) {
+                case "csv":
+                    this.encoder = new CsvScheduleEncoder();
+                    break;
+                case "jsonl":
+                    this.encoder = new JsonLinesScheduleEncoder();
+                    break;
+                case "binary":
+                    this.encoder = new BinaryScheduleEncoder();
+                    break;
+                default:
+                    this.encoder = new TextScheduleEncoder();
+            }
+        }
+    }
+}
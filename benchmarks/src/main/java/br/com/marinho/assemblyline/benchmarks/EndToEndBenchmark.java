@@ -0,0 +1,73 @@
+package br.com.marinho.assemblyline.benchmarks;
+
+import br.com.marinho.assemblyline.utils.FileLineUtils;
+import br.com.marinho.assemblyline.utils.MappedFileLineUtils;
+import br.com.marinho.assemblyline.utils.Organizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the whole program, from the step file to the assembly lines, comparing the first version with the
+ * current one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+    /** Amount of lines of the step file. */
+    @Param({"1000", "1000000", "50000000"})
+    public int lines;
+
+    /** Step file read by the benchmarks. */
+    private File file;
+
+    /**
+     * Generates the step file, if it wasn't generated yet.
+     *
+     * @throws IOException If there is a problem while writing the file.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.file = StepFileGenerator.getStepFile(this.lines);
+    }
+
+    /**
+     * Reads the file into a map and organizes it with the first version of the organizer.
+     *
+     * @return The organized assembly lines.
+     */
+    @Benchmark
+    public String legacy() {
+        return new LegacyOrganizer().organize(FileLineUtils.getAssemblyMap(this.file));
+    }
+
+    /**
+     * Reads the file through a memory-mapped buffer and streams the assembly lines of the greedy organizer.
+     *
+     * @return The amount of written characters.
+     * @throws IOException If there is a problem while writing.
+     */
+    @Benchmark
+    public long current() throws IOException {
+        DiscardingWriter writer = new DiscardingWriter();
+        new Organizer().organize(MappedFileLineUtils.getStepTable(this.file), writer);
+        return writer.getWritten();
+    }
+}
@@ -0,0 +1,128 @@
+package br.com.marinho.assemblyline.benchmarks;
+
+import br.com.marinho.assemblyline.utils.MappedFileLineUtils;
+import br.com.marinho.assemblyline.utils.Organizer;
+import br.com.marinho.assemblyline.utils.ShiftCalendar;
+import br.com.marinho.assemblyline.utils.StepFileFollower;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the follow mode: the time from appending one step to the file until its assembly lines are
+ * written, against organizing the whole file again after the append, as it was done before the follow mode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FollowBenchmark {
+
+    /** Amount of lines of the step file before the appends. */
+    @Param({"1000", "1000000"})
+    public int lines;
+
+    /** Copy of the step file receiving the appended steps. */
+    private File file;
+
+    /** Stream appending the steps to {@code file}. */
+    private OutputStream output;
+
+    /** Follower of {@code file}, which already read its first lines. */
+    private StepFileFollower follower;
+
+    /** Amount of steps appended, used to build their names. */
+    private int appended;
+
+    /**
+     * Copies the step file, so it can be appended, and reads its lines with the follower.
+     *
+     * @throws IOException If there is a problem while reading or writing the files.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.file = File.createTempFile("followed", ".txt");
+        Files.copy(StepFileGenerator.getStepFile(this.lines).toPath(), this.file.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING);
+        this.output = new FileOutputStream(this.file, true);
+        this.follower = new StepFileFollower(this.file, ShiftCalendar.DEFAULT, null);
+        this.follower.poll(new DiscardingWriter());
+    }
+
+    /**
+     * Deletes the copy of the step file.
+     *
+     * @throws IOException If there is a problem while closing the file.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        this.output.close();
+        this.file.delete();
+    }
+
+    /**
+     * Appends a step and writes the assembly lines it closed, reading only the appended line.
+     *
+     * @return The amount of written characters.
+     * @throws IOException If there is a problem while reading or writing the file.
+     */
+    @Benchmark
+    public long appendAndPoll() throws IOException {
+        this.append();
+        DiscardingWriter writer = new DiscardingWriter();
+        this.follower.poll(writer);
+        return writer.getWritten();
+    }
+
+    /**
+     * Appends a step and organizes the whole file again, to compare with {@link #appendAndPoll()}.
+     *
+     * @return The amount of written characters.
+     * @throws IOException If there is a problem while reading or writing the file.
+     */
+    @Benchmark
+    public long appendAndReorganize() throws IOException {
+        this.append();
+        DiscardingWriter writer = new DiscardingWriter();
+        new Organizer().organize(MappedFileLineUtils.getStepTable(this.file), writer);
+        return writer.getWritten();
+    }
+
+    /**
+     * Appends a step with a new name, as the names can't have digits, and a duration between 10 and 180 minutes.
+     *
+     * @throws IOException If there is a problem while writing the file.
+     */
+    private void append() throws IOException {
+        StringBuilder line = new StringBuilder("Appended ");
+        int number = this.appended++;
+
+        do {
+            line.append((char) ('a' + number % 26));
+            number /= 26;
+        } while (number > 0);
+
+        line.append(' ').append(10 + this.appended % 171).append("min\n");
+        this.output.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.marinho.assemblyline.benchmarks;
+
+import br.com.marinho.assemblyline.model.AssemblyLine;
+import br.com.marinho.assemblyline.model.StepTable;
+import br.com.marinho.assemblyline.utils.BinPackingOrganizer;
+import br.com.marinho.assemblyline.utils.MappedFileLineUtils;
+import br.com.marinho.assemblyline.utils.Organizer;
+import br.com.marinho.assemblyline.utils.ScheduleIterator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the organizers, from the activities to the assembly lines. The file is read once, before the
+ * benchmarks, and the assembly lines are written to a {@link DiscardingWriter}, except the ones built by the lazy
+ * {@link ScheduleIterator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrganizeBenchmark {
+
+    /** Amount of assembly lines built by {@link OrganizeBenchmark#firstLines()}. */
+    private static final int FIRST_LINES = 10;
+
+    /** Amount of lines of the step file. */
+    @Param({"1000", "1000000", "50000000"})
+    public int lines;
+
+    /** Activities of the step file. */
+    private StepTable table;
+
+    /** Activities of the step file, in a map, for the legacy organizer. */
+    private Map<String, Integer> map;
+
+    /** Assembly line in the middle of the schedule. */
+    private int middleLine;
+
+    /**
+     * Reads the step file, generating it if it wasn't generated yet.
+     *
+     * @throws IOException If there is a problem while writing the file.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.table = MappedFileLineUtils.getStepTable(StepFileGenerator.getStepFile(this.lines));
+        this.map = this.table.toMap();
+        this.middleLine = Math.max(1, new Organizer().countAssemblyLines(this.table) / 2);
+    }
+
+    /**
+     * Organizes the activities with the first version of the organizer, building the whole output in a string.
+     *
+     * @return The organized assembly lines.
+     */
+    @Benchmark
+    public String legacy() {
+        return new LegacyOrganizer().organize(this.map);
+    }
+
+    /**
+     * Organizes the activities with the greedy organizer, writing each assembly line as soon as it's closed.
+     *
+     * @return The amount of written characters.
+     * @throws IOException If there is a problem while writing.
+     */
+    @Benchmark
+    public long greedy() throws IOException {
+        DiscardingWriter writer = new DiscardingWriter();
+        new Organizer().organize(this.table, writer);
+        return writer.getWritten();
+    }
+
+    /**
+     * Organizes the activities with the bin-packing organizer.
+     *
+     * @return The amount of written characters.
+     * @throws IOException If there is a problem while writing.
+     */
+    @Benchmark
+    public long optimized() throws IOException {
+        DiscardingWriter writer = new DiscardingWriter();
+        new BinPackingOrganizer().organize(this.table, writer);
+        return writer.getWritten();
+    }
+
+    /**
+     * Builds only the first ten assembly lines with the lazy iterator, as a caller showing the beginning of the
+     * schedule does.
+     *
+     * @return The amount of entries built.
+     */
+    @Benchmark
+    public int firstLines() {
+        ScheduleIterator iterator = new ScheduleIterator(this.table);
+        int entries = 0;
+
+        for (int i = 0; i < FIRST_LINES && iterator.hasNext(); i++) {
+            entries += iterator.next().getEntries().size();
+        }
+
+        return entries;
+    }
+
+    /**
+     * Skips to the assembly line in the middle of the schedule and builds only it, only moving the clock through the
+     * activities before it.
+     *
+     * @return The amount of entries built.
+     */
+    @Benchmark
+    public int skipToMiddle() {
+        ScheduleIterator iterator = new ScheduleIterator(this.table);
+        iterator.skipTo(this.middleLine);
+        AssemblyLine line = iterator.next();
+        return line.getEntries().size();
+    }
+}
@@ -0,0 +1,192 @@
+package br.com.marinho.assemblyline.benchmarks;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import br.com.marinho.assemblyline.utils.CompiledStepFile;
+import br.com.marinho.assemblyline.utils.CompressedStepFile;
+import br.com.marinho.assemblyline.utils.FileLineUtils;
+import br.com.marinho.assemblyline.utils.MappedFileLineUtils;
+import br.com.marinho.assemblyline.utils.NameTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Benchmarks of the step file parsers, from the file to the activities. The line conversion of each parser is
+ * measured through the whole file, as it's private to the parsers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    /** Amount of lines of the step file. */
+    @Param({"1000", "1000000", "50000000"})
+    public int lines;
+
+    /** Step file read by the benchmarks. */
+    private File file;
+
+    /** Same steps of {@code file}, in the compiled format. */
+    private File compiledFile;
+
+    /** Same bytes of {@code file}, compressed with gzip. */
+    private File compressedFile;
+
+    /** Bytes of {@code file}, read into the heap up to 1M lines. */
+    private byte[] content;
+
+    /** Names of the steps of {@code file}, already seen, as in the later files of a batch with the same catalog. */
+    private NameTable names;
+
+    /**
+     * Generates the step file, if it wasn't generated yet.
+     *
+     * @throws IOException If there is a problem while writing the file.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.file = StepFileGenerator.getStepFile(this.lines);
+        this.compiledFile = new File(this.file.getPath().replace(".txt", ".alsf"));
+
+        if (!this.compiledFile.exists()) {
+            CompiledStepFile.write(MappedFileLineUtils.getStepTable(this.file), this.compiledFile);
+        }
+
+        this.compressedFile = new File(this.file.getPath() + ".gz");
+        if (!this.compressedFile.exists()) {
+            try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(this.compressedFile.toPath()))) {
+                Files.copy(this.file.toPath(), output);
+            }
+        }
+
+        if (this.lines <= 1_000_000) {
+            this.content = Files.readAllBytes(this.file.toPath());
+            this.names = new NameTable();
+            MappedFileLineUtils.getStepTable(ByteBuffer.wrap(this.content), null, this.names);
+        }
+    }
+
+    /**
+     * Reads the file line by line into a map, as the first version of the program.
+     *
+     * @return The activities.
+     */
+    @Benchmark
+    public Map<String, Integer> readerMap() {
+        return FileLineUtils.getAssemblyMap(this.file);
+    }
+
+    /**
+     * Reads the file line by line into a {@link StepTable}.
+     *
+     * @return The activities.
+     */
+    @Benchmark
+    public StepTable reader() {
+        return FileLineUtils.getStepTable(this.file);
+    }
+
+    /**
+     * Reads the file through a memory-mapped buffer, in a single thread.
+     *
+     * @return The activities.
+     */
+    @Benchmark
+    public StepTable mapped() {
+        return MappedFileLineUtils.getStepTable(this.file);
+    }
+
+    /**
+     * Converts the bytes of the file, already in the heap, with a new name table, as the first file of a batch.
+     * Only run up to 1M lines.
+     *
+     * @return The activities.
+     */
+    @Benchmark
+    public StepTable bytesNewNames() {
+        return this.content == null ? null
+                                    : MappedFileLineUtils.getStepTable(ByteBuffer.wrap(this.content), null,
+                                                                       new NameTable());
+    }
+
+    /**
+     * Converts the bytes of the file with the names already in the name table, so no name is decoded. The
+     * allocation rate, compared with {@link #bytesNewNames()}, is what each later file of a batch repeating the
+     * same steps saves. Only run up to 1M lines, as the table keeps all the names of the file.
+     *
+     * @return The activities.
+     */
+    @Benchmark
+    public StepTable bytesSharedNames() {
+        return this.content == null ? null
+                                    : MappedFileLineUtils.getStepTable(ByteBuffer.wrap(this.content), null,
+                                                                       this.names);
+    }
+
+    /**
+     * Loads the same steps from a compiled file, without parsing any line, to compare with {@link #readerMap()}.
+     *
+     * @return The activities.
+     * @throws IOException If there is a problem while reading the file.
+     */
+    @Benchmark
+    public StepTable compiled() throws IOException {
+        return CompiledStepFile.read(this.compiledFile);
+    }
+
+    /**
+     * Reads the gzip file, decompressing it in a separate thread while the lines are converted.
+     *
+     * @return The activities.
+     * @throws IOException If there is a problem while reading the file.
+     */
+    @Benchmark
+    public StepTable compressed() throws IOException {
+        return CompressedStepFile.read(this.compressedFile, null);
+    }
+
+    /**
+     * Decompresses the gzip file to the disk and then reads it through a memory-mapped buffer, to compare with
+     * {@link #compressed()}.
+     *
+     * @return The activities.
+     * @throws IOException If there is a problem while reading or writing the files.
+     */
+    @Benchmark
+    public StepTable decompressThenMapped() throws IOException {
+        File decompressed = File.createTempFile("steps", ".txt");
+
+        try {
+            try (InputStream input = new GZIPInputStream(Files.newInputStream(this.compressedFile.toPath()))) {
+                Files.copy(input, decompressed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            return MappedFileLineUtils.getStepTable(decompressed);
+        } finally {
+            decompressed.delete();
+        }
+    }
+}
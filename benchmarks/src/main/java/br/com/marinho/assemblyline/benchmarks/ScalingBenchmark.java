@@ -0,0 +1,80 @@
+package br.com.marinho.assemblyline.benchmarks;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import br.com.marinho.assemblyline.utils.MappedFileLineUtils;
+import br.com.marinho.assemblyline.utils.Organizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the parallel parser and organizer with different amounts of threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScalingBenchmark {
+
+    /** Amount of lines of the step file. */
+    @Param({"1000000", "50000000"})
+    public int lines;
+
+    /** Amount of threads. */
+    @Param({"1", "4", "16", "32"})
+    public int threads;
+
+    /** Step file read by the benchmarks. */
+    private File file;
+
+    /** Activities of the step file, for the organization. */
+    private StepTable table;
+
+    /**
+     * Reads the step file, generating it if it wasn't generated yet.
+     *
+     * @throws IOException If there is a problem while writing the file.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        this.file = StepFileGenerator.getStepFile(this.lines);
+        this.table = MappedFileLineUtils.getStepTable(this.file);
+    }
+
+    /**
+     * Reads the file in line-aligned ranges, one thread per range.
+     *
+     * @return The activities.
+     */
+    @Benchmark
+    public StepTable parallelParse() {
+        return MappedFileLineUtils.getStepTable(this.file, this.threads);
+    }
+
+    /**
+     * Builds the greedy assembly lines in parallel.
+     *
+     * @return The amount of written characters.
+     * @throws IOException If there is a problem while writing.
+     */
+    @Benchmark
+    public long parallelOrganize() throws IOException {
+        DiscardingWriter writer = new DiscardingWriter();
+        new Organizer().organize(this.table, writer, this.threads);
+        return writer.getWritten();
+    }
+}
@@ -0,0 +1,140 @@
+package br.com.marinho.assemblyline.benchmarks;
+
+import br.com.marinho.assemblyline.AssemblyLineMain;
+import br.com.marinho.assemblyline.service.ScheduleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a job sent to a warm {@link ScheduleService}, compared with starting a new JVM for each file, as the
+ * command line program does. The sample mode reports the latency percentiles.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceLatencyBenchmark {
+
+    /** Amount of lines of the step file. */
+    @Param({"1000", "100000"})
+    public int lines;
+
+    /** Service running in the benchmark JVM. */
+    private ScheduleService service;
+
+    /** Bytes of the step file, sent in each job. */
+    private byte[] content;
+
+    /** Directory with the "input.txt" file read by the command line program. */
+    private File workingDirectory;
+
+    /** File receiving the output of the command line program. */
+    private File output;
+
+    /** Buffer used to read the answers of the service. */
+    private final byte[] answer = new byte[1 << 16];
+
+    /**
+     * Starts the service and prepares the input of the command line program.
+     *
+     * @throws IOException If there is a problem while writing the files or binding the port.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        File stepFile = StepFileGenerator.getStepFile(this.lines);
+        this.content = Files.readAllBytes(stepFile.toPath());
+        this.workingDirectory = Files.createTempDirectory("assembly-line-cold-start").toFile();
+        this.output = new File(this.workingDirectory, "output.txt");
+        Files.copy(stepFile.toPath(), new File(this.workingDirectory, "input.txt").toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+
+        this.service = new ScheduleService(0, 1);
+        Thread thread = new Thread(() -> {
+            try {
+                this.service.serve();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the service and deletes the files of the command line program.
+     *
+     * @throws IOException If there is a problem while closing the service.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        this.service.close();
+        new File(this.workingDirectory, "input.txt").delete();
+        this.output.delete();
+        this.workingDirectory.delete();
+    }
+
+    /**
+     * Sends the steps to the warm service and reads the whole answer.
+     *
+     * @return The size of the answer.
+     * @throws IOException If there is a problem in the connection.
+     */
+    @Benchmark
+    public long service() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.service.getPort())) {
+            socket.getOutputStream().write(this.content);
+            socket.shutdownOutput();
+
+            InputStream input = socket.getInputStream();
+            long size = 0;
+            int read;
+
+            while ((read = input.read(this.answer)) != -1) {
+                size += read;
+            }
+
+            return size;
+        }
+    }
+
+    /**
+     * Runs the command line program in a new JVM, paying the startup and a cold JIT.
+     *
+     * @return The exit status of the program.
+     * @throws IOException          If the JVM can't be started.
+     * @throws InterruptedException If the benchmark is interrupted while waiting for the program.
+     */
+    @Benchmark
+    public int coldStart() throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", System.getProperty("java.class.path"), AssemblyLineMain.class.getName())
+                .directory(this.workingDirectory)
+                .redirectOutput(this.output)
+                .redirectErrorStream(true)
+                .start();
+
+        return process.waitFor();
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.marinho.assemblyline.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+/**
+ * Class responsible for generating synthetic step files for the benchmarks. One in each
+ * {@link StepFileGenerator#MAINTENANCE_FREQUENCY} lines is a maintenance and the other ones have a duration between
+ * 10 and 180 minutes. As the parsers don't accept numbers in the names, each name is its position written in letters.
+ */
+public final class StepFileGenerator {
+
+    /** Frequency of the maintenance lines, one in each amount of lines. */
+    private static final int MAINTENANCE_FREQUENCY = 10;
+
+    /** Seed of the durations, so the same amount of lines always gives the same file. */
+    private static final long SEED = 42;
+
+    /** Directory where the generated files are kept, so they are generated only once. */
+    private static final File DIRECTORY = new File(System.getProperty("java.io.tmpdir"), "assembly-line-benchmarks");
+
+    /**
+     * Private constructor, as the class only has static methods.
+     */
+    private StepFileGenerator() {
+    }
+
+    /**
+     * Gets the step file with the given amount of lines, generating it if it doesn't exist yet.
+     *
+     * @param lines Amount of lines of the file.
+     * @return The step file.
+     * @throws IOException If there is a problem while writing the file.
+     */
+    public static synchronized File getStepFile(int lines) throws IOException {
+        File file = new File(DIRECTORY, "steps-" + lines + ".txt");
+
+        if (!file.exists()) {
+            Files.createDirectories(DIRECTORY.toPath());
+            File temporaryFile = File.createTempFile("steps-" + lines, ".tmp", DIRECTORY);
+
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    Files.newOutputStream(temporaryFile.toPath()), StandardCharsets.UTF_8), 1 << 16)) {
+                generate(writer, lines);
+            }
+
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return file;
+    }
+
+    /**
+     * Writes the step lines, as in "Step bcd 45min" or "Step bce - maintenance".
+     *
+     * @param writer Writer receiving the lines.
+     * @param lines  Amount of lines.
+     * @throws IOException If there is a problem while writing.
+     */
+    static void generate(Writer writer, int lines) throws IOException {
+        Random random = new Random(SEED);
+        StringBuilder line = new StringBuilder();
+
+        for (int i = 0; i < lines; i++) {
+            line.setLength(0);
+            line.append("Step ");
+            appendLetters(line, i);
+
+            if (i % MAINTENANCE_FREQUENCY == 0) {
+                line.append(" - maintenance\n");
+            } else {
+                line.append(' ').append(10 + random.nextInt(171)).append("min\n");
+            }
+
+            writer.append(line);
+        }
+    }
+
+    /**
+     * Appends the number written with the letters from "a" to "z", so every line has a different name.
+     *
+     * @param line   String builder that is receiving the letters.
+     * @param number Number to be written.
+     */
+    private static void appendLetters(StringBuilder line, int number) {
+        int start = line.length();
+
+        do {
+            line.append((char) ('a' + number % 26));
+            number /= 26;
+        } while (number > 0);
+
+        // The letters were appended from the least significant one
+        for (int i = start, j = line.length() - 1; i < j; i++, j--) {
+            char letter = line.charAt(i);
+            line.setCharAt(i, line.charAt(j));
+            line.setCharAt(j, letter);
+        }
+    }
+
+    /**
+     * Generates the step files with the amounts of lines in the arguments and prints their paths.
+     *
+     * @param args Amounts of lines.
+     * @throws IOException If there is a problem while writing the files.
+     */
+    public static void main(String[] args) throws IOException {
+        for (int i = 0; i < args.length; i++) {
+            System.out.println(getStepFile(Integer.parseInt(args[i])));
+        }
+    }
+}
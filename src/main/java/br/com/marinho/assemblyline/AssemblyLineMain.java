@@ -1,9 +1,40 @@
 package br.com.marinho.assemblyline;
 
+import br.com.marinho.assemblyline.metrics.CountingOutputStream;
+import br.com.marinho.assemblyline.metrics.PipelineMetrics;
+import br.com.marinho.assemblyline.model.StepTable;
+import br.com.marinho.assemblyline.service.BatchReport;
+import br.com.marinho.assemblyline.service.BatchScheduler;
+import br.com.marinho.assemblyline.service.ScheduleService;
+import br.com.marinho.assemblyline.utils.BinPackingOrganizer;
+import br.com.marinho.assemblyline.utils.BinaryScheduleEncoder;
+import br.com.marinho.assemblyline.utils.CompiledStepFile;
+import br.com.marinho.assemblyline.utils.CompressedStepFile;
+import br.com.marinho.assemblyline.utils.ConcurrentOrganizer;
+import br.com.marinho.assemblyline.utils.CsvScheduleEncoder;
 import br.com.marinho.assemblyline.utils.FileLineUtils;
+import br.com.marinho.assemblyline.utils.JsonLinesScheduleEncoder;
+import br.com.marinho.assemblyline.utils.MappedFileLineUtils;
 import br.com.marinho.assemblyline.utils.Organizer;
+import br.com.marinho.assemblyline.utils.ParseReport;
+import br.com.marinho.assemblyline.utils.ScheduleCache;
+import br.com.marinho.assemblyline.utils.ScheduleEncoder;
+import br.com.marinho.assemblyline.utils.ShiftCalendar;
+import br.com.marinho.assemblyline.utils.StepFileFollower;
+import br.com.marinho.assemblyline.utils.StepFormatException;
+import br.com.marinho.assemblyline.utils.StepOrder;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -12,15 +43,611 @@ import java.util.Map;
 public class AssemblyLineMain {
 
     /**
-     * Method where the organizing logic happens, to get an output from a file with some production steps.
+     * Method where the organizing logic happens, to get an output from a file with some production steps. The
+     * arguments, described in {@link AssemblyLineOptions}, choose the mode: the service, the batch, the follow mode,
+     * the compilation of the step file, or the organization of the step file in the chosen format.
+     *
      * @param args Running arguments
      */
     public static void main(String[] args) {
-        Organizer organizer = new Organizer();
-        File file = new File("input.txt");
-        Map<String, Integer> map = FileLineUtils.getAssemblyMap(file);
+        AssemblyLineOptions options;
 
-        String organize = organizer.organize(map);
-        System.out.println(organize);
+        try {
+            options = AssemblyLineOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + " Finishing.");
+            System.exit(1);
+            return;
+        }
+
+        String calendarFile = options.getCalendarFile();
+        ShiftCalendar calendar = calendarFile == null ? ShiftCalendar.DEFAULT : readCalendar(new File(calendarFile));
+
+        PipelineMetrics metrics = options.getMetricsOutput() == null ? null : new PipelineMetrics();
+        if (metrics != null) {
+            metrics.registerMBean();
+        }
+
+        if (options.isServe()) {
+            serve(options.getPort(), options.getThreads(), calendar, metrics);
+            return;
+        }
+
+        if (options.isBatch()) {
+            boolean organized = runBatch(new File(options.getBatchSource()), new File(options.getOutputDirectory()),
+                                         options.getIoThreads(), options.getThreads(), calendar, metrics);
+            writeMetrics(metrics, options.getMetricsOutput());
+
+            if (!organized) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        File file = new File(options.getInputFile());
+        ParseReport report = options.getMaxErrors() < 0 ? null : new ParseReport(options.getMaxErrors());
+
+        if (options.isFollow()) {
+            follow(file, calendar, report);
+            return;
+        }
+
+        StepTable table = readSteps(file, options, report, metrics);
+
+        if (options.getCompiledOutput() != null) {
+            compile(table, new File(options.getCompiledOutput()));
+        } else {
+            table = order(table, options.getOrder(), options.getScheduler(), calendar);
+
+            // The text report keeps its own writer, so only the other formats need an encoder
+            if ("text".equals(options.getFormat())) {
+                writeAssemblyLines(table, options, calendar, metrics);
+            } else {
+                encode(table, new Organizer(calendar, metrics), getEncoder(options.getFormat()), metrics);
+            }
+        }
+
+        writeMetrics(metrics, options.getMetricsOutput());
+    }
+
+    /**
+     * Reads the step file with the parser chosen in the arguments, decompressing it if needed, and records the parse
+     * in the metrics.
+     *
+     * @param file    File with the production steps.
+     * @param options Options of the run.
+     * @param report  Report receiving the invalid lines, or {@code null} to stop on the first one.
+     * @param metrics Metrics receiving the parse, or {@code null} if they are disabled.
+     * @return A table with the activities and their duration time.
+     */
+    private static StepTable readSteps(File file, AssemblyLineOptions options, ParseReport report,
+                                       PipelineMetrics metrics) {
+        long parseStart = System.nanoTime();
+        StepTable table;
+
+        if (isCompressed(file)) {
+            table = readCompressed(file, report);
+        } else if (report == null) {
+            table = getStepTable(file, options.getParser(), options.getThreads());
+        } else {
+            table = getValidSteps(file, options.getParser(), report);
+        }
+
+        if (metrics != null) {
+            metrics.recordParse(table, report == null ? 0 : report.getErrorCount(), file.length(),
+                                System.nanoTime() - parseStart);
+        }
+
+        return table;
+    }
+
+    /**
+     * Organizes the activities with the organizer chosen in the arguments and writes the text report to the
+     * standard output, using the cache if there is one.
+     *
+     * @param table    Activities in the order they are organized.
+     * @param options  Options of the run.
+     * @param calendar Calendar of the assembly lines.
+     * @param metrics  Metrics receiving the bytes written, or {@code null} if they are disabled.
+     */
+    private static void writeAssemblyLines(StepTable table, AssemblyLineOptions options, ShiftCalendar calendar,
+                                           PipelineMetrics metrics) {
+        try {
+            CountingOutputStream output = new CountingOutputStream(System.out);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output));
+
+            Organizer organizer = new Organizer(calendar, metrics);
+            ConcurrentOrganizer concurrentOrganizer = new ConcurrentOrganizer(calendar, options.getLines(), metrics);
+
+            if (options.getCacheDirectory() == null) {
+                organize(table, options.getScheduler(), options.getThreads(), organizer, concurrentOrganizer, writer);
+            } else {
+                organizeWithCache(table, options.getScheduler(), options.getThreads(), calendar, organizer,
+                                  concurrentOrganizer, writer, new File(options.getCacheDirectory()),
+                                  options.getCacheSize());
+            }
+
+            writer.write(System.lineSeparator());
+            writer.flush();
+
+            if (metrics != null) {
+                metrics.recordBytesWritten(output.getCount());
+            }
+        } catch (IOException e) {
+            System.err.println("There was a problem while writing the assembly lines. Finishing.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Organizes the activities with the greedy organizer and writes them to the standard output with an encoder.
+     * The greedy and parallel schedulers build the same assembly lines, so both are written this way.
+     *
+     * @param table     Activities coming from the file.
+     * @param organizer Greedy organizer.
+     * @param encoder   Encoder of the output format.
+     * @param metrics   Metrics receiving the bytes written, or {@code null} if they are disabled.
+     */
+    private static void encode(StepTable table, Organizer organizer, ScheduleEncoder encoder,
+                               PipelineMetrics metrics) {
+        try {
+            CountingOutputStream output = new CountingOutputStream(System.out);
+            organizer.encode(table, encoder, output);
+            output.flush();
+
+            if (metrics != null) {
+                metrics.recordBytesWritten(output.getCount());
+            }
+        } catch (IOException e) {
+            System.err.println("There was a problem while writing the assembly lines. Finishing.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Gets the encoder of an output format other than the text report.
+     *
+     * @param format Name of the format, already checked by the {@link AssemblyLineOptions}.
+     * @return The encoder of the format.
+     */
+    private static ScheduleEncoder getEncoder(String format) {
+        switch (format) {
+            case "csv":
+                return new CsvScheduleEncoder();
+            case "jsonl":
+                return new JsonLinesScheduleEncoder();
+            case "binary":
+                return new BinaryScheduleEncoder();
+            default:
+                throw new IllegalArgumentException("Unknown format " + format + ".");
+        }
+    }
+
+    /**
+     * Organizes the activities with the organizer chosen in the arguments.
+     *
+     * @param table     Activities coming from the file.
+     * @param scheduler Name of the organizer, already checked by the {@link AssemblyLineOptions}.
+     * @param threads   Amount of threads used by the parallel organizer.
+     * @param organizer           Greedy organizer, also used by the parallel organization.
+     * @param concurrentOrganizer Organizer of the assembly lines running at the same time.
+     * @param writer              Writer receiving the organized assembly lines.
+     * @throws IOException If there is a problem while writing.
+     */
+    private static void organize(StepTable table, String scheduler, int threads, Organizer organizer,
+                                 ConcurrentOrganizer concurrentOrganizer, Writer writer) throws IOException {
+        switch (scheduler) {
+            case "greedy":
+                organizer.organize(table, writer);
+                break;
+            case "parallel":
+                organizer.organize(table, writer, threads);
+                break;
+            case "optimized":
+                BinPackingOrganizer optimizer = new BinPackingOrganizer();
+                optimizer.organize(table, writer);
+                System.err.println("Assembly lines: " + optimizer.countAssemblyLines(table) + " (greedy: "
+                                   + organizer.countAssemblyLines(table) + ")");
+                break;
+            case "concurrent":
+                concurrentOrganizer.organize(table, writer);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown scheduler " + scheduler + ".");
+        }
+    }
+
+    /**
+     * Same as {@link AssemblyLineMain#organize(StepTable, String, int, Organizer, ConcurrentOrganizer, Writer)},
+     * but the assembly lines come from the cache if the same activities were already organized. The greedy and
+     * parallel organizers build the same assembly lines, so they share the entries. Calendars other than the default
+     * one, and the amount of concurrent assembly lines, are part of the key. The cache counters are printed to the
+     * standard error.
+     *
+     * @param table          Activities coming from the file.
+     * @param scheduler      Name of the organizer.
+     * @param threads        Amount of threads used by the parallel organizer.
+     * @param calendar       Calendar of the greedy and parallel organizers, part of the key.
+     * @param organizer           Greedy organizer, also used by the parallel organization.
+     * @param concurrentOrganizer Organizer of the assembly lines running at the same time.
+     * @param writer              Writer receiving the organized assembly lines.
+     * @param cacheDirectory      Directory of the cache.
+     * @param cacheSize           Maximum size of the cache, in bytes.
+     * @throws IOException If there is a problem while writing or in the cache.
+     */
+    private static void organizeWithCache(StepTable table, String scheduler, int threads, ShiftCalendar calendar,
+                                          Organizer organizer, ConcurrentOrganizer concurrentOrganizer,
+                                          Writer writer, File cacheDirectory, long cacheSize) throws IOException {
+        try (ScheduleCache cache = new ScheduleCache(cacheDirectory, cacheSize)) {
+            String organizerName = "parallel".equals(scheduler) ? "greedy" : scheduler;
+            if ("concurrent".equals(scheduler)) {
+                organizerName += " " + concurrentOrganizer.getLines();
+            }
+            if (calendar != ShiftCalendar.DEFAULT) {
+                organizerName += "\n" + calendar;
+            }
+
+            String key = ScheduleCache.getKey(table, organizerName);
+            String schedule = cache.get(key);
+            boolean hit = schedule != null;
+
+            if (!hit) {
+                StringWriter scheduleWriter = new StringWriter();
+                organize(table, scheduler, threads, organizer, concurrentOrganizer, scheduleWriter);
+                schedule = scheduleWriter.toString();
+                cache.put(key, schedule);
+            }
+
+            writer.write(schedule);
+            System.err.println("Schedule cache " + (hit ? "hit" : "miss") + " (hits: " + cache.getHits()
+                               + ", misses: " + cache.getMisses() + ", evictions: " + cache.getEvictions() + ")");
+        }
+    }
+
+    /**
+     * Runs the {@link ScheduleService} until the program is stopped.
+     *
+     * @param port     Port of the service.
+     * @param threads  Amount of jobs run at the same time.
+     * @param calendar Calendar of the assembly lines.
+     * @param metrics  Metrics of the jobs, or {@code null} if they are disabled.
+     */
+    private static void serve(int port, int threads, ShiftCalendar calendar, PipelineMetrics metrics) {
+        try (ScheduleService service = new ScheduleService(port, threads, calendar, metrics)) {
+            System.err.println("Organizing assembly lines on port " + service.getPort() + ".");
+            service.serve();
+        } catch (IOException e) {
+            System.err.println("There was a problem in the service on port " + port + ". Finishing.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Organizes every step file of a batch, printing the summary and the plants that failed to the standard error.
+     *
+     * @param source          Directory with the step files or manifest.
+     * @param outputDirectory Directory receiving the assembly lines.
+     * @param ioThreads       Amount of threads reading the step files.
+     * @param threads         Amount of threads organizing the assembly lines.
+     * @param calendar        Calendar of the assembly lines.
+     * @param metrics         Metrics of the plants, or {@code null} if they are disabled.
+     * @return {@code true} if every plant was organized.
+     */
+    private static boolean runBatch(File source, File outputDirectory, int ioThreads, int threads,
+                                    ShiftCalendar calendar, PipelineMetrics metrics) {
+        try {
+            List<File> inputs = BatchScheduler.listInputs(source);
+            BatchReport report = new BatchScheduler(ioThreads, threads, calendar, metrics).run(inputs,
+                                                                                               outputDirectory);
+
+            for (Map.Entry<String, String> failure : report.getFailures().entrySet()) {
+                System.err.println(failure.getKey() + ": " + failure.getValue());
+            }
+
+            System.err.println(report);
+            return report.getFailures().isEmpty();
+        } catch (IOException e) {
+            System.err.println("There was a problem in the batch " + source + ". Finishing.");
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + " Finishing.");
+            System.exit(1);
+        }
+
+        return false;
+    }
+
+    /**
+     * Follows the step file until the program is stopped, writing the assembly lines to the standard output as they
+     * close.
+     *
+     * @param file     File with the production steps, which may not exist yet.
+     * @param calendar Calendar of the assembly lines.
+     * @param report   Report receiving the invalid lines, or {@code null} to stop on the first one.
+     */
+    private static void follow(File file, ShiftCalendar calendar, ParseReport report) {
+        if (isCompressed(file)) {
+            System.err.println("The follow mode doesn't support compressed files. Finishing.");
+            System.exit(1);
+        }
+
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(System.out));
+            System.err.println("Following the file " + file.getName() + ".");
+            new StepFileFollower(file, calendar, report).follow(writer);
+        } catch (IOException e) {
+            System.err.println("There was a problem while following the file " + file.getName() + ". Finishing.");
+            System.exit(1);
+        } catch (StepFormatException e) {
+            if (report != null) {
+                System.err.println(report);
+            }
+
+            System.err.println(e.getMessage() + " Finishing.");
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the summary of the metrics in the end of the run.
+     *
+     * @param metrics Metrics of the run, or {@code null} if they are disabled.
+     * @param target  File receiving the summary, or "-" for the standard error.
+     */
+    private static void writeMetrics(PipelineMetrics metrics, String target) {
+        if (metrics == null) {
+            return;
+        }
+
+        if ("-".equals(target)) {
+            System.err.println(metrics.getSummary());
+            return;
+        }
+
+        try {
+            Files.write(new File(target).toPath(), (metrics.getSummary() + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("There was a problem while writing the metrics to " + target + ". Finishing.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Orders the steps with the order chosen in the arguments and then, if they have an after column, by their
+     * dependencies.
+     *
+     * @param table     Activities in the input order.
+     * @param order     Name of the order, already checked by the {@link AssemblyLineOptions}.
+     * @param scheduler Name of the organizer, which must support the after column if there is one.
+     * @param calendar  Calendar of the assembly lines.
+     * @return A table with the activities in the chosen order.
+     */
+    private static StepTable order(StepTable table, String order, String scheduler, ShiftCalendar calendar) {
+        StepTable ordered;
+
+        switch (order) {
+            case "input":
+                ordered = table;
+                break;
+            case "duration":
+                ordered = StepOrder.byDurationDescending(table);
+                break;
+            case "priority":
+                ordered = StepOrder.byPriority(table);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown order " + order + ".");
+        }
+
+        if (!ordered.hasDependencies()) {
+            return ordered;
+        }
+
+        // The concurrent assembly lines run at the same time, so a step could start before its dependencies end
+        if ("optimized".equals(scheduler) || "concurrent".equals(scheduler)) {
+            System.err.println("The " + scheduler + " scheduler doesn't support the after column. Finishing.");
+            System.exit(1);
+        }
+
+        return orderByDependencies(ordered, calendar);
+    }
+
+    /**
+     * Orders the steps so each one comes after the steps of its after column.
+     *
+     * @param table    Activities in the chosen order.
+     * @param calendar Calendar of the assembly lines.
+     * @return A table with the activities ordered by their dependencies.
+     */
+    private static StepTable orderByDependencies(StepTable table, ShiftCalendar calendar) {
+        try {
+            return StepOrder.byDependencies(table, calendar);
+        } catch (StepFormatException e) {
+            System.err.println(e.getMessage() + " Finishing.");
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the steps in the compiled format, printing their amount to the standard error.
+     *
+     * @param table  Activities coming from the file.
+     * @param output File receiving the compiled steps.
+     */
+    private static void compile(StepTable table, File output) {
+        try {
+            CompiledStepFile.write(table, output);
+            System.err.println("Compiled " + table.size() + " production steps into " + output + ".");
+        } catch (IOException e) {
+            System.err.println("There was a problem while writing the compiled steps to " + output + ". Finishing.");
+            System.exit(1);
+        } catch (StepFormatException e) {
+            System.err.println(e.getMessage() + " Finishing.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads a compiled step file.
+     *
+     * @param file File with the compiled steps.
+     * @return A table with the activities and their duration time.
+     */
+    private static StepTable readCompiled(File file) {
+        try {
+            return CompiledStepFile.read(file);
+        } catch (NoSuchFileException e) {
+            System.err.println("The file " + file.getName() + " could not be found. Finishing.");
+            System.exit(0);
+        } catch (IOException e) {
+            System.err.println("There was a problem while trying to read the file " + file.getName() + ". Finishing.");
+            System.exit(1);
+        } catch (StepFormatException e) {
+            System.err.println(e.getMessage() + " Finishing.");
+            System.exit(1);
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks if the step file is compressed. A file that can't be read isn't, so the parser reports the problem.
+     *
+     * @param file File with the production steps.
+     * @return {@code true} if the file is compressed.
+     */
+    private static boolean isCompressed(File file) {
+        try {
+            return CompressedStepFile.isCompressed(file);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads a compressed step file, decompressing it while the lines are converted. With a report, the invalid lines
+     * are skipped as in {@link AssemblyLineMain#getValidSteps(File, String, ParseReport)}.
+     *
+     * @param file   Compressed file with the production steps.
+     * @param report Report receiving the invalid lines, or {@code null} to stop on the first one.
+     * @return A table with the activities and their duration time.
+     */
+    private static StepTable readCompressed(File file, ParseReport report) {
+        try {
+            StepTable table = CompressedStepFile.read(file, report);
+
+            if (report != null && report.getErrorCount() > 0) {
+                System.err.println(report);
+            }
+
+            return table;
+        } catch (IOException e) {
+            System.err.println("There was a problem while trying to read the file " + file.getName() + ". Finishing.");
+            System.exit(1);
+        } catch (StepFormatException e) {
+            if (report != null) {
+                System.err.println(report);
+            }
+
+            System.err.println(e.getMessage() + " Finishing.");
+            System.exit(1);
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads the calendar of the assembly lines.
+     *
+     * @param file File with the calendar.
+     * @return The calendar.
+     */
+    private static ShiftCalendar readCalendar(File file) {
+        try {
+            return ShiftCalendar.read(file);
+        } catch (IOException e) {
+            System.err.println("There was a problem while reading the calendar " + file + ". Finishing.");
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + " Finishing.");
+        }
+
+        System.exit(1);
+        return null;
+    }
+
+    /**
+     * Reads the file with the parser chosen in the arguments in the fail-soft mode, skipping the invalid lines. The
+     * report is printed to the standard error if there is any invalid line, and the program finishes if there are
+     * more than the report threshold. The parallel parser reads the file with a single thread, as the mapped one,
+     * because the line numbers are only known reading it in order.
+     *
+     * @param file   File with the production steps.
+     * @param parser Name of the parser, already checked by the {@link AssemblyLineOptions}.
+     * @param report Report receiving the invalid lines.
+     * @return A table with the valid activities and their duration time.
+     */
+    private static StepTable getValidSteps(File file, String parser, ParseReport report) {
+        try {
+            StepTable table = null;
+
+            switch (parser) {
+                case "reader":
+                    table = FileLineUtils.getStepTable(file, report);
+                    break;
+                case "mapped":
+                case "parallel":
+                    table = MappedFileLineUtils.getStepTable(file, report);
+                    break;
+                case "compiled":
+                    // A compiled file was validated when compiled, so it has no invalid lines
+                    return readCompiled(file);
+                default:
+                    throw new IllegalArgumentException("Unknown parser " + parser + ".");
+            }
+
+            if (report.getErrorCount() > 0) {
+                System.err.println(report);
+            }
+
+            return table;
+        } catch (FileNotFoundException | NoSuchFileException e) {
+            System.err.println("The file " + file.getName() + " could not be found. Finishing.");
+            System.exit(0);
+        } catch (IOException e) {
+            System.err.println("There was a problem while trying to read the file " + file.getName() + ". Finishing.");
+            System.exit(1);
+        } catch (StepFormatException e) {
+            System.err.println(report);
+            System.err.println(e.getMessage() + " Finishing.");
+            System.exit(1);
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads the file with the parser chosen in the arguments.
+     *
+     * @param file    File with the production steps.
+     * @param parser  Name of the parser, already checked by the {@link AssemblyLineOptions}.
+     * @param threads Amount of threads used by the parallel parser.
+     * @return A table with the activities and their duration time.
+     */
+    private static StepTable getStepTable(File file, String parser, int threads) {
+        switch (parser) {
+            case "reader":
+                return FileLineUtils.getStepTable(file);
+            case "mapped":
+                return MappedFileLineUtils.getStepTable(file);
+            case "parallel":
+                return MappedFileLineUtils.getStepTable(file, threads);
+            case "compiled":
+                return readCompiled(file);
+            default:
+                throw new IllegalArgumentException("Unknown parser " + parser + ".");
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,468 @@
+package br.com.marinho.assemblyline;
+
+import br.com.marinho.assemblyline.metrics.PipelineMetrics;
+import br.com.marinho.assemblyline.service.BatchScheduler;
+import br.com.marinho.assemblyline.service.ScheduleService;
+import br.com.marinho.assemblyline.utils.CompiledStepFile;
+import br.com.marinho.assemblyline.utils.ScheduleCache;
+import br.com.marinho.assemblyline.utils.ShiftCalendar;
+import br.com.marinho.assemblyline.utils.StepFileFollower;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Running arguments of the {@link AssemblyLineMain}, parsed and checked before anything is read.
+ * The arguments {@code --input=FILE}, {@code --parser=reader|mapped|parallel|compiled} and {@code --threads=N}
+ * choose which file is read and how; a file compressed with gzip is decompressed while it's parsed, whatever the
+ * parser. The argument {@code --scheduler=greedy|parallel|optimized|concurrent} chooses how the activities are
+ * organized, the concurrent one spreading them over {@code --lines=K} assembly lines running at the same time. With
+ * {@code --serve=PORT}, the program keeps running and organizes the jobs received on the port, using
+ * {@code --threads=N} workers. With {@code --cache=DIRECTORY}, the assembly lines of files already organized come
+ * from the cache, limited to {@code --cache-size=MB} megabytes. With {@code --calendar=FILE}, the greedy and
+ * parallel organizers use the windows, breaks and event of the calendar in the file. With
+ * {@code --batch=DIRECTORY|MANIFEST}, every step file is organized with the greedy organizer into a file with the
+ * same name in {@code --output=DIRECTORY}, reading {@code --io-threads=N} files while {@code --threads=N} threads
+ * organize the ones already read. With {@code --max-errors=N}, the invalid lines are skipped and reported to the
+ * standard error, and the program only finishes if there are more than {@code N} of them. With
+ * {@code --metrics=FILE}, the counters and latencies of the run are published through JMX and their JSON summary is
+ * written to the file in the end, or to the standard error if the file is "-". With {@code --compile=FILE}, the
+ * steps are written to the file in the binary format read by {@code --parser=compiled}, without organizing them.
+ * The argument {@code --order=input|duration|priority} chooses the order in which the steps are organized; when the
+ * steps have an after column, they are then ordered by their dependencies. The argument
+ * {@code --format=text|csv|jsonl|binary} chooses how the assembly lines of the greedy and parallel schedulers are
+ * written. With {@code --follow}, the program keeps reading the lines appended to the step file, writing the
+ * assembly lines of the greedy scheduler as they close.
+ */
+public class AssemblyLineOptions {
+
+    /** Argument used to choose the parser: "reader" (default), "mapped", "parallel" or "compiled". */
+    private static final String PARSER_ARGUMENT = "--parser=";
+
+    /** Argument used to choose the amount of threads of the parallel parser and organizer. */
+    private static final String THREADS_ARGUMENT = "--threads=";
+
+    /** Argument used to choose the organizer: "greedy" (default), "parallel", "optimized" or "concurrent". */
+    private static final String SCHEDULER_ARGUMENT = "--scheduler=";
+
+    /** Argument used to run the program as a {@link ScheduleService} on the given port, instead of reading a file. */
+    private static final String SERVE_ARGUMENT = "--serve=";
+
+    /** Argument used to keep the organized assembly lines in a {@link ScheduleCache} in the given directory. */
+    private static final String CACHE_ARGUMENT = "--cache=";
+
+    /** Argument used to choose the maximum size, in megabytes, of the cache. */
+    private static final String CACHE_SIZE_ARGUMENT = "--cache-size=";
+
+    /** Argument used to read the {@link ShiftCalendar} of the assembly lines from the given file. */
+    private static final String CALENDAR_ARGUMENT = "--calendar=";
+
+    /** Argument used to organize every step file of a directory or manifest with a {@link BatchScheduler}. */
+    private static final String BATCH_ARGUMENT = "--batch=";
+
+    /** Argument used to choose the directory receiving the assembly lines of the batch. */
+    private static final String OUTPUT_ARGUMENT = "--output=";
+
+    /** Argument used to choose the amount of threads reading the step files of the batch. */
+    private static final String IO_THREADS_ARGUMENT = "--io-threads=";
+
+    /** Argument used to skip the invalid lines of the file, finishing only after the given amount of them. */
+    private static final String MAX_ERRORS_ARGUMENT = "--max-errors=";
+
+    /** Argument used to enable the {@link PipelineMetrics}, writing their summary to the given file or "-". */
+    private static final String METRICS_ARGUMENT = "--metrics=";
+
+    /** Argument used to choose the step file, {@code input.txt} when none is given. */
+    private static final String INPUT_ARGUMENT = "--input=";
+
+    /** Argument used to compile the step file into the given {@link CompiledStepFile} instead of organizing it. */
+    private static final String COMPILE_ARGUMENT = "--compile=";
+
+    /** Argument used to choose the order in which the steps are organized. */
+    private static final String ORDER_ARGUMENT = "--order=";
+
+    /** Argument used to choose the amount of assembly lines running at the same time in the concurrent organizer. */
+    private static final String LINES_ARGUMENT = "--lines=";
+
+    /** Argument choosing the output format of the assembly lines. */
+    private static final String FORMAT_ARGUMENT = "--format=";
+
+    /** Argument used to keep following the step file with a {@link StepFileFollower}, organizing the new lines. */
+    private static final String FOLLOW_ARGUMENT = "--follow";
+
+    /** Names of the parsers. */
+    private static final List<String> PARSERS = Arrays.asList("reader", "mapped", "parallel", "compiled");
+
+    /** Names of the organizers. */
+    private static final List<String> SCHEDULERS = Arrays.asList("greedy", "parallel", "optimized", "concurrent");
+
+    /** Names of the orders of the steps. */
+    private static final List<String> ORDERS = Arrays.asList("input", "duration", "priority");
+
+    /** Names of the output formats. */
+    private static final List<String> FORMATS = Arrays.asList("text", "csv", "jsonl", "binary");
+
+    /** Amount of threads reading the step files of the batch, when none is given. */
+    private static final int DEFAULT_IO_THREADS = 2;
+
+    /** Maximum size of the cache, in megabytes, when none is given. */
+    private static final long DEFAULT_CACHE_SIZE = 256;
+
+    /** Value used to convert megabytes into bytes. */
+    private static final long MEGABYTE = 1024 * 1024;
+
+    /** Name of the parser. */
+    private String parser = "reader";
+
+    /** Name of the organizer. */
+    private String scheduler = "greedy";
+
+    /** Amount of threads of the parallel parser and organizer, of the service and of the batch organization. */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** Port of the service, or {@code -1} if the program doesn't run as a service. */
+    private int port = -1;
+
+    /** Directory of the cache, or {@code null} if there is no cache. */
+    private String cacheDirectory;
+
+    /** Maximum size of the cache, in megabytes. */
+    private long cacheSize = DEFAULT_CACHE_SIZE;
+
+    /** File with the calendar, or {@code null} for the default calendar. */
+    private String calendarFile;
+
+    /** Directory or manifest with the step files of the batch, or {@code null} if there is no batch. */
+    private String batchSource;
+
+    /** Directory receiving the assembly lines of the batch. */
+    private String outputDirectory = "output";
+
+    /** Amount of threads reading the step files of the batch. */
+    private int ioThreads = DEFAULT_IO_THREADS;
+
+    /** Maximum amount of invalid lines skipped, or {@code -1} to stop on the first one. */
+    private long maxErrors = -1;
+
+    /** File receiving the summary of the metrics, "-" for the standard error, or {@code null} without metrics. */
+    private String metricsOutput;
+
+    /** File with the production steps. */
+    private String inputFile = "input.txt";
+
+    /** File receiving the compiled steps, or {@code null} to organize them. */
+    private String compiledOutput;
+
+    /** Name of the order of the steps. */
+    private String order = "input";
+
+    /** Amount of assembly lines running at the same time in the concurrent organizer. */
+    private int lines = 1;
+
+    /** Name of the output format. */
+    private String format = "text";
+
+    /** If the step file is followed, organizing the lines appended to it. */
+    private boolean follow;
+
+    /**
+     * Private constructor, as the options are only built by {@link AssemblyLineOptions#parse(String[])}.
+     */
+    private AssemblyLineOptions() {
+    }
+
+    /**
+     * Parses the running arguments, checking that their values are known and that they can be used together.
+     *
+     * @param args Running arguments.
+     * @return The options of the arguments.
+     * @throws IllegalArgumentException If an argument is unknown, has an invalid value or can't be used with the
+     *                                  other ones, with the problem in the message.
+     */
+    public static AssemblyLineOptions parse(String[] args) {
+        AssemblyLineOptions options = new AssemblyLineOptions();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith(PARSER_ARGUMENT)) {
+                options.parser = args[i].substring(PARSER_ARGUMENT.length());
+            } else if (args[i].startsWith(THREADS_ARGUMENT)) {
+                options.threads = parseInt(args[i], THREADS_ARGUMENT);
+            } else if (args[i].startsWith(SCHEDULER_ARGUMENT)) {
+                options.scheduler = args[i].substring(SCHEDULER_ARGUMENT.length());
+            } else if (args[i].startsWith(SERVE_ARGUMENT)) {
+                options.port = parseInt(args[i], SERVE_ARGUMENT);
+            } else if (args[i].startsWith(CACHE_ARGUMENT)) {
+                options.cacheDirectory = args[i].substring(CACHE_ARGUMENT.length());
+            } else if (args[i].startsWith(CACHE_SIZE_ARGUMENT)) {
+                options.cacheSize = parseLong(args[i], CACHE_SIZE_ARGUMENT);
+            } else if (args[i].startsWith(CALENDAR_ARGUMENT)) {
+                options.calendarFile = args[i].substring(CALENDAR_ARGUMENT.length());
+            } else if (args[i].startsWith(BATCH_ARGUMENT)) {
+                options.batchSource = args[i].substring(BATCH_ARGUMENT.length());
+            } else if (args[i].startsWith(OUTPUT_ARGUMENT)) {
+                options.outputDirectory = args[i].substring(OUTPUT_ARGUMENT.length());
+            } else if (args[i].startsWith(IO_THREADS_ARGUMENT)) {
+                options.ioThreads = parseInt(args[i], IO_THREADS_ARGUMENT);
+            } else if (args[i].startsWith(MAX_ERRORS_ARGUMENT)) {
+                options.maxErrors = parseLong(args[i], MAX_ERRORS_ARGUMENT);
+            } else if (args[i].startsWith(METRICS_ARGUMENT)) {
+                options.metricsOutput = args[i].substring(METRICS_ARGUMENT.length());
+            } else if (args[i].startsWith(INPUT_ARGUMENT)) {
+                options.inputFile = args[i].substring(INPUT_ARGUMENT.length());
+            } else if (args[i].startsWith(COMPILE_ARGUMENT)) {
+                options.compiledOutput = args[i].substring(COMPILE_ARGUMENT.length());
+            } else if (args[i].startsWith(ORDER_ARGUMENT)) {
+                options.order = args[i].substring(ORDER_ARGUMENT.length());
+            } else if (args[i].startsWith(LINES_ARGUMENT)) {
+                options.lines = parseInt(args[i], LINES_ARGUMENT);
+            } else if (args[i].startsWith(FORMAT_ARGUMENT)) {
+                options.format = args[i].substring(FORMAT_ARGUMENT.length());
+            } else if (args[i].equals(FOLLOW_ARGUMENT)) {
+                options.follow = true;
+            } else {
+                throw new IllegalArgumentException("Unknown argument " + args[i] + ".");
+            }
+        }
+
+        options.validate();
+        return options;
+    }
+
+    /**
+     * Parses the number of an argument.
+     *
+     * @param arg  Argument with the number.
+     * @param name Name of the argument, up to its "=".
+     * @return The number.
+     * @throws IllegalArgumentException If the value isn't an {@code int}.
+     */
+    private static int parseInt(String arg, String name) {
+        long number = parseLong(arg, name);
+
+        if (number != (int) number) {
+            throw new IllegalArgumentException("Invalid number in the argument " + arg + ".");
+        }
+
+        return (int) number;
+    }
+
+    /**
+     * Parses the number of an argument.
+     *
+     * @param arg  Argument with the number.
+     * @param name Name of the argument, up to its "=".
+     * @return The number.
+     * @throws IllegalArgumentException If the value isn't a {@code long}.
+     */
+    private static long parseLong(String arg, String name) {
+        try {
+            return Long.parseLong(arg.substring(name.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number in the argument " + arg + ".");
+        }
+    }
+
+    /**
+     * Checks that the names are known and that the modes, schedulers, orders and formats can be used together.
+     *
+     * @throws IllegalArgumentException If an option is invalid, with the problem in the message.
+     */
+    private void validate() {
+        checkName("parser", this.parser, PARSERS);
+        checkName("scheduler", this.scheduler, SCHEDULERS);
+        checkName("order", this.order, ORDERS);
+        checkName("format", this.format, FORMATS);
+
+        if (this.calendarFile != null && "optimized".equals(this.scheduler)) {
+            throw new IllegalArgumentException("The optimized scheduler only supports the default calendar.");
+        }
+
+        if (this.lines < 1) {
+            throw new IllegalArgumentException("There must be at least one assembly line.");
+        }
+
+        boolean text = "text".equals(this.format);
+
+        if (!text && (this.isServe() || this.isBatch() || this.cacheDirectory != null)) {
+            throw new IllegalArgumentException("The service, the batch mode and the cache only support the text "
+                                               + "format.");
+        }
+
+        if (!text && !"greedy".equals(this.scheduler) && !"parallel".equals(this.scheduler)) {
+            throw new IllegalArgumentException("The " + this.scheduler + " scheduler only supports the text format.");
+        }
+
+        if (!"input".equals(this.order) && (this.isServe() || this.isBatch())) {
+            throw new IllegalArgumentException("The service and the batch mode only support the input order.");
+        }
+
+        if (this.follow && (this.isServe() || this.isBatch() || this.cacheDirectory != null
+                            || this.compiledOutput != null || this.metricsOutput != null || !text
+                            || !"greedy".equals(this.scheduler) || !"input".equals(this.order)
+                            || "compiled".equals(this.parser))) {
+            throw new IllegalArgumentException("The follow mode only supports the greedy scheduler, the input order "
+                                               + "and the text format of a step file, without the service, the "
+                                               + "batch mode, the cache, the compilation or the metrics.");
+        }
+
+        if (!this.isServe() && this.isBatch()
+            && ("optimized".equals(this.scheduler) || "concurrent".equals(this.scheduler))) {
+            throw new IllegalArgumentException("The batch mode only supports the greedy scheduler.");
+        }
+    }
+
+    /**
+     * Checks that a name chosen in the arguments is known.
+     *
+     * @param kind  Kind of the name, used in the message.
+     * @param name  Name chosen.
+     * @param names Known names.
+     * @throws IllegalArgumentException If the name isn't known.
+     */
+    private static void checkName(String kind, String name, List<String> names) {
+        if (!names.contains(name)) {
+            throw new IllegalArgumentException("Unknown " + kind + " " + name + ".");
+        }
+    }
+
+    /**
+     * @return {@code true} if the program runs as a {@link ScheduleService}.
+     */
+    public boolean isServe() {
+        return this.port >= 0;
+    }
+
+    /**
+     * @return {@code true} if the program organizes a batch of step files.
+     */
+    public boolean isBatch() {
+        return this.batchSource != null;
+    }
+
+    /**
+     * @return The name of the parser.
+     */
+    public String getParser() {
+        return this.parser;
+    }
+
+    /**
+     * @return The name of the organizer.
+     */
+    public String getScheduler() {
+        return this.scheduler;
+    }
+
+    /**
+     * @return The amount of threads of the parallel parser and organizer, of the service and of the batch.
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * @return The port of the service, or {@code -1} if the program doesn't run as a service.
+     */
+    public int getPort() {
+        return this.port;
+    }
+
+    /**
+     * @return The directory of the cache, or {@code null} if there is no cache.
+     */
+    public String getCacheDirectory() {
+        return this.cacheDirectory;
+    }
+
+    /**
+     * @return The maximum size of the cache, in bytes.
+     */
+    public long getCacheSize() {
+        return this.cacheSize * MEGABYTE;
+    }
+
+    /**
+     * @return The file with the calendar, or {@code null} for the default calendar.
+     */
+    public String getCalendarFile() {
+        return this.calendarFile;
+    }
+
+    /**
+     * @return The directory or manifest with the step files of the batch, or {@code null} if there is no batch.
+     */
+    public String getBatchSource() {
+        return this.batchSource;
+    }
+
+    /**
+     * @return The directory receiving the assembly lines of the batch.
+     */
+    public String getOutputDirectory() {
+        return this.outputDirectory;
+    }
+
+    /**
+     * @return The amount of threads reading the step files of the batch.
+     */
+    public int getIoThreads() {
+        return this.ioThreads;
+    }
+
+    /**
+     * @return The maximum amount of invalid lines skipped, or {@code -1} to stop on the first one.
+     */
+    public long getMaxErrors() {
+        return this.maxErrors;
+    }
+
+    /**
+     * @return The file receiving the summary of the metrics, "-" for the standard error, or {@code null} without
+     * metrics.
+     */
+    public String getMetricsOutput() {
+        return this.metricsOutput;
+    }
+
+    /**
+     * @return The file with the production steps.
+     */
+    public String getInputFile() {
+        return this.inputFile;
+    }
+
+    /**
+     * @return The file receiving the compiled steps, or {@code null} to organize them.
+     */
+    public String getCompiledOutput() {
+        return this.compiledOutput;
+    }
+
+    /**
+     * @return The name of the order of the steps.
+     */
+    public String getOrder() {
+        return this.order;
+    }
+
+    /**
+     * @return The amount of assembly lines running at the same time in the concurrent organizer.
+     */
+    public int getLines() {
+        return this.lines;
+    }
+
+    /**
+     * @return The name of the output format.
+     */
+    public String getFormat() {
+        return this.format;
+    }
+
+    /**
+     * @return {@code true} if the step file is followed, organizing the lines appended to it.
+     */
+    public boolean isFollow() {
+        return this.follow;
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.marinho.assemblyline.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream that counts the bytes written to another stream, used to measure the size of the organized assembly
+ * lines after they are encoded.
+ */
+public class CountingOutputStream extends FilterOutputStream {
+
+    /** Amount of bytes written. */
+    private long count;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param out Stream receiving the bytes.
+     */
+    public CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        this.out.write(value);
+        this.count++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        this.out.write(bytes, offset, length);
+        this.count += length;
+    }
+
+    /**
+     * @return The amount of bytes written.
+     */
+    public long getCount() {
+        return this.count;
+    }
+}
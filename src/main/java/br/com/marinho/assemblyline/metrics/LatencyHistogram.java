@@ -0,0 +1,131 @@
+package br.com.marinho.assemblyline.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies, in nanoseconds, that can be recorded by several threads at the same time.
+ * The values are kept in logarithmic buckets: each power of two is divided into {@link LatencyHistogram#SUB_BUCKETS}
+ * buckets, so a percentile is at most 12.5% above the real value, whatever the magnitude of the latencies, and
+ * recording a value is a few bit operations and one atomic increment.
+ */
+public class LatencyHistogram {
+
+    /** Amount of buckets in each power of two. Values lower than it have their own bucket. */
+    private static final int SUB_BUCKETS = 8;
+
+    /** Amount of bits of the sub-bucket in the bucket index. */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /** Amount of buckets, enough for any positive {@code long}. */
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /** Amount of values of each bucket. */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /** Amount of values recorded. */
+    private final LongAdder count = new LongAdder();
+
+    /** Sum of the values recorded. */
+    private final LongAdder sum = new LongAdder();
+
+    /** Highest value recorded. */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos Latency, in nanoseconds. Negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+
+        this.counts.incrementAndGet(getBucket(value));
+        this.count.increment();
+        this.sum.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * @return The amount of values recorded.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * @return The sum of the values recorded, in nanoseconds.
+     */
+    public long getSum() {
+        return this.sum.sum();
+    }
+
+    /**
+     * @return The highest value recorded, in nanoseconds.
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Gets a percentile of the values recorded, as the highest value of the bucket where it is, but never above the
+     * highest value recorded.
+     *
+     * @param percentile Percentile, from 0 to 100.
+     * @return The percentile, in nanoseconds, or 0 if no value was recorded.
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += this.counts.get(i);
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts.get(i);
+
+            if (seen >= rank && total > 0) {
+                return Math.min(getBucketUpperBound(i), this.getMax());
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Finds the bucket of a value: its power of two and the next {@link LatencyHistogram#SUB_BUCKET_BITS} bits.
+     *
+     * @param value Value, not negative.
+     * @return The index of the bucket.
+     */
+    static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the highest value of a bucket.
+     *
+     * @param bucket Index of the bucket.
+     * @return The highest value that goes to the bucket.
+     */
+    static long getBucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+
+        return lowerBound + (1L << shift) - 1;
+    }
+}
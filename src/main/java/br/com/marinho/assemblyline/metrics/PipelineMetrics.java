@@ -0,0 +1,256 @@
+package br.com.marinho.assemblyline.metrics;
+
+import br.com.marinho.assemblyline.model.StepTable;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of the parse and organize stages, shared by every thread of a run.
+ * The stages record their values once per file or job, never per line, so the hot loops are the same with or
+ * without metrics, and the counters are {@link LongAdder}s, so the threads don't contend on them. When the metrics
+ * are disabled, there is no instance at all and the stages only skip a {@code null} check.
+ * The metrics can be read through JMX, after {@link PipelineMetrics#registerMBean()}, and as a JSON summary in the
+ * end of the run.
+ */
+public class PipelineMetrics implements PipelineMetricsMBean {
+
+    /** Name of the MBean of the metrics. */
+    public static final String OBJECT_NAME = "br.com.marinho.assemblyline:type=PipelineMetrics";
+
+    /** Value used to convert nanoseconds into milliseconds. */
+    private static final double NANOS_PER_MILLISECOND = 1_000_000.0;
+
+    /** Value used to convert nanoseconds into seconds. */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /** Amount of production steps converted by the parsers. */
+    private final LongAdder stepsParsed = new LongAdder();
+
+    /** Amount of maintenance steps converted by the parsers. */
+    private final LongAdder maintenanceSteps = new LongAdder();
+
+    /** Amount of invalid lines skipped by the fail-soft parsers. */
+    private final LongAdder invalidLines = new LongAdder();
+
+    /** Amount of bytes read by the parsers. */
+    private final LongAdder bytesRead = new LongAdder();
+
+    /** Amount of steps organized into assembly lines. */
+    private final LongAdder stepsScheduled = new LongAdder();
+
+    /** Amount of assembly lines opened. */
+    private final LongAdder assemblyLines = new LongAdder();
+
+    /** Amount of breaks written in the assembly lines. */
+    private final LongAdder breaks = new LongAdder();
+
+    /** Amount of closing events written in the assembly lines. */
+    private final LongAdder events = new LongAdder();
+
+    /** Amount of bytes of organized assembly lines written. */
+    private final LongAdder bytesWritten = new LongAdder();
+
+    /** Latency of each parse run. */
+    private final LatencyHistogram parseLatency = new LatencyHistogram();
+
+    /** Latency of each organize run, including the writing of the assembly lines. */
+    private final LatencyHistogram organizeLatency = new LatencyHistogram();
+
+    /**
+     * Records a parse run. The maintenance steps are counted from the table, so the parsers don't need to count
+     * them while converting the lines.
+     *
+     * @param table        Table built by the parser.
+     * @param invalidLines Amount of invalid lines skipped.
+     * @param bytes        Amount of bytes read.
+     * @param nanos        Duration of the run, in nanoseconds.
+     */
+    public void recordParse(StepTable table, long invalidLines, long bytes, long nanos) {
+        int maintenance = 0;
+
+        for (int i = 0; i < table.size(); i++) {
+            if (table.isMaintenance(i)) {
+                maintenance++;
+            }
+        }
+
+        this.stepsParsed.add(table.size());
+        this.maintenanceSteps.add(maintenance);
+        this.invalidLines.add(invalidLines);
+        this.bytesRead.add(bytes);
+        this.parseLatency.record(nanos);
+    }
+
+    /**
+     * Records an organize run.
+     *
+     * @param steps         Amount of steps organized.
+     * @param assemblyLines Amount of assembly lines opened.
+     * @param breaks        Amount of breaks written.
+     * @param events        Amount of closing events written.
+     * @param nanos         Duration of the run, in nanoseconds.
+     */
+    public void recordOrganize(int steps, int assemblyLines, long breaks, long events, long nanos) {
+        this.stepsScheduled.add(steps);
+        this.assemblyLines.add(assemblyLines);
+        this.breaks.add(breaks);
+        this.events.add(events);
+        this.organizeLatency.record(nanos);
+    }
+
+    /**
+     * Records bytes of organized assembly lines written.
+     *
+     * @param bytes Amount of bytes written.
+     */
+    public void recordBytesWritten(long bytes) {
+        this.bytesWritten.add(bytes);
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, under {@link PipelineMetrics#OBJECT_NAME}, replacing the
+     * metrics of a previous run in the same JVM.
+     *
+     * @throws IllegalStateException If the MBean can't be registered.
+     */
+    public void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+
+            try {
+                server.registerMBean(this, name);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("The metrics could not be registered.", e);
+        }
+    }
+
+    @Override
+    public long getStepsParsed() {
+        return this.stepsParsed.sum();
+    }
+
+    @Override
+    public long getMaintenanceSteps() {
+        return this.maintenanceSteps.sum();
+    }
+
+    @Override
+    public long getTimedSteps() {
+        return this.stepsParsed.sum() - this.maintenanceSteps.sum();
+    }
+
+    @Override
+    public long getInvalidLines() {
+        return this.invalidLines.sum();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return this.bytesRead.sum();
+    }
+
+    @Override
+    public long getStepsScheduled() {
+        return this.stepsScheduled.sum();
+    }
+
+    @Override
+    public long getAssemblyLines() {
+        return this.assemblyLines.sum();
+    }
+
+    @Override
+    public long getBreaks() {
+        return this.breaks.sum();
+    }
+
+    @Override
+    public long getEvents() {
+        return this.events.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return this.bytesWritten.sum();
+    }
+
+    @Override
+    public double getStepsParsedPerSecond() {
+        long nanos = this.parseLatency.getSum();
+        return nanos == 0 ? 0 : this.getStepsParsed() / (nanos / NANOS_PER_SECOND);
+    }
+
+    @Override
+    public long getParseCount() {
+        return this.parseLatency.getCount();
+    }
+
+    @Override
+    public double getParseP50Millis() {
+        return this.parseLatency.getPercentile(50) / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public double getParseP99Millis() {
+        return this.parseLatency.getPercentile(99) / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public long getOrganizeCount() {
+        return this.organizeLatency.getCount();
+    }
+
+    @Override
+    public double getOrganizeP50Millis() {
+        return this.organizeLatency.getPercentile(50) / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public double getOrganizeP99Millis() {
+        return this.organizeLatency.getPercentile(99) / NANOS_PER_MILLISECOND;
+    }
+
+    /**
+     * Writes all metrics as a single line of JSON, to be read by other programs in the end of a run.
+     *
+     * @return The summary of the metrics.
+     */
+    @Override
+    public String getSummary() {
+        return String.format(Locale.ROOT, "{\"stepsParsed\":%d,\"maintenanceSteps\":%d,\"timedSteps\":%d,"
+                                          + "\"invalidLines\":%d,\"bytesRead\":%d,\"stepsParsedPerSecond\":%.1f,"
+                                          + "\"stepsScheduled\":%d,\"assemblyLines\":%d,\"breaks\":%d,\"events\":%d,"
+                                          + "\"bytesWritten\":%d,\"parse\":%s,\"organize\":%s}",
+                             this.getStepsParsed(), this.getMaintenanceSteps(), this.getTimedSteps(),
+                             this.getInvalidLines(), this.getBytesRead(), this.getStepsParsedPerSecond(),
+                             this.getStepsScheduled(), this.getAssemblyLines(), this.getBreaks(), this.getEvents(),
+                             this.getBytesWritten(), toJson(this.parseLatency), toJson(this.organizeLatency));
+    }
+
+    /**
+     * Writes a histogram as a JSON object, with the times in milliseconds.
+     *
+     * @param histogram Histogram to write.
+     * @return The JSON object.
+     */
+    private static String toJson(LatencyHistogram histogram) {
+        return String.format(Locale.ROOT, "{\"count\":%d,\"totalMillis\":%.3f,\"p50Millis\":%.3f,"
+                                          + "\"p99Millis\":%.3f,\"maxMillis\":%.3f}",
+                             histogram.getCount(), histogram.getSum() / NANOS_PER_MILLISECOND,
+                             histogram.getPercentile(50) / NANOS_PER_MILLISECOND,
+                             histogram.getPercentile(99) / NANOS_PER_MILLISECOND,
+                             histogram.getMax() / NANOS_PER_MILLISECOND);
+    }
+}
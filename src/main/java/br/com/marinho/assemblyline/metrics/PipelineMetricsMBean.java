@@ -0,0 +1,97 @@
+package br.com.marinho.assemblyline.metrics;
+
+/**
+ * JMX interface of the {@link PipelineMetrics}, read by tools such as JConsole or VisualVM while the program runs.
+ */
+public interface PipelineMetricsMBean {
+
+    /**
+     * @return The amount of production steps converted by the parsers.
+     */
+    long getStepsParsed();
+
+    /**
+     * @return The amount of maintenance steps converted by the parsers.
+     */
+    long getMaintenanceSteps();
+
+    /**
+     * @return The amount of steps with a time converted by the parsers.
+     */
+    long getTimedSteps();
+
+    /**
+     * @return The amount of invalid lines skipped by the fail-soft parsers.
+     */
+    long getInvalidLines();
+
+    /**
+     * @return The amount of bytes read by the parsers.
+     */
+    long getBytesRead();
+
+    /**
+     * @return The amount of steps organized into assembly lines.
+     */
+    long getStepsScheduled();
+
+    /**
+     * @return The amount of assembly lines opened.
+     */
+    long getAssemblyLines();
+
+    /**
+     * @return The amount of breaks, such as the lunch, written in the assembly lines.
+     */
+    long getBreaks();
+
+    /**
+     * @return The amount of closing events, such as the gym, written in the assembly lines.
+     */
+    long getEvents();
+
+    /**
+     * @return The amount of bytes of organized assembly lines written.
+     */
+    long getBytesWritten();
+
+    /**
+     * @return The amount of production steps converted per second of parsing.
+     */
+    double getStepsParsedPerSecond();
+
+    /**
+     * @return The amount of parse runs.
+     */
+    long getParseCount();
+
+    /**
+     * @return The median latency of the parse stage, in milliseconds.
+     */
+    double getParseP50Millis();
+
+    /**
+     * @return The 99th percentile latency of the parse stage, in milliseconds.
+     */
+    double getParseP99Millis();
+
+    /**
+     * @return The amount of organize runs.
+     */
+    long getOrganizeCount();
+
+    /**
+     * @return The median latency of the organize stage, in milliseconds.
+     */
+    double getOrganizeP50Millis();
+
+    /**
+     * @return The 99th percentile latency of the organize stage, in milliseconds.
+     */
+    double getOrganizeP99Millis();
+
+    /**
+     * @return The summary of all metrics, in JSON.
+     */
+    String getSummary();
+}
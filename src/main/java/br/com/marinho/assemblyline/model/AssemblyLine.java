@@ -0,0 +1,66 @@
+package br.com.marinho.assemblyline.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One organized assembly line, with its entries in the time order: the production steps and maintenances, the
+ * breaks between the windows and, if the assembly line reached the last window, the closing event.
+ */
+public final class AssemblyLine {
+
+    /** Number of the assembly line, starting at 1. */
+    private final int number;
+
+    /** Entries of the assembly line, in the time order. */
+    private final List<ScheduleEntry> entries;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param number  Number of the assembly line, starting at 1.
+     * @param entries Entries of the assembly line, in the time order. The list is kept, not copied.
+     */
+    public AssemblyLine(int number, List<ScheduleEntry> entries) {
+        this.number = number;
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @return The number of the assembly line, starting at 1.
+     */
+    public int getNumber() {
+        return this.number;
+    }
+
+    /**
+     * @return The entries of the assembly line, in the time order. The list can't be changed.
+     */
+    public List<ScheduleEntry> getEntries() {
+        return this.entries;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof AssemblyLine)) {
+            return false;
+        }
+
+        AssemblyLine line = (AssemblyLine) other;
+        return this.number == line.number && this.entries.equals(line.entries);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.number + this.entries.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Assembly line " + this.number + " " + this.entries;
+    }
+}
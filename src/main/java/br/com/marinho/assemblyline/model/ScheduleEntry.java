@@ -0,0 +1,117 @@
+package br.com.marinho.assemblyline.model;
+
+import java.util.Objects;
+
+/**
+ * One entry of an organized assembly line: a production step, a maintenance, a break between two windows (the lunch,
+ * in the default calendar) or the event that closes the assembly line (the gym, in the default calendar).
+ * The times are minutes since the midnight of the first day, so they keep growing in calendars that cross midnight,
+ * and the end of an entry is never before its start.
+ */
+public final class ScheduleEntry {
+
+    /**
+     * Kinds of entries of an assembly line.
+     */
+    public enum Type {
+
+        /** Production step with a duration in minutes. */
+        STEP,
+
+        /** Maintenance, with the duration of the calendar. */
+        MAINTENANCE,
+
+        /** Break between two windows, lasting until the next window starts. */
+        BREAK,
+
+        /** Event that closes the assembly line. It has no duration, so it ends when it starts. */
+        EVENT
+    }
+
+    /** Kind of the entry. */
+    private final Type type;
+
+    /** Name of the production step, or text of the break or the event. */
+    private final String name;
+
+    /** Start of the entry, in minutes since the midnight of the first day. */
+    private final int start;
+
+    /** End of the entry, in minutes since the midnight of the first day. */
+    private final int end;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param type  Kind of the entry.
+     * @param name  Name of the production step, or text of the break or the event.
+     * @param start Start of the entry, in minutes since the midnight of the first day.
+     * @param end   End of the entry, in minutes since the midnight of the first day.
+     */
+    public ScheduleEntry(Type type, String name, int start, int end) {
+        this.type = type;
+        this.name = name;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return The kind of the entry.
+     */
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * @return The name of the production step, or the text of the break or the event.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return The start of the entry, in minutes since the midnight of the first day.
+     */
+    public int getStart() {
+        return this.start;
+    }
+
+    /**
+     * @return The end of the entry, in minutes since the midnight of the first day.
+     */
+    public int getEnd() {
+        return this.end;
+    }
+
+    /**
+     * @return The duration of the entry, in minutes.
+     */
+    public int getDuration() {
+        return this.end - this.start;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof ScheduleEntry)) {
+            return false;
+        }
+
+        ScheduleEntry entry = (ScheduleEntry) other;
+        return this.type == entry.type && this.start == entry.start && this.end == entry.end
+               && this.name.equals(entry.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.type, this.name, this.start, this.end);
+    }
+
+    @Override
+    public String toString() {
+        return this.type + " " + this.name + " [" + this.start + ", " + this.end + ")";
+    }
+}
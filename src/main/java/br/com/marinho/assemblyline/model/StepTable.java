@@ -0,0 +1,637 @@
+package br.com.marinho.assemblyline.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact table with the production steps in the input order. It's used instead of a {@code Map<String, Integer>}:
+ * the names are kept in an array, indexed by an open addressing hash table of {@code int} values, and the durations
+ * are kept in a parallel {@code int[]}, so there are no boxed values and no hash entries per step.
+ * As in a {@link java.util.LinkedHashMap}, putting a name that is already in the table replaces its duration but
+ * keeps its original position.
+ * Each step also has a priority, used only by the orderings that choose which steps are organized first. Most files
+ * have no priority column, so the priorities are only allocated when a step has a priority other than
+ * {@link StepTable#DEFAULT_PRIORITY}. In the same way, the names of the steps each step must come after are only
+ * allocated when a step has dependencies.
+ * The maintenance steps are marked by a flag, set by the parsers from the maintenance indicator, and not by their
+ * duration, so a step that really takes {@link StepTable#MAINTENANCE_DURATION} minutes isn't taken as a maintenance.
+ */
+public class StepTable {
+
+    /** Priority of the steps without a priority column. */
+    public static final int DEFAULT_PRIORITY = 0;
+
+    /**
+     * Duration kept for the maintenance steps, the one of the original program. The maps of the original program
+     * have no maintenance flag, so it's also the duration that marks a maintenance in them.
+     */
+    public static final int MAINTENANCE_DURATION = 5;
+
+    /** Dependencies of the steps without an after column. */
+    private static final String[] NO_DEPENDENCIES = new String[0];
+
+    /** Capacity used when none is given. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Value of an empty slot in the hash table. */
+    private static final int EMPTY_SLOT = 0;
+
+    /** Odd constant close to 2^32 divided by the golden ratio, used to scatter the hash codes. */
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    /** Names of the production steps, in the input order. */
+    private String[] names;
+
+    /** Durations of the production steps, in minutes, in the same order as {@code names}. */
+    private int[] durations;
+
+    /** Priorities of the production steps, in the same order as {@code names}, or {@code null} if all are default. */
+    private int[] priorities;
+
+    /**
+     * Maintenance flags of the production steps, in the same order as {@code names}, or {@code null} if no step is a
+     * maintenance.
+     */
+    private boolean[] maintenances;
+
+    /**
+     * Names of the steps each production step comes after, in the same order as {@code names}, or {@code null} if no
+     * step has dependencies. A step without dependencies has a {@code null} entry.
+     */
+    private String[][] dependencies;
+
+    /**
+     * Hash table with the positions of the names. Each slot has the position plus one, so {@link #EMPTY_SLOT} can
+     * represent an empty slot. The size is always a power of two and at least twice the amount of steps.
+     */
+    private int[] slots;
+
+    /** Amount of production steps in the table. */
+    private int size;
+
+    /**
+     * Constructor of the class, with the default capacity.
+     */
+    public StepTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor of the class.
+     *
+     * @param capacity Amount of production steps the table can receive before growing.
+     */
+    public StepTable(int capacity) {
+        int initialCapacity = Math.max(capacity, 1);
+        this.names = new String[initialCapacity];
+        this.durations = new int[initialCapacity];
+        this.slots = new int[slotsFor(initialCapacity)];
+    }
+
+    /**
+     * Builds a table with the entries of {@code map}, in its iteration order. As in the original program, the steps
+     * of {@link StepTable#MAINTENANCE_DURATION} minutes are maintenances, since a map can't tell them from the steps
+     * written with that duration, which the parsers keep as timed steps.
+     *
+     * @param map Map with the duration time of the activities mapped by their names.
+     * @return A table with the same production steps.
+     */
+    public static StepTable fromMap(Map<String, Integer> map) {
+        StepTable table = new StepTable(map.size());
+
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            if (entry.getValue() == MAINTENANCE_DURATION) {
+                table.putMaintenance(entry.getKey());
+            } else {
+                table.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * Puts a production step in the table, with the default priority. If the name is already there, only the duration
+     * and the priority are replaced, and the dependencies are dropped.
+     *
+     * @param name     Name of the production step.
+     * @param duration Duration of the production step, in minutes.
+     * @return The position of the production step in the table.
+     */
+    public int put(String name, int duration) {
+        return this.put(name, duration, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Puts a production step in the table, without dependencies, that isn't a maintenance. If the name is already
+     * there, only the duration and the priority are replaced, and the dependencies are dropped.
+     *
+     * @param name     Name of the production step.
+     * @param duration Duration of the production step, in minutes.
+     * @param priority Priority of the production step: the lower, the sooner it's organized by the priority order.
+     * @return The position of the production step in the table.
+     */
+    public int put(String name, int duration, int priority) {
+        return this.put(name, duration, priority, false);
+    }
+
+    /**
+     * Puts a maintenance step in the table, with {@link StepTable#MAINTENANCE_DURATION} and the default priority. If
+     * the name is already there, it becomes a maintenance and its dependencies are dropped.
+     *
+     * @param name Name of the maintenance step.
+     * @return The position of the maintenance step in the table.
+     */
+    public int putMaintenance(String name) {
+        return this.put(name, MAINTENANCE_DURATION, DEFAULT_PRIORITY, true);
+    }
+
+    /**
+     * Puts a production step in the table, without dependencies. If the name is already there, only the duration,
+     * the priority and the maintenance flag are replaced, and the dependencies are dropped.
+     *
+     * @param name        Name of the production step.
+     * @param duration    Duration of the production step, in minutes.
+     * @param priority    Priority of the production step: the lower, the sooner it's organized by the priority order.
+     * @param maintenance {@code true} if the production step is a maintenance.
+     * @return The position of the production step in the table.
+     */
+    public int put(String name, int duration, int priority, boolean maintenance) {
+        int mask = this.slots.length - 1;
+        int slot = hash(name) & mask;
+
+        while (this.slots[slot] != EMPTY_SLOT) {
+            int index = this.slots[slot] - 1;
+
+            if (this.names[index].equals(name)) {
+                this.durations[index] = duration;
+                this.storePriority(index, priority);
+                this.storeMaintenance(index, maintenance);
+                if (this.dependencies != null) {
+                    this.dependencies[index] = null;
+                }
+
+                return index;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        if (this.size == this.names.length) {
+            this.grow();
+            return this.put(name, duration, priority, maintenance);
+        }
+
+        int index = this.size++;
+        this.names[index] = name;
+        this.durations[index] = duration;
+        this.storePriority(index, priority);
+        this.storeMaintenance(index, maintenance);
+        this.slots[slot] = index + 1;
+
+        return index;
+    }
+
+    /**
+     * Puts all production steps of {@code other} in this table, in their order.
+     *
+     * @param other Table with the production steps to put.
+     */
+    public void putAll(StepTable other) {
+        for (int i = 0; i < other.size; i++) {
+            int index = this.put(other.names[i], other.durations[i], other.getPriority(i), other.isMaintenance(i));
+
+            if (other.dependencies != null && other.dependencies[i] != null) {
+                this.setDependencies(index, other.dependencies[i]);
+            }
+        }
+    }
+
+    /**
+     * Inserts a production step at {@code index}, moving the following ones one position forward. The step isn't a
+     * maintenance.
+     *
+     * @param index    Position of the new production step, between 0 and the size of the table.
+     * @param name     Name of the production step.
+     * @param duration Duration of the production step, in minutes.
+     * @throws IllegalArgumentException If the name is already in the table.
+     */
+    public void insert(int index, String name, int duration) {
+        this.insert(index, name, duration, false);
+    }
+
+    /**
+     * Inserts a maintenance step at {@code index}, with {@link StepTable#MAINTENANCE_DURATION}, moving the following
+     * ones one position forward.
+     *
+     * @param index Position of the new maintenance step, between 0 and the size of the table.
+     * @param name  Name of the maintenance step.
+     * @throws IllegalArgumentException If the name is already in the table.
+     */
+    public void insertMaintenance(int index, String name) {
+        this.insert(index, name, MAINTENANCE_DURATION, true);
+    }
+
+    /**
+     * Inserts a production step at {@code index}, moving the following ones one position forward.
+     *
+     * @param index       Position of the new production step, between 0 and the size of the table.
+     * @param name        Name of the production step.
+     * @param duration    Duration of the production step, in minutes.
+     * @param maintenance {@code true} if the production step is a maintenance.
+     * @throws IllegalArgumentException If the name is already in the table.
+     */
+    private void insert(int index, String name, int duration, boolean maintenance) {
+        if (index < 0 || index > this.size) {
+            throw new IndexOutOfBoundsException("Position " + index + " of a table with " + this.size + " steps.");
+        }
+
+        if (this.indexOf(name) != -1) {
+            throw new IllegalArgumentException("The production step " + name + " is already in the table.");
+        }
+
+        if (this.size == this.names.length) {
+            this.grow();
+        }
+
+        System.arraycopy(this.names, index, this.names, index + 1, this.size - index);
+        System.arraycopy(this.durations, index, this.durations, index + 1, this.size - index);
+        if (this.priorities != null) {
+            System.arraycopy(this.priorities, index, this.priorities, index + 1, this.size - index);
+            this.priorities[index] = DEFAULT_PRIORITY;
+        }
+
+        if (this.maintenances != null) {
+            System.arraycopy(this.maintenances, index, this.maintenances, index + 1, this.size - index);
+            this.maintenances[index] = false;
+        }
+
+        this.storeMaintenance(index, maintenance);
+
+        if (this.dependencies != null) {
+            System.arraycopy(this.dependencies, index, this.dependencies, index + 1, this.size - index);
+            this.dependencies[index] = null;
+        }
+
+        this.names[index] = name;
+        this.durations[index] = duration;
+        this.size++;
+
+        // Positions from index onwards moved forward
+        for (int i = 0; i < this.slots.length; i++) {
+            if (this.slots[i] > index) {
+                this.slots[i]++;
+            }
+        }
+
+        int mask = this.slots.length - 1;
+        int slot = hash(name) & mask;
+        while (this.slots[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+
+        this.slots[slot] = index + 1;
+    }
+
+    /**
+     * Removes the production step at {@code index}, moving the following ones one position back.
+     *
+     * @param index Position of the production step.
+     */
+    public void remove(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Position " + index + " of a table with " + this.size + " steps.");
+        }
+
+        int mask = this.slots.length - 1;
+        int emptied = hash(this.names[index]) & mask;
+        while (this.slots[emptied] != index + 1) {
+            emptied = (emptied + 1) & mask;
+        }
+
+        // Moves back the following slots of the cluster that would not be found after the slot is emptied
+        int slot = emptied;
+        while (this.slots[slot = (slot + 1) & mask] != EMPTY_SLOT) {
+            int home = hash(this.names[this.slots[slot] - 1]) & mask;
+
+            if (((slot - home) & mask) >= ((slot - emptied) & mask)) {
+                this.slots[emptied] = this.slots[slot];
+                emptied = slot;
+            }
+        }
+
+        this.slots[emptied] = EMPTY_SLOT;
+
+        // Positions after index moved back
+        for (int i = 0; i < this.slots.length; i++) {
+            if (this.slots[i] > index + 1) {
+                this.slots[i]--;
+            }
+        }
+
+        System.arraycopy(this.names, index + 1, this.names, index, this.size - index - 1);
+        System.arraycopy(this.durations, index + 1, this.durations, index, this.size - index - 1);
+        if (this.priorities != null) {
+            System.arraycopy(this.priorities, index + 1, this.priorities, index, this.size - index - 1);
+            this.priorities[this.size - 1] = DEFAULT_PRIORITY;
+        }
+
+        if (this.maintenances != null) {
+            System.arraycopy(this.maintenances, index + 1, this.maintenances, index, this.size - index - 1);
+            this.maintenances[this.size - 1] = false;
+        }
+
+        if (this.dependencies != null) {
+            System.arraycopy(this.dependencies, index + 1, this.dependencies, index, this.size - index - 1);
+            this.dependencies[this.size - 1] = null;
+        }
+
+        this.size--;
+        this.names[this.size] = null;
+    }
+
+    /**
+     * Finds the position of a production step.
+     *
+     * @param name Name of the production step.
+     * @return The position of the production step, or -1 if it isn't in the table.
+     */
+    public int indexOf(String name) {
+        int mask = this.slots.length - 1;
+        int slot = hash(name) & mask;
+
+        while (this.slots[slot] != EMPTY_SLOT) {
+            int index = this.slots[slot] - 1;
+
+            if (this.names[index].equals(name)) {
+                return index;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return The amount of production steps in the table.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param index Position of the production step.
+     * @return The name of the production step.
+     */
+    public String getName(int index) {
+        return this.names[index];
+    }
+
+    /**
+     * @param index Position of the production step.
+     * @return The duration of the production step, in minutes.
+     */
+    public int getDuration(int index) {
+        return this.durations[index];
+    }
+
+    /**
+     * Replaces the duration of a production step. A maintenance step stops being a maintenance, as its duration is
+     * now given in minutes.
+     *
+     * @param index    Position of the production step.
+     * @param duration Duration of the production step, in minutes.
+     */
+    public void setDuration(int index, int duration) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Position " + index + " of a table with " + this.size + " steps.");
+        }
+
+        this.durations[index] = duration;
+        this.storeMaintenance(index, false);
+    }
+
+    /**
+     * @param index Position of the production step.
+     * @return {@code true} if the production step is a maintenance, whose duration in the clock is the maintenance
+     * duration of the calendar.
+     */
+    public boolean isMaintenance(int index) {
+        return this.maintenances != null && this.maintenances[index];
+    }
+
+    /**
+     * @return {@code true} if any production step is a maintenance.
+     */
+    public boolean hasMaintenances() {
+        if (this.maintenances != null) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.maintenances[i]) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param index Position of the production step.
+     * @return The priority of the production step.
+     */
+    public int getPriority(int index) {
+        return this.priorities == null ? DEFAULT_PRIORITY : this.priorities[index];
+    }
+
+    /**
+     * Replaces the priority of a production step.
+     *
+     * @param index    Position of the production step.
+     * @param priority Priority of the production step: the lower, the sooner it's organized by the priority order.
+     */
+    public void setPriority(int index, int priority) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Position " + index + " of a table with " + this.size + " steps.");
+        }
+
+        this.storePriority(index, priority);
+    }
+
+    /**
+     * @return {@code true} if any production step has a priority other than the default one.
+     */
+    public boolean hasPriorities() {
+        if (this.priorities != null) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.priorities[i] != DEFAULT_PRIORITY) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param index Position of the production step.
+     * @return The names of the steps that must come before the production step, empty if there is none.
+     */
+    public String[] getDependencies(int index) {
+        if (this.dependencies == null || this.dependencies[index] == null) {
+            return NO_DEPENDENCIES;
+        }
+
+        return this.dependencies[index];
+    }
+
+    /**
+     * Replaces the dependencies of a production step. The names are only checked when the steps are ordered, as a
+     * step can depend on one that comes later in the file.
+     *
+     * @param index        Position of the production step.
+     * @param dependencies Names of the steps that must come before the production step.
+     */
+    public void setDependencies(int index, String[] dependencies) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Position " + index + " of a table with " + this.size + " steps.");
+        }
+
+        if (this.dependencies == null) {
+            if (dependencies.length == 0) {
+                return;
+            }
+
+            this.dependencies = new String[this.names.length][];
+        }
+
+        this.dependencies[index] = dependencies.length == 0 ? null : dependencies;
+    }
+
+    /**
+     * @return {@code true} if any production step has dependencies.
+     */
+    public boolean hasDependencies() {
+        if (this.dependencies != null) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.dependencies[i] != null) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Builds a {@link HashMap} with the production steps. The names are put in the table order, so the map is the
+     * same, including the iteration order, as one filled directly while reading the input. The maintenance steps
+     * have {@link StepTable#MAINTENANCE_DURATION}, as in the original program.
+     *
+     * @return A {@link HashMap} with the duration time of the activities mapped by their names.
+     */
+    public Map<String, Integer> toMap() {
+        Map<String, Integer> map = new HashMap<>();
+
+        for (int i = 0; i < this.size; i++) {
+            map.put(this.names[i], this.durations[i]);
+        }
+
+        return map;
+    }
+
+    /**
+     * Stores the priority of a production step, allocating the priorities only for the first one that isn't the
+     * default.
+     *
+     * @param index    Position of the production step.
+     * @param priority Priority of the production step.
+     */
+    private void storePriority(int index, int priority) {
+        if (this.priorities == null) {
+            if (priority == DEFAULT_PRIORITY) {
+                return;
+            }
+
+            this.priorities = new int[this.names.length];
+        }
+
+        this.priorities[index] = priority;
+    }
+
+    /**
+     * Stores the maintenance flag of a production step, allocating the flags only for the first maintenance.
+     *
+     * @param index       Position of the production step.
+     * @param maintenance {@code true} if the production step is a maintenance.
+     */
+    private void storeMaintenance(int index, boolean maintenance) {
+        if (this.maintenances == null) {
+            if (!maintenance) {
+                return;
+            }
+
+            this.maintenances = new boolean[this.names.length];
+        }
+
+        this.maintenances[index] = maintenance;
+    }
+
+    /**
+     * Doubles the capacity of the table, rebuilding the hash table.
+     */
+    private void grow() {
+        int capacity = this.names.length * 2;
+        this.names = Arrays.copyOf(this.names, capacity);
+        this.durations = Arrays.copyOf(this.durations, capacity);
+        if (this.priorities != null) {
+            this.priorities = Arrays.copyOf(this.priorities, capacity);
+        }
+
+        if (this.maintenances != null) {
+            this.maintenances = Arrays.copyOf(this.maintenances, capacity);
+        }
+
+        if (this.dependencies != null) {
+            this.dependencies = Arrays.copyOf(this.dependencies, capacity);
+        }
+
+        this.slots = new int[slotsFor(capacity)];
+
+        int mask = this.slots.length - 1;
+        for (int i = 0; i < this.size; i++) {
+            int slot = hash(this.names[i]) & mask;
+
+            while (this.slots[slot] != EMPTY_SLOT) {
+                slot = (slot + 1) & mask;
+            }
+
+            this.slots[slot] = i + 1;
+        }
+    }
+
+    /**
+     * Calculates the size of the hash table for a capacity: the first power of two bigger than twice the capacity.
+     *
+     * @param capacity Amount of production steps the table can receive.
+     * @return The size of the hash table.
+     */
+    private static int slotsFor(int capacity) {
+        return Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1) << 1;
+    }
+
+    /**
+     * Spreads the bits of the name hash code, so names with close hash codes don't fall in consecutive slots. The
+     * hash codes of short names, as "Step ab" and "Step ac", fill a narrow and dense range: only folding the high bits,
+     * as done in {@link HashMap}, keeps them side by side, and the linear probing turns the range into a single
+     * cluster. Multiplying by {@link StepTable#HASH_MULTIPLIER} first scatters them through the whole table.
+     *
+     * @param name Name of the production step.
+     * @return The spread hash code.
+     */
+    private static int hash(String name) {
+        int hashCode = name.hashCode() * HASH_MULTIPLIER;
+        return hashCode ^ (hashCode >>> 16);
+    }
+}
@@ -0,0 +1,166 @@
+package br.com.marinho.assemblyline.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Aggregate statistics of a {@link BatchScheduler} run: the plants organized, the ones that failed and the time spent
+ * in each stage of the pipeline. The time of each plant is its parse time plus its organize time, without the time
+ * waiting between the stages.
+ */
+public class BatchReport {
+
+    /** Value used to convert nanoseconds into milliseconds. */
+    private static final double NANOS_PER_MILLISECOND = 1_000_000.0;
+
+    /** Value used to convert nanoseconds into seconds. */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /** Problem of each plant that failed, mapped by its step file. */
+    private final Map<String, String> failures = new LinkedHashMap<>();
+
+    /** Time, in nanoseconds, of each plant organized. */
+    private long[] plantNanos;
+
+    /** Amount of plants organized. */
+    private int plants;
+
+    /** Amount of production steps of the plants organized. */
+    private long steps;
+
+    /** Sum of the parse times, in nanoseconds. */
+    private long parseNanos;
+
+    /** Sum of the organize times, in nanoseconds. */
+    private long organizeNanos;
+
+    /** Wall time of the batch, in nanoseconds. */
+    private long elapsedNanos;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param expectedPlants Amount of plants of the batch.
+     */
+    BatchReport(int expectedPlants) {
+        this.plantNanos = new long[Math.max(expectedPlants, 1)];
+    }
+
+    /**
+     * Adds a plant that was organized.
+     *
+     * @param plantSteps         Amount of production steps of the plant.
+     * @param plantParseNanos    Time spent reading and converting the file.
+     * @param plantOrganizeNanos Time spent organizing and writing the assembly lines.
+     */
+    void addPlant(int plantSteps, long plantParseNanos, long plantOrganizeNanos) {
+        if (this.plants == this.plantNanos.length) {
+            this.plantNanos = Arrays.copyOf(this.plantNanos, this.plants * 2);
+        }
+
+        this.plantNanos[this.plants++] = plantParseNanos + plantOrganizeNanos;
+        this.steps += plantSteps;
+        this.parseNanos += plantParseNanos;
+        this.organizeNanos += plantOrganizeNanos;
+    }
+
+    /**
+     * Adds a plant that couldn't be organized.
+     *
+     * @param input Step file of the plant.
+     * @param error Problem of the plant.
+     */
+    void addFailure(String input, String error) {
+        this.failures.put(input, error);
+    }
+
+    /**
+     * @param elapsedNanos Wall time of the batch, in nanoseconds.
+     */
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return The amount of plants organized.
+     */
+    public int getPlants() {
+        return this.plants;
+    }
+
+    /**
+     * @return The problem of each plant that failed, mapped by its step file.
+     */
+    public Map<String, String> getFailures() {
+        return Collections.unmodifiableMap(this.failures);
+    }
+
+    /**
+     * @return The amount of production steps of the plants organized.
+     */
+    public long getSteps() {
+        return this.steps;
+    }
+
+    /**
+     * @return The wall time of the batch, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * @return The sum of the parse times, in nanoseconds.
+     */
+    public long getParseNanos() {
+        return this.parseNanos;
+    }
+
+    /**
+     * @return The sum of the organize times, in nanoseconds.
+     */
+    public long getOrganizeNanos() {
+        return this.organizeNanos;
+    }
+
+    /**
+     * Gets a percentile of the time of the plants organized.
+     *
+     * @param percentile Percentile, from 0 to 100.
+     * @return The time, in nanoseconds, or 0 if no plant was organized.
+     */
+    public long getPlantNanosPercentile(double percentile) {
+        if (this.plants == 0) {
+            return 0;
+        }
+
+        long[] sorted = Arrays.copyOf(this.plantNanos, this.plants);
+        Arrays.sort(sorted);
+
+        int position = (int) Math.ceil(percentile / 100 * this.plants) - 1;
+        return sorted[Math.min(Math.max(position, 0), this.plants - 1)];
+    }
+
+    /**
+     * Writes the summary of the batch, as in "Plants: 3000 (failed: 0), steps: ..., elapsed: ...".
+     *
+     * @return The summary of the batch.
+     */
+    @Override
+    public String toString() {
+        double elapsedSeconds = this.elapsedNanos / NANOS_PER_SECOND;
+
+        return String.format(Locale.ROOT, "Plants: %d (failed: %d), steps: %d, elapsed: %.1f ms (%.1f plants/s), "
+                                          + "parse: %.1f ms, organize: %.1f ms, plant time p50/p99/max: "
+                                          + "%.2f/%.2f/%.2f ms",
+                             this.plants, this.failures.size(), this.steps, this.elapsedNanos / NANOS_PER_MILLISECOND,
+                             elapsedSeconds > 0 ? this.plants / elapsedSeconds : 0.0,
+                             this.parseNanos / NANOS_PER_MILLISECOND, this.organizeNanos / NANOS_PER_MILLISECOND,
+                             this.getPlantNanosPercentile(50) / NANOS_PER_MILLISECOND,
+                             this.getPlantNanosPercentile(99) / NANOS_PER_MILLISECOND,
+                             this.getPlantNanosPercentile(100) / NANOS_PER_MILLISECOND);
+    }
+}
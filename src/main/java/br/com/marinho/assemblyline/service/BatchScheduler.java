@@ -0,0 +1,270 @@
+package br.com.marinho.assemblyline.service;
+
+import br.com.marinho.assemblyline.metrics.PipelineMetrics;
+import br.com.marinho.assemblyline.model.StepTable;
+import br.com.marinho.assemblyline.utils.MappedFileLineUtils;
+import br.com.marinho.assemblyline.utils.NameTable;
+import br.com.marinho.assemblyline.utils.Organizer;
+import br.com.marinho.assemblyline.utils.ShiftCalendar;
+import br.com.marinho.assemblyline.utils.StepFormatException;
+import br.com.marinho.assemblyline.utils.StepOrder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Organizes the assembly lines of many plants in one JVM, one step file per plant. The work is a pipeline of two
+ * bounded pools: the parse pool maps and converts the files while the organize pool builds and writes the assembly
+ * lines of the files already parsed, so the disk reads overlap with the organization. The amount of plants between
+ * the two stages is limited, so only a few step tables are kept in memory, whatever the amount of files.
+ * The assembly lines of each plant are written to a file with the same name in the output directory. A plant with an
+ * invalid file, or whose organization fails in any other way, is reported in the {@link BatchReport} and doesn't stop
+ * the others.
+ * The parse threads share a {@link NameTable} for the whole batch, so a step name repeated in many plants is decoded
+ * once and all their tables keep the same string.
+ */
+public class BatchScheduler {
+
+    /** Amount of plants kept between the stages for each organize thread. */
+    private static final int PLANTS_PER_THREAD = 2;
+
+    /** Amount of threads reading and converting the step files. */
+    private final int parseThreads;
+
+    /** Amount of threads organizing and writing the assembly lines. */
+    private final int organizeThreads;
+
+    /** Organizer shared by the plants. It has no state, so it can be used by several threads. */
+    private final Organizer organizer;
+
+    /** Calendar of the assembly lines, used to order the steps with dependencies. */
+    private final ShiftCalendar calendar;
+
+    /** Metrics of the plants, or {@code null} if they are disabled. */
+    private final PipelineMetrics metrics;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param parseThreads    Amount of threads reading and converting the step files.
+     * @param organizeThreads Amount of threads organizing and writing the assembly lines.
+     * @param calendar        Calendar of the assembly lines.
+     */
+    public BatchScheduler(int parseThreads, int organizeThreads, ShiftCalendar calendar) {
+        this(parseThreads, organizeThreads, calendar, null);
+    }
+
+    /**
+     * Same as {@link BatchScheduler#BatchScheduler(int, int, ShiftCalendar)}, but each plant is recorded in
+     * {@code metrics}.
+     *
+     * @param parseThreads    Amount of threads reading and converting the step files.
+     * @param organizeThreads Amount of threads organizing and writing the assembly lines.
+     * @param calendar        Calendar of the assembly lines.
+     * @param metrics         Metrics of the plants, or {@code null} to disable them.
+     */
+    public BatchScheduler(int parseThreads, int organizeThreads, ShiftCalendar calendar, PipelineMetrics metrics) {
+        this.parseThreads = parseThreads;
+        this.organizeThreads = organizeThreads;
+        this.organizer = new Organizer(calendar, metrics);
+        this.calendar = calendar;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Lists the step files of a batch. If {@code source} is a directory, every file in it is a plant, in the order of
+     * their names. Otherwise, it's a manifest with the path of one step file per line, relative to the manifest
+     * directory. Empty lines and lines starting with "#" are ignored.
+     *
+     * @param source Directory with the step files or manifest.
+     * @return The step files, one per plant.
+     * @throws IOException If there is a problem while reading the directory or the manifest.
+     */
+    public static List<File> listInputs(File source) throws IOException {
+        List<File> inputs = new ArrayList<>();
+
+        if (source.isDirectory()) {
+            try (Stream<Path> paths = Files.list(source.toPath())) {
+                paths.filter(Files::isRegularFile).sorted().forEach(path -> inputs.add(path.toFile()));
+            }
+            return inputs;
+        }
+
+        Path manifestDirectory = source.getAbsoluteFile().toPath().getParent();
+        List<String> lines = Files.readAllLines(source.toPath(), StandardCharsets.UTF_8);
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                inputs.add(manifestDirectory.resolve(line).toFile());
+            }
+        }
+
+        return inputs;
+    }
+
+    /**
+     * Organizes the assembly lines of every plant, writing each one to {@code outputDirectory}.
+     *
+     * @param inputs          Step files, one per plant. Their names must be unique, as they name the outputs.
+     * @param outputDirectory Directory receiving the assembly lines, created if necessary.
+     * @return The report of the batch.
+     * @throws IOException              If the output directory can't be created.
+     * @throws IllegalArgumentException If two step files have the same name.
+     */
+    public BatchReport run(List<File> inputs, File outputDirectory) throws IOException {
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            if (!names.add(inputs.get(i).getName())) {
+                throw new IllegalArgumentException("There are two step files named " + inputs.get(i).getName()
+                                                   + " in the batch.");
+            }
+        }
+
+        Files.createDirectories(outputDirectory.toPath());
+
+        NameTable stepNames = new NameTable();
+        ExecutorService parsePool = Executors.newFixedThreadPool(this.parseThreads);
+        ExecutorService organizePool = Executors.newFixedThreadPool(this.organizeThreads);
+        Semaphore pendingPlants = new Semaphore(this.parseThreads + this.organizeThreads * PLANTS_PER_THREAD);
+        List<CompletableFuture<PlantResult>> results = new ArrayList<>(inputs.size());
+        long start = System.nanoTime();
+
+        try {
+            for (int i = 0; i < inputs.size(); i++) {
+                File input = inputs.get(i);
+                File output = new File(outputDirectory, input.getName());
+
+                // Waits for a plant to finish, so the parsed tables don't pile up before the organize stage
+                pendingPlants.acquire();
+                results.add(CompletableFuture.supplyAsync(() -> this.parse(input, stepNames), parsePool)
+                                             .thenApplyAsync(result -> this.organize(result, output), organizePool)
+                                             .whenComplete((result, e) -> pendingPlants.release()));
+            }
+
+            BatchReport report = new BatchReport(inputs.size());
+            for (int i = 0; i < results.size(); i++) {
+                PlantResult result = results.get(i).join();
+
+                if (result.error == null) {
+                    report.addPlant(result.steps, result.parseNanos, result.organizeNanos);
+                } else {
+                    report.addFailure(inputs.get(i).getPath(), result.error);
+                }
+            }
+
+            report.setElapsedNanos(System.nanoTime() - start);
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The batch was interrupted.", e);
+        } finally {
+            parsePool.shutdown();
+            organizePool.shutdown();
+        }
+    }
+
+    /**
+     * First stage of the pipeline: maps the step file, in windows, and converts it into a step table, ordered by the
+     * dependencies of the steps if they have an after column.
+     *
+     * @param input Step file of the plant.
+     * @param names Table with the step names of the batch.
+     * @return The result with the step table, or with the error if the file isn't valid.
+     */
+    private PlantResult parse(File input, NameTable names) {
+        PlantResult result = new PlantResult();
+        long start = System.nanoTime();
+
+        try {
+            result.table = MappedFileLineUtils.getStepTable(input, null, names);
+            result.steps = result.table.size();
+
+            if (result.table.hasDependencies()) {
+                result.table = StepOrder.byDependencies(result.table, this.calendar);
+            }
+
+            if (this.metrics != null) {
+                this.metrics.recordParse(result.table, 0, input.length(), System.nanoTime() - start);
+            }
+        } catch (IOException e) {
+            result.error = "The file could not be read.";
+        } catch (StepFormatException | NumberFormatException e) {
+            result.error = e.getMessage();
+        } catch (RuntimeException e) {
+            // Any other problem only fails this plant, instead of the join of the whole batch
+            result.table = null;
+            result.error = "The file could not be converted: " + e + ".";
+        }
+
+        result.parseNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Second stage of the pipeline: organizes the step table and writes the assembly lines.
+     *
+     * @param result Result of the first stage.
+     * @param output File receiving the assembly lines.
+     * @return The same result, with the organization time or the error.
+     */
+    private PlantResult organize(PlantResult result, File output) {
+        if (result.error != null) {
+            return result;
+        }
+
+        long start = System.nanoTime();
+
+        try (Writer writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8)) {
+            this.organizer.organize(result.table, writer);
+        } catch (IOException e) {
+            result.error = "The assembly lines could not be written to " + output + ".";
+        } catch (RuntimeException e) {
+            result.error = "The assembly lines could not be organized: " + e + ".";
+        }
+
+        if (this.metrics != null && result.error == null) {
+            this.metrics.recordBytesWritten(output.length());
+        }
+
+        // The table isn't needed anymore, so it can be collected while the report is built
+        result.table = null;
+        result.organizeNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Result of one plant, passed from one stage of the pipeline to the next one.
+     */
+    private static final class PlantResult {
+
+        /** Step table of the plant, kept only between the stages. */
+        private StepTable table;
+
+        /** Amount of production steps of the plant. */
+        private int steps;
+
+        /** Time, in nanoseconds, spent reading and converting the file. */
+        private long parseNanos;
+
+        /** Time, in nanoseconds, spent organizing and writing the assembly lines. */
+        private long organizeNanos;
+
+        /** Problem of the plant, or {@code null} if it was organized. */
+        private String error;
+    }
+}
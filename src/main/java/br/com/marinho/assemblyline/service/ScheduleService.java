@@ -0,0 +1,269 @@
+package br.com.marinho.assemblyline.service;
+
+import br.com.marinho.assemblyline.metrics.PipelineMetrics;
+import br.com.marinho.assemblyline.model.StepTable;
+import br.com.marinho.assemblyline.utils.MappedFileLineUtils;
+import br.com.marinho.assemblyline.utils.NameTable;
+import br.com.marinho.assemblyline.utils.Organizer;
+import br.com.marinho.assemblyline.utils.ShiftCalendar;
+import br.com.marinho.assemblyline.utils.StepFormatException;
+import br.com.marinho.assemblyline.utils.StepOrder;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-running service that organizes assembly lines received through a local socket, so the JVM startup is paid
+ * once and the parser and the {@link Organizer} stay compiled by the JIT between the jobs.
+ * Each connection is a job: the client sends the production step lines, in the same format as the input file, and
+ * closes its output. The service answers with a status line, {@code OK} followed by the organized assembly lines, or
+ * {@code ERROR} followed by the problem, and closes the connection. An invalid job doesn't stop the service.
+ * A job is kept in memory while it's organized, so the jobs bigger than the maximum size of the service are
+ * discarded while they are received and answered with {@code ERROR}.
+ */
+public class ScheduleService implements Closeable {
+
+    /** Status line of a job that was organized. */
+    static final String OK_STATUS = "OK\n";
+
+    /** Status prefix of a job that couldn't be organized. */
+    static final String ERROR_STATUS = "ERROR ";
+
+    /** Maximum time, in milliseconds, waiting for the client bytes. */
+    private static final int READ_TIMEOUT = 30_000;
+
+    /** Amount of pending connections kept by the server socket. */
+    private static final int BACKLOG = 128;
+
+    /** Default maximum size of a job, in bytes: 64MB, some hundreds of thousands of production steps. */
+    static final int DEFAULT_MAX_JOB_SIZE = 64 << 20;
+
+    /** Size of the first buffer of a job, grown while its bytes arrive. */
+    private static final int FIRST_BUFFER_SIZE = 8192;
+
+    /** Largest array the JVMs can allocate. */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /** Maximum amount of step names kept between the jobs, so a service receiving new names doesn't grow forever. */
+    private static final int MAX_STEP_NAMES = 1 << 20;
+
+    /** Organizer shared by the jobs. It has no state, so it can be used by several threads. */
+    private final Organizer organizer;
+
+    /** Calendar of the assembly lines, used to order the steps with dependencies. */
+    private final ShiftCalendar calendar;
+
+    /** Metrics of the jobs, or {@code null} if they are disabled. */
+    private final PipelineMetrics metrics;
+
+    /** Step names of the jobs, shared by the workers, so the names sent in every job are only decoded once. */
+    private final NameTable stepNames = new NameTable(MAX_STEP_NAMES);
+
+    /** Maximum size of a job, in bytes. */
+    private final int maxJobSize;
+
+    /** Server socket, listening only on the loopback address. */
+    private final ServerSocket serverSocket;
+
+    /** Threads that run the jobs. */
+    private final ExecutorService workers;
+
+    /**
+     * Constructor of the class. The socket is bound here, but the connections are only accepted by
+     * {@link ScheduleService#serve()}.
+     *
+     * @param port    Port of the service, or 0 to use any free port.
+     * @param threads Amount of jobs run at the same time.
+     * @throws IOException If the port can't be bound.
+     */
+    public ScheduleService(int port, int threads) throws IOException {
+        this(port, threads, ShiftCalendar.DEFAULT);
+    }
+
+    /**
+     * Same as {@link ScheduleService#ScheduleService(int, int)}, but the assembly lines follow the given calendar.
+     *
+     * @param port     Port of the service, or 0 to use any free port.
+     * @param threads  Amount of jobs run at the same time.
+     * @param calendar Calendar of the assembly lines.
+     * @throws IOException If the port can't be bound.
+     */
+    public ScheduleService(int port, int threads, ShiftCalendar calendar) throws IOException {
+        this(port, threads, calendar, null);
+    }
+
+    /**
+     * Same as {@link ScheduleService#ScheduleService(int, int, ShiftCalendar)}, but each job is recorded in
+     * {@code metrics}.
+     *
+     * @param port     Port of the service, or 0 to use any free port.
+     * @param threads  Amount of jobs run at the same time.
+     * @param calendar Calendar of the assembly lines.
+     * @param metrics  Metrics of the jobs, or {@code null} to disable them.
+     * @throws IOException If the port can't be bound.
+     */
+    public ScheduleService(int port, int threads, ShiftCalendar calendar, PipelineMetrics metrics)
+            throws IOException {
+        this(port, threads, calendar, metrics, DEFAULT_MAX_JOB_SIZE);
+    }
+
+    /**
+     * Same as {@link ScheduleService#ScheduleService(int, int, ShiftCalendar, PipelineMetrics)}, but the jobs bigger
+     * than {@code maxJobSize} are answered with {@code ERROR} instead of the default maximum size of 64MB.
+     *
+     * @param port       Port of the service, or 0 to use any free port.
+     * @param threads    Amount of jobs run at the same time.
+     * @param calendar   Calendar of the assembly lines.
+     * @param metrics    Metrics of the jobs, or {@code null} to disable them.
+     * @param maxJobSize Maximum size of a job, in bytes.
+     * @throws IOException              If the port can't be bound.
+     * @throws IllegalArgumentException If {@code maxJobSize} is less than 1 or too big for an array.
+     */
+    public ScheduleService(int port, int threads, ShiftCalendar calendar, PipelineMetrics metrics, int maxJobSize)
+            throws IOException {
+        if (maxJobSize < 1 || maxJobSize >= MAX_ARRAY_SIZE) {
+            throw new IllegalArgumentException("The maximum size of a job must be between 1 and "
+                                               + (MAX_ARRAY_SIZE - 1) + " bytes, not " + maxJobSize + ".");
+        }
+
+        this.maxJobSize = maxJobSize;
+        this.metrics = metrics;
+        this.organizer = new Organizer(calendar, metrics);
+        this.calendar = calendar;
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        this.workers = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Gets the port where the service is listening, useful when it was created with the port 0.
+     *
+     * @return The port of the service.
+     */
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the service is closed, running each job in one of the worker threads.
+     *
+     * @throws IOException If there is a problem while accepting a connection.
+     */
+    public void serve() throws IOException {
+        while (!this.serverSocket.isClosed()) {
+            Socket socket;
+
+            try {
+                socket = this.serverSocket.accept();
+            } catch (SocketException e) {
+                if (this.serverSocket.isClosed()) {
+                    return;
+                }
+
+                throw e;
+            }
+
+            this.workers.execute(() -> this.runJob(socket));
+        }
+    }
+
+    /**
+     * Stops accepting connections. The jobs already received are finished.
+     *
+     * @throws IOException If there is a problem while closing the server socket.
+     */
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        this.workers.shutdown();
+    }
+
+    /**
+     * Runs the job of a connection: reads the production steps, organizes them and writes the answer.
+     *
+     * @param socket Connection of the job.
+     */
+    private void runJob(Socket socket) {
+        try (Socket connection = socket) {
+            connection.setSoTimeout(READ_TIMEOUT);
+            ByteBuffer content = readAll(connection.getInputStream(), this.maxJobSize);
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8));
+
+            if (content == null) {
+                writer.write(ERROR_STATUS + "The job has more than " + this.maxJobSize + " bytes.\n");
+                writer.flush();
+                return;
+            }
+
+            try {
+                long start = System.nanoTime();
+                StepTable table = MappedFileLineUtils.getStepTable(content, null, this.stepNames);
+
+                if (this.metrics != null) {
+                    this.metrics.recordParse(table, 0, content.limit(), System.nanoTime() - start);
+                }
+
+                if (table.hasDependencies()) {
+                    table = StepOrder.byDependencies(table, this.calendar);
+                }
+
+                writer.write(OK_STATUS);
+                this.organizer.organize(table, writer);
+            } catch (StepFormatException | NumberFormatException e) {
+                writer.write(ERROR_STATUS + e.getMessage() + "\n");
+            }
+
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("There was a problem in a connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the bytes of the stream until its end. When there are more than {@code maxSize} bytes, the rest of them
+     * is read and discarded, so the client receives the answer instead of a reset connection.
+     *
+     * @param input   Stream of the connection.
+     * @param maxSize Maximum amount of bytes kept.
+     * @return A buffer with the bytes, or {@code null} if there were more than {@code maxSize} of them.
+     * @throws IOException If there is a problem while reading.
+     */
+    private static ByteBuffer readAll(InputStream input, int maxSize) throws IOException {
+        // One byte more than the maximum is kept, so a job with exactly the maximum size is accepted
+        int limit = maxSize + 1;
+        byte[] bytes = new byte[Math.min(FIRST_BUFFER_SIZE, limit)];
+        int length = 0;
+        int read;
+
+        while ((read = input.read(bytes, length, bytes.length - length)) != -1) {
+            length += read;
+
+            if (length > maxSize) {
+                while (input.read(bytes) != -1) {
+                    // The bytes after the maximum are discarded
+                }
+
+                return null;
+            }
+
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(bytes.length * 2L, limit));
+            }
+        }
+
+        return ByteBuffer.wrap(bytes, 0, length);
+    }
+}
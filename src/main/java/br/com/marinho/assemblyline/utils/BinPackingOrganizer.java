@@ -0,0 +1,453 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Class responsible for organizing the activities into the smallest amount of assembly lines it can find.
+ * Different from {@link Organizer}, that fills the assembly lines in the activities order, the activities are seen as
+ * items of a bin packing problem: each assembly line has two bins, the morning period (09:00 to 12:00, an activity can
+ * finish exactly at noon) and the afternoon period (13:00 to 17:00, an activity must finish before 17h).
+ * The activities are packed with the best-fit decreasing heuristic and, for a few activities, an exact branch and
+ * bound search looks for a packing with less assembly lines.
+ * The assembly lines are written in the same format as in {@link Organizer}. Activities longer than an afternoon
+ * period don't fit in any bin, so each one has an assembly line of its own, starting at 09:00.
+ */
+public class BinPackingOrganizer {
+
+    /** Capacity, in minutes, of the morning period. */
+    static final int MORNING_CAPACITY = Organizer.LUNCH_TIME_VALUE - Organizer.INITIAL_TIME;
+
+    /** Capacity, in minutes, of the afternoon period. As the activities must finish before 17h, one minute is lost. */
+    static final int AFTERNOON_CAPACITY = Organizer.END_TIME - Organizer.AFTER_LUNCH_TIME - 1;
+
+    /** Maximum amount of activities for the exact search to be tried. */
+    private static final int EXACT_SEARCH_LIMIT = 24;
+
+    /** Maximum amount of nodes visited by the exact search, after that the heuristic packing is kept. */
+    private static final long EXACT_SEARCH_NODES = 2_000_000;
+
+    /** Value used for an empty bucket or the end of a bucket. */
+    private static final int NONE = -1;
+
+    /**
+     * The organization method builds the final string with the activities packed into the smallest amount of
+     * assembly lines found. Inside each period, the activities keep the table order.
+     *
+     * @param activities Activities coming from the file.
+     * @return Organized assembly lines.
+     */
+    public String organize(StepTable activities) {
+        StringWriter writer = new StringWriter();
+
+        try {
+            this.organize(activities, writer);
+        } catch (IOException e) {
+            // A StringWriter never throws an IOException
+            throw new UncheckedIOException(e);
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Same as {@link BinPackingOrganizer#organize(StepTable)}, but each assembly line is written to {@code writer}
+     * as soon as it's built. The writer isn't flushed or closed.
+     *
+     * @param activities Activities coming from the file.
+     * @param writer     Writer receiving the organized assembly lines.
+     * @throws IOException If there is a problem while writing.
+     */
+    public void organize(StepTable activities, Writer writer) throws IOException {
+        Packing packing = this.pack(activities);
+        int[] order = packing.sortByBin();
+        int[] binStarts = packing.binStarts();
+        ScheduleFormat.LineBuffer line = new ScheduleFormat.LineBuffer(writer);
+
+        for (int assemblyLine = 0; assemblyLine < packing.lines; assemblyLine++) {
+            int morning = assemblyLine * 2;
+            int afternoon = morning + 1;
+            int time = Organizer.INITIAL_TIME;
+
+            ScheduleFormat.appendTitle(line.builder, assemblyLine + 1);
+
+            for (int i = binStarts[morning]; i < binStarts[morning + 1]; i++) {
+                ScheduleFormat.appendActivity(line.builder, time, activities.getName(order[i]),
+                        activities.getDuration(order[i]), activities.isMaintenance(order[i]));
+                time += activities.getDuration(order[i]);
+            }
+
+            if (binStarts[afternoon] < binStarts[afternoon + 1]) {
+                ScheduleFormat.appendLunch(line.builder);
+                time = Organizer.AFTER_LUNCH_TIME;
+
+                for (int i = binStarts[afternoon]; i < binStarts[afternoon + 1]; i++) {
+                    ScheduleFormat.appendActivity(line.builder, time, activities.getName(order[i]),
+                            activities.getDuration(order[i]), activities.isMaintenance(order[i]));
+                    time += activities.getDuration(order[i]);
+                }
+
+                ScheduleFormat.appendGym(line.builder, time);
+            }
+
+            if (assemblyLine < packing.lines - 1) {
+                line.builder.append(ScheduleFormat.LINE_BREAK);
+            }
+
+            line.flush();
+        }
+    }
+
+    /**
+     * Counts the assembly lines of the packing found for the activities.
+     *
+     * @param activities Activities coming from the file.
+     * @return The amount of assembly lines.
+     */
+    public int countAssemblyLines(StepTable activities) {
+        return this.pack(activities).lines;
+    }
+
+    /**
+     * Packs the activities into the periods of the assembly lines. The activities that fit in a period are sorted by
+     * duration, in decreasing order, and each one goes to the period with the smallest remaining time that can
+     * receive it (best-fit decreasing). If there are few activities, the exact search tries to use less assembly
+     * lines. At last, each activity that doesn't fit in any period gets its own assembly line.
+     *
+     * @param activities Activities coming from the file.
+     * @return The packing of the activities.
+     */
+    Packing pack(StepTable activities) {
+        int[] sorted = sortByDurationDecreasing(activities);
+        int fitting = 0;
+        long totalDuration = 0;
+        int afternoonOnly = 0;
+
+        for (int i = 0; i < sorted.length; i++) {
+            int duration = activities.getDuration(sorted[i]);
+
+            if (duration <= AFTERNOON_CAPACITY) {
+                fitting++;
+                totalDuration += duration;
+                afternoonOnly += duration > MORNING_CAPACITY ? 1 : 0;
+            }
+        }
+
+        // The fitting activities are at the end of the array, as the oversized ones come first
+        int[] items = Arrays.copyOfRange(sorted, sorted.length - fitting, sorted.length);
+        Packing packing = bestFitDecreasing(activities, items);
+
+        int lowerBound = (int) Math.max(afternoonOnly,
+                (totalDuration + MORNING_CAPACITY + AFTERNOON_CAPACITY - 1) / (MORNING_CAPACITY + AFTERNOON_CAPACITY));
+        if (items.length <= EXACT_SEARCH_LIMIT && packing.lines > lowerBound) {
+            for (int lines = lowerBound; lines < packing.lines; lines++) {
+                Packing exact = new ExactSearch(activities, items, lines).search();
+
+                if (exact != null) {
+                    packing = exact;
+                    break;
+                }
+            }
+        }
+
+        for (int i = 0; i < sorted.length - fitting; i++) {
+            packing.bins[sorted[i]] = packing.lines * 2;
+            packing.lines++;
+        }
+
+        packing.lines = Math.max(packing.lines, 1);
+        return packing;
+    }
+
+    /**
+     * Sorts the activities positions by duration, in decreasing order, with a counting sort. The activities that
+     * don't fit in any period come first and activities with the same duration keep the table order.
+     *
+     * @param activities Activities coming from the file.
+     * @return The activities positions, sorted.
+     */
+    private static int[] sortByDurationDecreasing(StepTable activities) {
+        int[] counts = new int[AFTERNOON_CAPACITY + 3];
+        int size = activities.size();
+
+        for (int i = 0; i < size; i++) {
+            counts[bucketOf(activities.getDuration(i))]++;
+        }
+
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+
+        int[] sorted = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[--counts[bucketOf(activities.getDuration(i))]] = i;
+        }
+
+        return sorted;
+    }
+
+    /**
+     * Calculates the bucket of a duration in the counting sort: oversized activities come first, then the fitting
+     * ones from the longest to the shortest.
+     *
+     * @param duration Duration of the activity.
+     * @return The bucket of the duration.
+     */
+    private static int bucketOf(int duration) {
+        return duration > AFTERNOON_CAPACITY ? 0 : AFTERNOON_CAPACITY + 1 - Math.max(duration, 0) + 1;
+    }
+
+    /**
+     * Packs the items with the best-fit decreasing heuristic. The periods are kept in buckets by their remaining
+     * time, so finding the best period is a search in, at most, {@link BinPackingOrganizer#AFTERNOON_CAPACITY}
+     * buckets, whatever the amount of assembly lines.
+     *
+     * @param activities Activities coming from the file.
+     * @param items      Positions of the fitting activities, sorted by duration in decreasing order.
+     * @return The packing of the items.
+     */
+    private static Packing bestFitDecreasing(StepTable activities, int[] items) {
+        Packing packing = new Packing(activities.size());
+        int[] bucketHeads = new int[AFTERNOON_CAPACITY + 1];
+        int[] nextInBucket = new int[Math.max(items.length * 2, 2)];
+        int[] remaining = new int[nextInBucket.length];
+        Arrays.fill(bucketHeads, NONE);
+
+        for (int i = 0; i < items.length; i++) {
+            int duration = Math.max(activities.getDuration(items[i]), 0);
+            int bin = NONE;
+
+            for (int time = duration; time <= AFTERNOON_CAPACITY && bin == NONE; time++) {
+                bin = bucketHeads[time];
+            }
+
+            if (bin == NONE) {
+                int morning = packing.lines * 2;
+                packing.lines++;
+
+                if (morning + 1 >= remaining.length) {
+                    remaining = Arrays.copyOf(remaining, remaining.length * 2);
+                    nextInBucket = Arrays.copyOf(nextInBucket, nextInBucket.length * 2);
+                }
+
+                remaining[morning] = MORNING_CAPACITY;
+                remaining[morning + 1] = AFTERNOON_CAPACITY;
+                push(bucketHeads, nextInBucket, AFTERNOON_CAPACITY, morning + 1);
+                push(bucketHeads, nextInBucket, MORNING_CAPACITY, morning);
+                bin = duration <= MORNING_CAPACITY ? morning : morning + 1;
+            }
+
+            // The bin is always the head of its bucket
+            bucketHeads[remaining[bin]] = nextInBucket[bin];
+            remaining[bin] -= duration;
+            push(bucketHeads, nextInBucket, remaining[bin], bin);
+            packing.bins[items[i]] = bin;
+        }
+
+        return packing;
+    }
+
+    /**
+     * Pushes a period in the head of a bucket.
+     *
+     * @param bucketHeads  First period of each bucket.
+     * @param nextInBucket Next period of each period in its bucket.
+     * @param bucket       Remaining time of the period.
+     * @param bin          The period.
+     */
+    private static void push(int[] bucketHeads, int[] nextInBucket, int bucket, int bin) {
+        nextInBucket[bin] = bucketHeads[bucket];
+        bucketHeads[bucket] = bin;
+    }
+
+    /**
+     * Packing of the activities: the period of each activity and the amount of assembly lines. The period
+     * {@code 2 * n} is the morning of the assembly line {@code n} and the period {@code 2 * n + 1} is its afternoon.
+     */
+    static class Packing {
+
+        /** Period of each activity, by the activity position. */
+        final int[] bins;
+
+        /** Amount of assembly lines. */
+        int lines;
+
+        /**
+         * Constructor of the class.
+         *
+         * @param activities Amount of activities.
+         */
+        Packing(int activities) {
+            this.bins = new int[activities];
+        }
+
+        /**
+         * Sorts the activities positions by period with a counting sort. Inside a period, the activities keep the
+         * table order.
+         *
+         * @return The activities positions, sorted by period.
+         */
+        int[] sortByBin() {
+            int[] starts = this.binStarts();
+            int[] next = Arrays.copyOf(starts, starts.length);
+            int[] order = new int[this.bins.length];
+
+            for (int i = 0; i < this.bins.length; i++) {
+                order[next[this.bins[i]]++] = i;
+            }
+
+            return order;
+        }
+
+        /**
+         * Calculates where each period starts in the array returned by {@link Packing#sortByBin()}.
+         *
+         * @return The start of each period, plus the end of the last one.
+         */
+        int[] binStarts() {
+            int[] starts = new int[this.lines * 2 + 1];
+
+            for (int i = 0; i < this.bins.length; i++) {
+                starts[this.bins[i] + 1]++;
+            }
+
+            for (int i = 1; i < starts.length; i++) {
+                starts[i] += starts[i - 1];
+            }
+
+            return starts;
+        }
+    }
+
+    /**
+     * Branch and bound search for a packing of the items into a fixed amount of assembly lines. The items are tried
+     * from the longest to the shortest and two periods of the same kind with the same remaining time are tried only
+     * once, as they lead to the same packings.
+     */
+    private static class ExactSearch {
+
+        /** Durations of the items, in decreasing order. */
+        private final int[] durations;
+
+        /** Sum of the durations from each item to the last one. */
+        private final long[] remainingDurations;
+
+        /** Remaining time of each period. */
+        private final int[] remaining;
+
+        /** Period of each item. */
+        private final int[] itemBins;
+
+        /** Positions of the items in the table. */
+        private final int[] items;
+
+        /** Amount of activities in the table. */
+        private final int activities;
+
+        /** Amount of assembly lines. */
+        private final int lines;
+
+        /** Amount of nodes that can still be visited. */
+        private long budget = EXACT_SEARCH_NODES;
+
+        /**
+         * Constructor of the class.
+         *
+         * @param activities Activities coming from the file.
+         * @param items      Positions of the fitting activities, sorted by duration in decreasing order.
+         * @param lines      Amount of assembly lines.
+         */
+        ExactSearch(StepTable activities, int[] items, int lines) {
+            this.items = items;
+            this.activities = activities.size();
+            this.lines = lines;
+            this.durations = new int[items.length];
+            this.remainingDurations = new long[items.length + 1];
+            this.itemBins = new int[items.length];
+            this.remaining = new int[lines * 2];
+
+            for (int i = items.length - 1; i >= 0; i--) {
+                this.durations[i] = Math.max(activities.getDuration(items[i]), 0);
+                this.remainingDurations[i] = this.remainingDurations[i + 1] + this.durations[i];
+            }
+
+            for (int i = 0; i < lines; i++) {
+                this.remaining[i * 2] = MORNING_CAPACITY;
+                this.remaining[i * 2 + 1] = AFTERNOON_CAPACITY;
+            }
+        }
+
+        /**
+         * @return The packing found, or {@code null} if there is none or the node budget ended.
+         */
+        Packing search() {
+            if (!this.place(0, (long) this.lines * (MORNING_CAPACITY + AFTERNOON_CAPACITY))) {
+                return null;
+            }
+
+            Packing packing = new Packing(this.activities);
+            packing.lines = this.lines;
+
+            for (int i = 0; i < this.items.length; i++) {
+                packing.bins[this.items[i]] = this.itemBins[i];
+            }
+
+            return packing;
+        }
+
+        /**
+         * Places the item and, recursively, the next ones.
+         *
+         * @param item          Item to place.
+         * @param remainingTime Sum of the remaining time of all periods.
+         * @return {@code true} if all items were placed, {@code false} in opposite.
+         */
+        private boolean place(int item, long remainingTime) {
+            if (item == this.durations.length) {
+                return true;
+            }
+
+            if (--this.budget < 0 || this.remainingDurations[item] > remainingTime) {
+                return false;
+            }
+
+            int duration = this.durations[item];
+
+            for (int bin = 0; bin < this.remaining.length; bin++) {
+                if (this.remaining[bin] >= duration && !this.isRepeated(bin)) {
+                    this.remaining[bin] -= duration;
+                    this.itemBins[item] = bin;
+
+                    if (this.place(item + 1, remainingTime - duration)) {
+                        return true;
+                    }
+
+                    this.remaining[bin] += duration;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Checks if a period of the same kind with the same remaining time was already tried.
+         *
+         * @param bin The period.
+         * @return {@code true} if an equivalent period comes before it, {@code false} in opposite.
+         */
+        private boolean isRepeated(int bin) {
+            for (int other = bin % 2; other < bin; other += 2) {
+                if (this.remaining[other] == this.remaining[bin]) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
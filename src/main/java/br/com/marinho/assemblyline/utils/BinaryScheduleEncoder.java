@@ -0,0 +1,134 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.AssemblyLine;
+import br.com.marinho.assemblyline.model.ScheduleEntry;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encoder of a compact binary schedule, read back by {@link BinaryScheduleEncoder#read(ByteBuffer)}. The numbers are
+ * written in 7-bit groups ({@link ScheduleBuffer#writeVarInt(int)}), so most of them take one or two bytes. It has:
+ * <ul>
+ *     <li>a header: the magic number "ALSS", in big-endian order, and the format version in one byte;</li>
+ *     <li>for each assembly line, its number and its amount of entries;</li>
+ *     <li>for each entry, its kind in one byte (the position in {@link ScheduleEntry.Type}), its start in minutes
+ *     since the midnight of the first day, its duration, and its name, as the length in bytes followed by the
+ *     UTF-8 bytes.</li>
+ * </ul>
+ */
+public final class BinaryScheduleEncoder implements ScheduleEncoder {
+
+    /** First bytes of every binary schedule, "ALSS" in ASCII. */
+    static final int MAGIC = 0x414C5353;
+
+    /** Version of the format, changed whenever the layout changes. */
+    static final byte VERSION = 1;
+
+    /** Kinds of the entries, by their position. */
+    private static final ScheduleEntry.Type[] TYPES = ScheduleEntry.Type.values();
+
+    @Override
+    public void encodeStart(ScheduleBuffer buffer) {
+        buffer.writeByte(MAGIC >>> 24);
+        buffer.writeByte(MAGIC >>> 16);
+        buffer.writeByte(MAGIC >>> 8);
+        buffer.writeByte(MAGIC);
+        buffer.writeByte(VERSION);
+    }
+
+    @Override
+    public void encode(AssemblyLine line, ScheduleBuffer buffer) {
+        List<ScheduleEntry> entries = line.getEntries();
+
+        buffer.writeVarInt(line.getNumber());
+        buffer.writeVarInt(entries.size());
+
+        for (int i = 0; i < entries.size(); i++) {
+            ScheduleEntry entry = entries.get(i);
+
+            buffer.writeByte(entry.getType().ordinal());
+            buffer.writeVarInt(entry.getStart());
+            buffer.writeVarInt(entry.getDuration());
+            buffer.writeVarInt(ScheduleBuffer.utf8Length(entry.getName()));
+            buffer.writeUtf8(entry.getName());
+        }
+    }
+
+    /**
+     * Reads all the assembly lines of a binary schedule.
+     *
+     * @param buffer Buffer with the whole binary schedule.
+     * @return The assembly lines, in their order.
+     * @throws IllegalArgumentException If the buffer isn't a binary schedule of this version or is truncated.
+     */
+    public static List<AssemblyLine> read(ByteBuffer buffer) {
+        ByteBuffer input = buffer.slice();
+
+        if (input.remaining() < Integer.BYTES + 1 || input.getInt() != MAGIC) {
+            throw new IllegalArgumentException("The bytes are not a binary schedule.");
+        }
+
+        byte version = input.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("The binary schedule has the version " + version + ", but only the "
+                                               + "version " + VERSION + " is supported.");
+        }
+
+        List<AssemblyLine> lines = new ArrayList<>();
+
+        try {
+            while (input.hasRemaining()) {
+                int number = readVarInt(input);
+                int size = readVarInt(input);
+                List<ScheduleEntry> entries = new ArrayList<>(Math.min(size, input.remaining()));
+
+                for (int i = 0; i < size; i++) {
+                    int type = input.get();
+                    int start = readVarInt(input);
+                    int end = start + readVarInt(input);
+                    int length = readVarInt(input);
+
+                    if (type < 0 || type >= TYPES.length || length > input.remaining()) {
+                        throw new IllegalArgumentException("The binary schedule is truncated or corrupted.");
+                    }
+
+                    byte[] name = new byte[length];
+                    input.get(name);
+                    entries.add(new ScheduleEntry(TYPES[type], new String(name, StandardCharsets.UTF_8), start, end));
+                }
+
+                lines.add(new AssemblyLine(number, entries));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The binary schedule is truncated or corrupted.", e);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Reads a number written by {@link ScheduleBuffer#writeVarInt(int)}.
+     *
+     * @param input Buffer positioned at the number.
+     * @return The number.
+     * @throws IllegalArgumentException If the number has more than 5 bytes.
+     */
+    private static int readVarInt(ByteBuffer input) {
+        int value = 0;
+
+        for (int shift = 0; shift < Integer.SIZE + 3; shift += 7) {
+            byte current = input.get();
+            value |= (current & 0x7F) << shift;
+
+            if (current >= 0) {
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException("The binary schedule is truncated or corrupted.");
+    }
+}
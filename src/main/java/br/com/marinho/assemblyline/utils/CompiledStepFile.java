@@ -0,0 +1,305 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary format of a step list already converted, so catalogs organized in many runs are only parsed once. A compiled
+ * file is loaded through a memory-mapped buffer straight into a {@link StepTable}, without looking at any line: the
+ * only work left is decoding the names, all of them from a single copy of the string pool.
+ * The file has, in big-endian order:
+ * <ul>
+ *     <li>a header: the magic number "ALSF", the format version, the width in bytes of the durations, the flags, the
+ *     amount of steps and the length of the string pool;</li>
+ *     <li>the end offset, in the string pool, of each name;</li>
+ *     <li>the duration of each step, packed into 2 bytes when all of them fit, or else 4 bytes;</li>
+ *     <li>the priority of each step, in 4 bytes, only if the flag {@link CompiledStepFile#PRIORITIES_FLAG} is set;</li>
+ *     <li>only if the flag {@link CompiledStepFile#MAINTENANCES_FLAG} is set, a bit per step, set for the maintenance
+ *     steps, packed eight by byte from the lowest bit;</li>
+ *     <li>only if the flag {@link CompiledStepFile#DEPENDENCIES_FLAG} is set, the end offset of the dependencies of
+ *     each step, followed by the position of each dependency in the file;</li>
+ *     <li>the string pool, with the names in UTF-8, one after the other.</li>
+ * </ul>
+ */
+public final class CompiledStepFile {
+
+    /** First bytes of every compiled file, "ALSF" in ASCII. */
+    static final int MAGIC = 0x414C5346;
+
+    /** Version of the format, changed whenever the layout changes. */
+    static final short VERSION = 4;
+
+    /** Length, in bytes, of the header. */
+    private static final int HEADER_LENGTH = 16;
+
+    /** Width, in bytes, of the durations that fit in an unsigned short. */
+    private static final int SHORT_WIDTH = 2;
+
+    /** Width, in bytes, of the durations that need an int. */
+    private static final int INT_WIDTH = 4;
+
+    /** Flag of the files with a priority per step. Files without priorities don't spend 4 bytes per step on them. */
+    private static final int PRIORITIES_FLAG = 1;
+
+    /** Flag of the files with dependencies between the steps. */
+    private static final int DEPENDENCIES_FLAG = 2;
+
+    /** Flag of the files with maintenance steps. */
+    private static final int MAINTENANCES_FLAG = 4;
+
+    /** All the flags of the format. */
+    private static final int ALL_FLAGS = PRIORITIES_FLAG | DEPENDENCIES_FLAG | MAINTENANCES_FLAG;
+
+    /** Highest duration stored in {@link CompiledStepFile#SHORT_WIDTH} bytes. */
+    private static final int MAX_SHORT_DURATION = 0xFFFF;
+
+    /**
+     * Private constructor, as the class only has static methods.
+     */
+    private CompiledStepFile() {
+    }
+
+    /**
+     * Writes the steps of a table in the compiled format. The file is first written next to {@code output} and then
+     * moved over it, so a run reading it never sees half a file.
+     *
+     * @param table  Steps to compile.
+     * @param output File receiving the compiled steps.
+     * @throws IOException         If there is a problem while writing.
+     * @throws StepFormatException If a dependency isn't a step of the table.
+     */
+    public static void write(StepTable table, File output) throws IOException {
+        int size = table.size();
+        byte[][] names = new byte[size][];
+        int poolLength = 0;
+        int width = SHORT_WIDTH;
+        int flags = (table.hasPriorities() ? PRIORITIES_FLAG : 0) | (table.hasDependencies() ? DEPENDENCIES_FLAG : 0)
+                    | (table.hasMaintenances() ? MAINTENANCES_FLAG : 0);
+        int[][] dependencies = (flags & DEPENDENCIES_FLAG) == 0 ? null : resolveDependencies(table);
+
+        for (int i = 0; i < size; i++) {
+            names[i] = table.getName(i).getBytes(StandardCharsets.UTF_8);
+            poolLength += names[i].length;
+
+            if (table.getDuration(i) < 0 || table.getDuration(i) > MAX_SHORT_DURATION) {
+                width = INT_WIDTH;
+            }
+        }
+
+        File directory = output.getAbsoluteFile().getParentFile();
+        File temporaryFile = File.createTempFile(output.getName(), ".tmp", directory);
+
+        try {
+            try (DataOutputStream stream = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryFile.toPath())))) {
+                stream.writeInt(MAGIC);
+                stream.writeShort(VERSION);
+                stream.writeByte(width);
+                stream.writeByte(flags);
+                stream.writeInt(size);
+                stream.writeInt(poolLength);
+
+                int end = 0;
+                for (int i = 0; i < size; i++) {
+                    end += names[i].length;
+                    stream.writeInt(end);
+                }
+
+                for (int i = 0; i < size; i++) {
+                    if (width == SHORT_WIDTH) {
+                        stream.writeShort(table.getDuration(i));
+                    } else {
+                        stream.writeInt(table.getDuration(i));
+                    }
+                }
+
+                for (int i = 0; i < size && (flags & PRIORITIES_FLAG) != 0; i++) {
+                    stream.writeInt(table.getPriority(i));
+                }
+
+                for (int i = 0; i < size && (flags & MAINTENANCES_FLAG) != 0; i += Byte.SIZE) {
+                    int bits = 0;
+                    for (int j = 0; j < Byte.SIZE && i + j < size; j++) {
+                        bits |= table.isMaintenance(i + j) ? 1 << j : 0;
+                    }
+
+                    stream.writeByte(bits);
+                }
+
+                if (dependencies != null) {
+                    int dependencyEnd = 0;
+                    for (int i = 0; i < size; i++) {
+                        dependencyEnd += dependencies[i].length;
+                        stream.writeInt(dependencyEnd);
+                    }
+
+                    for (int i = 0; i < size; i++) {
+                        for (int j = 0; j < dependencies[i].length; j++) {
+                            stream.writeInt(dependencies[i][j]);
+                        }
+                    }
+                }
+
+                for (int i = 0; i < size; i++) {
+                    stream.write(names[i]);
+                }
+            }
+
+            Files.move(temporaryFile.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * Finds the position of the dependencies of each step.
+     *
+     * @param table Steps with dependencies.
+     * @return The positions of the dependencies of each step.
+     * @throws StepFormatException If a dependency isn't a step of the table.
+     */
+    private static int[][] resolveDependencies(StepTable table) {
+        int[][] dependencies = new int[table.size()][];
+
+        for (int i = 0; i < table.size(); i++) {
+            String[] names = table.getDependencies(i);
+            dependencies[i] = new int[names.length];
+
+            for (int j = 0; j < names.length; j++) {
+                dependencies[i][j] = table.indexOf(names[j]);
+
+                if (dependencies[i][j] < 0) {
+                    throw new StepFormatException("The step " + table.getName(i) + " comes after " + names[j]
+                                                  + ", which is not a step of the file.");
+                }
+            }
+        }
+
+        return dependencies;
+    }
+
+    /**
+     * Loads a compiled file, mapping it into memory.
+     *
+     * @param file Compiled step file.
+     * @return A {@link StepTable} with the activities and their duration time, in the original order.
+     * @throws IOException         If there is a problem while reading the file.
+     * @throws StepFormatException If the file isn't a compiled step file of this version or is truncated.
+     */
+    public static StepTable read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new StepFormatException("The compiled step file " + file.getName() + " is too big.");
+            }
+
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file.getName());
+        }
+    }
+
+    /**
+     * Loads the steps of a buffer with a compiled file.
+     *
+     * @param buffer Buffer with the whole compiled file.
+     * @param name   Name of the file, used in the messages.
+     * @return A {@link StepTable} with the activities and their duration time, in the original order.
+     * @throws StepFormatException If the buffer isn't a compiled step file of this version or is truncated.
+     */
+    static StepTable read(ByteBuffer buffer, String name) {
+        if (buffer.remaining() < HEADER_LENGTH || buffer.getInt(0) != MAGIC) {
+            throw new StepFormatException("The file " + name + " is not a compiled step file.");
+        }
+
+        if (buffer.getShort(4) != VERSION) {
+            throw new StepFormatException("The compiled step file " + name + " has the version " + buffer.getShort(4)
+                                          + ", but only the version " + VERSION + " is supported.");
+        }
+
+        int width = buffer.get(6);
+        int flags = buffer.get(7);
+        int size = buffer.getInt(8);
+        int poolLength = buffer.getInt(12);
+        long endsStart = HEADER_LENGTH;
+        long durationsStart = endsStart + (long) size * Integer.BYTES;
+        long prioritiesStart = durationsStart + (long) size * width;
+        long maintenancesStart = prioritiesStart + ((flags & PRIORITIES_FLAG) != 0 ? (long) size * Integer.BYTES : 0);
+        long dependencyEndsStart = maintenancesStart
+                                   + ((flags & MAINTENANCES_FLAG) != 0 ? (size + Byte.SIZE - 1L) / Byte.SIZE : 0);
+        long dependenciesStart = dependencyEndsStart;
+        int dependencyCount = 0;
+
+        if ((flags & DEPENDENCIES_FLAG) != 0 && size > 0) {
+            dependenciesStart += (long) size * Integer.BYTES;
+            if (dependenciesStart <= buffer.remaining()) {
+                dependencyCount = buffer.getInt((int) dependenciesStart - Integer.BYTES);
+            }
+        }
+
+        long poolStart = dependenciesStart + (long) dependencyCount * Integer.BYTES;
+
+        if ((width != SHORT_WIDTH && width != INT_WIDTH) || (flags & ~ALL_FLAGS) != 0
+            || size < 0 || poolLength < 0 || dependencyCount < 0 || poolStart + poolLength != buffer.remaining()) {
+            throw new StepFormatException("The compiled step file " + name + " is truncated or corrupted.");
+        }
+
+        byte[] pool = new byte[poolLength];
+        ByteBuffer poolView = buffer.duplicate();
+        poolView.position((int) poolStart);
+        poolView.get(pool);
+
+        StepTable table = new StepTable(size);
+        int start = 0;
+
+        for (int i = 0; i < size; i++) {
+            int end = buffer.getInt((int) endsStart + i * Integer.BYTES);
+            int position = (int) durationsStart + i * width;
+            int duration = width == SHORT_WIDTH ? buffer.getChar(position) : buffer.getInt(position);
+            int priority = (flags & PRIORITIES_FLAG) != 0 ? buffer.getInt((int) prioritiesStart + i * Integer.BYTES)
+                                                          : StepTable.DEFAULT_PRIORITY;
+            boolean maintenance = (flags & MAINTENANCES_FLAG) != 0
+                                  && (buffer.get((int) maintenancesStart + i / Byte.SIZE) & 1 << i % Byte.SIZE) != 0;
+
+            if (end < start || end > poolLength) {
+                throw new StepFormatException("The compiled step file " + name + " is truncated or corrupted.");
+            }
+
+            table.put(new String(pool, start, end - start, StandardCharsets.UTF_8), duration, priority, maintenance);
+            start = end;
+        }
+
+        // The dependencies are read after the names, as a step can depend on one that comes later
+        int dependencyStart = 0;
+        for (int i = 0; i < size && (flags & DEPENDENCIES_FLAG) != 0; i++) {
+            int dependencyEnd = buffer.getInt((int) dependencyEndsStart + i * Integer.BYTES);
+
+            if (dependencyEnd < dependencyStart || dependencyEnd > dependencyCount) {
+                throw new StepFormatException("The compiled step file " + name + " is truncated or corrupted.");
+            }
+
+            String[] dependencies = new String[dependencyEnd - dependencyStart];
+            for (int j = 0; j < dependencies.length; j++) {
+                int dependency = buffer.getInt((int) dependenciesStart + (dependencyStart + j) * Integer.BYTES);
+
+                if (dependency < 0 || dependency >= size) {
+                    throw new StepFormatException("The compiled step file " + name + " is truncated or corrupted.");
+                }
+
+                dependencies[j] = table.getName(dependency);
+            }
+
+            table.setDependencies(i, dependencies);
+            dependencyStart = dependencyEnd;
+        }
+
+        return table;
+    }
+}
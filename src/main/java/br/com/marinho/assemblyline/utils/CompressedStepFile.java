@@ -0,0 +1,326 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reader of compressed step files, converting the lines while the file is decompressed, without writing the
+ * decompressed file to the disk.
+ * A decompressor thread fills chunks of whole lines, cut after their last line break, and the thread that called
+ * {@link CompressedStepFile#read(File, ParseReport)} converts each chunk with the scanner of
+ * {@link MappedFileLineUtils} while the next ones are decompressed. The chunks go back to the decompressor once
+ * converted, so only {@link CompressedStepFile#CHUNKS} of them are kept in memory, whatever the size of the file.
+ * The format is found by the first bytes of the file. Only gzip is read, as it's the one in the JDK; the zstd files
+ * are recognized, so they are rejected with a clear message instead of being parsed as text.
+ */
+public final class CompressedStepFile {
+
+    /** Size of each chunk of decompressed bytes. A chunk grows if a line doesn't fit in it. */
+    static final int CHUNK_SIZE = 1 << 20;
+
+    /** Amount of chunks shared by the decompressor and the parser. */
+    private static final int CHUNKS = 4;
+
+    /** Size of the buffer of the compressed bytes read from the file. */
+    private static final int INPUT_BUFFER_SIZE = 1 << 16;
+
+    /** First bytes of a gzip file. */
+    private static final byte[] GZIP_MAGIC = {0x1F, (byte) 0x8B};
+
+    /** First bytes of a zstd frame. */
+    private static final byte[] ZSTD_MAGIC = {0x28, (byte) 0xB5, 0x2F, (byte) 0xFD};
+
+    /**
+     * Private constructor, as the class only has static methods.
+     */
+    private CompressedStepFile() {
+    }
+
+    /**
+     * Checks, by its first bytes, if a file is compressed with gzip or zstd.
+     *
+     * @param file File to check.
+     * @return {@code true} if the file is compressed.
+     * @throws IOException If there is a problem while reading the file.
+     */
+    public static boolean isCompressed(File file) throws IOException {
+        byte[] magic = readMagic(file);
+        return startsWith(magic, GZIP_MAGIC) || startsWith(magic, ZSTD_MAGIC);
+    }
+
+    /**
+     * Reads a compressed step file, decompressing it in a separate thread while the lines are converted. If
+     * {@code report} isn't {@code null}, the conversion is fail-soft, as in
+     * {@link MappedFileLineUtils#getStepTable(File, ParseReport)}.
+     *
+     * @param file   Compressed file with the production steps.
+     * @param report Report receiving the invalid lines, or {@code null} to stop on the first one.
+     * @return A {@link StepTable} with the activities in the file order.
+     * @throws IOException         If there is a problem while reading or decompressing the file.
+     * @throws StepFormatException If the format isn't supported, or if a line can't be converted and there is no
+     *                             report, or if the report threshold is passed.
+     */
+    public static StepTable read(File file, ParseReport report) throws IOException {
+        if (startsWith(readMagic(file), ZSTD_MAGIC)) {
+            throw new StepFormatException("The file " + file.getName() + " is compressed with zstd, which isn't "
+                                          + "supported. Decompress it or compress it with gzip.");
+        }
+
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file.toPath()), INPUT_BUFFER_SIZE)) {
+            return read(input, report, CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * Converts the lines of a decompressed stream, read by a separate thread in chunks of {@code chunkSize} bytes.
+     * The stream isn't closed.
+     *
+     * @param input     Stream of the decompressed bytes.
+     * @param report    Report receiving the invalid lines, or {@code null} to stop on the first one.
+     * @param chunkSize Initial size of each chunk.
+     * @return A {@link StepTable} with the activities in the stream order.
+     * @throws IOException         If there is a problem while reading the stream.
+     * @throws StepFormatException If a line can't be converted and there is no report, or if the report threshold
+     *                             is passed.
+     */
+    static StepTable read(InputStream input, ParseReport report, int chunkSize) throws IOException {
+        BlockingQueue<Chunk> freeChunks = new ArrayBlockingQueue<>(CHUNKS);
+        BlockingQueue<Chunk> fullChunks = new ArrayBlockingQueue<>(CHUNKS);
+
+        for (int i = 0; i < CHUNKS; i++) {
+            freeChunks.add(new Chunk(chunkSize));
+        }
+
+        Thread decompressor = new Thread(new Decompressor(input, freeChunks, fullChunks), "step-decompressor");
+        decompressor.setDaemon(true);
+        decompressor.start();
+
+        StepTable table = new StepTable();
+        MappedFileLineUtils.LineScanner scanner = new MappedFileLineUtils.LineScanner(table, report);
+
+        try {
+            while (true) {
+                Chunk chunk = fullChunks.take();
+
+                if (chunk.error != null) {
+                    throw chunk.error;
+                }
+
+                // Every chunk ends after a line break or at the end of the stream, so all its lines are converted
+                scanner.convertLines(ByteBuffer.wrap(chunk.bytes), 0, chunk.length, true);
+
+                if (chunk.last) {
+                    return table;
+                }
+
+                freeChunks.put(chunk);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The conversion of the compressed steps was interrupted.");
+        } finally {
+            // Stops the decompressor if the conversion failed, before the stream is closed
+            decompressor.interrupt();
+            joinQuietly(decompressor);
+        }
+    }
+
+    /**
+     * Waits for a thread to finish, keeping the interrupted status of the current one.
+     *
+     * @param thread Thread to wait for.
+     */
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads the first bytes of a file, enough to find its format.
+     *
+     * @param file File to read.
+     * @return The first bytes, fewer if the file is shorter.
+     * @throws IOException If there is a problem while reading the file.
+     */
+    private static byte[] readMagic(File file) throws IOException {
+        byte[] magic = new byte[ZSTD_MAGIC.length];
+        int length = 0;
+
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            int read;
+            while (length < magic.length && (read = input.read(magic, length, magic.length - length)) > 0) {
+                length += read;
+            }
+        }
+
+        return Arrays.copyOf(magic, length);
+    }
+
+    /**
+     * @param bytes  Bytes to check.
+     * @param prefix Expected first bytes.
+     * @return {@code true} if {@code bytes} starts with {@code prefix}.
+     */
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        return bytes.length >= prefix.length && Arrays.equals(Arrays.copyOf(bytes, prefix.length), prefix);
+    }
+
+    /**
+     * Bytes passed from the decompressor to the parser.
+     */
+    private static final class Chunk {
+
+        /** Decompressed bytes, starting at the beginning of a line. */
+        private byte[] bytes;
+
+        /** Amount of bytes of whole lines. */
+        private int length;
+
+        /** {@code true} if it's the last chunk of the stream. */
+        private boolean last;
+
+        /** Problem of the decompressor, or {@code null}. A chunk with a problem has no bytes. */
+        private IOException error;
+
+        /**
+         * Constructor of the class.
+         *
+         * @param size Initial size of the chunk.
+         */
+        private Chunk(int size) {
+            this.bytes = new byte[size];
+        }
+    }
+
+    /**
+     * Task of the decompressor thread: fills the free chunks with whole lines and hands them to the parser. The
+     * bytes after the last line break of a chunk are kept and start the next one.
+     */
+    private static final class Decompressor implements Runnable {
+
+        /** Stream of the decompressed bytes. */
+        private final InputStream input;
+
+        /** Chunks ready to be filled. */
+        private final BlockingQueue<Chunk> freeChunks;
+
+        /** Chunks ready to be converted. */
+        private final BlockingQueue<Chunk> fullChunks;
+
+        /** Bytes of the line started in the previous chunk. */
+        private byte[] carry = new byte[0];
+
+        /** Amount of bytes in {@code carry}. */
+        private int carryLength;
+
+        /**
+         * Constructor of the class.
+         *
+         * @param input      Stream of the decompressed bytes.
+         * @param freeChunks Chunks ready to be filled.
+         * @param fullChunks Chunks ready to be converted.
+         */
+        private Decompressor(InputStream input, BlockingQueue<Chunk> freeChunks, BlockingQueue<Chunk> fullChunks) {
+            this.input = input;
+            this.freeChunks = freeChunks;
+            this.fullChunks = fullChunks;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Chunk chunk;
+                do {
+                    chunk = this.freeChunks.take();
+                    this.fill(chunk);
+                    this.fullChunks.put(chunk);
+                } while (!chunk.last);
+            } catch (InterruptedException e) {
+                // The parser stopped, so nothing else is read
+            } catch (IOException e) {
+                Chunk failure = new Chunk(0);
+                failure.error = e;
+                failure.last = true;
+                this.fullChunks.offer(failure);
+            }
+        }
+
+        /**
+         * Fills a chunk with the carried bytes and the next decompressed ones, until the chunk is full and has a
+         * line break, or the stream ends.
+         *
+         * @param chunk Chunk to fill.
+         * @throws IOException If there is a problem while reading the stream.
+         */
+        private void fill(Chunk chunk) throws IOException {
+            if (chunk.bytes.length <= this.carryLength) {
+                chunk.bytes = new byte[this.carryLength * 2];
+            }
+
+            System.arraycopy(this.carry, 0, chunk.bytes, 0, this.carryLength);
+            int filled = this.carryLength;
+            int cut = -1;
+
+            while (cut < 0) {
+                int read = this.input.read(chunk.bytes, filled, chunk.bytes.length - filled);
+
+                if (read < 0) {
+                    chunk.length = filled;
+                    chunk.last = true;
+                    this.carryLength = 0;
+                    return;
+                }
+
+                filled += read;
+
+                if (filled == chunk.bytes.length) {
+                    cut = findCut(chunk.bytes, filled);
+
+                    if (cut < 0) {
+                        // A single line is bigger than the chunk
+                        chunk.bytes = Arrays.copyOf(chunk.bytes, chunk.bytes.length * 2);
+                    }
+                }
+            }
+
+            this.carryLength = filled - cut;
+            if (this.carry.length < this.carryLength) {
+                this.carry = new byte[Math.max(this.carryLength, this.carry.length * 2)];
+            }
+
+            System.arraycopy(chunk.bytes, cut, this.carry, 0, this.carryLength);
+            chunk.length = cut;
+            chunk.last = false;
+        }
+
+        /**
+         * Finds where a chunk can be cut: after its last "\n", or after its last "\r" if a "\n" can't follow it.
+         *
+         * @param bytes  Bytes of the chunk.
+         * @param length Amount of bytes in the chunk.
+         * @return The position after the line break, or -1 if there is none.
+         */
+        private static int findCut(byte[] bytes, int length) {
+            for (int i = length - 1; i >= 0; i--) {
+                if (bytes[i] == '\n' || (bytes[i] == '\r' && i + 1 < length)) {
+                    return i + 1;
+                }
+            }
+
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.metrics.PipelineMetrics;
+import br.com.marinho.assemblyline.model.StepTable;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Organizer of a plant where a fixed amount of assembly lines run at the same time. Different from
+ * {@link Organizer}, that only opens an assembly line when the previous one is full, each activity, in the table
+ * order, goes to the assembly line that is free first, so the work is spread over all of them and the plant finishes
+ * as early as the order allows. With the longest activities first ({@link StepOrder#byDurationDescending}), it's the
+ * longest processing time rule.
+ * The assembly lines are simulated by their events: a heap keeps the time each assembly line is free, the first one
+ * takes the next activity, and an assembly line where the activity doesn't fit in the rest of the window goes to the
+ * next window, back to the heap, or is closed after the last one. Each activity is one poll and one add in a heap of
+ * {@code K} lines, so the organization is O(n log K), without looking at every assembly line for every activity.
+ * When all the assembly lines are closed, the same amount of new ones is opened, numbered after them. As in
+ * {@link Organizer}, the activity that closed the last assembly line starts the next ones at the first window without
+ * any check, so with a single assembly line the result is the same as {@link Organizer#organize(StepTable)}.
+ */
+public class ConcurrentOrganizer {
+
+    /** Value used for an assembly line without activities and for the end of an assembly line. */
+    private static final int NONE = -1;
+
+    /** Initial capacity of the activities of a round. */
+    private static final int INITIAL_ROUND_CAPACITY = 1024;
+
+    /** Organizer with the rules used to write the assembly lines. */
+    private final Organizer organizer;
+
+    /** Start of each window of the calendar. */
+    private final int[] windowStarts;
+
+    /** Latest time an activity can end in each window of the calendar. */
+    private final int[] latestEnds;
+
+    /** Position of the last window. */
+    private final int lastWindow;
+
+    /** Amount of assembly lines running at the same time. */
+    private final int lines;
+
+    /** Metrics receiving the counters of each organization, or {@code null} if they are disabled. */
+    private final PipelineMetrics metrics;
+
+    /**
+     * Constructor of the class, with the calendar of the original program.
+     *
+     * @param lines Amount of assembly lines running at the same time.
+     * @throws IllegalArgumentException If there isn't at least one assembly line.
+     */
+    public ConcurrentOrganizer(int lines) {
+        this(ShiftCalendar.DEFAULT, lines, null);
+    }
+
+    /**
+     * Constructor of the class.
+     *
+     * @param calendar Calendar of the assembly lines.
+     * @param lines    Amount of assembly lines running at the same time.
+     * @param metrics  Metrics receiving the counters, or {@code null} to disable them.
+     * @throws IllegalArgumentException If there isn't at least one assembly line.
+     */
+    public ConcurrentOrganizer(ShiftCalendar calendar, int lines, PipelineMetrics metrics) {
+        if (lines < 1) {
+            throw new IllegalArgumentException("There must be at least one assembly line, not " + lines + ".");
+        }
+
+        this.organizer = new Organizer(calendar);
+        this.windowStarts = calendar.getWindowStarts();
+        this.latestEnds = calendar.getLatestEnds();
+        this.lastWindow = calendar.getWindows() - 1;
+        this.lines = lines;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return The amount of assembly lines running at the same time.
+     */
+    public int getLines() {
+        return this.lines;
+    }
+
+    /**
+     * The organization method builds the final string with the activities spread over the assembly lines. Inside
+     * each assembly line, the activities keep the table order.
+     *
+     * @param activities Activities coming from the file.
+     * @return Organized assembly lines.
+     */
+    public String organize(StepTable activities) {
+        StringWriter writer = new StringWriter();
+
+        try {
+            this.organize(activities, writer);
+        } catch (IOException e) {
+            // A StringWriter never throws an IOException
+            throw new UncheckedIOException(e);
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Same as {@link ConcurrentOrganizer#organize(StepTable)}, but the assembly lines are written to {@code writer}
+     * as soon as all of them are closed, so only the activities of one set of concurrent assembly lines are kept in
+     * memory. The writer isn't flushed or closed.
+     *
+     * @param activities Activities coming from the file.
+     * @param writer     Writer receiving the organized assembly lines.
+     * @throws IOException If there is a problem while writing.
+     */
+    public void organize(StepTable activities, Writer writer) throws IOException {
+        long start = this.metrics == null ? 0 : System.nanoTime();
+        ScheduleFormat.LineBuffer line = new ScheduleFormat.LineBuffer(writer);
+        Round round = new Round(this.lines);
+        int step = 0;
+        int assemblyLine = 1;
+        long breaks = 0;
+        long events = 0;
+
+        do {
+            step = this.fill(activities, step, round, assemblyLine == 1);
+
+            for (int i = 0; i < this.lines; i++) {
+                // As in Organizer, only the first assembly line is written without activities
+                if (round.firstSteps[i] == NONE && assemblyLine > 1) {
+                    continue;
+                }
+
+                if (assemblyLine > 1) {
+                    line.builder.append(ScheduleFormat.LINE_BREAK);
+                }
+
+                ScheduleFormat.appendTitle(line.builder, assemblyLine++);
+                breaks += this.appendBody(line.builder, activities, round, i);
+                events += round.windows[i] == this.lastWindow ? 1 : 0;
+                line.flush();
+            }
+        } while (step < activities.size());
+
+        if (this.metrics != null) {
+            this.metrics.recordOrganize(activities.size(), assemblyLine - 1, breaks, events,
+                                        System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Simulates one set of concurrent assembly lines, from the opening until all of them are closed or there are no
+     * more activities.
+     *
+     * @param activities Activities coming from the file.
+     * @param from       Position of the first activity of the round.
+     * @param round      State of the assembly lines, reset here.
+     * @param firstRound {@code true} if no assembly line was written yet.
+     * @return The position of the first activity that didn't fit in the round.
+     */
+    private int fill(StepTable activities, int from, Round round, boolean firstRound) {
+        round.reset(from, this.windowStarts[0]);
+        // The keys of the heap are the times of the assembly lines, only changed while the line is out of the heap
+        IntHeap heap = IntHeap.withAllIds(round.times);
+        int step = from;
+
+        while (step < activities.size() && !heap.isEmpty()) {
+            int assemblyLine = heap.poll();
+            int duration = this.organizer.getClockDuration(activities, step);
+            int window = round.windows[assemblyLine];
+
+            if ((firstRound || step != from) && round.times[assemblyLine] + duration > this.latestEnds[window]) {
+                if (window < this.lastWindow) {
+                    round.windows[assemblyLine] = window + 1;
+                    round.times[assemblyLine] = this.windowStarts[window + 1];
+                    heap.add(assemblyLine);
+                }
+
+                // After the last window, the assembly line is closed, so it doesn't go back to the heap
+                continue;
+            }
+
+            round.place(assemblyLine, step);
+            round.times[assemblyLine] += duration;
+            heap.add(assemblyLine);
+            step++;
+        }
+
+        return step;
+    }
+
+    /**
+     * Builds the content of an assembly line of a round, after its title.
+     *
+     * @param builder      String builder that is receiving the assembly line.
+     * @param activities   Activities coming from the file.
+     * @param round        Round with the assembly line.
+     * @param assemblyLine Position of the assembly line in the round.
+     * @return The amount of breaks written.
+     */
+    private int appendBody(StringBuilder builder, StepTable activities, Round round, int assemblyLine) {
+        int window = 0;
+        int breaks = 0;
+
+        for (int i = round.firstSteps[assemblyLine]; i != NONE; i = round.nextSteps[i]) {
+            while (window < round.stepWindows[i]) {
+                this.organizer.appendBreak(builder, window++);
+                breaks++;
+            }
+
+            int step = round.from + i;
+            ScheduleFormat.appendActivity(builder, this.organizer.toDisplayTime(round.stepStarts[i]),
+                                          activities.getName(step), activities.getDuration(step),
+                                          activities.isMaintenance(step));
+        }
+
+        while (window < round.windows[assemblyLine]) {
+            this.organizer.appendBreak(builder, window++);
+            breaks++;
+        }
+
+        if (window == this.lastWindow) {
+            this.organizer.appendEvent(builder, round.times[assemblyLine]);
+        }
+
+        return breaks;
+    }
+
+    /**
+     * State of one set of concurrent assembly lines. The activities of the round are kept by their position after
+     * the first one, in arrays that grow with the round and are reused by the next ones, and the activities of each
+     * assembly line are linked in the table order.
+     */
+    private static final class Round {
+
+        /** Time each assembly line is free, in minutes since the midnight of the first day. */
+        private final int[] times;
+
+        /** Window where each assembly line is. */
+        private final int[] windows;
+
+        /** First activity of each assembly line, or {@link ConcurrentOrganizer#NONE}. */
+        private final int[] firstSteps;
+
+        /** Last activity of each assembly line, or {@link ConcurrentOrganizer#NONE}. */
+        private final int[] lastSteps;
+
+        /** Start time of each activity. */
+        private int[] stepStarts = new int[INITIAL_ROUND_CAPACITY];
+
+        /** Window of each activity. */
+        private int[] stepWindows = new int[INITIAL_ROUND_CAPACITY];
+
+        /** Next activity in the same assembly line, or {@link ConcurrentOrganizer#NONE}. */
+        private int[] nextSteps = new int[INITIAL_ROUND_CAPACITY];
+
+        /** Position, in the table, of the first activity of the round. */
+        private int from;
+
+        /**
+         * Constructor of the class.
+         *
+         * @param lines Amount of assembly lines running at the same time.
+         */
+        private Round(int lines) {
+            this.times = new int[lines];
+            this.windows = new int[lines];
+            this.firstSteps = new int[lines];
+            this.lastSteps = new int[lines];
+        }
+
+        /**
+         * Opens all the assembly lines again, empty and at the first window.
+         *
+         * @param from      Position of the first activity of the round.
+         * @param startTime Start of the first window.
+         */
+        private void reset(int from, int startTime) {
+            this.from = from;
+            Arrays.fill(this.times, startTime);
+            Arrays.fill(this.windows, 0);
+            Arrays.fill(this.firstSteps, NONE);
+            Arrays.fill(this.lastSteps, NONE);
+        }
+
+        /**
+         * Places an activity at the end of an assembly line, at its current time and window.
+         *
+         * @param assemblyLine Position of the assembly line.
+         * @param step         Position of the activity in the table.
+         */
+        private void place(int assemblyLine, int step) {
+            int i = step - this.from;
+
+            if (i == this.nextSteps.length) {
+                this.stepStarts = Arrays.copyOf(this.stepStarts, i * 2);
+                this.stepWindows = Arrays.copyOf(this.stepWindows, i * 2);
+                this.nextSteps = Arrays.copyOf(this.nextSteps, i * 2);
+            }
+
+            this.stepStarts[i] = this.times[assemblyLine];
+            this.stepWindows[i] = this.windows[assemblyLine];
+            this.nextSteps[i] = NONE;
+
+            if (this.lastSteps[assemblyLine] == NONE) {
+                this.firstSteps[assemblyLine] = i;
+            } else {
+                this.nextSteps[this.lastSteps[assemblyLine]] = i;
+            }
+
+            this.lastSteps[assemblyLine] = i;
+        }
+    }
+}
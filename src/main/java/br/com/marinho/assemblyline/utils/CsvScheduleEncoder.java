@@ -0,0 +1,99 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.AssemblyLine;
+import br.com.marinho.assemblyline.model.ScheduleEntry;
+
+import java.util.List;
+
+/**
+ * Encoder of a CSV table with one row for each entry, after a header: the number of the assembly line, the kind of
+ * the entry, its start and end in minutes since the midnight of the first day, and its name. The names with commas,
+ * quotes or line breaks are quoted, with their quotes doubled, as in RFC 4180.
+ */
+public final class CsvScheduleEncoder implements ScheduleEncoder {
+
+    /** Header of the table. */
+    private static final String HEADER = "line,type,start,end,name\n";
+
+    /** Separator of the columns. */
+    private static final char SEPARATOR = ',';
+
+    /** Quote of the names with special characters. */
+    private static final char QUOTE = '"';
+
+    @Override
+    public void encodeStart(ScheduleBuffer buffer) {
+        buffer.writeAscii(HEADER);
+    }
+
+    @Override
+    public void encode(AssemblyLine line, ScheduleBuffer buffer) {
+        List<ScheduleEntry> entries = line.getEntries();
+
+        for (int i = 0; i < entries.size(); i++) {
+            ScheduleEntry entry = entries.get(i);
+
+            buffer.writeDecimal(line.getNumber());
+            buffer.writeAscii(SEPARATOR);
+            buffer.writeAscii(getTypeName(entry.getType()));
+            buffer.writeAscii(SEPARATOR);
+            buffer.writeDecimal(entry.getStart());
+            buffer.writeAscii(SEPARATOR);
+            buffer.writeDecimal(entry.getEnd());
+            buffer.writeAscii(SEPARATOR);
+            writeName(entry.getName(), buffer);
+            buffer.writeAscii(ScheduleFormat.LINE_BREAK);
+        }
+    }
+
+    /**
+     * Gets the name of a kind of entry, as written in the table and in the JSON lines.
+     *
+     * @param type Kind of the entry.
+     * @return The name in lower case, as in "step".
+     */
+    static String getTypeName(ScheduleEntry.Type type) {
+        switch (type) {
+            case STEP:
+                return "step";
+            case MAINTENANCE:
+                return "maintenance";
+            case BREAK:
+                return "break";
+            default:
+                return "event";
+        }
+    }
+
+    /**
+     * Writes a name, quoted if it has a separator, a quote or a line break.
+     *
+     * @param name   Name to write.
+     * @param buffer Buffer receiving the bytes.
+     */
+    private static void writeName(String name, ScheduleBuffer buffer) {
+        boolean quoted = false;
+
+        for (int i = 0; i < name.length() && !quoted; i++) {
+            char character = name.charAt(i);
+            quoted = character == SEPARATOR || character == QUOTE || character == '\n' || character == '\r';
+        }
+
+        if (!quoted) {
+            buffer.writeUtf8(name);
+            return;
+        }
+
+        buffer.writeAscii(QUOTE);
+        int start = 0;
+
+        for (int quote = name.indexOf(QUOTE); quote >= 0; quote = name.indexOf(QUOTE, start)) {
+            buffer.writeUtf8(name, start, quote + 1);
+            buffer.writeAscii(QUOTE);
+            start = quote + 1;
+        }
+
+        buffer.writeUtf8(name, start, name.length());
+        buffer.writeAscii(QUOTE);
+    }
+}
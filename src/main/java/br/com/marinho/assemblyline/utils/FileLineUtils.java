@@ -1,6 +1,9 @@
 package br.com.marinho.assemblyline.utils;
 
+import br.com.marinho.assemblyline.model.StepTable;
+
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -13,13 +16,16 @@ import java.util.regex.Pattern;
 public class FileLineUtils {
 
     /** The value, in minutes, that the maintenance takes to finish. */
-    private static final int MAINTENANCE_TIME_VALUE = 5;
+    static final int MAINTENANCE_TIME_VALUE = StepTable.MAINTENANCE_DURATION;
 
     /** String representing the maintenance line indicator. */
-    private static final String MAINTENANCE_STRING = "- maintenance";
+    static final String MAINTENANCE_STRING = "- maintenance";
 
     /** Suffix "min" in the end of a line to indicate the minutes of the production step. */
-    private static final String MINUTES_SUFFIX = "min";
+    static final String MINUTES_SUFFIX = "min";
+
+    /** Problem of a line whose duration doesn't fit in an {@code int}. */
+    static final String TOO_BIG_TIME_MESSAGE = "The time in the line is too big.";
 
     /**
      * The method receives a text file with assembly lines and builds a map with the duration time of the activities
@@ -29,17 +35,21 @@ public class FileLineUtils {
      * @return A {@link HashMap} with the duration time of the activities mapped by their names.
      */
     public static Map<String, Integer> getAssemblyMap(File inputFile) {
-        Map<String, Integer> map = new HashMap<>();
-
-        try {
-            BufferedReader reader = new BufferedReader(new FileReader(inputFile));
-            String line;
+        return getStepTable(inputFile).toMap();
+    }
 
-            while ((line = reader.readLine()) != null) {
-                convertLine(line, map);
-            }
+    /**
+     * The method receives a text file with assembly lines and builds a {@link StepTable} with the activities in the
+     * file order.
+     *
+     * @param inputFile File with the assembly lines.
+     * @return A {@link StepTable} with the activities and their duration time.
+     */
+    public static StepTable getStepTable(File inputFile) {
+        StepTable table = null;
 
-            reader.close();
+        try {
+            table = getStepTable(inputFile, null);
         } catch (FileNotFoundException e) {
             System.err.println("The file " + inputFile.getName() + " could not be found. Finishing.");
             System.exit(0);
@@ -47,9 +57,55 @@ public class FileLineUtils {
             System.err.println(
                     "There was a problem while trying to read the file " + inputFile.getName() + ". Finishing.");
             System.exit(1);
+        } catch (StepFormatException e) {
+            System.err.println(e.getMessage() + " Finishing.");
+            System.exit(1);
         }
 
-        return map;
+        return table;
+    }
+
+    /**
+     * Same as {@link FileLineUtils#getStepTable(File)}, but the problems are thrown instead of finishing the
+     * program. If {@code report} isn't {@code null}, the conversion is fail-soft: the invalid lines are skipped and
+     * added to the report, until its threshold is passed.
+     * The file is read as UTF-8, as in {@link MappedFileLineUtils}, whatever the charset of the platform, so both
+     * parsers read the same names, and a malformed byte is replaced as there.
+     *
+     * @param inputFile File with the assembly lines.
+     * @param report    Report receiving the invalid lines, or {@code null} to stop on the first one.
+     * @return A {@link StepTable} with the valid activities and their duration time.
+     * @throws IOException         If there is a problem while reading the file.
+     * @throws StepFormatException If a line can't be converted and there is no report, or if the report threshold
+     *                             is passed.
+     */
+    public static StepTable getStepTable(File inputFile, ParseReport report) throws IOException {
+        StepTable table = new StepTable();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(inputFile), StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (report == null) {
+                    convertLine(line, table);
+                    continue;
+                }
+
+                try {
+                    convertLine(line, table);
+                } catch (StepFormatException e) {
+                    report.addError(lineNumber, e.getMessage());
+                } catch (NumberFormatException e) {
+                    report.addError(lineNumber, TOO_BIG_TIME_MESSAGE);
+                }
+            }
+        }
+
+        return table;
     }
 
     /**
@@ -90,37 +146,51 @@ public class FileLineUtils {
     }
 
     /**
-     * Method responsible for converting a line, that comes from the input file, to add it on the map represented by
-     * {@code map}.
+     * Method responsible for converting a line, that comes from the input file, to add it on the table represented
+     * by {@code table}. The {@link StepColumns} after the first ";", if any, are converted apart and the step is
+     * converted without them.
      *
-     * @param line Line from the input file.
-     * @param map  Map used to store the values.
+     * @param line  Line from the input file.
+     * @param table Table used to store the values.
+     * @throws StepFormatException If the line can't be converted.
      */
-    private static void convertLine(String line, Map<String, Integer> map) {
-        if (isMaintenanceLine(line)) {
-            map.put(getMaintenanceString(line), MAINTENANCE_TIME_VALUE);
+    private static void convertLine(String line, StepTable table) {
+        String step = line;
+        StepColumns columns = null;
+        int separator = line.indexOf(StepColumns.SEPARATOR);
+
+        if (separator >= 0) {
+            columns = StepColumns.parse(line.substring(separator + 1));
+            step = line.substring(0, separator).replaceAll("\\s+$", "");
+        }
+
+        int index;
+        if (isMaintenanceLine(step)) {
+            index = table.putMaintenance(getMaintenanceString(step));
         } else {
             Pattern pattern = Pattern.compile("\\d+");
-            Matcher matcher = pattern.matcher(line);
+            Matcher matcher = pattern.matcher(step);
 
             if (matcher.find()) {
                 String group = matcher.group();
-                String productionStepName = line.substring(0, line.lastIndexOf(group));
+                String productionStepName = step.substring(0, step.lastIndexOf(group));
 
-                if (line.indexOf(group) + group.length() + MINUTES_SUFFIX.length() != line.length()) {
-                    System.err.println("There is a number in the production step title. Finishing.");
-                    System.exit(1);
+                if (step.indexOf(group) + group.length() + MINUTES_SUFFIX.length() != step.length()) {
+                    throw new StepFormatException("There is a number in the production step title.");
                 }
 
                 while (productionStepName.endsWith(" ") || productionStepName.endsWith("-")) {
                     productionStepName = productionStepName.substring(0, productionStepName.length() - 1);
                 }
 
-                map.put(productionStepName, Integer.parseInt(group));
+                index = table.put(productionStepName, Integer.parseInt(group));
             } else {
-                System.err.println("There is no time in the line and it's not possible to determine it. Finishing.");
-                System.exit(1);
+                throw new StepFormatException("There is no time in the line and it's not possible to determine it.");
             }
         }
+
+        if (columns != null) {
+            columns.applyTo(table, index);
+        }
     }
 }
\ No newline at end of file
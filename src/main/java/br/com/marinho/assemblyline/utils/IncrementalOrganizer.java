@@ -0,0 +1,324 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Organizer that keeps the previous plan, so changing a few activities doesn't rebuild every assembly line. The
+ * assembly lines are the same as the ones of {@link Organizer#organize(StepTable)}.
+ * As every assembly line, except the first one, starts at the first window with its first activity, an assembly line only
+ * depends on the activities from its first one until the first one of the next assembly line. After a change, the
+ * assembly lines are rebuilt from the one before the first changed activity until a new assembly line starts at the
+ * same activity as an old one, after the last changed activity. From there on, the old assembly lines are reused
+ * as they were, only with new titles.
+ * An instance must not be shared between threads.
+ */
+public class IncrementalOrganizer {
+
+    /** Value of the changed range when there are no changes. */
+    private static final int NO_CHANGE = -1;
+
+    /** Organizer with the rules of the assembly lines. */
+    private final Organizer organizer;
+
+    /** Activities of the plan, in their order. */
+    private final StepTable activities;
+
+    /** Position of the first activity of each assembly line, plus the amount of activities in the end. */
+    private int[] lineStarts;
+
+    /** Content of each assembly line, without the title. */
+    private String[] lineBodies;
+
+    /** Amount of assembly lines. */
+    private int lines;
+
+    /** Position of the first changed activity since the last rebuild, or {@link #NO_CHANGE}. */
+    private int changedFrom = NO_CHANGE;
+
+    /**
+     * Position after the last changed activity since the last rebuild. The activities from this position onwards
+     * weren't changed, only moved by {@link #shift} positions.
+     */
+    private int changedTo;
+
+    /** Amount of activities inserted less the amount removed since the last rebuild. */
+    private int shift;
+
+    /** Amount of assembly lines built in the last rebuild. */
+    private int rebuiltLines;
+
+    /**
+     * Constructor of the class. The activities are copied and every assembly line is built.
+     *
+     * @param activities Activities coming from the file.
+     */
+    public IncrementalOrganizer(StepTable activities) {
+        this(activities, ShiftCalendar.DEFAULT);
+    }
+
+    /**
+     * Same as {@link IncrementalOrganizer#IncrementalOrganizer(StepTable)}, but the assembly lines follow the given
+     * calendar.
+     *
+     * @param activities Activities coming from the file.
+     * @param calendar   Calendar of the assembly lines.
+     */
+    public IncrementalOrganizer(StepTable activities, ShiftCalendar calendar) {
+        this.organizer = new Organizer(calendar);
+        this.activities = new StepTable(activities.size());
+        this.activities.putAll(activities);
+        this.lineStarts = new int[]{0, 0};
+        this.lineBodies = new String[1];
+        this.lines = 1;
+
+        // Everything is changed, so every assembly line is built
+        this.markChanged(0, this.activities.size());
+        this.rebuild();
+    }
+
+    /**
+     * @return The amount of activities in the plan.
+     */
+    public int size() {
+        return this.activities.size();
+    }
+
+    /**
+     * Finds the position of an activity.
+     *
+     * @param name Name of the activity.
+     * @return The position of the activity, or -1 if it isn't in the plan.
+     */
+    public int indexOf(String name) {
+        return this.activities.indexOf(name);
+    }
+
+    /**
+     * Changes the duration of an activity.
+     *
+     * @param index    Position of the activity.
+     * @param duration New duration, in minutes.
+     */
+    public void setDuration(int index, int duration) {
+        this.activities.setDuration(index, duration);
+        this.markChanged(index, index + 1);
+    }
+
+    /**
+     * Inserts an activity, moving the following ones one position forward.
+     *
+     * @param index    Position of the new activity.
+     * @param name     Name of the activity.
+     * @param duration Duration of the activity, in minutes.
+     * @throws IllegalArgumentException If the name is already in the plan.
+     */
+    public void insert(int index, String name, int duration) {
+        this.activities.insert(index, name, duration);
+        this.markInserted(index);
+    }
+
+    /**
+     * Inserts a maintenance, moving the following activities one position forward.
+     *
+     * @param index Position of the new maintenance.
+     * @param name  Name of the maintenance.
+     * @throws IllegalArgumentException If the name is already in the plan.
+     */
+    public void insertMaintenance(int index, String name) {
+        this.activities.insertMaintenance(index, name);
+        this.markInserted(index);
+    }
+
+    /**
+     * Removes an activity, moving the following ones one position back.
+     *
+     * @param index Position of the activity.
+     */
+    public void remove(int index) {
+        this.activities.remove(index);
+
+        if (this.changedFrom != NO_CHANGE && index < this.changedTo) {
+            this.changedTo--;
+        }
+
+        this.shift--;
+        this.markChanged(index, index);
+    }
+
+    /**
+     * Organizes the activities, rebuilding only the assembly lines affected by the changes.
+     *
+     * @return Organized assembly lines.
+     */
+    public String organize() {
+        StringWriter writer = new StringWriter();
+
+        try {
+            this.organize(writer);
+        } catch (IOException e) {
+            // A StringWriter never throws an IOException
+            throw new UncheckedIOException(e);
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Same as {@link IncrementalOrganizer#organize()}, but the assembly lines are written to {@code writer}. The
+     * writer isn't flushed or closed.
+     *
+     * @param writer Writer receiving the organized assembly lines.
+     * @throws IOException If there is a problem while writing.
+     */
+    public void organize(Writer writer) throws IOException {
+        this.rebuild();
+        StringBuilder title = new StringBuilder();
+
+        for (int line = 0; line < this.lines; line++) {
+            title.setLength(0);
+            ScheduleFormat.appendTitle(title, line + 1);
+            writer.append(title);
+            writer.write(this.lineBodies[line]);
+        }
+    }
+
+    /**
+     * @return The amount of assembly lines built in the last organization.
+     */
+    int getRebuiltLines() {
+        return this.rebuiltLines;
+    }
+
+    /**
+     * Marks an inserted activity as changed, moving the changed range after it.
+     *
+     * @param index Position of the inserted activity.
+     */
+    private void markInserted(int index) {
+        if (this.changedFrom != NO_CHANGE && index < this.changedTo) {
+            this.changedTo++;
+        }
+
+        this.shift++;
+        this.markChanged(index, index + 1);
+    }
+
+    /**
+     * Extends the changed range to include the positions from {@code from} until {@code to}.
+     *
+     * @param from Position of the first changed activity.
+     * @param to   Position after the last changed activity.
+     */
+    private void markChanged(int from, int to) {
+        if (this.changedFrom == NO_CHANGE) {
+            this.changedFrom = from;
+            this.changedTo = to;
+        } else {
+            this.changedFrom = Math.min(this.changedFrom, from);
+            this.changedTo = Math.max(this.changedTo, to);
+        }
+    }
+
+    /**
+     * Rebuilds the assembly lines affected by the changes, reusing the old ones after the changes once the new
+     * assembly lines start at the same activities.
+     */
+    private void rebuild() {
+        this.rebuiltLines = 0;
+
+        if (this.changedFrom == NO_CHANGE) {
+            return;
+        }
+
+        // The activity before the first changed one closes its assembly line depending on the changed one
+        int line = this.changedFrom == 0 ? 0 : this.findLine(this.changedFrom - 1);
+        int[] oldStarts = this.lineStarts;
+        String[] oldBodies = this.lineBodies;
+        int oldLines = this.lines;
+        int[] starts = Arrays.copyOf(oldStarts, Math.max(oldStarts.length, line + 2));
+        String[] bodies = Arrays.copyOf(oldBodies, Math.max(oldBodies.length, line + 1));
+        int from = oldStarts[line];
+        StringBuilder builder = new StringBuilder();
+
+        while (true) {
+            int to = this.organizer.findAssemblyLineEnd(this.activities, from, line == 0);
+            builder.setLength(0);
+            this.organizer.buildAssemblyLineBody(builder, this.activities, from, to, line == 0, null);
+
+            if (line + 2 > starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+
+            if (line + 1 > bodies.length) {
+                bodies = Arrays.copyOf(bodies, bodies.length * 2);
+            }
+
+            starts[line] = from;
+            bodies[line++] = builder.toString();
+            this.rebuiltLines++;
+
+            if (to == this.activities.size()) {
+                starts[line] = to;
+                break;
+            }
+
+            int oldLine = to >= this.changedTo
+                          ? Arrays.binarySearch(oldStarts, 1, oldLines, to - this.shift)
+                          : -1;
+
+            if (oldLine > 0) {
+                int reused = oldLines - oldLine;
+
+                if (line + reused + 1 > starts.length) {
+                    starts = Arrays.copyOf(starts, line + reused + 1);
+                }
+
+                if (line + reused > bodies.length) {
+                    bodies = Arrays.copyOf(bodies, line + reused);
+                }
+
+                for (int i = 0; i <= reused; i++) {
+                    starts[line + i] = oldStarts[oldLine + i] + this.shift;
+                }
+
+                System.arraycopy(oldBodies, oldLine, bodies, line, reused);
+                line += reused;
+                break;
+            }
+
+            from = to;
+        }
+
+        // Drops the old assembly lines that are no longer used
+        Arrays.fill(bodies, line, bodies.length, null);
+
+        this.lineStarts = starts;
+        this.lineBodies = bodies;
+        this.lines = line;
+        this.changedFrom = NO_CHANGE;
+        this.shift = 0;
+    }
+
+    /**
+     * Finds the assembly line of an activity.
+     *
+     * @param index Position of the activity, that wasn't changed nor moved since the last rebuild.
+     * @return The position of the last assembly line starting at or before the activity.
+     */
+    private int findLine(int index) {
+        int line = Arrays.binarySearch(this.lineStarts, 0, this.lines, index);
+
+        if (line < 0) {
+            return -line - 2;
+        }
+
+        // Only the first assembly line can be empty, starting at the same activity as the second one
+        return line == 0 && this.lines > 1 && this.lineStarts[1] == 0 ? 1 : line;
+    }
+}
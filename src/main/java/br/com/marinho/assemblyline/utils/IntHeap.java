@@ -0,0 +1,149 @@
+package br.com.marinho.assemblyline.utils;
+
+/**
+ * Binary min-heap of {@code int} ids, ordered by a key kept outside the heap, in {@code keys[id]}, and then by the
+ * id itself, so two ids with the same key always leave the heap in the same order. There is no boxing and no
+ * comparator call: the heap is a single {@code int[]}, which matters when it holds millions of steps.
+ * The key of an id must not change while the id is in the heap; to change it, poll the id, change the key and add
+ * the id again.
+ */
+final class IntHeap {
+
+    /** Keys of the ids, indexed by the id. */
+    private final int[] keys;
+
+    /** Ids in the heap order: the children of position {@code i} are at {@code 2i + 1} and {@code 2i + 2}. */
+    private final int[] heap;
+
+    /** Amount of ids in the heap. */
+    private int size;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param keys     Keys of the ids, indexed by the id.
+     * @param capacity Maximum amount of ids in the heap at the same time.
+     */
+    IntHeap(int[] keys, int capacity) {
+        this.keys = keys;
+        this.heap = new int[capacity];
+    }
+
+    /**
+     * Builds a heap with the ids from 0 to {@code keys.length - 1}, in linear time.
+     *
+     * @param keys Keys of the ids, indexed by the id.
+     * @return The heap with all ids.
+     */
+    static IntHeap withAllIds(int[] keys) {
+        IntHeap heap = new IntHeap(keys, keys.length);
+
+        for (int i = 0; i < keys.length; i++) {
+            heap.heap[i] = i;
+        }
+
+        heap.size = keys.length;
+        for (int i = heap.size / 2 - 1; i >= 0; i--) {
+            heap.siftDown(i);
+        }
+
+        return heap;
+    }
+
+    /**
+     * Adds an id to the heap.
+     *
+     * @param id Id to add, not already in the heap.
+     */
+    void add(int id) {
+        int position = this.size++;
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+
+            if (!this.isBefore(id, this.heap[parent])) {
+                break;
+            }
+
+            this.heap[position] = this.heap[parent];
+            position = parent;
+        }
+
+        this.heap[position] = id;
+    }
+
+    /**
+     * @return The id with the lowest key, without removing it.
+     */
+    int peek() {
+        return this.heap[0];
+    }
+
+    /**
+     * Removes the id with the lowest key.
+     *
+     * @return The id removed.
+     */
+    int poll() {
+        int first = this.heap[0];
+        this.heap[0] = this.heap[--this.size];
+        this.siftDown(0);
+
+        return first;
+    }
+
+    /**
+     * @return {@code true} if there are no ids in the heap.
+     */
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @return The amount of ids in the heap.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Moves the id at {@code position} down until its children are after it.
+     *
+     * @param position Position of the id in the heap.
+     */
+    private void siftDown(int position) {
+        int id = this.heap[position];
+        int half = this.size >>> 1;
+
+        while (position < half) {
+            int child = 2 * position + 1;
+
+            if (child + 1 < this.size && this.isBefore(this.heap[child + 1], this.heap[child])) {
+                child++;
+            }
+
+            if (!this.isBefore(this.heap[child], id)) {
+                break;
+            }
+
+            this.heap[position] = this.heap[child];
+            position = child;
+        }
+
+        this.heap[position] = id;
+    }
+
+    /**
+     * Compares two ids by their keys and then by themselves.
+     *
+     * @param first  First id.
+     * @param second Second id.
+     * @return {@code true} if {@code first} leaves the heap before {@code second}.
+     */
+    private boolean isBefore(int first, int second) {
+        int firstKey = this.keys[first];
+        int secondKey = this.keys[second];
+
+        return firstKey < secondKey || (firstKey == secondKey && first < second);
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.AssemblyLine;
+import br.com.marinho.assemblyline.model.ScheduleEntry;
+
+import java.util.List;
+
+/**
+ * Encoder of JSON lines, with one object for each assembly line, as in
+ * {@code {"line":1,"entries":[{"type":"step","name":"Welding","start":540,"end":600}]}}. The times are minutes since
+ * the midnight of the first day, and each line can be read alone, so a big schedule can be processed as a stream.
+ */
+public final class JsonLinesScheduleEncoder implements ScheduleEncoder {
+
+    /** Start of an object, before the number of the assembly line. */
+    private static final String LINE_START = "{\"line\":";
+
+    /** Start of the entries. */
+    private static final String ENTRIES_START = ",\"entries\":[";
+
+    /** End of the entries and of the object. */
+    private static final String LINE_END = "]}\n";
+
+    /** Start of an entry, before its kind. */
+    private static final String ENTRY_TYPE = "{\"type\":\"";
+
+    /** Text between the kind and the name. */
+    private static final String ENTRY_NAME = "\",\"name\":\"";
+
+    /** Text between the name and the start. */
+    private static final String ENTRY_START = "\",\"start\":";
+
+    /** Text between the start and the end. */
+    private static final String ENTRY_END = ",\"end\":";
+
+    /** Hexadecimal digits of the escaped control characters. */
+    private static final String HEX_DIGITS = "0123456789abcdef";
+
+    @Override
+    public void encodeStart(ScheduleBuffer buffer) {
+        // Each line is a whole document, so there is no header
+    }
+
+    @Override
+    public void encode(AssemblyLine line, ScheduleBuffer buffer) {
+        List<ScheduleEntry> entries = line.getEntries();
+
+        buffer.writeAscii(LINE_START);
+        buffer.writeDecimal(line.getNumber());
+        buffer.writeAscii(ENTRIES_START);
+
+        for (int i = 0; i < entries.size(); i++) {
+            ScheduleEntry entry = entries.get(i);
+
+            if (i > 0) {
+                buffer.writeAscii(',');
+            }
+
+            buffer.writeAscii(ENTRY_TYPE);
+            buffer.writeAscii(CsvScheduleEncoder.getTypeName(entry.getType()));
+            buffer.writeAscii(ENTRY_NAME);
+            writeString(entry.getName(), buffer);
+            buffer.writeAscii(ENTRY_START);
+            buffer.writeDecimal(entry.getStart());
+            buffer.writeAscii(ENTRY_END);
+            buffer.writeDecimal(entry.getEnd());
+            buffer.writeAscii('}');
+        }
+
+        buffer.writeAscii(LINE_END);
+    }
+
+    /**
+     * Writes the content of a JSON string, escaping the quotes, the backslashes and the control characters. The runs
+     * of characters without escapes are written at once.
+     *
+     * @param text   Text to write.
+     * @param buffer Buffer receiving the bytes.
+     */
+    private static void writeString(String text, ScheduleBuffer buffer) {
+        int start = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+
+            if (character != '"' && character != '\\' && character >= 0x20) {
+                continue;
+            }
+
+            buffer.writeUtf8(text, start, i);
+            buffer.writeAscii('\\');
+
+            if (character == '"' || character == '\\') {
+                buffer.writeAscii(character);
+            } else {
+                buffer.writeAscii("u00");
+                buffer.writeAscii(HEX_DIGITS.charAt(character >> 4));
+                buffer.writeAscii(HEX_DIGITS.charAt(character & 0xF));
+            }
+
+            start = i + 1;
+        }
+
+        buffer.writeUtf8(text, start, text.length());
+    }
+}
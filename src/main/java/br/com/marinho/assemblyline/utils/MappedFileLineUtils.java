@@ -0,0 +1,780 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Class used to read the production steps file through a memory-mapped buffer, as an alternative to
+ * {@link FileLineUtils} for very big files.
+ * Different from {@link FileLineUtils}, the lines are never turned into {@link String} objects and no regex is used:
+ * the bytes are scanned directly to find the maintenance indicator, the duration and the "min" suffix, and only the
+ * production step name becomes a string. The resulting map is the same as the one built by
+ * {@link FileLineUtils#getAssemblyMap(File)}.
+ * The file is expected to be encoded in UTF-8 (or any other ASCII compatible encoding).
+ */
+public class MappedFileLineUtils {
+
+    /**
+     * Maximum amount of bytes mapped at once. A {@link MappedByteBuffer} can't be bigger than 2GB, so bigger files
+     * are read in consecutive windows, each one ending in a line break.
+     */
+    static final int MAPPING_WINDOW_SIZE = 1 << 30;
+
+    /** Amount of ranges per thread in the parallel conversion, so a slow range doesn't leave the others idle. */
+    private static final int RANGES_PER_THREAD = 4;
+
+    /** Minimum size, in bytes, of a range in the parallel conversion. */
+    private static final long MINIMUM_RANGE_SIZE = 1 << 20;
+
+    /** The maintenance string as it's compared with the line: without whitespaces and in uppercase. */
+    private static final byte[] MAINTENANCE_BYTES = FileLineUtils.MAINTENANCE_STRING.replaceAll("\\s+", "")
+            .toUpperCase().getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The method receives a text file with assembly lines and builds a map with the duration time of the activities
+     * mapped by their names, reading the file through memory-mapped windows.
+     *
+     * @param inputFile File with the assembly lines.
+     * @return A {@link HashMap} with the duration time of the activities mapped by their names.
+     */
+    public static Map<String, Integer> getAssemblyMap(File inputFile) {
+        return getStepTable(inputFile, 1, MAPPING_WINDOW_SIZE).toMap();
+    }
+
+    /**
+     * Same as {@link MappedFileLineUtils#getAssemblyMap(File)}, but the file is split into line-aligned ranges that
+     * are converted in parallel by {@code parallelism} threads. The ranges are merged in the file order, so the map
+     * is the same as the one built by a sequential read.
+     *
+     * @param inputFile   File with the assembly lines.
+     * @param parallelism Amount of threads used to convert the ranges.
+     * @return A {@link HashMap} with the duration time of the activities mapped by their names.
+     */
+    public static Map<String, Integer> getAssemblyMap(File inputFile, int parallelism) {
+        return getStepTable(inputFile, parallelism, MAPPING_WINDOW_SIZE).toMap();
+    }
+
+    /**
+     * The method receives a text file with assembly lines and builds a {@link StepTable} with the activities in the
+     * file order, reading the file through memory-mapped windows.
+     *
+     * @param inputFile File with the assembly lines.
+     * @return A {@link StepTable} with the activities and their duration time.
+     */
+    public static StepTable getStepTable(File inputFile) {
+        return getStepTable(inputFile, 1, MAPPING_WINDOW_SIZE);
+    }
+
+    /**
+     * Same as {@link MappedFileLineUtils#getStepTable(File)}, but the file is converted in parallel by
+     * {@code parallelism} threads, as in {@link MappedFileLineUtils#getAssemblyMap(File, int)}.
+     *
+     * @param inputFile   File with the assembly lines.
+     * @param parallelism Amount of threads used to convert the ranges.
+     * @return A {@link StepTable} with the activities and their duration time.
+     */
+    public static StepTable getStepTable(File inputFile, int parallelism) {
+        return getStepTable(inputFile, parallelism, MAPPING_WINDOW_SIZE);
+    }
+
+    /**
+     * Same as {@link MappedFileLineUtils#getStepTable(File)}, but converting the lines already in memory, between the
+     * position and the limit of {@code content}. The buffer position isn't changed. Instead of finishing the program,
+     * an invalid line throws a {@link StepFormatException}, so it can be used by long-running processes.
+     *
+     * @param content Bytes of the production step lines.
+     * @return A {@link StepTable} with the activities and their duration time.
+     * @throws StepFormatException If a line can't be converted.
+     */
+    public static StepTable getStepTable(ByteBuffer content) {
+        return getStepTable(content, null);
+    }
+
+    /**
+     * Same as {@link MappedFileLineUtils#getStepTable(ByteBuffer)}, but if {@code report} isn't {@code null}, the
+     * conversion is fail-soft: the invalid lines are skipped and added to the report, until its threshold is passed.
+     *
+     * @param content Bytes of the production step lines.
+     * @param report  Report receiving the invalid lines, or {@code null} to stop on the first one.
+     * @return A {@link StepTable} with the valid activities and their duration time.
+     * @throws StepFormatException If a line can't be converted and there is no report, or if the report threshold
+     *                             is passed.
+     */
+    public static StepTable getStepTable(ByteBuffer content, ParseReport report) {
+        return getStepTable(content, report, null);
+    }
+
+    /**
+     * Same as {@link MappedFileLineUtils#getStepTable(ByteBuffer, ParseReport)}, but the production step names come
+     * from {@code names}, so the names already seen in other files aren't decoded again and share their strings.
+     *
+     * @param content Bytes of the production step lines.
+     * @param report  Report receiving the invalid lines, or {@code null} to stop on the first one.
+     * @param names   Table with the production step names, shared with the other conversions, or {@code null} to
+     *                decode every name, as a single conversion has nothing to share.
+     * @return A {@link StepTable} with the valid activities and their duration time.
+     * @throws StepFormatException If a line can't be converted and there is no report, or if the report threshold
+     *                             is passed.
+     */
+    public static StepTable getStepTable(ByteBuffer content, ParseReport report, NameTable names) {
+        StepTable table = new StepTable();
+        new LineScanner(table, report, names).convertLines(content, content.position(), content.limit(), true);
+        return table;
+    }
+
+    /**
+     * Same as {@link MappedFileLineUtils#getStepTable(File)}, but in the fail-soft mode: the invalid lines are
+     * skipped and added to {@code report}, and the problems are thrown instead of finishing the program. The file is
+     * converted by a single thread, as the line numbers are only known reading it in order.
+     *
+     * @param inputFile File with the assembly lines.
+     * @param report    Report receiving the invalid lines.
+     * @return A {@link StepTable} with the valid activities and their duration time.
+     * @throws IOException         If there is a problem while reading the file.
+     * @throws StepFormatException If the report threshold is passed or a line is bigger than a mapped window.
+     */
+    public static StepTable getStepTable(File inputFile, ParseReport report) throws IOException {
+        StepTable table = new StepTable();
+
+        try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ)) {
+            convertRange(channel, 0, channel.size(), MAPPING_WINDOW_SIZE, new LineScanner(table, report), inputFile);
+        }
+
+        return table;
+    }
+
+    /**
+     * Same as {@link MappedFileLineUtils#getStepTable(File, ParseReport)}, but the production step names come from
+     * {@code names}, so the names already seen in other files aren't decoded again and share their strings. The
+     * file is mapped in windows, so it can be bigger than a single mapping.
+     *
+     * @param inputFile File with the assembly lines.
+     * @param report    Report receiving the invalid lines, or {@code null} to stop on the first one.
+     * @param names     Table with the production step names, shared with the other conversions, or {@code null}
+     *                  to decode every name.
+     * @return A {@link StepTable} with the valid activities and their duration time.
+     * @throws IOException         If there is a problem while reading the file.
+     * @throws StepFormatException If a line can't be converted and there is no report, if the report threshold is
+     *                             passed or if a line is bigger than a mapped window.
+     */
+    public static StepTable getStepTable(File inputFile, ParseReport report, NameTable names) throws IOException {
+        StepTable table = new StepTable();
+
+        try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ)) {
+            convertRange(channel, 0, channel.size(), MAPPING_WINDOW_SIZE, new LineScanner(table, report, names),
+                         inputFile);
+        }
+
+        return table;
+    }
+
+    /**
+     * Same as {@link MappedFileLineUtils#getStepTable(File, int)}, but with the size of the mapped windows given by
+     * {@code windowSize}. A line can't be bigger than a window.
+     *
+     * @param inputFile   File with the assembly lines.
+     * @param parallelism Amount of threads used to convert the ranges.
+     * @param windowSize  Maximum amount of bytes mapped at once.
+     * @return A {@link StepTable} with the activities and their duration time.
+     */
+    static StepTable getStepTable(File inputFile, int parallelism, int windowSize) {
+        StepTable table = new StepTable();
+
+        try (FileChannel channel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ)) {
+            long[] bounds = splitIntoRanges(channel, parallelism);
+
+            if (bounds.length == 2) {
+                convertRange(channel, bounds[0], bounds[1], windowSize, new LineScanner(table, null), inputFile);
+            } else {
+                mergeRanges(convertRangesInParallel(channel, bounds, parallelism, windowSize, inputFile), table);
+            }
+        } catch (NoSuchFileException e) {
+            System.err.println("The file " + inputFile.getName() + " could not be found. Finishing.");
+            System.exit(0);
+        } catch (IOException e) {
+            System.err.println(
+                    "There was a problem while trying to read the file " + inputFile.getName() + ". Finishing.");
+            System.exit(1);
+        } catch (StepFormatException e) {
+            System.err.println(e.getMessage() + " Finishing.");
+            System.exit(1);
+        }
+
+        return table;
+    }
+
+    /**
+     * Converts the lines between {@code from} and {@code to}, mapping at most {@code windowSize} bytes at once. The
+     * range must start at the beginning of a line and end after a line break or at the end of the file.
+     *
+     * @param channel    Channel of the file with the assembly lines.
+     * @param from       Position of the first byte of the range.
+     * @param to         Position after the last byte of the range.
+     * @param windowSize Maximum amount of bytes mapped at once.
+     * @param scanner    Scanner used to convert the lines.
+     * @param inputFile  File with the assembly lines, used in the error messages.
+     * @throws IOException         If there is a problem while mapping the file.
+     * @throws StepFormatException If a line can't be converted.
+     */
+    private static void convertRange(FileChannel channel, long from, long to, int windowSize, LineScanner scanner,
+                                     File inputFile) throws IOException {
+        long position = from;
+
+        while (position < to) {
+            int length = (int) Math.min(windowSize, to - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            int consumed = scanner.convertLines(buffer, 0, length, position + length == to);
+
+            if (consumed == 0) {
+                throw new StepFormatException(
+                        "There is a line bigger than " + windowSize + " bytes in the file " + inputFile.getName() + ".");
+            }
+
+            position += consumed;
+        }
+    }
+
+    /**
+     * Splits the file into ranges to be converted in parallel. Each range starts at the beginning of a line, so no
+     * line is divided between two ranges. Small files, or a {@code parallelism} of 1, result in a single range.
+     *
+     * @param channel     Channel of the file with the assembly lines.
+     * @param parallelism Amount of threads used to convert the ranges.
+     * @return The bounds of the ranges: the range {@code i} goes from {@code bounds[i]} to {@code bounds[i + 1]}.
+     * @throws IOException If there is a problem while reading the file.
+     */
+    private static long[] splitIntoRanges(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        int ranges = (int) Math.max(1, Math.min((long) parallelism * RANGES_PER_THREAD, size / MINIMUM_RANGE_SIZE));
+
+        if (parallelism <= 1 || ranges == 1) {
+            return new long[]{0, size};
+        }
+
+        long[] bounds = new long[ranges + 1];
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        int count = 1;
+
+        for (int i = 1; i < ranges; i++) {
+            long position = Math.max(size * i / ranges, bounds[count - 1]);
+            long lineStart = findNextLineStart(channel, position, size, buffer);
+
+            if (lineStart > bounds[count - 1] && lineStart < size) {
+                bounds[count++] = lineStart;
+            }
+        }
+
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Finds the position where the first line starting at or after {@code position} begins.
+     *
+     * @param channel  Channel of the file with the assembly lines.
+     * @param position Position where the search starts.
+     * @param size     Size of the file.
+     * @param buffer   Buffer used in the reading.
+     * @return The position after the first "\n" found at or after {@code position - 1}, or the size of the file.
+     * @throws IOException If there is a problem while reading the file.
+     */
+    private static long findNextLineStart(FileChannel channel, long position, long size, ByteBuffer buffer)
+            throws IOException {
+        long current = Math.max(0, position - 1);
+
+        while (current < size) {
+            buffer.clear();
+            int read = channel.read(buffer, current);
+
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return current + i + 1;
+                }
+            }
+
+            current += Math.max(read, 0);
+        }
+
+        return size;
+    }
+
+    /**
+     * Converts every range in a {@link ForkJoinPool} with {@code parallelism} threads. Each range is converted to
+     * its own {@link StepTable}, that keeps the order of the lines.
+     *
+     * @param channel     Channel of the file with the assembly lines.
+     * @param bounds      Bounds of the ranges, as returned by {@link MappedFileLineUtils#splitIntoRanges}.
+     * @param parallelism Amount of threads used to convert the ranges.
+     * @param windowSize  Maximum amount of bytes mapped at once.
+     * @param inputFile   File with the assembly lines, used in the error messages.
+     * @return The tables of the ranges, in the file order.
+     * @throws IOException If there is a problem while reading the file.
+     */
+    private static List<StepTable> convertRangesInParallel(FileChannel channel, long[] bounds, int parallelism,
+                                                           int windowSize, File inputFile) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        // The ranges share the names, so a name repeated in all of them is decoded once and merged by identity
+        NameTable names = new NameTable();
+
+        try {
+            List<ForkJoinTask<StepTable>> tasks = new ArrayList<>(bounds.length - 1);
+
+            for (int i = 0; i < bounds.length - 1; i++) {
+                long from = bounds[i];
+                long to = bounds[i + 1];
+
+                tasks.add(pool.submit(() -> {
+                    StepTable rangeTable = new StepTable();
+                    convertRange(channel, from, to, windowSize, new LineScanner(rangeTable, null, names), inputFile);
+                    return rangeTable;
+                }));
+            }
+
+            List<StepTable> tables = new ArrayList<>(tasks.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                tables.add(tasks.get(i).get());
+            }
+
+            return tables;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The conversion of " + inputFile.getName() + " was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            if (e.getCause() instanceof StepFormatException) {
+                throw (StepFormatException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Puts the values of the range tables into {@code table}, in the file order. A production step repeated in two
+     * ranges keeps the position of the first one and the value of the last one, as it happens in a sequential read.
+     *
+     * @param rangeTables Tables of the ranges, in the file order.
+     * @param table       Table receiving the values.
+     */
+    private static void mergeRanges(List<StepTable> rangeTables, StepTable table) {
+        for (int i = 0; i < rangeTables.size(); i++) {
+            table.putAll(rangeTables.get(i));
+        }
+    }
+
+    /**
+     * Class that converts the lines of a byte buffer, mapped from a file or already in memory, keeping a reusable
+     * array where the bytes of the production step names are copied. When the conversion shares a {@link NameTable}
+     * with others, the names are looked up in it by their bytes, so a name repeated in them is only decoded the first
+     * time. Otherwise, each name is decoded, as the names of a single file rarely repeat. With a {@link ParseReport},
+     * the invalid lines are skipped and added to it, numbered by their position in all the lines converted by the
+     * scanner. An instance must not be shared between threads, but its name table can be.
+     */
+    static class LineScanner {
+
+        /** Table used to store the values. */
+        private final StepTable table;
+
+        /** Report receiving the invalid lines, or {@code null} to stop on the first one. */
+        private final ParseReport report;
+
+        /** Table with the production step names already decoded, or {@code null} to decode every name. */
+        private final NameTable names;
+
+        /** Amount of lines converted, which is the number of the last one. */
+        private long lineNumber;
+
+        /** Amount of production steps, at the start of the table, that a line can't repeat. */
+        private int fixedSteps;
+
+        /** Array where the bytes of a production step name are copied before being decoded. */
+        private byte[] nameBytes = new byte[128];
+
+        /**
+         * Constructor of the class, decoding every name.
+         *
+         * @param table  Table used to store the values.
+         * @param report Report receiving the invalid lines, or {@code null} to stop on the first one.
+         */
+        LineScanner(StepTable table, ParseReport report) {
+            this(table, report, null);
+        }
+
+        /**
+         * Same as {@link LineScanner#LineScanner(StepTable, ParseReport)}, but the names are shared with the other
+         * scanners of {@code names}.
+         *
+         * @param table  Table used to store the values.
+         * @param report Report receiving the invalid lines, or {@code null} to stop on the first one.
+         * @param names  Table with the production step names already decoded, or {@code null} to decode every name.
+         */
+        LineScanner(StepTable table, ParseReport report, NameTable names) {
+            this.table = table;
+            this.report = report;
+            this.names = names;
+        }
+
+        /**
+         * Sets the amount of production steps, at the start of the table, that can't change anymore, as the steps of
+         * the assembly lines already written by {@link StepFileFollower}. A line repeating one of them is invalid,
+         * and the table is kept as it was.
+         *
+         * @param fixedSteps Amount of production steps that a line can't repeat.
+         */
+        void setFixedSteps(int fixedSteps) {
+            this.fixedSteps = fixedSteps;
+        }
+
+        /**
+         * Converts all lines between {@code from} and {@code to}. Lines are finished by "\n", "\r" or "\r\n", as in
+         * {@link java.io.BufferedReader#readLine()}. If the range isn't the end of the input, represented by
+         * {@code endOfInput}, the last line is only converted if it has a line break, because its remaining bytes
+         * are still unknown.
+         *
+         * @param buffer     Buffer with the file bytes.
+         * @param from       Position of the first byte of the range.
+         * @param to         Position after the last byte of the range.
+         * @param endOfInput {@code true} if there are no more bytes after the range.
+         * @return The position after the last converted line, where the next range must start.
+         * @throws StepFormatException If a line can't be converted.
+         */
+        int convertLines(ByteBuffer buffer, int from, int to, boolean endOfInput) {
+            int lineStart = from;
+            int separator = -1;
+
+            for (int i = from; i < to; i++) {
+                byte value = buffer.get(i);
+
+                if (value == StepColumns.SEPARATOR && separator < lineStart) {
+                    separator = i;
+                } else if (value == '\n' || value == '\r') {
+                    int next = i + 1;
+
+                    if (value == '\r') {
+                        if (next == to && !endOfInput) {
+                            break;
+                        }
+
+                        if (next < to && buffer.get(next) == '\n') {
+                            next++;
+                        }
+                    }
+
+                    this.convertCountedLine(buffer, lineStart, i, separator < lineStart ? -1 : separator);
+                    lineStart = next;
+                    i = next - 1;
+                }
+            }
+
+            if (endOfInput && lineStart < to) {
+                this.convertCountedLine(buffer, lineStart, to, separator < lineStart ? -1 : separator);
+                lineStart = to;
+            }
+
+            return lineStart;
+        }
+
+        /**
+         * Converts a line, counting it. If there is a report, an invalid line is added to it instead of stopping the
+         * conversion.
+         *
+         * @param buffer Buffer with the file bytes.
+         * @param start  Position of the first byte of the line.
+         * @param end       Position after the last byte of the line, without the line break.
+         * @param separator Position of the first ";" of the line, or -1 if there is none.
+         * @throws StepFormatException If the line can't be converted and there is no report, or if the report
+         *                             threshold is passed.
+         */
+        private void convertCountedLine(ByteBuffer buffer, int start, int end, int separator) {
+            this.lineNumber++;
+
+            if (this.report == null) {
+                this.convertLine(buffer, start, end, separator);
+                return;
+            }
+
+            try {
+                this.convertLine(buffer, start, end, separator);
+            } catch (StepFormatException e) {
+                this.report.addError(this.lineNumber, e.getMessage());
+            } catch (NumberFormatException e) {
+                this.report.addError(this.lineNumber, FileLineUtils.TOO_BIG_TIME_MESSAGE);
+            }
+        }
+
+        /**
+         * Byte version of {@code FileLineUtils#convertLine(String, StepTable)}.
+         * The maintenance indicator is searched backwards, ignoring whitespaces and case. If it isn't there, the
+         * first number of the line is the duration, and it must be followed only by the "min" suffix. The
+         * {@link StepColumns} after the separator, found while looking for the line break, are decoded apart, so the
+         * lines without them don't pay for it.
+         *
+         * @param buffer    Buffer with the file bytes.
+         * @param start     Position of the first byte of the line.
+         * @param lineEnd   Position after the last byte of the line, without the line break.
+         * @param separator Position of the first ";" of the line, or -1 if there is none.
+         * @throws StepFormatException If the line can't be converted.
+         */
+        private void convertLine(ByteBuffer buffer, int start, int lineEnd, int separator) {
+            int end = lineEnd;
+            StepColumns columns = null;
+
+            if (separator >= 0) {
+                columns = StepColumns.parse(this.decode(buffer, separator + 1, lineEnd));
+                end = separator;
+
+                while (end > start && isWhitespace(buffer.get(end - 1))) {
+                    end--;
+                }
+            }
+
+            boolean hasWhitespace = false;
+            int position = end - 1;
+            int matched = MAINTENANCE_BYTES.length - 1;
+
+            while (position >= start && matched >= 0) {
+                byte value = buffer.get(position);
+
+                if (isWhitespace(value)) {
+                    hasWhitespace = true;
+                } else if (toUpperCase(value) == MAINTENANCE_BYTES[matched]) {
+                    matched--;
+                } else {
+                    break;
+                }
+
+                position--;
+            }
+
+            if (matched < 0) {
+                for (int i = start; i <= position && !hasWhitespace; i++) {
+                    hasWhitespace = isWhitespace(buffer.get(i));
+                }
+
+                // As in FileLineUtils#getMaintenanceString, the " " around the "-" separator are dropped too
+                int droppedCharacters = MAINTENANCE_BYTES.length + (hasWhitespace ? 2 : 0);
+                String name = this.decodeName(buffer, start, dropCharacters(buffer, start, end, droppedCharacters));
+                this.checkNotFixed(name);
+                int index = this.table.putMaintenance(name);
+
+                if (columns != null) {
+                    columns.applyTo(this.table, index);
+                }
+                return;
+            }
+
+            int digitsStart = start;
+            while (digitsStart < end && !isDigit(buffer.get(digitsStart))) {
+                digitsStart++;
+            }
+
+            if (digitsStart == end) {
+                throw new StepFormatException("There is no time in the line and it's not possible to determine it.");
+            }
+
+            int digitsEnd = digitsStart;
+            int duration = 0;
+            while (digitsEnd < end && isDigit(buffer.get(digitsEnd))) {
+                duration = duration * 10 + buffer.get(digitsEnd) - '0';
+                digitsEnd++;
+            }
+
+            if (countCharacters(buffer, digitsEnd, end) != FileLineUtils.MINUTES_SUFFIX.length()) {
+                throw new StepFormatException("There is a number in the production step title.");
+            }
+
+            if (digitsEnd - digitsStart > 9) {
+                // Possible overflow: lets Integer.parseInt fail the same way as in FileLineUtils
+                duration = Integer.parseInt(this.decode(buffer, digitsStart, digitsEnd));
+            }
+
+            int nameEnd = digitsStart;
+            while (nameEnd > start && (buffer.get(nameEnd - 1) == ' ' || buffer.get(nameEnd - 1) == '-')) {
+                nameEnd--;
+            }
+
+            String name = this.decodeName(buffer, start, nameEnd);
+            this.checkNotFixed(name);
+            int index = this.table.put(name, duration);
+
+            if (columns != null) {
+                columns.applyTo(this.table, index);
+            }
+        }
+
+        /**
+         * Checks that a line doesn't repeat one of the production steps that can't change anymore.
+         *
+         * @param name Name of the production step of the line.
+         * @throws StepFormatException If the production step is one of them.
+         */
+        private void checkNotFixed(String name) {
+            if (this.fixedSteps == 0) {
+                return;
+            }
+
+            int index = this.table.indexOf(name);
+
+            if (index >= 0 && index < this.fixedSteps) {
+                throw new StepFormatException("The production step " + name + " is repeated after its assembly line "
+                                              + "was written.");
+            }
+        }
+
+        /**
+         * Decodes the bytes between {@code start} and {@code end} as a UTF-8 string.
+         *
+         * @param buffer Buffer with the file bytes.
+         * @param start  Position of the first byte.
+         * @param end    Position after the last byte.
+         * @return The decoded string.
+         */
+        private String decode(ByteBuffer buffer, int start, int end) {
+            return new String(this.nameBytes, 0, this.copy(buffer, start, end), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Gets the production step name of the bytes between {@code start} and {@code end} from the name table,
+         * decoding them only if the name is new. Without a name table, the bytes are decoded.
+         *
+         * @param buffer Buffer with the file bytes.
+         * @param start  Position of the first byte.
+         * @param end    Position after the last byte.
+         * @return The string of the name, the single one of the name table if there is one.
+         */
+        private String decodeName(ByteBuffer buffer, int start, int end) {
+            if (this.names == null) {
+                return this.decode(buffer, start, end);
+            }
+
+            return this.names.internName(this.nameBytes, 0, this.copy(buffer, start, end));
+        }
+
+        /**
+         * Copies the bytes between {@code start} and {@code end} to the reusable array.
+         *
+         * @param buffer Buffer with the file bytes.
+         * @param start  Position of the first byte.
+         * @param end    Position after the last byte.
+         * @return The amount of bytes copied.
+         */
+        private int copy(ByteBuffer buffer, int start, int end) {
+            int length = end - start;
+
+            if (length > this.nameBytes.length) {
+                this.nameBytes = new byte[Math.max(length, this.nameBytes.length * 2)];
+            }
+
+            for (int i = 0; i < length; i++) {
+                this.nameBytes[i] = buffer.get(start + i);
+            }
+
+            return length;
+        }
+    }
+
+    /**
+     * Walks back {@code characters} UTF-8 characters from {@code end}, never going before {@code start}.
+     *
+     * @param buffer     Buffer with the file bytes.
+     * @param start      Lowest position that can be returned.
+     * @param end        Position where the walk starts.
+     * @param characters Amount of characters to walk back.
+     * @return The position of the first dropped character.
+     */
+    private static int dropCharacters(ByteBuffer buffer, int start, int end, int characters) {
+        int position = end;
+
+        while (characters > 0 && position > start) {
+            position--;
+
+            if (!isContinuationByte(buffer.get(position))) {
+                characters--;
+            }
+        }
+
+        return position;
+    }
+
+    /**
+     * Counts the UTF-8 characters between {@code start} and {@code end}.
+     *
+     * @param buffer Buffer with the file bytes.
+     * @param start  Position of the first byte.
+     * @param end    Position after the last byte.
+     * @return The amount of characters.
+     */
+    private static int countCharacters(ByteBuffer buffer, int start, int end) {
+        int characters = 0;
+
+        for (int i = start; i < end; i++) {
+            if (!isContinuationByte(buffer.get(i))) {
+                characters++;
+            }
+        }
+
+        return characters;
+    }
+
+    /**
+     * Checks if the byte continues a UTF-8 character started in a previous byte.
+     *
+     * @param value Byte to check.
+     * @return {@code true} if it's a continuation byte, {@code false} in opposite.
+     */
+    private static boolean isContinuationByte(byte value) {
+        return (value & 0xC0) == 0x80;
+    }
+
+    /**
+     * Checks if the byte is one of the whitespaces matched by the {@code \s} regex, as used in
+     * {@link FileLineUtils}.
+     *
+     * @param value Byte to check.
+     * @return {@code true} if it's a whitespace, {@code false} in opposite.
+     */
+    private static boolean isWhitespace(byte value) {
+        return value == ' ' || value == '\t' || value == '\n' || value == 0x0B || value == '\f' || value == '\r';
+    }
+
+    /**
+     * Checks if the byte is an ASCII digit, as matched by the {@code \d} regex.
+     *
+     * @param value Byte to check.
+     * @return {@code true} if it's a digit, {@code false} in opposite.
+     */
+    private static boolean isDigit(byte value) {
+        return value >= '0' && value <= '9';
+    }
+
+    /**
+     * Converts an ASCII letter to uppercase. Any other byte is returned as it is.
+     *
+     * @param value Byte to convert.
+     * @return The uppercase byte.
+     */
+    private static byte toUpperCase(byte value) {
+        return (value >= 'a' && value <= 'z') ? (byte) (value - ('a' - 'A')) : value;
+    }
+}
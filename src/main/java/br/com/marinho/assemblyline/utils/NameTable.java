@@ -0,0 +1,248 @@
+package br.com.marinho.assemblyline.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Table of the production step names, keyed by their UTF-8 bytes, that gives each distinct name a single
+ * {@link String}. The parsers look the bytes of a name up before decoding them, so a name repeated in millions of
+ * lines, or in many files of a batch, is decoded and allocated once, and the other lines only hash and compare
+ * bytes. The step tables keep these strings, so the table saves the decoding and the duplicated strings of the
+ * conversions sharing it, and a conversion that shares it with no other one doesn't use it.
+ * The table can be shared by threads. It's split into {@link NameTable#SEGMENTS} segments, chosen by the hash of the
+ * name, each one an open addressing hash table locked on its own, so the threads of the parallel parser or of a
+ * batch rarely wait for each other. Each segment keeps the bytes of its names one after another in a single array,
+ * so a name costs its bytes, its string and a few {@code int} values, and no object per entry.
+ */
+public final class NameTable {
+
+    /** Amount of bits of the hash of a name used for its segment. */
+    private static final int SEGMENT_BITS = 4;
+
+    /** Amount of segments, each one with its own lock. */
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+    /** Amount of names each segment can receive before growing. */
+    private static final int INITIAL_SEGMENT_CAPACITY = 64;
+
+    /** Value of an empty slot in the hash tables. */
+    private static final int EMPTY_SLOT = 0;
+
+    /** Odd constant close to 2^32 divided by the golden ratio, used to scatter the hash codes. */
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    /** Segments of the table. */
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /** Maximum amount of names of each segment. */
+    private final int maxSegmentNames;
+
+    /**
+     * Constructor of the class, without a limit on the amount of names.
+     */
+    public NameTable() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor of the class. A table shared by a long-running program should have a limit, as the names are
+     * never removed: once it's reached, the new names aren't kept and are decoded by the callers, as without a table.
+     *
+     * @param maxNames Approximate maximum amount of names, spread over the segments.
+     * @throws IllegalArgumentException If the limit isn't positive.
+     */
+    public NameTable(int maxNames) {
+        if (maxNames < 1) {
+            throw new IllegalArgumentException("The name table must keep at least one name, not " + maxNames + ".");
+        }
+
+        this.maxSegmentNames = Math.max(1, maxNames / SEGMENTS);
+
+        for (int i = 0; i < SEGMENTS; i++) {
+            this.segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Gets the single string of a name, adding it to the table if it's new. If the table is full, the new name is
+     * decoded without being kept.
+     *
+     * @param bytes  Array with the UTF-8 bytes of the name.
+     * @param offset Position of the first byte of the name.
+     * @param length Amount of bytes of the name.
+     * @return The string of the name, the single one of the table unless the table is full.
+     */
+    public String internName(byte[] bytes, int offset, int length) {
+        int hash = hash(bytes, offset, length);
+        Segment segment = this.segments[hash >>> (Integer.SIZE - SEGMENT_BITS)];
+        String name = segment.intern(bytes, offset, length, hash, this.maxSegmentNames);
+
+        return name == null ? new String(bytes, offset, length, StandardCharsets.UTF_8) : name;
+    }
+
+    /**
+     * @return The amount of names in the table.
+     */
+    public int size() {
+        int size = 0;
+
+        for (int i = 0; i < SEGMENTS; i++) {
+            size += this.segments[i].getSize();
+        }
+
+        return size;
+    }
+
+    /**
+     * Hashes the bytes of a name. The highest bits choose the segment and the lowest ones the slot, so both are
+     * scattered by the multiplication.
+     *
+     * @param bytes  Array with the bytes.
+     * @param offset Position of the first byte.
+     * @param length Amount of bytes.
+     * @return The hash of the bytes.
+     */
+    private static int hash(byte[] bytes, int offset, int length) {
+        int hash = 1;
+
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+
+        return hash * HASH_MULTIPLIER;
+    }
+
+    /**
+     * Part of the table with its own lock, held while the names are looked up and added.
+     */
+    private static final class Segment {
+
+        /** Names of the segment, by their position. */
+        private String[] names = new String[INITIAL_SEGMENT_CAPACITY];
+
+        /** Bytes of the names, one after another. */
+        private byte[] pool = new byte[INITIAL_SEGMENT_CAPACITY * 16];
+
+        /** Position, in the pool, after the last byte of each name. */
+        private int[] ends = new int[INITIAL_SEGMENT_CAPACITY];
+
+        /** Hash of each name, used when the hash table grows. */
+        private int[] hashes = new int[INITIAL_SEGMENT_CAPACITY];
+
+        /** Hash table with the position of each name plus one, so {@link NameTable#EMPTY_SLOT} is an empty slot. */
+        private int[] slots = new int[INITIAL_SEGMENT_CAPACITY * 2];
+
+        /** Amount of names of the segment. */
+        private int size;
+
+        /**
+         * Gets the string of a name in the segment, adding it if it's new.
+         *
+         * @param bytes    Array with the UTF-8 bytes of the name.
+         * @param offset   Position of the first byte of the name.
+         * @param length   Amount of bytes of the name.
+         * @param hash     Hash of the name.
+         * @param maxNames Maximum amount of names of the segment.
+         * @return The string of the name, or {@code null} if it's new and the segment is full.
+         */
+        private synchronized String intern(byte[] bytes, int offset, int length, int hash, int maxNames) {
+            int mask = this.slots.length - 1;
+            int slot = hash & mask;
+
+            while (this.slots[slot] != EMPTY_SLOT) {
+                int index = this.slots[slot] - 1;
+
+                if (this.hashes[index] == hash && this.equalsName(index, bytes, offset, length)) {
+                    return this.names[index];
+                }
+
+                slot = (slot + 1) & mask;
+            }
+
+            if (this.size == maxNames) {
+                return null;
+            }
+
+            int index = this.size;
+            int start = index == 0 ? 0 : this.ends[index - 1];
+
+            if (start + length > this.pool.length) {
+                this.pool = Arrays.copyOf(this.pool, Math.max(this.pool.length * 2, start + length));
+            }
+
+            System.arraycopy(bytes, offset, this.pool, start, length);
+            String name = new String(bytes, offset, length, StandardCharsets.UTF_8);
+
+            if (index == this.ends.length) {
+                int capacity = index * 2;
+                this.ends = Arrays.copyOf(this.ends, capacity);
+                this.hashes = Arrays.copyOf(this.hashes, capacity);
+                this.names = Arrays.copyOf(this.names, capacity);
+            }
+
+            this.names[index] = name;
+            this.ends[index] = start + length;
+            this.hashes[index] = hash;
+            this.slots[slot] = index + 1;
+            this.size++;
+
+            if (this.size * 2 > this.slots.length) {
+                this.rehash();
+            }
+
+            return name;
+        }
+
+        /**
+         * @return The amount of names of the segment.
+         */
+        private synchronized int getSize() {
+            return this.size;
+        }
+
+        /**
+         * Compares a name of the segment with the given bytes.
+         *
+         * @param index  Position of the name.
+         * @param bytes  Array with the bytes.
+         * @param offset Position of the first byte.
+         * @param length Amount of bytes.
+         * @return {@code true} if they are the same bytes.
+         */
+        private boolean equalsName(int index, byte[] bytes, int offset, int length) {
+            int start = index == 0 ? 0 : this.ends[index - 1];
+
+            if (this.ends[index] - start != length) {
+                return false;
+            }
+
+            for (int i = 0; i < length; i++) {
+                if (this.pool[start + i] != bytes[offset + i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Doubles the hash table, placing the names again by their hashes.
+         */
+        private void rehash() {
+            int[] grown = new int[this.slots.length * 2];
+            int mask = grown.length - 1;
+
+            for (int i = 0; i < this.size; i++) {
+                int slot = this.hashes[i] & mask;
+
+                while (grown[slot] != EMPTY_SLOT) {
+                    slot = (slot + 1) & mask;
+                }
+
+                grown[slot] = i + 1;
+            }
+
+            this.slots = grown;
+        }
+    }
+}
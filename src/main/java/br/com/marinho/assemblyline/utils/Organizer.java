@@ -1,71 +1,132 @@
 package br.com.marinho.assemblyline.utils;
 
+import br.com.marinho.assemblyline.metrics.PipelineMetrics;
+import br.com.marinho.assemblyline.model.AssemblyLine;
+import br.com.marinho.assemblyline.model.ScheduleEntry;
+import br.com.marinho.assemblyline.model.StepTable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Class responsible for receiving a map with all activities and organize them into assembly lines.
+ * The clock is kept as an integer amount of minutes since midnight, so there is no floating point drift, even in
+ * long schedules.
+ * The rules come from a {@link ShiftCalendar}, compiled in the constructor into arrays of window limits and
+ * pre-rendered break lines, so the organization only compares integers and appends ready lines, as it did when the
+ * rules were constants.
  */
 public class Organizer {
 
     /** Value representing the starting time of an assembly line (9:00). */
-    private static final double INITIAL_TIME = 9.00;
+    static final int INITIAL_TIME = 9 * ScheduleFormat.HOUR_MULTIPLIER;
 
-    /** Value used to convert minute values into hour. */
-    private static final double HOUR_MULTIPLIER = 60.;
+    /** Value representing the lunch time (12:00). An activity can finish exactly at this time. */
+    static final int LUNCH_TIME_VALUE = 12 * ScheduleFormat.HOUR_MULTIPLIER;
 
-    /** Value representing the starting time of an assembly line (9:00). */
-    private static final double AFTER_LUNCH_TIME = 13.;
+    /** Value representing the starting time of the afternoon period (13:00). */
+    static final int AFTER_LUNCH_TIME = 13 * ScheduleFormat.HOUR_MULTIPLIER;
+
+    /** Value representing the end of an assembly line (17:00). An activity must finish before this time. */
+    static final int END_TIME = 17 * ScheduleFormat.HOUR_MULTIPLIER;
+
+    /** Amount of assembly lines built by each task of the parallel organization. */
+    private static final int LINES_PER_TASK = 256;
+
+    /** Amount of tasks per thread in each batch of the parallel organization. */
+    private static final int TASKS_PER_THREAD = 4;
+
+    /** Amount of encoded bytes kept before they are written to the stream. */
+    private static final int ENCODED_FLUSH_SIZE = 1 << 16;
 
-    /** Decimal separator. */
-    private static final String POINT = ".";
+    /** Calendar of the assembly lines, given to the {@link ScheduleIterator} and to the encoders. */
+    private final ShiftCalendar calendar;
 
-    /** A blank space used in line building. */
-    private static final String WHITESPACE = " ";
+    /** Start of each window of the calendar. */
+    private final int[] windowStarts;
 
-    /** Line break regex to jump a line at the end of a string. */
-    private static final String LINE_BREAK = "\n";
+    /** Latest time an activity can end in each window of the calendar. */
+    private final int[] latestEnds;
 
-    /** Character ":", used in time separation. */
-    private static final String DOUBLE_COLON = ":";
+    /** Position of the last window. */
+    private final int lastWindow;
 
-    /** Suffix used in the end of a line together with the activity time. */
-    private static final String MINUTE_SUFFIX = "min";
+    /** Latest time an activity can end in the last window, after which the assembly line is closed. */
+    private final int lastLatestEnd;
 
-    /** Time used if the activities end before 16h. */
-    private static final String GYM_DEFAULT_TIME = "16:00";
+    /** Line of each break, as in "12:00 Almoço\n", written when the activities go to the next window. */
+    private final String[] breakLines;
 
-    /** Line representing the lunch time of an assembly line. */
-    private static final String LUNCH_TIME = "12:00 Almoço\n";
+    /** Earliest time of the event that closes an assembly line. */
+    private final int eventTime;
 
-    /** Line reprsenting the gym time of an assembly line. */
-    private static final String GYM_TIME = " Ginástica laboral\n";
+    /** Text written after the time of the closing event, as in " Ginástica laboral\n". */
+    private final String eventSuffix;
 
-    /** Title that comes before the assembly line activities. */
-    private static final String ASSEMBLY_LINE_TITLE = "Linha de montagem %d:\n";
+    /** Duration used in the clock for the maintenance activities. */
+    private final int maintenanceDuration;
+
+    /** {@code true} if the times must be written in the HH:MM of their day, as the calendar crosses midnight. */
+    private final boolean crossesMidnight;
+
+    /** Metrics receiving the counters of each organization, or {@code null} if they are disabled. */
+    private final PipelineMetrics metrics;
+
+    /**
+     * Constructor of the class, with the calendar of the original program.
+     */
+    public Organizer() {
+        this(ShiftCalendar.DEFAULT);
+    }
 
     /**
-     * If the value, represented as {@code value} is lesser than 10, we need to add a 0 before it so the time can be in
-     * 0X:XX format. This method is the responsible for this filling.
+     * Constructor of the class, compiling the rules of the calendar.
      *
-     * @param value Value used in the filling process.
-     * @return String containing the filled, if necessary, value.
+     * @param calendar Calendar of the assembly lines.
      */
-    private String fillMissingPlace(double value) {
-        return (value < 10) ? "0" + (int) value : String.valueOf((int) value);
+    public Organizer(ShiftCalendar calendar) {
+        this(calendar, null);
     }
 
     /**
-     * Method responsible for append strings in a String builder.
-     * Two interesting points about this method are (1) it's creation to avoid a lot of
-     * {@code line.append().append()...} in the code and (2) the original for in it. The {@code for (item : array}
-     * isn't too good for performance because it needs to instantiate a new item at each iteration.
+     * Same as {@link Organizer#Organizer(ShiftCalendar)}, but each organization records its duration, the steps,
+     * the assembly lines, the breaks and the events in {@code metrics}. The counters are kept in local variables and
+     * recorded once in the end, so the organization loop is the same as without metrics.
      *
-     * @param targetSting     String builder that is receiving the values.
-     * @param stringsToAppend Strings to be appended.
+     * @param calendar Calendar of the assembly lines.
+     * @param metrics  Metrics receiving the counters, or {@code null} to disable them.
      */
-    private void appendStrings(StringBuilder targetSting, String... stringsToAppend) {
-        for (int i = 0; i < stringsToAppend.length; i++) {
-            targetSting.append(stringsToAppend[i]);
+    public Organizer(ShiftCalendar calendar, PipelineMetrics metrics) {
+        int[] breakTimes = calendar.getBreakTimes();
+        String[] breakLabels = calendar.getBreakLabels();
+
+        this.calendar = calendar;
+        this.windowStarts = calendar.getWindowStarts();
+        this.latestEnds = calendar.getLatestEnds();
+        this.lastWindow = calendar.getWindows() - 1;
+        this.lastLatestEnd = this.latestEnds[this.lastWindow];
+        this.eventTime = calendar.getEventTime();
+        this.eventSuffix = " " + calendar.getEventLabel() + ScheduleFormat.LINE_BREAK;
+        this.maintenanceDuration = calendar.getMaintenanceDuration();
+        this.crossesMidnight = calendar.crossesMidnight();
+        this.metrics = metrics;
+        this.breakLines = new String[breakTimes.length];
+
+        for (int i = 0; i < breakTimes.length; i++) {
+            StringBuilder breakLine = new StringBuilder();
+            ScheduleFormat.appendTime(breakLine, this.toDisplayTime(breakTimes[i]));
+            this.breakLines[i] = breakLine.append(' ').append(breakLabels[i]).append(ScheduleFormat.LINE_BREAK)
+                                          .toString();
         }
     }
 
@@ -75,62 +136,487 @@ public class Organizer {
      * after noon, (2) checking the gym time, also checking if the current activity would end after 17h and (3)
      * checking, in the end, if the gym activity is already in the string. It is possible to the last activity ends
      * before 16h and, if so, we need to add the gym in the end, starting t 16h.
+     * The map can't tell a maintenance from a step written with its duration, so both are written as maintenances,
+     * as in the original program; the {@link StepTable} of the parsers writes the second one with its duration.
      *
      * @param activities Activities coming from the file.
      * @return Organized assembly lines.
      */
     public String organize(Map<String, Integer> activities) {
-        StringBuilder line = new StringBuilder();
-        double time = INITIAL_TIME;
-        boolean hadLunch = false;
-        double decimalTime = (time - (int) time) * HOUR_MULTIPLIER;
+        return this.organize(StepTable.fromMap(activities));
+    }
+
+    /**
+     * Same as {@link Organizer#organize(Map)}, but receiving the activities in a {@link StepTable}. The activities
+     * are organized in the table order.
+     *
+     * @param activities Activities coming from the file.
+     * @return Organized assembly lines.
+     */
+    public String organize(StepTable activities) {
+        StringWriter writer = new StringWriter();
+
+        try {
+            this.organize(activities, writer);
+        } catch (IOException e) {
+            // A StringWriter never throws an IOException
+            throw new UncheckedIOException(e);
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Same as {@link Organizer#organize(StepTable)}, but each assembly line is written to {@code writer} as soon as
+     * it's closed, so only one assembly line is kept in memory. To write to a
+     * {@link java.nio.channels.WritableByteChannel}, {@link java.nio.channels.Channels#newWriter} can be used.
+     * The clock is the amount of minutes since midnight and each line is appended directly to the line buffer,
+     * without formatting or boxing values. The writer isn't flushed or closed.
+     *
+     * @param activities Activities coming from the file.
+     * @param writer     Writer receiving the organized assembly lines.
+     * @throws IOException If there is a problem while writing.
+     */
+    public void organize(StepTable activities, Writer writer) throws IOException {
+        long start = this.metrics == null ? 0 : System.nanoTime();
+        ScheduleFormat.LineBuffer line = new ScheduleFormat.LineBuffer(writer);
+        // The rules are kept in locals, as this loop runs once per activity
+        int[] starts = this.windowStarts;
+        int[] ends = this.latestEnds;
+        int lastWindow = this.lastWindow;
+        int lastLatestEnd = this.lastLatestEnd;
+        int time = starts[0];
+        int window = 0;
         int assemblyLine = 1;
+        int breaks = 0;
+
+        ScheduleFormat.appendTitle(line.builder, assemblyLine++);
+
+        for (int i = 0; i < activities.size(); i++) {
+            int clockDuration = this.getClockDuration(activities, i);
+
+            while (window < lastWindow && time + clockDuration > ends[window]) {
+                line.builder.append(this.breakLines[window]);
+                time = starts[++window];
+                breaks++;
+            }
+
+            if (time + clockDuration > lastLatestEnd) {
+                this.appendEvent(line.builder, time);
+                line.builder.append(ScheduleFormat.LINE_BREAK);
+                line.flush();
+
+                time = starts[0];
+                window = 0;
+                ScheduleFormat.appendTitle(line.builder, assemblyLine++);
+            }
+
+            ScheduleFormat.appendActivity(line.builder, this.toDisplayTime(time), activities.getName(i),
+                                          activities.getDuration(i), activities.isMaintenance(i));
+            time += clockDuration;
+        }
+
+        // The loop always ends with an activity, so the event is only missing in the last assembly line
+        if (window == lastWindow) {
+            this.appendEvent(line.builder, time);
+        }
+
+        line.flush();
+
+        if (this.metrics != null) {
+            // Every assembly line but the last one is closed by an event
+            int lines = assemblyLine - 1;
+            this.metrics.recordOrganize(activities.size(), lines, breaks, lines - 1 + (window == lastWindow ? 1 : 0),
+                                        System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Builds the assembly lines of {@link Organizer#organize(StepTable)} as a structured model instead of text, one
+     * at a time, as they are asked for.
+     *
+     * @param activities Activities coming from the file.
+     * @return An iterator over the assembly lines.
+     */
+    public ScheduleIterator iterate(StepTable activities) {
+        return new ScheduleIterator(activities, this.calendar);
+    }
+
+    /**
+     * Same as {@link Organizer#organize(StepTable, Writer)}, but the assembly lines are built as a structured model
+     * and written by {@code encoder}, as text, CSV, JSON lines or binary. The encoded bytes go to a reused buffer,
+     * written to {@code output} every {@link Organizer#ENCODED_FLUSH_SIZE} bytes, so no string is built for the
+     * lines. The stream isn't flushed or closed.
+     *
+     * @param activities Activities coming from the file.
+     * @param encoder    Encoder of the output format.
+     * @param output     Stream receiving the encoded assembly lines.
+     * @throws IOException If there is a problem while writing.
+     */
+    public void encode(StepTable activities, ScheduleEncoder encoder, OutputStream output) throws IOException {
+        long start = this.metrics == null ? 0 : System.nanoTime();
+        ScheduleIterator iterator = this.iterate(activities);
+        ScheduleBuffer buffer = new ScheduleBuffer();
+        int lines = 0;
+        long breaks = 0;
+        long events = 0;
+
+        encoder.encodeStart(buffer);
+
+        while (iterator.hasNext()) {
+            AssemblyLine line = iterator.next();
+            encoder.encode(line, buffer);
+            lines++;
+
+            if (this.metrics != null) {
+                for (int i = 0; i < line.getEntries().size(); i++) {
+                    ScheduleEntry.Type type = line.getEntries().get(i).getType();
+                    breaks += type == ScheduleEntry.Type.BREAK ? 1 : 0;
+                    events += type == ScheduleEntry.Type.EVENT ? 1 : 0;
+                }
+            }
+
+            if (buffer.size() >= ENCODED_FLUSH_SIZE) {
+                buffer.writeTo(output);
+            }
+        }
+
+        buffer.writeTo(output);
+
+        if (this.metrics != null) {
+            this.metrics.recordOrganize(activities.size(), lines, breaks, events, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Same as {@link Organizer#organize(StepTable)}, but the assembly lines are built in two phases: first, the
+     * activities are divided into assembly lines, only moving the clock, and then the assembly lines, that don't
+     * depend on each other, are built in parallel by {@code parallelism} threads. The result is the same as the
+     * sequential organization.
+     *
+     * @param activities  Activities coming from the file.
+     * @param parallelism Amount of threads used to build the assembly lines.
+     * @return Organized assembly lines.
+     */
+    public String organize(StepTable activities, int parallelism) {
+        StringWriter writer = new StringWriter();
+
+        try {
+            this.organize(activities, writer, parallelism);
+        } catch (IOException e) {
+            // A StringWriter never throws an IOException
+            throw new UncheckedIOException(e);
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Same as {@link Organizer#organize(StepTable, int)}, but the assembly lines are written to {@code writer}. The
+     * assembly lines are built in batches, written in their order as soon as each batch is finished, so only one
+     * batch is kept in memory. The writer isn't flushed or closed.
+     *
+     * @param activities  Activities coming from the file.
+     * @param writer      Writer receiving the organized assembly lines.
+     * @param parallelism Amount of threads used to build the assembly lines.
+     * @throws IOException If there is a problem while writing.
+     */
+    public void organize(StepTable activities, Writer writer, int parallelism) throws IOException {
+        long start = this.metrics == null ? 0 : System.nanoTime();
+        int[] lineStarts = this.partition(activities);
+        int lines = lineStarts.length - 1;
+        int batchSize = parallelism * TASKS_PER_THREAD * LINES_PER_TASK;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        char[] chars = new char[0];
+        LineCounts counts = new LineCounts();
+
+        try {
+            for (int batchStart = 0; batchStart < lines; batchStart += batchSize) {
+                int batchEnd = Math.min(lines, batchStart + batchSize);
+                List<ForkJoinTask<StringBuilder>> tasks = new ArrayList<>();
+
+                for (int taskStart = batchStart; taskStart < batchEnd; taskStart += LINES_PER_TASK) {
+                    int from = taskStart;
+                    int to = Math.min(batchEnd, taskStart + LINES_PER_TASK);
+
+                    tasks.add(pool.submit(() -> {
+                        StringBuilder builder = new StringBuilder();
+                        LineCounts taskCounts = this.metrics == null ? null : new LineCounts();
+
+                        for (int line = from; line < to; line++) {
+                            this.buildAssemblyLine(builder, activities, lineStarts, line, taskCounts);
+                        }
+
+                        if (taskCounts != null) {
+                            counts.add(taskCounts);
+                        }
+                        return builder;
+                    }));
+                }
+
+                for (int i = 0; i < tasks.size(); i++) {
+                    StringBuilder builder = tasks.get(i).get();
+                    if (builder.length() > chars.length) {
+                        chars = new char[Math.max(builder.length(), chars.length * 2)];
+                    }
+
+                    builder.getChars(0, builder.length(), chars, 0);
+                    writer.write(chars, 0, builder.length());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The organization was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        if (this.metrics != null) {
+            this.metrics.recordOrganize(activities.size(), lines, counts.breaks, counts.events,
+                                        System.nanoTime() - start);
+        }
+    }
 
-        line.append(String.format(ASSEMBLY_LINE_TITLE, assemblyLine++));
+    /**
+     * First phase of the parallel organization: divides the activities into assembly lines, following the same rules
+     * as {@link Organizer#organize(StepTable, Writer)}, but only moving the clock.
+     *
+     * @param activities Activities coming from the file.
+     * @return The position of the first activity of each assembly line, plus the amount of activities in the end.
+     */
+    int[] partition(StepTable activities) {
+        int[] lineStarts = new int[16];
+        int lines = 0;
+        int from = 0;
+
+        while (true) {
+            int to = this.findAssemblyLineEnd(activities, from, lines == 0);
 
-        for (Map.Entry<String, Integer> entry : activities.entrySet()) {
-            if (!hadLunch && time + (entry.getValue() / HOUR_MULTIPLIER) > 12.) {
-                line.append(LUNCH_TIME);
-                hadLunch = true;
-                time = AFTER_LUNCH_TIME;
-                decimalTime = (time - (int) time) * HOUR_MULTIPLIER;
+            if (lines + 2 > lineStarts.length) {
+                lineStarts = Arrays.copyOf(lineStarts, lineStarts.length * 2);
             }
 
-            if (time + (entry.getValue() / HOUR_MULTIPLIER) >= 17.) {
-                if (time < 16.) {
-                    this.appendStrings(line, GYM_DEFAULT_TIME, GYM_TIME, LINE_BREAK);
-                } else {
-                    String minutes = this.fillMissingPlace(decimalTime).replace(POINT, "");
-                    this.appendStrings(line, this.fillMissingPlace((int) time), DOUBLE_COLON, minutes, GYM_TIME,
-                            LINE_BREAK);
+            lineStarts[lines++] = from;
+
+            if (to == activities.size()) {
+                lineStarts[lines] = to;
+                return Arrays.copyOf(lineStarts, lines + 1);
+            }
+
+            from = to;
+        }
+    }
+
+    /**
+     * Finds where the assembly line starting at {@code from} ends, only moving the clock. The first activity of an
+     * assembly line, except the first one, starts at the first window without any check, as in
+     * {@link Organizer#organize(StepTable, Writer)}, so the assembly lines after it don't depend on the previous
+     * ones. The first assembly line can end without any activity, if the first one is too long.
+     *
+     * @param activities Activities coming from the file.
+     * @param from       Position of the first activity of the assembly line.
+     * @param firstLine  {@code true} if it's the first assembly line.
+     * @return The position of the first activity of the next assembly line, or the amount of activities if it's the
+     * last assembly line.
+     */
+    int findAssemblyLineEnd(StepTable activities, int from, boolean firstLine) {
+        int time = this.windowStarts[0];
+        int window = 0;
+
+        for (int i = from; i < activities.size(); i++) {
+            int duration = this.getClockDuration(activities, i);
+
+            if (i != from || firstLine) {
+                while (window < this.lastWindow && time + duration > this.latestEnds[window]) {
+                    time = this.windowStarts[++window];
                 }
 
-                time = INITIAL_TIME;
-                decimalTime = (time - (int) time) * HOUR_MULTIPLIER;
-                hadLunch = false;
-                line.append(String.format(ASSEMBLY_LINE_TITLE, assemblyLine++));
+                if (time + duration > this.lastLatestEnd) {
+                    return i;
+                }
             }
 
-            String minutes = this.fillMissingPlace(decimalTime).replace(POINT, "");
-            this.appendStrings(line, this.fillMissingPlace((int) time), DOUBLE_COLON, minutes, WHITESPACE,
-                    entry.getKey(), WHITESPACE);
-            if (entry.getValue() != 5) {
-                line.append(entry.getValue()).append(MINUTE_SUFFIX);
+            time += duration;
+        }
+
+        return activities.size();
+    }
+
+    /**
+     * Second phase of the parallel organization: builds one assembly line, with the same content it has in
+     * {@link Organizer#organize(StepTable, Writer)}.
+     *
+     * @param builder    String builder that is receiving the assembly line.
+     * @param activities Activities coming from the file.
+     * @param lineStarts Position of the first activity of each assembly line, as built by
+     *                   {@link Organizer#partition(StepTable)}.
+     * @param line       Position of the assembly line, starting at 0.
+     * @param counts     Counters of the breaks and events, or {@code null} if the metrics are disabled.
+     */
+    private void buildAssemblyLine(StringBuilder builder, StepTable activities, int[] lineStarts, int line,
+                                   LineCounts counts) {
+        ScheduleFormat.appendTitle(builder, line + 1);
+        this.buildAssemblyLineBody(builder, activities, lineStarts[line], lineStarts[line + 1], line == 0, counts);
+    }
+
+    /**
+     * Builds the content of an assembly line, after its title. As in the sequential organization, the first activity
+     * of an assembly line, except the first one, starts at the first window without the break checks, and the
+     * activity that closes an assembly line can still add breaks to it before the event. The last assembly line, the
+     * one ending with the last activity, only has the event if it reached the last window.
+     *
+     * @param builder    String builder that is receiving the assembly line.
+     * @param activities Activities coming from the file.
+     * @param from       Position of the first activity of the assembly line.
+     * @param to         Position of the first activity of the next assembly line, as returned by
+     *                   {@link Organizer#findAssemblyLineEnd(StepTable, int, boolean)}.
+     * @param firstLine  {@code true} if it's the first assembly line.
+     * @param counts     Counters of the breaks and events, or {@code null} to not count them.
+     */
+    void buildAssemblyLineBody(StringBuilder builder, StepTable activities, int from, int to, boolean firstLine,
+                               LineCounts counts) {
+        int time = this.windowStarts[0];
+        int window = 0;
+        int breaks = 0;
+
+        for (int i = from; i < to; i++) {
+            int clockDuration = this.getClockDuration(activities, i);
+
+            if (i != from || firstLine) {
+                while (window < this.lastWindow && time + clockDuration > this.latestEnds[window]) {
+                    builder.append(this.breakLines[window]);
+                    time = this.windowStarts[++window];
+                    breaks++;
+                }
             }
-            line.append(LINE_BREAK);
-            time += entry.getValue() / HOUR_MULTIPLIER;
-            decimalTime = Math.round((time - (int) time) * HOUR_MULTIPLIER);
+
+            ScheduleFormat.appendActivity(builder, this.toDisplayTime(time), activities.getName(i),
+                                          activities.getDuration(i), activities.isMaintenance(i));
+            time += clockDuration;
         }
 
-        if (!line.toString().endsWith(GYM_TIME) && hadLunch) {
-            if (time < 16.) {
-                line.append(GYM_DEFAULT_TIME).append(GYM_TIME);
-            } else {
-                String minutes = this.fillMissingPlace(decimalTime).replace(POINT, "");
-                this.appendStrings(line, this.fillMissingPlace((int) time), DOUBLE_COLON, minutes, GYM_TIME);
+        boolean hasEvent = true;
+
+        if (to < activities.size()) {
+            int closingDuration = this.getClockDuration(activities, to);
+
+            while (window < this.lastWindow && time + closingDuration > this.latestEnds[window]) {
+                builder.append(this.breakLines[window]);
+                time = this.windowStarts[++window];
+                breaks++;
             }
+
+            this.appendEvent(builder, time);
+            builder.append(ScheduleFormat.LINE_BREAK);
+        } else if (window == this.lastWindow) {
+            this.appendEvent(builder, time);
+        } else {
+            hasEvent = false;
         }
 
-        return line.toString();
+        if (counts != null) {
+            counts.breaks += breaks;
+            counts.events += hasEvent ? 1 : 0;
+        }
+    }
+
+    /**
+     * Counters of the breaks and events written by a task of the parallel organization, added to the ones of the
+     * other tasks when it finishes.
+     */
+    static final class LineCounts {
+
+        /** Amount of breaks written. */
+        private long breaks;
+
+        /** Amount of closing events written. */
+        private long events;
+
+        /**
+         * Adds the counters of a task.
+         *
+         * @param taskCounts Counters of the task.
+         */
+        synchronized void add(LineCounts taskCounts) {
+            this.breaks += taskCounts.breaks;
+            this.events += taskCounts.events;
+        }
+    }
+
+    /**
+     * Counts the assembly lines that {@link Organizer#organize(StepTable)} would build, only moving the clock,
+     * without building any line.
+     *
+     * @param activities Activities coming from the file.
+     * @return The amount of assembly lines.
+     */
+    public int countAssemblyLines(StepTable activities) {
+        int time = this.windowStarts[0];
+        int window = 0;
+        int assemblyLines = 1;
+
+        for (int i = 0; i < activities.size(); i++) {
+            int duration = this.getClockDuration(activities, i);
+
+            while (window < this.lastWindow && time + duration > this.latestEnds[window]) {
+                time = this.windowStarts[++window];
+            }
+
+            if (time + duration > this.lastLatestEnd) {
+                time = this.windowStarts[0];
+                window = 0;
+                assemblyLines++;
+            }
+
+            time += duration;
+        }
+
+        return assemblyLines;
+    }
+
+    /**
+     * Appends the break written when the activities go from a window to the next one.
+     *
+     * @param builder String builder that is receiving the break line.
+     * @param window  Position of the window before the break.
+     */
+    void appendBreak(StringBuilder builder, int window) {
+        builder.append(this.breakLines[window]);
+    }
+
+    /**
+     * Gets the duration an activity takes in the clock. Maintenance activities, marked by
+     * {@link StepTable#isMaintenance(int)}, take the maintenance duration of the calendar.
+     *
+     * @param activities Activities coming from the file.
+     * @param index      Position of the activity.
+     * @return The duration, in minutes, used to move the clock.
+     */
+    int getClockDuration(StepTable activities, int index) {
+        return activities.isMaintenance(index) ? this.maintenanceDuration : activities.getDuration(index);
+    }
+
+    /**
+     * Converts a time of the clock into the time written in the assembly line. If the calendar crosses midnight,
+     * the times of the next day start again at "00:00".
+     *
+     * @param time Minutes since the midnight of the first day.
+     * @return The time to write.
+     */
+    int toDisplayTime(int time) {
+        return this.crossesMidnight ? time % ScheduleFormat.MINUTES_PER_DAY : time;
+    }
+
+    /**
+     * Appends the event that closes an assembly line, starting at its time or when the activities ended, if later.
+     *
+     * @param builder String builder that is receiving the event line.
+     * @param time    Minutes since the midnight of the first day when the last activity ended.
+     */
+    void appendEvent(StringBuilder builder, int time) {
+        ScheduleFormat.appendTime(builder, this.toDisplayTime(Math.max(time, this.eventTime)));
+        builder.append(this.eventSuffix);
     }
-}
\ No newline at end of file
+}
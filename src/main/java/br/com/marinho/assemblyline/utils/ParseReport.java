@@ -0,0 +1,133 @@
+package br.com.marinho.assemblyline.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Report of the invalid lines found while converting a production steps file in the fail-soft mode. Instead of
+ * finishing the program on the first invalid line, the parsers skip it and add it to the report, so the whole file is
+ * validated in one pass and the valid steps can still be organized.
+ * Only the first invalid lines are kept, so the report stays small even if every line of a big file is invalid, but
+ * all of them are counted. When the amount of invalid lines passes the threshold, the conversion is aborted with a
+ * {@link StepFormatException}, as there is no point in reading the rest of a file that is mostly wrong.
+ * An instance must not be shared between threads.
+ */
+public class ParseReport {
+
+    /** Amount of invalid lines kept in the report when none is given. */
+    public static final int DEFAULT_KEPT_ERRORS = 100;
+
+    /** Maximum amount of invalid lines before the conversion is aborted. */
+    private final long errorThreshold;
+
+    /** Number, starting at 1, of each kept invalid line. */
+    private final long[] lineNumbers;
+
+    /** Problem of each kept invalid line. */
+    private final String[] messages;
+
+    /** Amount of invalid lines found, kept or not. */
+    private long errorCount;
+
+    /**
+     * Constructor of the class, keeping the first {@link ParseReport#DEFAULT_KEPT_ERRORS} invalid lines.
+     *
+     * @param errorThreshold Maximum amount of invalid lines before the conversion is aborted.
+     */
+    public ParseReport(long errorThreshold) {
+        this(errorThreshold, DEFAULT_KEPT_ERRORS);
+    }
+
+    /**
+     * Constructor of the class.
+     *
+     * @param errorThreshold Maximum amount of invalid lines before the conversion is aborted.
+     * @param keptErrors     Amount of invalid lines kept in the report.
+     */
+    public ParseReport(long errorThreshold, int keptErrors) {
+        this.errorThreshold = errorThreshold;
+        this.lineNumbers = new long[keptErrors];
+        this.messages = new String[keptErrors];
+    }
+
+    /**
+     * Adds an invalid line to the report.
+     *
+     * @param lineNumber Number of the line, starting at 1.
+     * @param message    Problem of the line.
+     * @throws StepFormatException If the amount of invalid lines passed the threshold.
+     */
+    void addError(long lineNumber, String message) {
+        if (this.errorCount < this.messages.length) {
+            this.lineNumbers[(int) this.errorCount] = lineNumber;
+            this.messages[(int) this.errorCount] = message;
+        }
+
+        this.errorCount++;
+
+        if (this.errorCount > this.errorThreshold) {
+            throw new StepFormatException("There are more than " + this.errorThreshold + " invalid lines, the last one"
+                                          + " at line " + lineNumber + ".");
+        }
+    }
+
+    /**
+     * @return The amount of invalid lines found, kept or not.
+     */
+    public long getErrorCount() {
+        return this.errorCount;
+    }
+
+    /**
+     * @return The numbers, starting at 1, of the kept invalid lines.
+     */
+    public long[] getLineNumbers() {
+        return Arrays.copyOf(this.lineNumbers, this.getKeptErrors());
+    }
+
+    /**
+     * Gets the kept invalid lines, as in "Line 12: There is no time in the line and it's not possible to determine
+     * it.".
+     *
+     * @return The kept invalid lines, in the file order.
+     */
+    public List<String> getErrors() {
+        List<String> errors = new ArrayList<>(this.getKeptErrors());
+
+        for (int i = 0; i < this.getKeptErrors(); i++) {
+            errors.add("Line " + this.lineNumbers[i] + ": " + this.messages[i]);
+        }
+
+        return errors;
+    }
+
+    /**
+     * Writes the report: the amount of invalid lines followed by the kept ones, one per line.
+     *
+     * @return The report text.
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append("Invalid lines: ").append(this.errorCount);
+
+        if (this.errorCount > this.getKeptErrors()) {
+            report.append(" (showing the first ").append(this.getKeptErrors()).append(')');
+        }
+
+        List<String> errors = this.getErrors();
+        for (int i = 0; i < errors.size(); i++) {
+            report.append('\n').append(errors.get(i));
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * @return The amount of invalid lines kept in the report.
+     */
+    private int getKeptErrors() {
+        return (int) Math.min(this.errorCount, this.messages.length);
+    }
+}
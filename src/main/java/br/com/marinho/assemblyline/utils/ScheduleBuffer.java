@@ -0,0 +1,252 @@
+package br.com.marinho.assemblyline.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable array of bytes receiving the encoded assembly lines. The names, numbers and times are written straight as
+ * UTF-8 bytes, without building a string or a {@code byte[]} for each of them, and the array is reused after each
+ * {@link ScheduleBuffer#writeTo(OutputStream)}, so encoding millions of assembly lines only allocates the entries.
+ */
+public final class ScheduleBuffer {
+
+    /** Initial size of the array. */
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    /** Digits of the two-digit numbers, from "00" to "99", used for the hours and minutes. */
+    private static final byte[] TWO_DIGITS = buildTwoDigits();
+
+    /** Bytes of the buffer. */
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+
+    /** Amount of bytes written. */
+    private int size;
+
+    /**
+     * @return The two-digit numbers, from "00" to "99", one after another.
+     */
+    private static byte[] buildTwoDigits() {
+        byte[] digits = new byte[200];
+
+        for (int i = 0; i < 100; i++) {
+            digits[2 * i] = (byte) ('0' + i / 10);
+            digits[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+
+        return digits;
+    }
+
+    /**
+     * @return The amount of bytes written since the last {@link ScheduleBuffer#writeTo(OutputStream)}.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Writes the bytes to a stream and empties the buffer.
+     *
+     * @param output Stream receiving the bytes.
+     * @throws IOException If there is a problem while writing.
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        output.write(this.bytes, 0, this.size);
+        this.size = 0;
+    }
+
+    /**
+     * @return A copy of the bytes written since the last {@link ScheduleBuffer#writeTo(OutputStream)}.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.bytes, this.size);
+    }
+
+    /**
+     * Writes a byte.
+     *
+     * @param value Byte to write. Only the lowest 8 bits are used.
+     */
+    public void writeByte(int value) {
+        this.ensureCapacity(1);
+        this.bytes[this.size++] = (byte) value;
+    }
+
+    /**
+     * Writes a character of the ASCII table.
+     *
+     * @param character Character to write.
+     */
+    public void writeAscii(char character) {
+        this.writeByte(character);
+    }
+
+    /**
+     * Writes a text made only of characters of the ASCII table.
+     *
+     * @param text Text to write.
+     */
+    public void writeAscii(String text) {
+        this.ensureCapacity(text.length());
+
+        for (int i = 0; i < text.length(); i++) {
+            this.bytes[this.size++] = (byte) text.charAt(i);
+        }
+    }
+
+    /**
+     * Writes a text in UTF-8, as {@link String#getBytes(java.nio.charset.Charset)} does: a surrogate without its
+     * pair is written as "?".
+     *
+     * @param text Text to write.
+     */
+    public void writeUtf8(String text) {
+        this.writeUtf8(text, 0, text.length());
+    }
+
+    /**
+     * Same as {@link ScheduleBuffer#writeUtf8(String)}, but only the characters from {@code start} to {@code end}
+     * are written, without a substring.
+     *
+     * @param text  Text with the characters to write.
+     * @param start Position of the first character.
+     * @param end   Position after the last character.
+     */
+    public void writeUtf8(String text, int start, int end) {
+        this.ensureCapacity((end - start) * 3);
+
+        for (int i = start; i < end; i++) {
+            char character = text.charAt(i);
+
+            if (character < 0x80) {
+                this.bytes[this.size++] = (byte) character;
+            } else if (character < 0x800) {
+                this.bytes[this.size++] = (byte) (0xC0 | character >> 6);
+                this.bytes[this.size++] = (byte) (0x80 | character & 0x3F);
+            } else if (Character.isHighSurrogate(character) && i + 1 < end
+                       && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(character, text.charAt(++i));
+                this.bytes[this.size++] = (byte) (0xF0 | codePoint >> 18);
+                this.bytes[this.size++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                this.bytes[this.size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                this.bytes[this.size++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(character)) {
+                this.bytes[this.size++] = '?';
+            } else {
+                this.bytes[this.size++] = (byte) (0xE0 | character >> 12);
+                this.bytes[this.size++] = (byte) (0x80 | character >> 6 & 0x3F);
+                this.bytes[this.size++] = (byte) (0x80 | character & 0x3F);
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes of a text in UTF-8, as written by {@link ScheduleBuffer#writeUtf8(String)}.
+     *
+     * @param text Text to measure.
+     * @return The amount of bytes.
+     */
+    public static int utf8Length(String text) {
+        int length = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+
+            if (character < 0x80) {
+                length++;
+            } else if (character < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(character) && i + 1 < text.length()
+                       && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += Character.isSurrogate(character) ? 1 : 3;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Writes a number in decimal.
+     *
+     * @param value Number to write.
+     */
+    public void writeDecimal(int value) {
+        if (value < 0) {
+            if (value == Integer.MIN_VALUE) {
+                this.writeAscii(Integer.toString(value));
+                return;
+            }
+
+            this.writeByte('-');
+            value = -value;
+        }
+
+        int digits = 1;
+        for (int limit = 10; digits < 10 && value >= limit; limit *= 10) {
+            digits++;
+        }
+
+        this.ensureCapacity(digits);
+        for (int i = this.size + digits - 1; i >= this.size; i--) {
+            this.bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+
+        this.size += digits;
+    }
+
+    /**
+     * Writes a time as "HH:MM", as {@link ScheduleFormat#appendTime(StringBuilder, int)} does: the times after the
+     * first day keep counting the hours, as in "25:30".
+     *
+     * @param time Minutes since midnight.
+     */
+    public void writeTime(int time) {
+        int hours = time / ScheduleFormat.HOUR_MULTIPLIER;
+        int minutes = time % ScheduleFormat.HOUR_MULTIPLIER;
+
+        if (hours < 100) {
+            this.ensureCapacity(2);
+            this.bytes[this.size++] = TWO_DIGITS[2 * hours];
+            this.bytes[this.size++] = TWO_DIGITS[2 * hours + 1];
+        } else {
+            this.writeDecimal(hours);
+        }
+
+        this.ensureCapacity(3);
+        this.bytes[this.size++] = ':';
+        this.bytes[this.size++] = TWO_DIGITS[2 * minutes];
+        this.bytes[this.size++] = TWO_DIGITS[2 * minutes + 1];
+    }
+
+    /**
+     * Writes a non-negative number in 7-bit groups, the lowest first, with the highest bit of each byte set when
+     * another one follows. Numbers lower than 128 take a single byte.
+     *
+     * @param value Number to write, not negative.
+     */
+    public void writeVarInt(int value) {
+        this.ensureCapacity(5);
+
+        while ((value & ~0x7F) != 0) {
+            this.bytes[this.size++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+
+        this.bytes[this.size++] = (byte) value;
+    }
+
+    /**
+     * Grows the array, if needed, so it has room for more bytes.
+     *
+     * @param length Amount of bytes about to be written.
+     */
+    private void ensureCapacity(int length) {
+        if (this.size + length > this.bytes.length) {
+            this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.size + length));
+        }
+    }
+}
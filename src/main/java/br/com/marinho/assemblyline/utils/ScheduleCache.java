@@ -0,0 +1,412 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of organized assembly lines, keyed by the SHA-256 digest of the activities, in their order, and the
+ * organizer name. As the key is built from the converted activities, files that only differ in whitespaces or in
+ * the separators have the same key.
+ * The entries are kept in a directory named after the fingerprint of the organization rules, the compiled
+ * organizer classes, so any change in the rules invalidates the whole cache: the entries in the directories of other
+ * fingerprints are deleted when the cache is opened. The other files and directories are kept, so the cache can be
+ * kept in a directory that has them. When the entries are bigger than the maximum size, the least recently used
+ * ones are deleted. The hits, misses and evictions are kept in a file and added up between the runs.
+ */
+public class ScheduleCache implements Closeable {
+
+    /** Classes with the organization rules, used in the fingerprint of the rules. */
+    private static final String[] RULE_CLASSES = {"Organizer", "BinPackingOrganizer", "BinPackingOrganizer$Packing",
+                                                  "BinPackingOrganizer$ExactSearch", "ConcurrentOrganizer",
+                                                  "ConcurrentOrganizer$Round", "ScheduleFormat", "ShiftCalendar"};
+
+    /** Amount of hexadecimal characters of the rules fingerprint used in the directory name. */
+    private static final int FINGERPRINT_LENGTH = 16;
+
+    /** Extension of the entry files. */
+    private static final String ENTRY_EXTENSION = ".txt";
+
+    /** Name of the file with the counters. */
+    private static final String COUNTERS_FILE = "counters.properties";
+
+    /** Hexadecimal digits, used to write the digests. */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /** Directory of the cache. */
+    private final Path directory;
+
+    /** Directory of the entries of the current rules. */
+    private final Path entriesDirectory;
+
+    /** Maximum size, in bytes, of all entries. */
+    private final long maximumSize;
+
+    /** Size of each entry mapped by its key, from the least to the most recently used. */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Size, in bytes, of all entries. */
+    private long size;
+
+    /** Amount of entries found in the cache. */
+    private long hits;
+
+    /** Amount of entries not found in the cache. */
+    private long misses;
+
+    /** Amount of entries deleted to keep the maximum size. */
+    private long evictions;
+
+    /**
+     * Constructor of the class. Opens the cache in {@code directory}, creating it if necessary and deleting the
+     * entries of other rules.
+     *
+     * @param directory   Directory of the cache.
+     * @param maximumSize Maximum size, in bytes, of all entries.
+     * @throws IOException If there is a problem while reading the directory.
+     */
+    public ScheduleCache(File directory, long maximumSize) throws IOException {
+        this.directory = directory.toPath();
+        this.entriesDirectory = this.directory.resolve(getRulesFingerprint());
+        this.maximumSize = maximumSize;
+
+        Files.createDirectories(this.entriesDirectory);
+        this.deleteOtherRules();
+        this.loadEntries();
+        this.loadCounters();
+        this.evict();
+    }
+
+    /**
+     * Builds the key of the organized assembly lines of the activities.
+     *
+     * @param activities    Activities, in the order they are organized.
+     * @param organizerName Name of the organizer, as different organizers build different assembly lines.
+     * @return The hexadecimal SHA-256 digest of the organizer name and the activities.
+     */
+    public static String getKey(StepTable activities, String organizerName) {
+        MessageDigest digest = newDigest();
+        updateString(digest, organizerName);
+
+        for (int i = 0; i < activities.size(); i++) {
+            updateString(digest, activities.getName(i));
+            updateInt(digest, activities.getDuration(i));
+            updateInt(digest, activities.isMaintenance(i) ? 1 : 0);
+        }
+
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Gets the organized assembly lines of a key, marking the entry as the most recently used.
+     *
+     * @param key Key built by {@link ScheduleCache#getKey(StepTable, String)}.
+     * @return The organized assembly lines, or {@code null} if they aren't in the cache.
+     * @throws IOException If there is a problem while reading the entry.
+     */
+    public synchronized String get(String key) throws IOException {
+        if (this.entries.get(key) != null) {
+            Path entry = this.getEntry(key);
+
+            try {
+                String schedule = new String(Files.readAllBytes(entry), StandardCharsets.UTF_8);
+                Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+                this.hits++;
+                return schedule;
+            } catch (NoSuchFileException e) {
+                // Deleted by another process
+                this.size -= this.entries.remove(key);
+            }
+        }
+
+        this.misses++;
+        return null;
+    }
+
+    /**
+     * Puts the organized assembly lines of a key in the cache, deleting the least recently used entries if the
+     * maximum size is passed. Assembly lines bigger than the maximum size aren't kept.
+     *
+     * @param key      Key built by {@link ScheduleCache#getKey(StepTable, String)}.
+     * @param schedule Organized assembly lines.
+     * @throws IOException If there is a problem while writing the entry.
+     */
+    public synchronized void put(String key, String schedule) throws IOException {
+        byte[] bytes = schedule.getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length > this.maximumSize) {
+            return;
+        }
+
+        // Written to a temporary file first, so other processes never read a partial entry
+        Path temporaryFile = Files.createTempFile(this.entriesDirectory, key, ".tmp");
+        Files.write(temporaryFile, bytes);
+        Files.move(temporaryFile, this.getEntry(key), StandardCopyOption.REPLACE_EXISTING);
+
+        Long previousSize = this.entries.put(key, (long) bytes.length);
+        this.size += bytes.length - (previousSize == null ? 0 : previousSize);
+        this.evict();
+    }
+
+    /**
+     * @return The amount of entries found in the cache.
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * @return The amount of entries not found in the cache.
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * @return The amount of entries deleted to keep the maximum size.
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Saves the counters, so the next runs keep adding to them.
+     *
+     * @throws IOException If there is a problem while writing the counters.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        Properties counters = new Properties();
+        counters.setProperty("hits", String.valueOf(this.hits));
+        counters.setProperty("misses", String.valueOf(this.misses));
+        counters.setProperty("evictions", String.valueOf(this.evictions));
+
+        try (OutputStream output = Files.newOutputStream(this.directory.resolve(COUNTERS_FILE))) {
+            counters.store(output, "Schedule cache counters");
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the size isn't bigger than the maximum.
+     *
+     * @throws IOException If there is a problem while deleting an entry.
+     */
+    private void evict() throws IOException {
+        Iterator<Map.Entry<String, Long>> iterator = this.entries.entrySet().iterator();
+
+        while (this.size > this.maximumSize && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            Files.deleteIfExists(this.getEntry(entry.getKey()));
+            this.size -= entry.getValue();
+            this.evictions++;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Deletes the entries of other rules, in the directories named as a fingerprint, and these directories if they
+     * are left empty. Other files and directories aren't from the cache, so they are kept.
+     *
+     * @throws IOException If there is a problem while deleting the directories.
+     */
+    private void deleteOtherRules() throws IOException {
+        List<Path> otherRules = new ArrayList<>();
+
+        try (Stream<Path> paths = Files.list(this.directory)) {
+            paths.filter(path -> Files.isDirectory(path) && !path.equals(this.entriesDirectory)
+                                 && isFingerprint(path.getFileName().toString()))
+                 .forEach(otherRules::add);
+        }
+
+        for (int i = 0; i < otherRules.size(); i++) {
+            boolean empty = true;
+
+            try (Stream<Path> paths = Files.list(otherRules.get(i))) {
+                Iterator<Path> iterator = paths.iterator();
+                while (iterator.hasNext()) {
+                    Path path = iterator.next();
+
+                    if (path.getFileName().toString().endsWith(ENTRY_EXTENSION) && Files.isRegularFile(path)) {
+                        Files.deleteIfExists(path);
+                    } else {
+                        empty = false;
+                    }
+                }
+            }
+
+            if (empty) {
+                Files.deleteIfExists(otherRules.get(i));
+            }
+        }
+    }
+
+    /**
+     * Checks if a directory name is a rules fingerprint, as only these directories have entries of the cache.
+     *
+     * @param name Name of the directory.
+     * @return {@code true} if the name has {@link ScheduleCache#FINGERPRINT_LENGTH} lowercase hexadecimal digits.
+     */
+    private static boolean isFingerprint(String name) {
+        if (name.length() != FINGERPRINT_LENGTH) {
+            return false;
+        }
+
+        for (int i = 0; i < name.length(); i++) {
+            char character = name.charAt(i);
+
+            if ((character < '0' || character > '9') && (character < 'a' || character > 'f')) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Loads the entries of the current rules, from the least to the most recently used.
+     *
+     * @throws IOException If there is a problem while reading the directory.
+     */
+    private void loadEntries() throws IOException {
+        List<Path> files = new ArrayList<>();
+
+        try (Stream<Path> paths = Files.list(this.entriesDirectory)) {
+            paths.filter(path -> path.getFileName().toString().endsWith(ENTRY_EXTENSION)).forEach(files::add);
+        }
+
+        files.sort(Comparator.comparingLong(path -> path.toFile().lastModified()));
+
+        for (int i = 0; i < files.size(); i++) {
+            String fileName = files.get(i).getFileName().toString();
+            long fileSize = Files.size(files.get(i));
+
+            this.entries.put(fileName.substring(0, fileName.length() - ENTRY_EXTENSION.length()), fileSize);
+            this.size += fileSize;
+        }
+    }
+
+    /**
+     * Loads the counters saved by the previous runs.
+     *
+     * @throws IOException If there is a problem while reading the counters.
+     */
+    private void loadCounters() throws IOException {
+        Path countersFile = this.directory.resolve(COUNTERS_FILE);
+
+        if (Files.exists(countersFile)) {
+            Properties counters = new Properties();
+
+            try (InputStream input = Files.newInputStream(countersFile)) {
+                counters.load(input);
+            }
+
+            this.hits = Long.parseLong(counters.getProperty("hits", "0"));
+            this.misses = Long.parseLong(counters.getProperty("misses", "0"));
+            this.evictions = Long.parseLong(counters.getProperty("evictions", "0"));
+        }
+    }
+
+    /**
+     * @param key Key of the entry.
+     * @return The file of the entry.
+     */
+    private Path getEntry(String key) {
+        return this.entriesDirectory.resolve(key + ENTRY_EXTENSION);
+    }
+
+    /**
+     * Builds the fingerprint of the organization rules, the digest of the compiled organizer classes.
+     *
+     * @return The beginning of the hexadecimal digest.
+     * @throws IOException If there is a problem while reading the classes.
+     */
+    private static String getRulesFingerprint() throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+
+        for (int i = 0; i < RULE_CLASSES.length; i++) {
+            updateString(digest, RULE_CLASSES[i]);
+
+            try (InputStream input = ScheduleCache.class.getResourceAsStream(RULE_CLASSES[i] + ".class")) {
+                int read;
+                while (input != null && (read = input.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+
+        return toHex(digest.digest()).substring(0, FINGERPRINT_LENGTH);
+    }
+
+    /**
+     * @return A new SHA-256 digest.
+     */
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds a string to the digest, with its size before it, so two strings can't be mixed up.
+     *
+     * @param digest Digest receiving the string.
+     * @param value  String to add.
+     */
+    private static void updateString(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        updateInt(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    /**
+     * Adds an {@code int} to the digest, in big-endian order.
+     *
+     * @param digest Digest receiving the value.
+     * @param value  Value to add.
+     */
+    private static void updateInt(MessageDigest digest, int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+
+    /**
+     * @param bytes Bytes of a digest.
+     * @return The bytes written as hexadecimal digits.
+     */
+    private static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+
+        return new String(hex);
+    }
+}
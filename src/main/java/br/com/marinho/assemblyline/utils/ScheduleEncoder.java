@@ -0,0 +1,27 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.AssemblyLine;
+
+/**
+ * Encoder of the structured assembly lines built by {@link ScheduleIterator}. Each encoder writes one output format
+ * straight to a {@link ScheduleBuffer}, so {@link Organizer#encode(br.com.marinho.assemblyline.model.StepTable,
+ * ScheduleEncoder, java.io.OutputStream)} can give the same schedule to other systems without them parsing the text.
+ * The encoders keep no state between the assembly lines, so one instance can be shared between threads.
+ */
+public interface ScheduleEncoder {
+
+    /**
+     * Writes what comes before the first assembly line, as a header or the format version.
+     *
+     * @param buffer Buffer receiving the bytes.
+     */
+    void encodeStart(ScheduleBuffer buffer);
+
+    /**
+     * Writes an assembly line.
+     *
+     * @param line   Assembly line to write.
+     * @param buffer Buffer receiving the bytes.
+     */
+    void encode(AssemblyLine line, ScheduleBuffer buffer);
+}
@@ -0,0 +1,197 @@
+package br.com.marinho.assemblyline.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Class with the text format of the organized assembly lines, shared by the organizers so they all write the same
+ * lines. The values are appended directly to a {@link StringBuilder}, without formatting or boxing values.
+ */
+final class ScheduleFormat {
+
+    /** Value used to convert hour values into minutes. */
+    static final int HOUR_MULTIPLIER = 60;
+
+    /** Amount of minutes in a day, which is also the amount of slots in {@link ScheduleFormat#TIME_SLOTS}. */
+    static final int MINUTES_PER_DAY = 24 * HOUR_MULTIPLIER;
+
+    /** Value representing the earliest time of the gym (16:00), used if the activities end before it. */
+    static final int GYM_DEFAULT_TIME = 16 * HOUR_MULTIPLIER;
+
+    /** Size of a formatted time, as in "09:00". */
+    private static final int TIME_LENGTH = 5;
+
+    /**
+     * All times of a day, from "00:00" to "23:59", one after another. The time of the minute {@code m} starts at the
+     * position {@code m * TIME_LENGTH}, so formatting a time is a single array copy.
+     */
+    private static final char[] TIME_SLOTS = buildTimeSlots();
+
+    /** A blank space used in line building. */
+    private static final char WHITESPACE = ' ';
+
+    /** Line break regex to jump a line at the end of a string. */
+    static final char LINE_BREAK = '\n';
+
+    /** Character ":", used in time separation. */
+    private static final char DOUBLE_COLON = ':';
+
+    /** Suffix used in the end of a line together with the activity time. */
+    private static final String MINUTE_SUFFIX = "min";
+
+    /** Text of the lunch of the default {@link ShiftCalendar}. */
+    static final String LUNCH_LABEL = "Almoço";
+
+    /** Text of the gym of the default {@link ShiftCalendar}. */
+    static final String GYM_LABEL = "Ginástica laboral";
+
+    /** Line representing the lunch time of an assembly line. */
+    private static final String LUNCH_TIME = "12:00 " + LUNCH_LABEL + LINE_BREAK;
+
+    /** Line reprsenting the gym time of an assembly line. */
+    private static final String GYM_TIME = WHITESPACE + GYM_LABEL + LINE_BREAK;
+
+    /** Title that comes before the assembly line number. */
+    private static final String ASSEMBLY_LINE_TITLE = "Linha de montagem ";
+
+    /** Suffix that comes after the assembly line number in the title. */
+    private static final String ASSEMBLY_LINE_TITLE_SUFFIX = ":\n";
+
+    /**
+     * Private constructor, as the class only has static methods.
+     */
+    private ScheduleFormat() {
+    }
+
+    /**
+     * Builds the {@link ScheduleFormat#TIME_SLOTS} table.
+     *
+     * @return The formatted times of all minutes of a day.
+     */
+    private static char[] buildTimeSlots() {
+        char[] slots = new char[MINUTES_PER_DAY * TIME_LENGTH];
+
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            int hours = minute / HOUR_MULTIPLIER;
+            int minutes = minute % HOUR_MULTIPLIER;
+            int position = minute * TIME_LENGTH;
+
+            slots[position] = (char) ('0' + hours / 10);
+            slots[position + 1] = (char) ('0' + hours % 10);
+            slots[position + 2] = DOUBLE_COLON;
+            slots[position + 3] = (char) ('0' + minutes / 10);
+            slots[position + 4] = (char) ('0' + minutes % 10);
+        }
+
+        return slots;
+    }
+
+    /**
+     * Appends the time, in the HH:MM format, to the string builder. The times of a day come from the
+     * {@link ScheduleFormat#TIME_SLOTS} table. Times after midnight, only possible with very long activities, keep
+     * counting the hours (as in "25:30").
+     *
+     * @param targetString String builder that is receiving the time.
+     * @param time         Minutes since midnight.
+     */
+    static void appendTime(StringBuilder targetString, int time) {
+        if (time < MINUTES_PER_DAY) {
+            targetString.append(TIME_SLOTS, time * TIME_LENGTH, TIME_LENGTH);
+        } else {
+            int hours = time / HOUR_MULTIPLIER;
+            targetString.append(hours).append(TIME_SLOTS, (time % HOUR_MULTIPLIER) * TIME_LENGTH + 2, 3);
+        }
+    }
+
+    /**
+     * Appends the title of an assembly line, as in "Linha de montagem 1:".
+     *
+     * @param targetString String builder that is receiving the title.
+     * @param assemblyLine Number of the assembly line.
+     */
+    static void appendTitle(StringBuilder targetString, int assemblyLine) {
+        targetString.append(ASSEMBLY_LINE_TITLE).append(assemblyLine).append(ASSEMBLY_LINE_TITLE_SUFFIX);
+    }
+
+    /**
+     * Appends an activity line, as in "09:00 Cutting of steel sheets 60min". Maintenance activities have no
+     * duration in the line.
+     *
+     * @param targetString String builder that is receiving the activity.
+     * @param time         Minutes since midnight when the activity starts.
+     * @param name         Name of the activity.
+     * @param duration     Duration of the activity, in minutes.
+     * @param maintenance  {@code true} if the activity is a maintenance.
+     */
+    static void appendActivity(StringBuilder targetString, int time, String name, int duration,
+                               boolean maintenance) {
+        appendTime(targetString, time);
+        targetString.append(WHITESPACE).append(name).append(WHITESPACE);
+        if (!maintenance) {
+            targetString.append(duration).append(MINUTE_SUFFIX);
+        }
+        targetString.append(LINE_BREAK);
+    }
+
+    /**
+     * Appends the lunch line.
+     *
+     * @param targetString String builder that is receiving the lunch line.
+     */
+    static void appendLunch(StringBuilder targetString) {
+        targetString.append(LUNCH_TIME);
+    }
+
+    /**
+     * Appends the gym line, starting at the given time or at 16h, if the activities ended before it.
+     *
+     * @param targetString String builder that is receiving the gym line.
+     * @param time         Minutes since midnight when the last activity ended.
+     */
+    static void appendGym(StringBuilder targetString, int time) {
+        appendTime(targetString, Math.max(time, GYM_DEFAULT_TIME));
+        targetString.append(GYM_TIME);
+    }
+
+    /**
+     * Buffer of the assembly line being built. When the assembly line is closed, its content is copied to a reusable
+     * array and written, without creating a string.
+     */
+    static class LineBuffer {
+
+        /** Writer receiving the closed assembly lines. */
+        private final Writer writer;
+
+        /** Builder with the content of the current assembly line. */
+        final StringBuilder builder = new StringBuilder(1024);
+
+        /** Array used to write the content of the builder. */
+        private char[] chars = new char[1024];
+
+        /**
+         * Constructor of the class.
+         *
+         * @param writer Writer receiving the closed assembly lines.
+         */
+        LineBuffer(Writer writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * Writes the content of the builder and clears it.
+         *
+         * @throws IOException If there is a problem while writing.
+         */
+        void flush() throws IOException {
+            int length = this.builder.length();
+
+            if (length > this.chars.length) {
+                this.chars = new char[Math.max(length, this.chars.length * 2)];
+            }
+
+            this.builder.getChars(0, length, this.chars, 0);
+            this.writer.write(this.chars, 0, length);
+            this.builder.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.AssemblyLine;
+import br.com.marinho.assemblyline.model.ScheduleEntry;
+import br.com.marinho.assemblyline.model.StepTable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy view of the assembly lines of {@link Organizer#organize(StepTable)}, built one at a time as structured
+ * {@link AssemblyLine} objects instead of text. Only the assembly lines that are asked for are built, so a caller
+ * that shows the first few of them can stop without organizing the whole plant.
+ * {@link ScheduleIterator#skipTo(int)} goes to a later assembly line only moving the clock, as in
+ * {@link Organizer#partition(StepTable)}: no entry and no string is built for the assembly lines before it.
+ * The activities must not change while they are iterated. An instance must not be shared between threads.
+ */
+public class ScheduleIterator implements Iterator<AssemblyLine> {
+
+    /** Organizer with the rules of the assembly lines. */
+    private final Organizer organizer;
+
+    /** Activities being organized, in their order. */
+    private final StepTable activities;
+
+    /** Start of each window of the calendar. */
+    private final int[] windowStarts;
+
+    /** Latest time an activity can end in each window of the calendar. */
+    private final int[] latestEnds;
+
+    /** Time of each break, between the windows {@code i} and {@code i + 1}. */
+    private final int[] breakTimes;
+
+    /** Text of each break. */
+    private final String[] breakLabels;
+
+    /** Earliest time of the event that closes an assembly line. */
+    private final int eventTime;
+
+    /** Text of the event that closes an assembly line. */
+    private final String eventLabel;
+
+    /** Position of the last window. */
+    private final int lastWindow;
+
+    /** Position of the first activity of the next assembly line. */
+    private int from;
+
+    /** Number of the next assembly line, starting at 1. */
+    private int number = 1;
+
+    /**
+     * Constructor of the class, with the calendar of the original program.
+     *
+     * @param activities Activities coming from the file.
+     */
+    public ScheduleIterator(StepTable activities) {
+        this(activities, ShiftCalendar.DEFAULT);
+    }
+
+    /**
+     * Same as {@link ScheduleIterator#ScheduleIterator(StepTable)}, but the assembly lines follow the given calendar.
+     *
+     * @param activities Activities coming from the file.
+     * @param calendar   Calendar of the assembly lines.
+     */
+    public ScheduleIterator(StepTable activities, ShiftCalendar calendar) {
+        this.organizer = new Organizer(calendar);
+        this.activities = activities;
+        this.windowStarts = calendar.getWindowStarts();
+        this.latestEnds = calendar.getLatestEnds();
+        this.breakTimes = calendar.getBreakTimes();
+        this.breakLabels = calendar.getBreakLabels();
+        this.eventTime = calendar.getEventTime();
+        this.eventLabel = calendar.getEventLabel();
+        this.lastWindow = calendar.getWindows() - 1;
+    }
+
+    /**
+     * There is always a first assembly line, even without activities, as in {@link Organizer#organize(StepTable)}.
+     *
+     * @return {@code true} if there is another assembly line.
+     */
+    @Override
+    public boolean hasNext() {
+        return this.number == 1 || this.from < this.activities.size();
+    }
+
+    /**
+     * Builds the next assembly line.
+     *
+     * @return The next assembly line.
+     * @throws NoSuchElementException If all the assembly lines were built.
+     */
+    @Override
+    public AssemblyLine next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException("There are only " + (this.number - 1) + " assembly lines.");
+        }
+
+        boolean firstLine = this.number == 1;
+        int to = this.organizer.findAssemblyLineEnd(this.activities, this.from, firstLine);
+        AssemblyLine line = new AssemblyLine(this.number++, this.buildEntries(this.from, to, firstLine));
+
+        this.from = to;
+        return line;
+    }
+
+    /**
+     * Goes to an assembly line, so it's the next one built. The assembly lines before it are only found, moving the
+     * clock through their activities, and never built.
+     *
+     * @param assemblyLine Number of the assembly line, starting at 1.
+     * @return {@code true} if the assembly line exists, {@code false} if there are less assembly lines.
+     * @throws IllegalArgumentException If the assembly line was already built or skipped.
+     */
+    public boolean skipTo(int assemblyLine) {
+        if (assemblyLine < this.number) {
+            throw new IllegalArgumentException("The assembly line " + assemblyLine + " is before the next one, "
+                                               + this.number + ".");
+        }
+
+        while (this.number < assemblyLine && this.hasNext()) {
+            this.from = this.organizer.findAssemblyLineEnd(this.activities, this.from, this.number == 1);
+            this.number++;
+        }
+
+        return this.hasNext();
+    }
+
+    /**
+     * Builds the entries of an assembly line, following the same rules as
+     * {@link Organizer#buildAssemblyLineBody(StringBuilder, StepTable, int, int, boolean, Organizer.LineCounts)}.
+     *
+     * @param from      Position of the first activity of the assembly line.
+     * @param to        Position of the first activity of the next assembly line.
+     * @param firstLine {@code true} if it's the first assembly line.
+     * @return The entries of the assembly line.
+     */
+    private List<ScheduleEntry> buildEntries(int from, int to, boolean firstLine) {
+        List<ScheduleEntry> entries = new ArrayList<>(to - from + this.lastWindow + 1);
+        int time = this.windowStarts[0];
+        int window = 0;
+
+        for (int i = from; i < to; i++) {
+            int clockDuration = this.organizer.getClockDuration(this.activities, i);
+
+            if (i != from || firstLine) {
+                while (window < this.lastWindow && time + clockDuration > this.latestEnds[window]) {
+                    entries.add(this.buildBreak(window));
+                    time = this.windowStarts[++window];
+                }
+            }
+
+            ScheduleEntry.Type type = this.activities.isMaintenance(i) ? ScheduleEntry.Type.MAINTENANCE
+                                                                       : ScheduleEntry.Type.STEP;
+            entries.add(new ScheduleEntry(type, this.activities.getName(i), time, time + clockDuration));
+            time += clockDuration;
+        }
+
+        if (to < this.activities.size()) {
+            int closingDuration = this.organizer.getClockDuration(this.activities, to);
+
+            while (window < this.lastWindow && time + closingDuration > this.latestEnds[window]) {
+                entries.add(this.buildBreak(window));
+                time = this.windowStarts[++window];
+            }
+        }
+
+        if (to < this.activities.size() || window == this.lastWindow) {
+            int eventStart = Math.max(time, this.eventTime);
+            entries.add(new ScheduleEntry(ScheduleEntry.Type.EVENT, this.eventLabel, eventStart, eventStart));
+        }
+
+        return entries;
+    }
+
+    /**
+     * @param window Position of the window before the break.
+     * @return The break after the window, lasting until the next window starts.
+     */
+    private ScheduleEntry buildBreak(int window) {
+        return new ScheduleEntry(ScheduleEntry.Type.BREAK, this.breakLabels[window], this.breakTimes[window],
+                                 this.windowStarts[window + 1]);
+    }
+}
@@ -0,0 +1,343 @@
+package br.com.marinho.assemblyline.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Definition of the shift of an assembly line: the work windows, the breaks between them, the event that closes the
+ * assembly line and the duration of a maintenance. The default calendar is the one of the original program:
+ * <pre>
+ * window 09:00 12:00
+ * break 12:00 Almoço
+ * window 13:00 16:59
+ * event 16:00 Ginástica laboral
+ * maintenance 5
+ * </pre>
+ * A window has its start and the latest time an activity can end in it. Each break, between two windows, is written
+ * at its time when the activities go to the next window. The event is written after the last activity of the
+ * assembly line, at its time or when the last activity ends, if later. Times lower than the previous ones are in the
+ * next day, so night shifts can cross midnight, as in "window 22:00 01:59", but a shift lasts less than a day, so a
+ * break before the latest end of its window isn't taken as a break of the next day. Empty lines and lines starting
+ * with "#" are ignored.
+ * The calendar is only a definition, it's compiled by the {@link Organizer} that uses it.
+ */
+public final class ShiftCalendar {
+
+    /** Calendar of the original program. */
+    public static final ShiftCalendar DEFAULT = new ShiftCalendar(
+            new int[]{Organizer.INITIAL_TIME, Organizer.AFTER_LUNCH_TIME},
+            new int[]{Organizer.LUNCH_TIME_VALUE, Organizer.END_TIME - 1},
+            new int[]{Organizer.LUNCH_TIME_VALUE}, new String[]{ScheduleFormat.LUNCH_LABEL},
+            ScheduleFormat.GYM_DEFAULT_TIME, ScheduleFormat.GYM_LABEL, FileLineUtils.MAINTENANCE_TIME_VALUE);
+
+    /** Start of each window, in minutes since the midnight of the first day. */
+    private final int[] windowStarts;
+
+    /** Latest time an activity can end in each window, in minutes since the midnight of the first day. */
+    private final int[] latestEnds;
+
+    /** Time of each break, the break {@code i} being between the windows {@code i} and {@code i + 1}. */
+    private final int[] breakTimes;
+
+    /** Text of each break. */
+    private final String[] breakLabels;
+
+    /** Earliest time of the event that closes an assembly line. */
+    private final int eventTime;
+
+    /** Text of the event that closes an assembly line. */
+    private final String eventLabel;
+
+    /** Duration, in minutes, of a maintenance. */
+    private final int maintenanceDuration;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param windowStarts        Start of each window.
+     * @param latestEnds          Latest time an activity can end in each window.
+     * @param breakTimes          Time of each break.
+     * @param breakLabels         Text of each break.
+     * @param eventTime           Earliest time of the closing event.
+     * @param eventLabel          Text of the closing event.
+     * @param maintenanceDuration Duration of a maintenance.
+     */
+    private ShiftCalendar(int[] windowStarts, int[] latestEnds, int[] breakTimes, String[] breakLabels, int eventTime,
+                          String eventLabel, int maintenanceDuration) {
+        this.windowStarts = windowStarts;
+        this.latestEnds = latestEnds;
+        this.breakTimes = breakTimes;
+        this.breakLabels = breakLabels;
+        this.eventTime = eventTime;
+        this.eventLabel = eventLabel;
+        this.maintenanceDuration = maintenanceDuration;
+    }
+
+    /**
+     * Reads a calendar from a UTF-8 file, in the format described in {@link ShiftCalendar}.
+     *
+     * @param file File with the calendar.
+     * @return The calendar.
+     * @throws IOException              If there is a problem while reading the file.
+     * @throws IllegalArgumentException If the calendar isn't valid.
+     */
+    public static ShiftCalendar read(File file) throws IOException {
+        return parse(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses the lines of a calendar, in the format described in {@link ShiftCalendar}. The windows and the breaks
+     * must alternate, starting and ending with a window, followed by a single event, and a maintenance must last at
+     * least a minute.
+     *
+     * @param lines Lines of the calendar.
+     * @return The calendar.
+     * @throws IllegalArgumentException If the calendar isn't valid.
+     */
+    public static ShiftCalendar parse(List<String> lines) {
+        List<int[]> windows = new ArrayList<>();
+        List<Integer> breakTimes = new ArrayList<>();
+        List<String> breakLabels = new ArrayList<>();
+        int eventTime = -1;
+        String eventLabel = null;
+        int maintenanceDuration = FileLineUtils.MAINTENANCE_TIME_VALUE;
+        int previousTime = 0;
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] fields = line.split("\\s+", 3);
+            try {
+                switch (fields[0]) {
+                    case "window":
+                        if (windows.size() != breakTimes.size() || eventLabel != null) {
+                            throw new IllegalArgumentException("a window must come after a break and before the "
+                                                               + "event");
+                        }
+
+                        int start = nextTime(fields[1], previousTime);
+                        int latestEnd = nextTime(fields[2], start);
+                        if (!windows.isEmpty() && latestEnd - windows.get(0)[0] >= ScheduleFormat.MINUTES_PER_DAY) {
+                            throw new IllegalArgumentException("the shift must last less than a day");
+                        }
+
+                        windows.add(new int[]{start, latestEnd});
+                        previousTime = latestEnd;
+                        break;
+                    case "break":
+                        if (windows.size() != breakTimes.size() + 1 || eventLabel != null) {
+                            throw new IllegalArgumentException("a break must come after a window and before the "
+                                                               + "event");
+                        }
+
+                        previousTime = nextTime(fields[1], previousTime);
+                        // A time before the latest end of the window would be moved to the next day
+                        if (previousTime - windows.get(0)[0] >= ScheduleFormat.MINUTES_PER_DAY) {
+                            throw new IllegalArgumentException("the break is before the latest end of its window");
+                        }
+
+                        breakTimes.add(previousTime);
+                        breakLabels.add(fields[2]);
+                        break;
+                    case "event":
+                        if (windows.isEmpty() || windows.size() != breakTimes.size() + 1 || eventLabel != null) {
+                            throw new IllegalArgumentException("a single event must come after the last window");
+                        }
+
+                        eventTime = parseTime(fields[1]);
+                        eventLabel = fields[2];
+                        break;
+                    case "maintenance":
+                        maintenanceDuration = Integer.parseInt(fields[1]);
+                        if (maintenanceDuration < 1) {
+                            throw new IllegalArgumentException("the maintenance must last at least a minute");
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown entry " + fields[0]);
+                }
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid calendar line " + (i + 1) + ": " + line, e);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid calendar line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+
+        if (windows.isEmpty() || windows.size() != breakTimes.size() + 1) {
+            throw new IllegalArgumentException("Invalid calendar: it must start and end with a window.");
+        }
+
+        if (eventLabel == null) {
+            throw new IllegalArgumentException("Invalid calendar: there is no event.");
+        }
+
+        int[] windowStarts = new int[windows.size()];
+        int[] latestEnds = new int[windows.size()];
+        for (int i = 0; i < windows.size(); i++) {
+            windowStarts[i] = windows.get(i)[0];
+            latestEnds[i] = windows.get(i)[1];
+        }
+
+        // The event is in the same day as the first window, unless it's before it
+        if (eventTime < windowStarts[0]) {
+            eventTime += ScheduleFormat.MINUTES_PER_DAY;
+        }
+
+        int[] breaks = new int[breakTimes.size()];
+        for (int i = 0; i < breaks.length; i++) {
+            breaks[i] = breakTimes.get(i);
+        }
+
+        return new ShiftCalendar(windowStarts, latestEnds, breaks, breakLabels.toArray(new String[0]), eventTime,
+                eventLabel, maintenanceDuration);
+    }
+
+    /**
+     * Parses a time after {@code previousTime}, moving it to the next day if it's lower.
+     *
+     * @param text         Time, in the HH:MM format.
+     * @param previousTime Previous time of the calendar.
+     * @return The time in minutes since the midnight of the first day.
+     */
+    private static int nextTime(String text, int previousTime) {
+        int time = parseTime(text) + previousTime / ScheduleFormat.MINUTES_PER_DAY * ScheduleFormat.MINUTES_PER_DAY;
+        return time < previousTime ? time + ScheduleFormat.MINUTES_PER_DAY : time;
+    }
+
+    /**
+     * Parses a time in the HH:MM format.
+     *
+     * @param text Time to parse.
+     * @return The time in minutes since midnight.
+     */
+    private static int parseTime(String text) {
+        int separator = text.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("invalid time " + text);
+        }
+
+        int hours = Integer.parseInt(text.substring(0, separator));
+        int minutes = Integer.parseInt(text.substring(separator + 1));
+
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+            throw new IllegalArgumentException("invalid time " + text);
+        }
+
+        return hours * ScheduleFormat.HOUR_MULTIPLIER + minutes;
+    }
+
+    /**
+     * @return The amount of windows.
+     */
+    int getWindows() {
+        return this.windowStarts.length;
+    }
+
+    /**
+     * @return The start of each window, in minutes since the midnight of the first day.
+     */
+    int[] getWindowStarts() {
+        return this.windowStarts.clone();
+    }
+
+    /**
+     * @return The latest time an activity can end in each window, in minutes since the midnight of the first day.
+     */
+    int[] getLatestEnds() {
+        return this.latestEnds.clone();
+    }
+
+    /**
+     * @return The time of each break, in minutes since the midnight of the first day.
+     */
+    int[] getBreakTimes() {
+        return this.breakTimes.clone();
+    }
+
+    /**
+     * @return The text of each break.
+     */
+    String[] getBreakLabels() {
+        return this.breakLabels.clone();
+    }
+
+    /**
+     * @return The earliest time of the event that closes an assembly line.
+     */
+    int getEventTime() {
+        return this.eventTime;
+    }
+
+    /**
+     * @return The text of the event that closes an assembly line.
+     */
+    String getEventLabel() {
+        return this.eventLabel;
+    }
+
+    /**
+     * @return The duration, in minutes, of a maintenance.
+     */
+    int getMaintenanceDuration() {
+        return this.maintenanceDuration;
+    }
+
+    /**
+     * @return {@code true} if the calendar goes after midnight, so the times are written in the next day.
+     */
+    boolean crossesMidnight() {
+        int lastWindow = this.latestEnds.length - 1;
+        return this.latestEnds[lastWindow] >= ScheduleFormat.MINUTES_PER_DAY
+               || this.eventTime >= ScheduleFormat.MINUTES_PER_DAY;
+    }
+
+    /**
+     * Writes the calendar in the format described in {@link ShiftCalendar}, so two calendars with the same rules
+     * have the same text.
+     *
+     * @return The definition of the calendar.
+     */
+    @Override
+    public String toString() {
+        StringBuilder definition = new StringBuilder();
+
+        for (int i = 0; i < this.windowStarts.length; i++) {
+            if (i > 0) {
+                definition.append("break ");
+                appendTime(definition, this.breakTimes[i - 1]);
+                definition.append(' ').append(this.breakLabels[i - 1]).append('\n');
+            }
+
+            definition.append("window ");
+            appendTime(definition, this.windowStarts[i]);
+            definition.append(' ');
+            appendTime(definition, this.latestEnds[i]);
+            definition.append('\n');
+        }
+
+        definition.append("event ");
+        appendTime(definition, this.eventTime);
+        definition.append(' ').append(this.eventLabel).append('\n');
+        definition.append("maintenance ").append(this.maintenanceDuration).append('\n');
+
+        return definition.toString();
+    }
+
+    /**
+     * Appends a time of the calendar, in the HH:MM format of its day.
+     *
+     * @param definition String builder that is receiving the time.
+     * @param time       Minutes since the midnight of the first day.
+     */
+    private static void appendTime(StringBuilder definition, int time) {
+        ScheduleFormat.appendTime(definition, time % ScheduleFormat.MINUTES_PER_DAY);
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+
+import java.util.Arrays;
+
+/**
+ * Optional columns of a production step line, written after the duration and separated by ";", as in
+ * "Step X 45min; priority=2; after=Step II, Step III". Both parsers only look for the columns when the line has a
+ * ";", so files without them are converted as before, and the columns are converted here, once, for both of them.
+ */
+final class StepColumns {
+
+    /** Separator between the production step and its columns, and between the columns. */
+    static final char SEPARATOR = ';';
+
+    /** Name of the priority column. */
+    private static final String PRIORITY_COLUMN = "priority";
+
+    /** Name of the column with the steps that must come before the step, separated by ",". */
+    private static final String AFTER_COLUMN = "after";
+
+    /** Dependencies of the lines without an after column. */
+    private static final String[] NO_DEPENDENCIES = new String[0];
+
+    /** Separator between the steps of the after column. */
+    private static final String DEPENDENCY_SEPARATOR = ",";
+
+    /** Priority of the step. */
+    private int priority = StepTable.DEFAULT_PRIORITY;
+
+    /** Names of the steps that must come before the step. */
+    private String[] dependencies = NO_DEPENDENCIES;
+
+    /**
+     * Private constructor, as the columns are built by {@link StepColumns#parse(String)}.
+     */
+    private StepColumns() {
+    }
+
+    /**
+     * Converts the columns of a line, as in "priority=2; after=Step II".
+     *
+     * @param text Text of the line after the first {@link StepColumns#SEPARATOR}.
+     * @return The columns of the line.
+     * @throws StepFormatException If a column is unknown or has an invalid value.
+     */
+    static StepColumns parse(String text) {
+        StepColumns columns = new StepColumns();
+        String[] entries = text.split(String.valueOf(SEPARATOR));
+
+        for (int i = 0; i < entries.length; i++) {
+            String entry = entries[i].trim();
+            int equals = entry.indexOf('=');
+
+            if (entry.isEmpty()) {
+                continue;
+            }
+
+            if (equals < 0) {
+                throw new StepFormatException("The column " + entry + " has no value.");
+            }
+
+            String name = entry.substring(0, equals).trim();
+            String value = entry.substring(equals + 1).trim();
+
+            if (PRIORITY_COLUMN.equalsIgnoreCase(name)) {
+                try {
+                    columns.priority = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    throw new StepFormatException("The priority " + value + " is not a number.");
+                }
+            } else if (AFTER_COLUMN.equalsIgnoreCase(name)) {
+                columns.dependencies = parseDependencies(value);
+            } else {
+                throw new StepFormatException("The column " + name + " is unknown.");
+            }
+        }
+
+        return columns;
+    }
+
+    /**
+     * Converts the value of the after column, as in "Step II, Step III".
+     *
+     * @param value Value of the column.
+     * @return The names of the steps.
+     * @throws StepFormatException If there is no step in the column.
+     */
+    private static String[] parseDependencies(String value) {
+        String[] names = value.split(DEPENDENCY_SEPARATOR);
+        int count = 0;
+
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i].trim();
+
+            if (!name.isEmpty()) {
+                names[count++] = name;
+            }
+        }
+
+        if (count == 0) {
+            throw new StepFormatException("The column " + AFTER_COLUMN + " has no steps.");
+        }
+
+        return Arrays.copyOf(names, count);
+    }
+
+    /**
+     * @return The priority of the step, or {@link StepTable#DEFAULT_PRIORITY} if there is no priority column.
+     */
+    int getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * @return The names of the steps that must come before the step, empty if there is no after column.
+     */
+    String[] getDependencies() {
+        return this.dependencies;
+    }
+
+    /**
+     * Stores the columns in the step just put in a table.
+     *
+     * @param table Table with the step.
+     * @param index Position of the step.
+     */
+    void applyTo(StepTable table, int index) {
+        table.setPriority(index, this.priority);
+        table.setDependencies(index, this.dependencies);
+    }
+}
@@ -0,0 +1,231 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follower of a step file that keeps receiving lines, as the plant file appended by the MES during the day. Only
+ * the bytes appended since the last read are converted, by the scanner of {@link MappedFileLineUtils}, and the
+ * assembly lines are written as they close, so the time from an append to its assembly line doesn't depend on the
+ * size of the file.
+ * As in {@link Organizer#findAssemblyLineEnd(StepTable, int, boolean)}, an assembly line only depends on its
+ * activities and on the first activity of the next one. So an assembly line is closed, and written, once an activity
+ * that doesn't fit in it is appended, and the appended lines only move the clock of the open one. The assembly lines
+ * written are the same ones of {@link Organizer#organize(StepTable)} for the file read until then.
+ * A line without its line break is only converted once the line break is appended. A step repeated while its
+ * assembly line is open replaces the first one, as in the parsers. A step repeated after its assembly line was
+ * written would change an assembly line that can't be written again, so its line is invalid: it's added to the
+ * report, or stops the follower when there is no report. The after column isn't supported, as a dependency could be
+ * appended after the step that needs it. An instance must not be shared between threads.
+ */
+public final class StepFileFollower {
+
+    /** Size of the buffer receiving the appended bytes. It grows if a line doesn't fit in it. */
+    static final int READ_SIZE = 1 << 16;
+
+    /**
+     * Longest wait, in milliseconds, for a change in the file. The file is also checked after it, in case the file
+     * system doesn't report the change.
+     */
+    private static final long WATCH_TIMEOUT = 250;
+
+    /** File being followed. */
+    private final File file;
+
+    /** Organizer with the rules of the assembly lines. */
+    private final Organizer organizer;
+
+    /** Activities read until now, in the file order. */
+    private final StepTable activities = new StepTable();
+
+    /** Scanner of the appended lines, keeping the line numbers. */
+    private final MappedFileLineUtils.LineScanner scanner;
+
+    /** Buffer receiving the appended bytes. */
+    private ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+
+    /** Position, in the file, after the last converted line. */
+    private long offset;
+
+    /** Position of the first activity of the open assembly line. */
+    private int from;
+
+    /** Number of the open assembly line, starting at 1. */
+    private int number = 1;
+
+    /**
+     * Constructor of the class. Nothing is read until the first {@link StepFileFollower#poll(Writer)}, so the file
+     * may not exist yet.
+     *
+     * @param file     File with the production steps.
+     * @param calendar Calendar of the assembly lines.
+     * @param report   Report receiving the invalid lines, or {@code null} to stop on the first one.
+     */
+    public StepFileFollower(File file, ShiftCalendar calendar, ParseReport report) {
+        this.file = file;
+        this.organizer = new Organizer(calendar);
+        this.scanner = new MappedFileLineUtils.LineScanner(this.activities, report);
+    }
+
+    /**
+     * Converts the lines appended since the last call and writes the assembly lines they closed. The writer isn't
+     * flushed.
+     *
+     * @param writer Writer receiving the closed assembly lines.
+     * @return The amount of assembly lines written.
+     * @throws IOException         If there is a problem while reading the file or writing.
+     * @throws StepFormatException If the file was truncated, if a line has the after column, or if a line can't be
+     *                             converted or repeats a step already written and there is no report, or if the
+     *                             report threshold is passed.
+     */
+    public int poll(Writer writer) throws IOException {
+        this.readAppendedLines();
+
+        if (this.activities.hasDependencies()) {
+            throw new StepFormatException("The after column isn't supported when following the file "
+                                          + this.file.getName() + ".");
+        }
+
+        StringBuilder builder = new StringBuilder();
+        int written = 0;
+
+        while (true) {
+            boolean firstLine = this.number == 1;
+            int to = this.organizer.findAssemblyLineEnd(this.activities, this.from, firstLine);
+
+            if (to == this.activities.size()) {
+                return written;
+            }
+
+            builder.setLength(0);
+            ScheduleFormat.appendTitle(builder, this.number++);
+            this.organizer.buildAssemblyLineBody(builder, this.activities, this.from, to, firstLine, null);
+            writer.append(builder);
+
+            this.from = to;
+            this.scanner.setFixedSteps(to);
+            written++;
+        }
+    }
+
+    /**
+     * Writes the open assembly line as the last one, as {@link Organizer#organize(StepTable)} does, for a caller
+     * that stops following the file. The follower must not be polled after it.
+     *
+     * @param writer Writer receiving the last assembly line.
+     * @throws IOException If there is a problem while writing.
+     */
+    public void finish(Writer writer) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        ScheduleFormat.appendTitle(builder, this.number);
+        this.organizer.buildAssemblyLineBody(builder, this.activities, this.from, this.activities.size(),
+                                             this.number == 1, null);
+        writer.append(builder);
+    }
+
+    /**
+     * Follows the file until the thread is interrupted, writing and flushing the assembly lines as they close. The
+     * directory of the file is watched, so a new line is converted as soon as it's appended, and the file can be
+     * created after the call.
+     *
+     * @param writer Writer receiving the closed assembly lines.
+     * @throws IOException          If there is a problem while reading the file or writing.
+     * @throws InterruptedException If the thread is interrupted, which is how the follower is stopped.
+     * @throws StepFormatException  If the file was truncated, if a line has the after column, or if a line can't be
+     *                              converted or repeats a step already written and there is no report, or if the
+     *                              report threshold is passed.
+     */
+    public void follow(Writer writer) throws IOException, InterruptedException {
+        Path path = this.file.getAbsoluteFile().toPath();
+
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            // The directory is watched before the first read, so no append is lost between them
+            path.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                                      StandardWatchEventKinds.ENTRY_MODIFY);
+
+            while (true) {
+                if (this.poll(writer) > 0) {
+                    writer.flush();
+                }
+
+                WatchKey key = watcher.poll(WATCH_TIMEOUT, TimeUnit.MILLISECONDS);
+
+                if (key != null) {
+                    // The events only wake the follower up, as the appended bytes are found by the offset
+                    key.pollEvents();
+                    key.reset();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The amount of production steps read until now.
+     */
+    public int size() {
+        return this.activities.size();
+    }
+
+    /**
+     * Reads the bytes appended after {@link StepFileFollower#offset}, converting their whole lines.
+     *
+     * @throws IOException         If there is a problem while reading the file.
+     * @throws StepFormatException If the file is smaller than the bytes already converted.
+     */
+    private void readAppendedLines() throws IOException {
+        FileChannel channel;
+
+        try {
+            channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            // The file wasn't created yet
+            return;
+        }
+
+        try {
+            long size = channel.size();
+
+            if (size < this.offset) {
+                throw new StepFormatException("The file " + this.file.getName() + " was truncated while it was "
+                                              + "followed.");
+            }
+
+            while (this.offset < size) {
+                this.buffer.clear();
+                int length = channel.read(this.buffer, this.offset);
+
+                if (length <= 0) {
+                    return;
+                }
+
+                int consumed = this.scanner.convertLines(this.buffer, 0, length, false);
+
+                if (consumed == 0) {
+                    if (length < this.buffer.capacity()) {
+                        // The last line doesn't have its line break yet
+                        return;
+                    }
+
+                    this.buffer = ByteBuffer.allocate(this.buffer.capacity() * 2);
+                }
+
+                this.offset += consumed;
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
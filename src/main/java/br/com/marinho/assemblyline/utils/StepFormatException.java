@@ -0,0 +1,21 @@
+package br.com.marinho.assemblyline.utils;
+
+/**
+ * Exception thrown when a production step line can't be converted. The command line program finishes when it
+ * happens, but a long-running process, as the {@link br.com.marinho.assemblyline.service.ScheduleService}, only
+ * rejects the job that had the line.
+ */
+public class StepFormatException extends RuntimeException {
+
+    /** Version of the serialized form of the exception. */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param message Description of the problem in the line.
+     */
+    public StepFormatException(String message) {
+        super(message);
+    }
+}
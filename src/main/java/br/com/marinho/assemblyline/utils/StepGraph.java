@@ -0,0 +1,194 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+
+/**
+ * Precedence graph of the production steps, built from their after columns. The edges are kept in the compressed
+ * form: the successors of step {@code i} are {@code successors[successorStarts[i]]} until
+ * {@code successors[successorStarts[i + 1] - 1]}, so a graph with millions of edges is two {@code int[]} and no
+ * object per edge.
+ * The graph is checked when built: every dependency must be a step of the table and there must be no cycle. The
+ * cycles are found with Kahn's algorithm, in time linear in the steps and the edges, and one of them is written in
+ * the message, as a file with a cycle can't be organized.
+ */
+final class StepGraph {
+
+    /** Position, in {@code successors}, of the first successor of each step, plus the amount of edges in the end. */
+    private final int[] successorStarts;
+
+    /** Steps that can only start after each step, grouped by step. */
+    private final int[] successors;
+
+    /** Amount of dependencies of each step. */
+    private final int[] dependencyCounts;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param successorStarts  Position of the first successor of each step.
+     * @param successors       Successors grouped by step.
+     * @param dependencyCounts Amount of dependencies of each step.
+     */
+    private StepGraph(int[] successorStarts, int[] successors, int[] dependencyCounts) {
+        this.successorStarts = successorStarts;
+        this.successors = successors;
+        this.dependencyCounts = dependencyCounts;
+    }
+
+    /**
+     * Builds and checks the precedence graph of a table.
+     *
+     * @param table Steps with their dependencies.
+     * @return The graph of the steps.
+     * @throws StepFormatException If a dependency isn't a step of the table, or if the dependencies form a cycle.
+     */
+    static StepGraph of(StepTable table) {
+        int size = table.size();
+        int[] dependencyStarts = new int[size + 1];
+
+        for (int i = 0; i < size; i++) {
+            dependencyStarts[i + 1] = dependencyStarts[i] + table.getDependencies(i).length;
+        }
+
+        // The dependencies of each step, by position, and how many successors each step has
+        int[] dependencies = new int[dependencyStarts[size]];
+        int[] successorStarts = new int[size + 1];
+
+        for (int i = 0; i < size; i++) {
+            String[] names = table.getDependencies(i);
+
+            for (int j = 0; j < names.length; j++) {
+                int dependency = table.indexOf(names[j]);
+
+                if (dependency < 0) {
+                    throw new StepFormatException("The step " + table.getName(i) + " comes after " + names[j]
+                                                  + ", which is not a step of the file.");
+                }
+
+                dependencies[dependencyStarts[i] + j] = dependency;
+                successorStarts[dependency + 1]++;
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            successorStarts[i + 1] += successorStarts[i];
+        }
+
+        int[] successors = new int[dependencies.length];
+        int[] nextSuccessor = new int[size];
+        int[] dependencyCounts = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            dependencyCounts[i] = dependencyStarts[i + 1] - dependencyStarts[i];
+
+            for (int j = dependencyStarts[i]; j < dependencyStarts[i + 1]; j++) {
+                int dependency = dependencies[j];
+                successors[successorStarts[dependency] + nextSuccessor[dependency]++] = i;
+            }
+        }
+
+        StepGraph graph = new StepGraph(successorStarts, successors, dependencyCounts);
+        graph.checkCycles(table, dependencyStarts, dependencies);
+
+        return graph;
+    }
+
+    /**
+     * @return A copy of the amount of dependencies of each step, to be decremented while the steps are ordered.
+     */
+    int[] copyDependencyCounts() {
+        return this.dependencyCounts.clone();
+    }
+
+    /**
+     * @param step Position of the step.
+     * @return The position, in {@link StepGraph#getSuccessors()}, of the first successor of the step.
+     */
+    int getSuccessorStart(int step) {
+        return this.successorStarts[step];
+    }
+
+    /**
+     * @param step Position of the step.
+     * @return The position, in {@link StepGraph#getSuccessors()}, after the last successor of the step.
+     */
+    int getSuccessorEnd(int step) {
+        return this.successorStarts[step + 1];
+    }
+
+    /**
+     * @return The successors grouped by step. The array is shared and must not be changed.
+     */
+    int[] getSuccessors() {
+        return this.successors;
+    }
+
+    /**
+     * Runs Kahn's algorithm: the steps without dependencies are visited first, and each visit releases the
+     * successors whose dependencies were all visited. The steps never released are in a cycle, or after one.
+     *
+     * @param table            Steps of the graph, used in the message.
+     * @param dependencyStarts Position of the first dependency of each step.
+     * @param dependencies     Dependencies grouped by step.
+     * @throws StepFormatException If there is a cycle.
+     */
+    private void checkCycles(StepTable table, int[] dependencyStarts, int[] dependencies) {
+        int size = this.dependencyCounts.length;
+        int[] pending = this.copyDependencyCounts();
+        int[] queue = new int[size];
+        int tail = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (pending[i] == 0) {
+                queue[tail++] = i;
+            }
+        }
+
+        for (int head = 0; head < tail; head++) {
+            int step = queue[head];
+
+            for (int i = this.successorStarts[step]; i < this.successorStarts[step + 1]; i++) {
+                if (--pending[this.successors[i]] == 0) {
+                    queue[tail++] = this.successors[i];
+                }
+            }
+        }
+
+        if (tail == size) {
+            return;
+        }
+
+        // Walks back through the dependencies not visited until a step repeats, which closes a cycle
+        boolean[] seen = new boolean[size];
+        int step = 0;
+        while (pending[step] == 0) {
+            step++;
+        }
+
+        while (!seen[step]) {
+            seen[step] = true;
+
+            int dependency = dependencyStarts[step];
+            while (pending[dependencies[dependency]] == 0) {
+                dependency++;
+            }
+
+            step = dependencies[dependency];
+        }
+
+        // Following the same dependencies from the repeated step goes around the cycle
+        StringBuilder cycle = new StringBuilder(table.getName(step));
+        int first = step;
+        do {
+            int dependency = dependencyStarts[step];
+            while (pending[dependencies[dependency]] == 0) {
+                dependency++;
+            }
+
+            step = dependencies[dependency];
+            cycle.append(" after ").append(table.getName(step));
+        } while (step != first);
+
+        throw new StepFormatException("The steps have a cycle of dependencies: " + cycle + ".");
+    }
+}
@@ -0,0 +1,215 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+
+import java.util.Arrays;
+
+/**
+ * Orderings of the production steps, applied before the organization. The organizers fill the assembly lines in the
+ * table order, which is the input order; these methods build a new table with the same steps in another order.
+ * The steps leave an {@link IntHeap} keyed by the ordering, so millions of steps are ordered in O(n log n) with no
+ * boxing, and the steps with the same key keep their input order, so the result is the same in every run.
+ * When the steps have dependencies, {@link StepOrder#byDependencies(StepTable, ShiftCalendar)} is applied after the
+ * chosen ordering, which becomes the preference between the steps that are ready.
+ */
+public final class StepOrder {
+
+    /**
+     * Private constructor, as the class only has static methods.
+     */
+    private StepOrder() {
+    }
+
+    /**
+     * Orders the steps by duration, the longest first. Steps with the same duration keep the input order.
+     *
+     * @param table Steps in the input order.
+     * @return A new table with the steps ordered.
+     */
+    public static StepTable byDurationDescending(StepTable table) {
+        int[] keys = new int[table.size()];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = -table.getDuration(i);
+        }
+
+        return order(table, keys);
+    }
+
+    /**
+     * Orders the steps by the priority column, the lowest value first, so it can also be a due time. Steps with the
+     * same priority, including the ones without the column, keep the input order.
+     *
+     * @param table Steps in the input order.
+     * @return A new table with the steps ordered.
+     */
+    public static StepTable byPriority(StepTable table) {
+        int[] keys = new int[table.size()];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = table.getPriority(i);
+        }
+
+        return order(table, keys);
+    }
+
+    /**
+     * Orders the steps so each one comes after the steps of its after column, keeping the assembly lines full.
+     * The greedy organizer fills the assembly lines one after the other, so a step that comes later in the table is
+     * later in the same assembly line or in a later one, and any topological order respects the dependencies. Among
+     * the topological orders, this one follows the clock of the calendar as the organizer does: each time, the
+     * first step in the table order that is ready (all its dependencies were placed) and fits in the rest of the
+     * window goes next, and the window or the assembly line only changes when no ready step fits. The ready steps
+     * are kept in a tree with the minimum duration of each range, so finding the step is O(log n), and the whole
+     * ordering is O((n + e) log n) for {@code n} steps and {@code e} dependencies.
+     *
+     * @param table    Steps in the preferred order.
+     * @param calendar Calendar of the assembly lines.
+     * @return A new table with the steps ordered, keeping their dependencies.
+     * @throws StepFormatException If a dependency isn't a step of the table, or if the dependencies form a cycle.
+     */
+    public static StepTable byDependencies(StepTable table, ShiftCalendar calendar) {
+        StepGraph graph = StepGraph.of(table);
+        int[] successors = graph.getSuccessors();
+        int[] pending = graph.copyDependencyCounts();
+        int[] starts = calendar.getWindowStarts();
+        int[] ends = calendar.getLatestEnds();
+        int lastWindow = calendar.getWindows() - 1;
+        int size = table.size();
+        int[] clockDurations = new int[size];
+        ReadySteps ready = new ReadySteps(size);
+
+        for (int i = 0; i < size; i++) {
+            int duration = table.isMaintenance(i) ? calendar.getMaintenanceDuration() : table.getDuration(i);
+            clockDurations[i] = Math.min(duration, ReadySteps.NOT_READY - 1);
+
+            if (pending[i] == 0) {
+                ready.set(i, clockDurations[i]);
+            }
+        }
+
+        StepTable ordered = new StepTable(size);
+        int time = starts[0];
+        int window = 0;
+        boolean emptyLine = true;
+
+        while (ordered.size() < size) {
+            int step = ready.findFirst(ends[window] - time);
+
+            if (step < 0) {
+                if (window < lastWindow) {
+                    time = starts[++window];
+                    continue;
+                }
+
+                if (!emptyLine) {
+                    time = starts[0];
+                    window = 0;
+                    emptyLine = true;
+                    continue;
+                }
+
+                // No ready step fits even in an empty assembly line, so the first one goes alone, as in the organizer
+                step = ready.findFirst(ReadySteps.NOT_READY - 1);
+            }
+
+            int index = ordered.put(table.getName(step), table.getDuration(step), table.getPriority(step),
+                                    table.isMaintenance(step));
+            ordered.setDependencies(index, table.getDependencies(step));
+            ready.set(step, ReadySteps.NOT_READY);
+            time += clockDurations[step];
+            emptyLine = false;
+
+            for (int i = graph.getSuccessorStart(step); i < graph.getSuccessorEnd(step); i++) {
+                if (--pending[successors[i]] == 0) {
+                    ready.set(successors[i], clockDurations[successors[i]]);
+                }
+            }
+        }
+
+        return ordered;
+    }
+
+    /**
+     * Builds a table with the steps in the order they leave a heap with {@code keys}.
+     *
+     * @param table Steps in the input order.
+     * @param keys  Key of each step, the lowest first.
+     * @return A new table with the steps ordered.
+     */
+    private static StepTable order(StepTable table, int[] keys) {
+        IntHeap heap = IntHeap.withAllIds(keys);
+        StepTable ordered = new StepTable(table.size());
+
+        while (!heap.isEmpty()) {
+            int step = heap.poll();
+            int index = ordered.put(table.getName(step), table.getDuration(step), table.getPriority(step),
+                                    table.isMaintenance(step));
+            ordered.setDependencies(index, table.getDependencies(step));
+        }
+
+        return ordered;
+    }
+
+    /**
+     * Steps ready to be placed, as a tree over the table positions where each node has the minimum clock duration
+     * of its range. The steps that aren't ready have {@link ReadySteps#NOT_READY}, so the first ready step that fits
+     * in a time is found going down the tree, always to the left child when it has a step short enough.
+     */
+    private static final class ReadySteps {
+
+        /** Value of the steps that aren't ready. */
+        private static final int NOT_READY = Integer.MAX_VALUE;
+
+        /** Minimum of each node: the root is at 1 and the children of {@code i} are at {@code 2i} and {@code 2i+1}. */
+        private final int[] tree;
+
+        /** Amount of leaves, the first power of two not lower than the amount of steps. */
+        private final int leaves;
+
+        /**
+         * Constructor of the class, with no ready step.
+         *
+         * @param size Amount of steps.
+         */
+        private ReadySteps(int size) {
+            this.leaves = Integer.highestOneBit(Math.max(size, 1) * 2 - 1);
+            this.tree = new int[this.leaves * 2];
+            Arrays.fill(this.tree, NOT_READY);
+        }
+
+        /**
+         * Changes the value of a step, updating its ranges.
+         *
+         * @param step  Position of the step.
+         * @param value Clock duration of the step, or {@link ReadySteps#NOT_READY}.
+         */
+        private void set(int step, int value) {
+            int node = this.leaves + step;
+            this.tree[node] = value;
+
+            for (node >>>= 1; node > 0; node >>>= 1) {
+                this.tree[node] = Math.min(this.tree[2 * node], this.tree[2 * node + 1]);
+            }
+        }
+
+        /**
+         * Finds the first ready step, in the table order, whose clock duration is at most {@code limit}.
+         *
+         * @param limit Time left.
+         * @return The position of the step, or -1 if no ready step fits.
+         */
+        private int findFirst(int limit) {
+            if (this.tree[1] > limit) {
+                return -1;
+            }
+
+            int node = 1;
+            while (node < this.leaves) {
+                node = this.tree[2 * node] <= limit ? 2 * node : 2 * node + 1;
+            }
+
+            return node - this.leaves;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.AssemblyLine;
+import br.com.marinho.assemblyline.model.ScheduleEntry;
+
+import java.util.List;
+
+/**
+ * Encoder of the text report, with the same bytes, in UTF-8, as {@link Organizer#organize(
+ * br.com.marinho.assemblyline.model.StepTable)}: a title for each assembly line, one line for each entry starting
+ * with its time, and an empty line between two assembly lines.
+ */
+public final class TextScheduleEncoder implements ScheduleEncoder {
+
+    /** Title of an assembly line, before its number. */
+    private static final String TITLE = "Linha de montagem ";
+
+    /** Text after the minutes of a production step. */
+    private static final String MINUTE_SUFFIX = "min";
+
+    /** {@code true} if the times must be written in the HH:MM of their day, as the calendar crosses midnight. */
+    private final boolean crossesMidnight;
+
+    /**
+     * Constructor of the class, with the calendar of the original program.
+     */
+    public TextScheduleEncoder() {
+        this(ShiftCalendar.DEFAULT);
+    }
+
+    /**
+     * Constructor of the class.
+     *
+     * @param calendar Calendar of the assembly lines, which chooses how the times after midnight are written.
+     */
+    public TextScheduleEncoder(ShiftCalendar calendar) {
+        this.crossesMidnight = calendar.crossesMidnight();
+    }
+
+    @Override
+    public void encodeStart(ScheduleBuffer buffer) {
+        // The report has no header
+    }
+
+    @Override
+    public void encode(AssemblyLine line, ScheduleBuffer buffer) {
+        if (line.getNumber() > 1) {
+            buffer.writeAscii(ScheduleFormat.LINE_BREAK);
+        }
+
+        buffer.writeAscii(TITLE);
+        buffer.writeDecimal(line.getNumber());
+        buffer.writeAscii(':');
+        buffer.writeAscii(ScheduleFormat.LINE_BREAK);
+
+        List<ScheduleEntry> entries = line.getEntries();
+        for (int i = 0; i < entries.size(); i++) {
+            ScheduleEntry entry = entries.get(i);
+
+            buffer.writeTime(this.crossesMidnight ? entry.getStart() % ScheduleFormat.MINUTES_PER_DAY
+                                                  : entry.getStart());
+            buffer.writeAscii(' ');
+            buffer.writeUtf8(entry.getName());
+
+            if (entry.getType() == ScheduleEntry.Type.STEP) {
+                buffer.writeAscii(' ');
+                buffer.writeDecimal(entry.getDuration());
+                buffer.writeAscii(MINUTE_SUFFIX);
+            } else if (entry.getType() == ScheduleEntry.Type.MAINTENANCE) {
+                // Maintenance activities have no duration in the line
+                buffer.writeAscii(' ');
+            }
+
+            buffer.writeAscii(ScheduleFormat.LINE_BREAK);
+        }
+    }
+}
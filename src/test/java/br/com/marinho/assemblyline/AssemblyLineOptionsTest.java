@@ -0,0 +1,143 @@
+package br.com.marinho.assemblyline;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test class for the functionality of the {@link AssemblyLineOptions}.
+ */
+public class AssemblyLineOptionsTest {
+
+    /**
+     * Without arguments, the file {@code input.txt} must be read by the line reader and organized by the greedy
+     * organizer in the input order, written as text.
+     */
+    @Test
+    public void should_UseDefaults_When_ThereAreNoArguments() {
+        AssemblyLineOptions options = AssemblyLineOptions.parse(new String[0]);
+
+        Assert.assertEquals("input.txt", options.getInputFile());
+        Assert.assertEquals("reader", options.getParser());
+        Assert.assertEquals("greedy", options.getScheduler());
+        Assert.assertEquals("input", options.getOrder());
+        Assert.assertEquals("text", options.getFormat());
+        Assert.assertEquals(1, options.getLines());
+        Assert.assertEquals(-1, options.getMaxErrors());
+        Assert.assertEquals(256L * 1024 * 1024, options.getCacheSize());
+        Assert.assertEquals(Runtime.getRuntime().availableProcessors(), options.getThreads());
+        Assert.assertFalse(options.isServe());
+        Assert.assertFalse(options.isBatch());
+        Assert.assertFalse(options.isFollow());
+        Assert.assertNull(options.getCalendarFile());
+        Assert.assertNull(options.getMetricsOutput());
+    }
+
+    /**
+     * Each argument must set its option, the cache size being converted from megabytes into bytes.
+     */
+    @Test
+    public void should_SetOptions_When_ArgumentsAreGiven() {
+        AssemblyLineOptions options = AssemblyLineOptions.parse(new String[]{
+                "--input=plant.txt", "--parser=mapped", "--threads=3", "--scheduler=concurrent", "--lines=4",
+                "--order=priority", "--max-errors=10", "--cache=cache", "--cache-size=2", "--metrics=-"});
+
+        Assert.assertEquals("plant.txt", options.getInputFile());
+        Assert.assertEquals("mapped", options.getParser());
+        Assert.assertEquals(3, options.getThreads());
+        Assert.assertEquals("concurrent", options.getScheduler());
+        Assert.assertEquals(4, options.getLines());
+        Assert.assertEquals("priority", options.getOrder());
+        Assert.assertEquals(10, options.getMaxErrors());
+        Assert.assertEquals("cache", options.getCacheDirectory());
+        Assert.assertEquals(2L * 1024 * 1024, options.getCacheSize());
+        Assert.assertEquals("-", options.getMetricsOutput());
+    }
+
+    /**
+     * The batch and follow modes must be recognized with their own options.
+     */
+    @Test
+    public void should_SetMode_When_BatchOrFollowIsGiven() {
+        AssemblyLineOptions batch = AssemblyLineOptions.parse(new String[]{
+                "--batch=plants", "--output=schedules", "--io-threads=4", "--scheduler=parallel"});
+
+        Assert.assertTrue(batch.isBatch());
+        Assert.assertEquals("plants", batch.getBatchSource());
+        Assert.assertEquals("schedules", batch.getOutputDirectory());
+        Assert.assertEquals(4, batch.getIoThreads());
+
+        AssemblyLineOptions follow = AssemblyLineOptions.parse(new String[]{"--follow", "--max-errors=5"});
+
+        Assert.assertTrue(follow.isFollow());
+        Assert.assertEquals(5, follow.getMaxErrors());
+    }
+
+    /**
+     * The service must keep its port, and may be given the port zero to use any free port.
+     */
+    @Test
+    public void should_SetPort_When_ServeIsGiven() {
+        AssemblyLineOptions options = AssemblyLineOptions.parse(new String[]{"--serve=0", "--threads=2"});
+
+        Assert.assertTrue(options.isServe());
+        Assert.assertEquals(0, options.getPort());
+        Assert.assertEquals(2, options.getThreads());
+    }
+
+    /**
+     * Unknown arguments, names and invalid numbers must be rejected with the problem in the message.
+     */
+    @Test
+    public void should_RejectArguments_When_TheyAreUnknownOrInvalid() {
+        assertRejected("Unknown argument --thread=2.", "--thread=2");
+        assertRejected("Unknown argument --follow=true.", "--follow=true");
+        assertRejected("Unknown parser stream.", "--parser=stream");
+        assertRejected("Unknown scheduler fastest.", "--scheduler=fastest");
+        assertRejected("Unknown order name.", "--order=name");
+        assertRejected("Unknown format xml.", "--format=xml");
+        assertRejected("Invalid number in the argument --threads=many.", "--threads=many");
+        assertRejected("Invalid number in the argument --lines=3000000000.", "--lines=3000000000");
+        assertRejected("There must be at least one assembly line.", "--lines=0");
+    }
+
+    /**
+     * The options that can't be used together must be rejected with the same messages the program finishes with.
+     */
+    @Test
+    public void should_RejectOptions_When_TheyCantBeUsedTogether() {
+        assertRejected("The optimized scheduler only supports the default calendar.",
+                       "--calendar=calendar.txt", "--scheduler=optimized");
+        assertRejected("The service, the batch mode and the cache only support the text format.",
+                       "--serve=0", "--format=csv");
+        assertRejected("The service, the batch mode and the cache only support the text format.",
+                       "--cache=cache", "--format=jsonl");
+        assertRejected("The concurrent scheduler only supports the text format.",
+                       "--scheduler=concurrent", "--format=binary");
+        assertRejected("The service and the batch mode only support the input order.",
+                       "--batch=plants", "--order=duration");
+        assertRejected("The batch mode only supports the greedy scheduler.", "--batch=plants", "--scheduler=optimized");
+        assertRejected("The follow mode only supports the greedy scheduler, the input order and the text format of a "
+                       + "step file, without the service, the batch mode, the cache, the compilation or the metrics.",
+                       "--follow", "--metrics=-");
+        assertRejected("The follow mode only supports the greedy scheduler, the input order and the text format of a "
+                       + "step file, without the service, the batch mode, the cache, the compilation or the metrics.",
+                       "--follow", "--parser=compiled");
+    }
+
+    /**
+     * Checks that the arguments are rejected with the message.
+     *
+     * @param message Expected message of the exception.
+     * @param args    Running arguments.
+     */
+    private static void assertRejected(String message, String... args) {
+        try {
+            AssemblyLineOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(message, e.getMessage());
+            return;
+        }
+
+        Assert.fail("The arguments " + String.join(" ", args) + " were accepted.");
+    }
+}
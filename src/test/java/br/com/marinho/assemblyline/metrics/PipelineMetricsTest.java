@@ -0,0 +1,133 @@
+package br.com.marinho.assemblyline.metrics;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import br.com.marinho.assemblyline.utils.Organizer;
+import br.com.marinho.assemblyline.utils.ShiftCalendar;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Test class for the {@link PipelineMetrics} and the {@link LatencyHistogram}.
+ */
+public class PipelineMetricsTest {
+
+    /**
+     * Builds a table with random durations, where every tenth activity is a maintenance.
+     *
+     * @param size Amount of activities.
+     * @return The table with the activities.
+     */
+    private static StepTable buildTable(int size) {
+        StepTable table = new StepTable();
+        Random random = new Random(11);
+
+        for (int i = 0; i < size; i++) {
+            if (i % 10 == 0) {
+                table.putMaintenance("Production step " + (i + 1));
+            } else {
+                table.put("Production step " + (i + 1), 10 + random.nextInt(300));
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * Counts the occurrences of a text in the assembly lines.
+     *
+     * @param schedule Organized assembly lines.
+     * @param text     Text to count.
+     * @return The amount of occurrences.
+     */
+    private static int count(String schedule, String text) {
+        int occurrences = 0;
+
+        for (int i = schedule.indexOf(text); i >= 0; i = schedule.indexOf(text, i + 1)) {
+            occurrences++;
+        }
+
+        return occurrences;
+    }
+
+    /**
+     * A percentile is never below the real value and at most one sub-bucket (12.5%) above it.
+     */
+    @Test
+    public void should_KeepPercentileInsideBucket_When_RecordingLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int i = 1; i <= 1_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        Assert.assertEquals(1_000, histogram.getCount());
+        Assert.assertEquals(1_000_000L, histogram.getMax());
+        Assert.assertTrue(histogram.getPercentile(50) >= 500_000L);
+        Assert.assertTrue(histogram.getPercentile(50) <= 500_000L * 9 / 8);
+        Assert.assertTrue(histogram.getPercentile(99) >= 990_000L);
+        Assert.assertEquals(1_000_000L, histogram.getPercentile(100));
+
+        for (long value = 0; value < 100_000; value += 37) {
+            int bucket = LatencyHistogram.getBucket(value);
+            Assert.assertTrue(value <= LatencyHistogram.getBucketUpperBound(bucket));
+            Assert.assertTrue(bucket == 0 || value > LatencyHistogram.getBucketUpperBound(bucket - 1));
+        }
+    }
+
+    /**
+     * The sequential and the parallel organizations count the same assembly lines, breaks and events, and the counts
+     * match the assembly lines written.
+     */
+    @Test
+    public void should_CountSameLines_When_OrganizingSequentiallyOrInParallel() {
+        StepTable table = buildTable(20_000);
+        PipelineMetrics sequential = new PipelineMetrics();
+        PipelineMetrics parallel = new PipelineMetrics();
+
+        String schedule = new Organizer(ShiftCalendar.DEFAULT, sequential).organize(table);
+        Assert.assertEquals(schedule, new Organizer(ShiftCalendar.DEFAULT, parallel).organize(table, 4));
+
+        int lines = new Organizer().countAssemblyLines(table);
+        Assert.assertEquals(lines, sequential.getAssemblyLines());
+        Assert.assertEquals(count(schedule, "Almoço"), sequential.getBreaks());
+        Assert.assertEquals(count(schedule, "Ginástica laboral"), sequential.getEvents());
+        Assert.assertEquals(table.size(), sequential.getStepsScheduled());
+        Assert.assertEquals(1, sequential.getOrganizeCount());
+
+        Assert.assertEquals(sequential.getAssemblyLines(), parallel.getAssemblyLines());
+        Assert.assertEquals(sequential.getBreaks(), parallel.getBreaks());
+        Assert.assertEquals(sequential.getEvents(), parallel.getEvents());
+        Assert.assertEquals(sequential.getStepsScheduled(), parallel.getStepsScheduled());
+    }
+
+    /**
+     * The parse counters split the steps into maintenance and timed ones, and the metrics can be read through JMX
+     * after being registered.
+     */
+    @Test
+    public void should_PublishCounters_When_RegisteredAsMBean() throws Exception {
+        StepTable table = buildTable(1_000);
+        PipelineMetrics metrics = new PipelineMetrics();
+        metrics.recordParse(table, 3, 40_000, 2_000_000);
+        metrics.registerMBean();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(PipelineMetrics.OBJECT_NAME);
+
+        Assert.assertEquals(1_000L, server.getAttribute(name, "StepsParsed"));
+        Assert.assertEquals(100L, server.getAttribute(name, "MaintenanceSteps"));
+        Assert.assertEquals(900L, server.getAttribute(name, "TimedSteps"));
+        Assert.assertEquals(3L, server.getAttribute(name, "InvalidLines"));
+        Assert.assertEquals(500_000.0, (Double) server.getAttribute(name, "StepsParsedPerSecond"), 0.001);
+        Assert.assertTrue(metrics.getSummary().startsWith("{\"stepsParsed\":1000,\"maintenanceSteps\":100,"));
+
+        // Registering new metrics replaces the previous ones
+        new PipelineMetrics().registerMBean();
+        Assert.assertEquals(0L, server.getAttribute(name, "StepsParsed"));
+    }
+}
@@ -0,0 +1,143 @@
+package br.com.marinho.assemblyline.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Test class for the functionality of the {@link StepTable}.
+ */
+public class StepTableTest {
+
+    /**
+     * The table must keep the production steps in the order they were put, as the organizer schedules them in this
+     * order.
+     */
+    @Test
+    public void should_KeepInputOrder_When_StepsArePut() {
+        StepTable table = new StepTable();
+        table.put("Production step III", 45);
+        table.put("Production step I", 60);
+        table.put("Production step II", 5);
+
+        Assert.assertEquals(3, table.size());
+        Assert.assertEquals("Production step III", table.getName(0));
+        Assert.assertEquals("Production step I", table.getName(1));
+        Assert.assertEquals("Production step II", table.getName(2));
+        Assert.assertEquals(45, table.getDuration(0));
+        Assert.assertEquals(60, table.getDuration(1));
+        Assert.assertEquals(5, table.getDuration(2));
+    }
+
+    /**
+     * As in a {@link LinkedHashMap}, putting a repeated production step replaces its duration without changing its
+     * position.
+     */
+    @Test
+    public void should_ReplaceDurationAndKeepPosition_When_StepIsRepeated() {
+        StepTable table = new StepTable();
+        table.put("Production step I", 60);
+        table.put("Production step II", 30);
+
+        Assert.assertEquals(0, table.put("Production step I", 45));
+        Assert.assertEquals(2, table.size());
+        Assert.assertEquals(45, table.getDuration(0));
+        Assert.assertEquals(1, table.indexOf("Production step II"));
+        Assert.assertEquals(-1, table.indexOf("Production step III"));
+    }
+
+    /**
+     * The table must keep finding the production steps after growing beyond its initial capacity, and must have the
+     * same values as a map filled in the same order.
+     */
+    @Test
+    public void should_HaveSameValuesAsMap_When_TableGrows() {
+        StepTable table = new StepTable(1);
+        Map<String, Integer> map = new LinkedHashMap<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            String name = "Production step " + (i % 7_000);
+            table.put(name, i);
+            map.put(name, i);
+        }
+
+        Assert.assertEquals(map.size(), table.size());
+        Assert.assertEquals(map, table.toMap());
+
+        int index = 0;
+        for (Map.Entry<String, Integer> entry : map.entrySet()) {
+            Assert.assertEquals(entry.getKey(), table.getName(index));
+            Assert.assertEquals(entry.getValue().intValue(), table.getDuration(index));
+            Assert.assertEquals(index, table.indexOf(entry.getKey()));
+            index++;
+        }
+    }
+
+    /**
+     * Inserting and removing production steps moves the following ones, and the table must keep finding all of them
+     * by their names.
+     */
+    @Test
+    public void should_FindAllSteps_When_StepsAreInsertedAndRemoved() {
+        StepTable table = new StepTable(1);
+        List<String> names = new ArrayList<>();
+        Random random = new Random(3);
+
+        for (int i = 0; i < 5_000; i++) {
+            String name = "Production step " + i;
+
+            if (names.isEmpty() || random.nextInt(3) != 0) {
+                int index = random.nextInt(names.size() + 1);
+                table.insert(index, name, i);
+                names.add(index, name);
+            } else {
+                int index = random.nextInt(names.size());
+                table.remove(index);
+                names.remove(index);
+            }
+        }
+
+        Assert.assertEquals(names.size(), table.size());
+        for (int i = 0; i < names.size(); i++) {
+            Assert.assertEquals(names.get(i), table.getName(i));
+            Assert.assertEquals(i, table.indexOf(names.get(i)));
+        }
+
+        Assert.assertEquals(-1, table.indexOf("Production step 5000"));
+    }
+
+    /**
+     * The priorities follow their steps when the table grows and when steps are inserted and removed, and putting a
+     * repeated step without a priority brings it back to the default one.
+     */
+    @Test
+    public void should_KeepPriorities_When_StepsMove() {
+        StepTable table = new StepTable(2);
+        table.put("Production step I", 60);
+        Assert.assertFalse(table.hasPriorities());
+
+        for (int i = 2; i <= 40; i++) {
+            table.put("Production step " + i, 30, i % 3);
+        }
+
+        table.insert(1, "Inserted step", 45);
+        table.remove(3);
+
+        Assert.assertTrue(table.hasPriorities());
+        Assert.assertEquals(StepTable.DEFAULT_PRIORITY, table.getPriority(0));
+        Assert.assertEquals(StepTable.DEFAULT_PRIORITY, table.getPriority(1));
+        Assert.assertEquals(2, table.getPriority(2));
+        for (int i = 3; i < table.size(); i++) {
+            int step = Integer.parseInt(table.getName(i).substring("Production step ".length()));
+            Assert.assertEquals(step % 3, table.getPriority(i));
+        }
+
+        table.put("Production step 2", 30);
+        Assert.assertEquals(StepTable.DEFAULT_PRIORITY, table.getPriority(table.indexOf("Production step 2")));
+    }
+}
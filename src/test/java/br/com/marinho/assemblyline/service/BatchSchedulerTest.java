@@ -0,0 +1,107 @@
+package br.com.marinho.assemblyline.service;
+
+import br.com.marinho.assemblyline.utils.FileLineUtils;
+import br.com.marinho.assemblyline.utils.Organizer;
+import br.com.marinho.assemblyline.utils.ShiftCalendar;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test class for the functionality of the {@link BatchScheduler}.
+ */
+public class BatchSchedulerTest {
+
+    /** Directory with the files of the resources of the {@code FileLineUtilsTest}. */
+    private static final String RESOURCES = "src/test/resources/br/com/marinho/assemblyline/files/fileLineUtils/";
+
+    /** Directory with the step files and the outputs of each test. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Many plants, listed in a manifest, must be organized as if each one was the input of the program, and an
+     * invalid plant must be reported without stopping the others.
+     *
+     * @throws IOException If there is a problem with the files.
+     */
+    @Test
+    public void should_OrganizeEveryValidPlant_When_ManifestHasManyPlants() throws IOException {
+        List<String> validFiles = Arrays.asList("should_ConvertLines_When_ThereIsNoMaintenance.txt",
+                                                "should_ConvertLines_When_SomeTimeIsOverSixtyMinutes.txt",
+                                                "should_ConvertLines_When_ThereAreJustMaintenance.txt");
+        String invalidFile = "should_CallSystemExitOne_When_ThereIsALineWithNoTime.txt";
+        File plants = this.folder.newFolder("plants");
+        StringBuilder manifest = new StringBuilder("# Nightly plants\n");
+
+        for (int copy = 0; copy < 20; copy++) {
+            for (int i = 0; i < validFiles.size(); i++) {
+                Files.copy(Paths.get(RESOURCES + validFiles.get(i)), new File(plants, copy + "-" + i + ".txt").toPath());
+                manifest.append("plants/").append(copy).append('-').append(i).append(".txt\n");
+            }
+        }
+
+        Files.copy(Paths.get(RESOURCES + invalidFile), new File(plants, "invalid.txt").toPath());
+        manifest.append("plants/invalid.txt\n");
+        File manifestFile = this.folder.newFile("manifest.txt");
+        Files.write(manifestFile.toPath(), manifest.toString().getBytes(StandardCharsets.UTF_8));
+
+        File output = new File(this.folder.getRoot(), "output");
+        BatchReport report = new BatchScheduler(2, 3, ShiftCalendar.DEFAULT)
+                .run(BatchScheduler.listInputs(manifestFile), output);
+
+        Assert.assertEquals(60, report.getPlants());
+        Assert.assertEquals(1, report.getFailures().size());
+        Assert.assertTrue(report.getFailures().keySet().iterator().next().endsWith("invalid.txt"));
+        Assert.assertTrue(report.getElapsedNanos() > 0);
+        Assert.assertTrue(report.toString().startsWith("Plants: 60 (failed: 1)"));
+
+        Organizer organizer = new Organizer();
+        for (int i = 0; i < validFiles.size(); i++) {
+            String expected = organizer.organize(FileLineUtils.getStepTable(new File(RESOURCES + validFiles.get(i))));
+            String organized = new String(Files.readAllBytes(new File(output, "7-" + i + ".txt").toPath()),
+                                          StandardCharsets.UTF_8);
+            Assert.assertEquals(expected, organized);
+        }
+    }
+
+    /**
+     * A step file bigger than a single mapping must be read in windows, and a plant that can't be converted must be
+     * reported without stopping the batch. The big file is sparse, so it takes no space and its zeros are a line
+     * bigger than a window.
+     *
+     * @throws IOException If there is a problem with the files.
+     */
+    @Test
+    public void should_ReportPlant_When_FileIsBiggerThanAMapping() throws IOException {
+        String validFile = "should_ConvertLines_When_ThereIsNoMaintenance.txt";
+        File plants = this.folder.newFolder("plants");
+        Files.copy(Paths.get(RESOURCES + validFile), new File(plants, "valid.txt").toPath());
+
+        try (RandomAccessFile bigFile = new RandomAccessFile(new File(plants, "big.txt"), "rw")) {
+            bigFile.setLength(Integer.MAX_VALUE + 1L);
+        }
+
+        File output = new File(this.folder.getRoot(), "output");
+        BatchReport report = new BatchScheduler(2, 1, ShiftCalendar.DEFAULT)
+                .run(BatchScheduler.listInputs(plants), output);
+
+        Assert.assertEquals(1, report.getPlants());
+        Assert.assertEquals(1, report.getFailures().size());
+        Assert.assertTrue(report.getFailures().keySet().iterator().next().endsWith("big.txt"));
+        Assert.assertTrue(report.getFailures().values().iterator().next().startsWith("There is a line bigger than"));
+        Assert.assertEquals(new Organizer().organize(FileLineUtils.getStepTable(new File(RESOURCES + validFile))),
+                            new String(Files.readAllBytes(new File(output, "valid.txt").toPath()),
+                                       StandardCharsets.UTF_8));
+    }
+}
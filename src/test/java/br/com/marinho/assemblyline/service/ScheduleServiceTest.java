@@ -0,0 +1,134 @@
+package br.com.marinho.assemblyline.service;
+
+import br.com.marinho.assemblyline.utils.FileLineUtils;
+import br.com.marinho.assemblyline.utils.Organizer;
+import br.com.marinho.assemblyline.utils.ShiftCalendar;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Test class for the functionality of the {@link ScheduleService}.
+ */
+public class ScheduleServiceTest {
+
+    /** File with valid production steps, from the {@code FileLineUtilsTest} resources. */
+    private static final File STEPS_FILE = Paths.get("src/test/resources/br/com/marinho/assemblyline/files/"
+                                                     + "fileLineUtils/should_ConvertLines_When_ThereIsNoMaintenance.txt")
+            .toFile();
+
+    /** Service listening on a free port. */
+    private ScheduleService service;
+
+    /**
+     * Starts the service on a free port.
+     *
+     * @throws IOException If the port can't be bound.
+     */
+    @Before
+    public void startService() throws IOException {
+        this.startService(new ScheduleService(0, 2));
+    }
+
+    /**
+     * Starts a service in a new thread, replacing the service of the tests.
+     *
+     * @param service Service to start.
+     */
+    private void startService(ScheduleService service) {
+        this.service = service;
+        new Thread(() -> {
+            try {
+                this.service.serve();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }).start();
+    }
+
+    /**
+     * Stops the service.
+     *
+     * @throws IOException If there is a problem while closing the service.
+     */
+    @After
+    public void stopService() throws IOException {
+        this.service.close();
+    }
+
+    /**
+     * Sends a job to the service and waits for the answer.
+     *
+     * @param content Production step lines.
+     * @return The answer of the service.
+     * @throws IOException If there is a problem in the connection.
+     */
+    private String sendJob(byte[] content) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.service.getPort())) {
+            socket.getOutputStream().write(content);
+            socket.shutdownOutput();
+
+            InputStream input = socket.getInputStream();
+            ByteArrayOutputStream answer = new ByteArrayOutputStream();
+            byte[] bytes = new byte[8192];
+            int read;
+
+            while ((read = input.read(bytes)) != -1) {
+                answer.write(bytes, 0, read);
+            }
+
+            return new String(answer.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * The service must answer with the same assembly lines as the command line program, and keep answering after an
+     * invalid job.
+     *
+     * @throws IOException If there is a problem in the connection.
+     */
+    @Test
+    public void should_OrganizeJobs_When_PreviousJobWasInvalid() throws IOException {
+        String expected = new Organizer().organize(FileLineUtils.getStepTable(STEPS_FILE));
+        byte[] content = Files.readAllBytes(STEPS_FILE.toPath());
+
+        Assert.assertEquals(ScheduleService.OK_STATUS + expected, this.sendJob(content));
+        Assert.assertEquals(ScheduleService.ERROR_STATUS + "There is a number in the production step title.\n",
+                this.sendJob("Step 2 of welding 30min\n".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(ScheduleService.OK_STATUS + expected, this.sendJob(content));
+    }
+
+    /**
+     * A job bigger than the maximum size must be answered with an error, without stopping the service, and a job with
+     * exactly the maximum size must be organized.
+     *
+     * @throws IOException If there is a problem in the connection.
+     */
+    @Test
+    public void should_RejectJob_When_ItIsBiggerThanMaximumSize() throws IOException {
+        String expected = new Organizer().organize(FileLineUtils.getStepTable(STEPS_FILE));
+        byte[] content = Files.readAllBytes(STEPS_FILE.toPath());
+        byte[] bigContent = new byte[content.length * 1000];
+        for (int i = 0; i < 1000; i++) {
+            System.arraycopy(content, 0, bigContent, i * content.length, content.length);
+        }
+
+        this.service.close();
+        this.startService(new ScheduleService(0, 1, ShiftCalendar.DEFAULT, null, content.length));
+
+        Assert.assertEquals(ScheduleService.ERROR_STATUS + "The job has more than " + content.length + " bytes.\n",
+                this.sendJob(bigContent));
+        Assert.assertEquals(ScheduleService.OK_STATUS + expected, this.sendJob(content));
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.marinho.assemblyline.testUtilities;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generator of random production steps and step files for the differential tests. The same seed always gives the
+ * same steps, so a failing case can be generated again from the seed in its message.
+ * The durations are weighted towards the corner cases of the organizers: maintenance steps, steps ending exactly on
+ * the lunch or on the latest end of the afternoon, steps that only fit in the afternoon, and a few steps longer than
+ * any period. The names have no digits, as the parsers don't accept them, but can have accents and several words.
+ */
+public final class RandomSteps {
+
+    /** Duration of a maintenance step. */
+    public static final int MAINTENANCE = 5;
+
+    /** Letters used in the names, with some of the accented ones of the plant files. */
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyzçãéóú";
+
+    /** Durations placed on the borders of the morning and afternoon periods of the default calendar. */
+    private static final int[] BORDER_DURATIONS = {30, 45, 60, 90, 120, 179, 180, 181, 238, 239, 240};
+
+    /** Source of the random values. */
+    private final Random random;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param seed Seed of the random values.
+     */
+    public RandomSteps(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates a list of steps with different names, in their order.
+     *
+     * @param maxSteps Maximum amount of steps. The list can be empty.
+     * @return The steps and their durations, in minutes.
+     */
+    public Map<String, Integer> nextSteps(int maxSteps) {
+        int size = this.random.nextInt(maxSteps + 1);
+        Map<String, Integer> steps = new LinkedHashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            steps.put(this.nextName(i), this.nextDuration());
+        }
+
+        return steps;
+    }
+
+    /**
+     * Writes the steps as the lines of a step file, with the forms every parser accepts: the maintenance indicator
+     * in any case, a "-" before the duration, "\n" or "\r\n" line breaks, a priority column, and now and then a
+     * step repeated with another duration, which replaces the first one.
+     *
+     * @param steps Steps to write.
+     * @return The content of the step file.
+     */
+    public String toLines(Map<String, Integer> steps) {
+        StringBuilder content = new StringBuilder();
+        List<String> names = new ArrayList<>(steps.keySet());
+
+        for (Map.Entry<String, Integer> step : steps.entrySet()) {
+            this.appendLine(content, step.getKey(), step.getValue());
+
+            if (this.random.nextInt(50) == 0) {
+                this.appendLine(content, names.get(this.random.nextInt(names.size())), this.nextDuration());
+            }
+        }
+
+        // The last line break is optional
+        if (content.length() > 0 && this.random.nextBoolean()) {
+            content.setLength(content.length() - 1);
+        }
+
+        return content.toString();
+    }
+
+    /**
+     * Appends a step line.
+     *
+     * @param content  Content of the file.
+     * @param name     Name of the step.
+     * @param duration Duration of the step, in minutes.
+     */
+    private void appendLine(StringBuilder content, String name, int duration) {
+        content.append(name);
+
+        if (duration == MAINTENANCE) {
+            content.append(this.random.nextBoolean() ? " - maintenance" : " - MAINTENANCE");
+        } else {
+            content.append(this.random.nextInt(10) == 0 ? " - " : " ").append(duration).append("min");
+        }
+
+        if (this.random.nextInt(20) == 0) {
+            content.append("; priority=").append(this.random.nextInt(10));
+        }
+
+        content.append(this.random.nextInt(10) == 0 ? "\r\n" : "\n");
+    }
+
+    /**
+     * Generates a name with one to three words, the last one made from the position of the step, so the names of a
+     * list are different.
+     *
+     * @param position Position of the step in the list.
+     * @return The name.
+     */
+    private String nextName(int position) {
+        StringBuilder name = new StringBuilder();
+        int words = this.random.nextInt(3);
+
+        for (int i = 0; i < words; i++) {
+            int length = 1 + this.random.nextInt(8);
+
+            for (int j = 0; j < length; j++) {
+                name.append(LETTERS.charAt(this.random.nextInt(LETTERS.length())));
+            }
+
+            name.append(' ');
+        }
+
+        // The first letter is an uppercase one, so the position is never read as a word of the other names
+        name.append('P');
+        int number = position;
+        do {
+            name.append((char) ('a' + number % 26));
+            number /= 26;
+        } while (number > 0);
+
+        return name.toString();
+    }
+
+    /**
+     * @return A duration, in minutes, weighted towards the corner cases of the organizers.
+     */
+    private int nextDuration() {
+        int kind = this.random.nextInt(100);
+
+        if (kind < 10) {
+            return MAINTENANCE;
+        } else if (kind < 25) {
+            return BORDER_DURATIONS[this.random.nextInt(BORDER_DURATIONS.length)];
+        } else if (kind < 28) {
+            // Longer than any period, so it's always alone in the morning of its assembly line
+            return 241 + this.random.nextInt(600);
+        }
+
+        return 1 + this.random.nextInt(180);
+    }
+}
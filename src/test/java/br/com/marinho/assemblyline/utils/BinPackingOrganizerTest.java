@@ -0,0 +1,150 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Test class for the functionality of the {@link BinPackingOrganizer}.
+ */
+public class BinPackingOrganizerTest {
+
+    /** Optimizer instance to make the tests. */
+    private final BinPackingOrganizer optimizer = new BinPackingOrganizer();
+
+    /** Greedy organizer, used to compare the amount of assembly lines. */
+    private final Organizer organizer = new Organizer();
+
+    /**
+     * Builds a table with the durations, naming the activities as "Production step N".
+     *
+     * @param durations Durations of the activities.
+     * @return The table with the activities.
+     */
+    private static StepTable buildTable(int... durations) {
+        StepTable table = new StepTable();
+
+        for (int i = 0; i < durations.length; i++) {
+            table.put("Production step " + (i + 1), durations[i]);
+        }
+
+        return table;
+    }
+
+    /**
+     * Checks the organized assembly lines: every activity must appear once, no activity can end after noon before
+     * the lunch and no afternoon activity can end at 17h or after it.
+     *
+     * @param table     Table with the activities.
+     * @param organized Organized assembly lines.
+     */
+    private static void assertValidSchedule(StepTable table, String organized) {
+        Set<String> names = new HashSet<>();
+        boolean afternoon = false;
+
+        for (String line : organized.split("\\n")) {
+            if (line.isEmpty() || line.startsWith("Linha de montagem")) {
+                afternoon = false;
+                continue;
+            }
+
+            int time = Integer.parseInt(line.substring(0, 2)) * 60 + Integer.parseInt(line.substring(3, 5));
+
+            if (line.endsWith("Almoço")) {
+                afternoon = true;
+            } else if (!line.endsWith("Ginástica laboral")) {
+                String name = line.substring(6, line.lastIndexOf(' '));
+                int end = time + table.getDuration(table.indexOf(name));
+
+                Assert.assertTrue(line, afternoon ? end < 17 * 60 : end <= 12 * 60);
+                Assert.assertTrue(line, names.add(name));
+            }
+        }
+
+        Assert.assertEquals(table.size(), names.size());
+    }
+
+    /**
+     * The greedy organizer opens a new assembly line as soon as an activity doesn't fit, wasting time in the
+     * previous one. The optimizer must pack the same activities in less assembly lines.
+     */
+    @Test
+    public void should_UseLessAssemblyLinesThanGreedy_When_GreedyWastesTime() {
+        StepTable table = buildTable(120, 90, 120, 90, 150, 60, 150, 60, 170, 30, 200, 35, 200, 35);
+        String organized = this.optimizer.organize(table);
+
+        Assert.assertEquals(5, this.organizer.countAssemblyLines(table));
+        Assert.assertEquals(4, this.optimizer.countAssemblyLines(table));
+        Assert.assertTrue(organized.contains("Linha de montagem 4:"));
+        Assert.assertFalse(organized.contains("Linha de montagem 5:"));
+        assertValidSchedule(table, organized);
+    }
+
+    /**
+     * For these activities, the best-fit decreasing heuristic needs three assembly lines, but there is a packing in
+     * two. As there are few activities, the exact search must find it.
+     */
+    @Test
+    public void should_FindOptimalPacking_When_ThereAreFewActivities() {
+        StepTable table = buildTable(60, 110, 130, 65, 60, 70, 55, 110, 85);
+
+        Assert.assertEquals(2, this.optimizer.countAssemblyLines(table));
+        assertValidSchedule(table, this.optimizer.organize(table));
+    }
+
+    /**
+     * The assembly lines built by the optimizer must have the same format as the greedy ones: lunch at noon, gym at
+     * 16h if the activities end before it and an empty line between two assembly lines.
+     */
+    @Test
+    public void should_HaveSameFormatAsGreedy_When_ActivitiesFitInOneAssemblyLine() {
+        StepTable table = new StepTable();
+        table.put("Production step 1", 180);
+        table.putMaintenance("Production step 2");
+        table.put("Production step 3", 60);
+        String[] splitResult = this.optimizer.organize(table).split("\\n");
+
+        Assert.assertEquals(6, splitResult.length);
+        Assert.assertEquals("Linha de montagem 1:", splitResult[0]);
+        Assert.assertEquals("09:00 Production step 1 180min", splitResult[1]);
+        Assert.assertEquals("12:00 Almoço", splitResult[2]);
+        Assert.assertEquals("13:00 Production step 2 ", splitResult[3]);
+        Assert.assertEquals("13:05 Production step 3 60min", splitResult[4]);
+        Assert.assertEquals("16:00 Ginástica laboral", splitResult[5]);
+    }
+
+    /**
+     * Activities longer than an afternoon period don't fit anywhere, so each one must have its own assembly line,
+     * and the other activities must still be packed.
+     */
+    @Test
+    public void should_GiveOwnAssemblyLine_When_ActivityDoesNotFitInAnyPeriod() {
+        StepTable table = buildTable(60, 300, 60);
+        String organized = this.optimizer.organize(table);
+
+        Assert.assertEquals(2, this.optimizer.countAssemblyLines(table));
+        Assert.assertTrue(organized.endsWith("Linha de montagem 2:\n09:00 Production step 2 300min\n"));
+    }
+
+    /**
+     * With many random activities, the optimizer must never use more assembly lines than the greedy organizer and
+     * the schedule must stay valid.
+     */
+    @Test
+    public void should_NeverUseMoreAssemblyLinesThanGreedy_When_ThereAreManyActivities() {
+        Random random = new Random(42);
+        int[] durations = new int[5_000];
+
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = i % 10 == 0 ? 5 : 10 + random.nextInt(170);
+        }
+
+        StepTable table = buildTable(durations);
+        Assert.assertTrue(this.optimizer.countAssemblyLines(table) <= this.organizer.countAssemblyLines(table));
+        assertValidSchedule(table, this.optimizer.organize(table));
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Test class for the {@link CompiledStepFile} format. A compiled file must load into the same table, in the same
+ * order, as the text file it came from.
+ */
+public class CompiledStepFileTest {
+
+    /** Folder used to write the compiled files. */
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Checks that two tables have the same steps in the same order.
+     *
+     * @param expected Table expected.
+     * @param actual   Table loaded.
+     */
+    private static void assertSameSteps(StepTable expected, StepTable actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.getName(i), actual.getName(i));
+            Assert.assertEquals(expected.getDuration(i), actual.getDuration(i));
+            Assert.assertEquals(expected.getPriority(i), actual.getPriority(i));
+            Assert.assertEquals(expected.isMaintenance(i), actual.isMaintenance(i));
+            Assert.assertArrayEquals(expected.getDependencies(i), actual.getDependencies(i));
+        }
+    }
+
+    /**
+     * The valid files of {@link FileLineUtilsTest}, once compiled, load into the same tables and organize into the
+     * same assembly lines.
+     */
+    @Test
+    public void should_LoadSameSteps_When_TextFileIsCompiled() throws IOException {
+        String[] files = {"should_ConvertLine_When_MaintenanceTextIsUpperCase",
+                          "should_ConvertLines_When_SomeTimeIsOverSixtyMinutes",
+                          "should_ConvertLines_When_ThereAreJustMaintenance",
+                          "should_ConvertLines_When_ThereIsNoMaintenance"};
+
+        for (int i = 0; i < files.length; i++) {
+            StepTable table = FileLineUtils.getStepTable(
+                    Paths.get(FileLineUtilsTest.SRC_TEST_RESOURCES + files[i] + ".txt").toFile());
+            File compiled = this.temporaryFolder.newFile(files[i] + ".alsf");
+
+            CompiledStepFile.write(table, compiled);
+            StepTable loaded = CompiledStepFile.read(compiled);
+
+            assertSameSteps(table, loaded);
+            Assert.assertEquals(new Organizer().organize(table), new Organizer().organize(loaded));
+        }
+    }
+
+    /**
+     * Names outside ASCII keep their characters, durations that don't fit in 2 bytes switch the file to 4-byte
+     * durations, the priorities and the dependencies are kept, and an empty table is a valid compiled file.
+     */
+    @Test
+    public void should_KeepNamesAndDurations_When_TheyDontFitTheShortForm() throws IOException {
+        StepTable table = new StepTable();
+        table.put("Montagem de ção", 45);
+        table.put("Soldagem", 70_000, -3);
+        table.put("", 5, 12);
+        table.setDependencies(0, new String[]{"Soldagem", ""});
+        table.setDependencies(2, new String[]{"Montagem de ção"});
+
+        File compiled = this.temporaryFolder.newFile("wide.alsf");
+        CompiledStepFile.write(table, compiled);
+        assertSameSteps(table, CompiledStepFile.read(compiled));
+
+        File empty = this.temporaryFolder.newFile("empty.alsf");
+        CompiledStepFile.write(new StepTable(), empty);
+        Assert.assertEquals(0, CompiledStepFile.read(empty).size());
+    }
+
+    /**
+     * A text file, a compiled file of another version and a truncated compiled file are all rejected.
+     */
+    @Test
+    public void should_ThrowStepFormatException_When_FileIsNotAValidCompiledFile() throws IOException {
+        StepTable table = new StepTable();
+        table.put("Montagem", 45);
+        table.put("Soldagem", 30);
+
+        File compiled = this.temporaryFolder.newFile("steps.alsf");
+        CompiledStepFile.write(table, compiled);
+        byte[] content = Files.readAllBytes(compiled.toPath());
+
+        File text = this.temporaryFolder.newFile("steps.txt");
+        Files.write(text.toPath(), "Montagem 45min\nSoldagem 30min\n".getBytes(StandardCharsets.UTF_8));
+
+        byte[] otherVersion = content.clone();
+        otherVersion[5] = 9;
+        File otherVersionFile = this.temporaryFolder.newFile("version.alsf");
+        Files.write(otherVersionFile.toPath(), otherVersion);
+
+        File truncated = this.temporaryFolder.newFile("truncated.alsf");
+        Files.write(truncated.toPath(), Arrays.copyOf(content, content.length - 3));
+
+        File[] invalidFiles = {text, otherVersionFile, truncated};
+        for (int i = 0; i < invalidFiles.length; i++) {
+            try {
+                CompiledStepFile.read(invalidFiles[i]);
+                Assert.fail(invalidFiles[i].getName() + " should not be loaded.");
+            } catch (StepFormatException e) {
+                Assert.assertTrue(e.getMessage().contains(invalidFiles[i].getName()));
+            }
+        }
+    }
+}
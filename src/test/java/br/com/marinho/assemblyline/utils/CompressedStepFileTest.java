@@ -0,0 +1,166 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Test class for the {@link CompressedStepFile} reader. A compressed file must give the same table as the
+ * decompressed file read by {@link MappedFileLineUtils}, wherever the chunks are cut.
+ */
+public class CompressedStepFileTest {
+
+    /** Folder used to write the compressed files. */
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Compresses bytes into a new gzip file.
+     *
+     * @param name    Name of the file.
+     * @param content Bytes to compress.
+     * @return The compressed file.
+     * @throws IOException If the file can't be written.
+     */
+    private File compress(String name, byte[] content) throws IOException {
+        File file = this.temporaryFolder.newFile(name);
+
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file.toPath()))) {
+            output.write(content);
+        }
+
+        return file;
+    }
+
+    /**
+     * Builds a step name without digits, as the names can't have numbers.
+     *
+     * @param index Position of the step.
+     * @return The name, as "Step BCA".
+     */
+    private static String stepName(int index) {
+        StringBuilder name = new StringBuilder("Step ");
+        String digits = Integer.toString(index);
+
+        for (int i = 0; i < digits.length(); i++) {
+            name.append((char) ('A' + digits.charAt(i) - '0'));
+        }
+
+        return name.toString();
+    }
+
+    /**
+     * The valid files of {@link FileLineUtilsTest}, once compressed, give the same tables as the text files, and
+     * lines cut between chunks, including "\r\n" breaks and lines bigger than a chunk, are converted as a whole.
+     */
+    @Test
+    public void should_ConvertSameSteps_When_FileIsCompressed() throws IOException {
+        String[] files = {"should_ConvertLine_When_MaintenanceTextIsUpperCase",
+                          "should_ConvertLines_When_SomeTimeIsOverSixtyMinutes",
+                          "should_ConvertLines_When_ThereAreJustMaintenance",
+                          "should_ConvertLines_When_ThereIsNoMaintenance"};
+
+        for (int i = 0; i < files.length; i++) {
+            File text = Paths.get(FileLineUtilsTest.SRC_TEST_RESOURCES + files[i] + ".txt").toFile();
+            File compressed = this.compress(files[i] + ".txt.gz", Files.readAllBytes(text.toPath()));
+
+            Assert.assertTrue(CompressedStepFile.isCompressed(compressed));
+            Assert.assertFalse(CompressedStepFile.isCompressed(text));
+            Assert.assertEquals(MappedFileLineUtils.getStepTable(text).toMap(),
+                                CompressedStepFile.read(compressed, null).toMap());
+        }
+
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) {
+            String prefix = i % 97 == 0 ? "Production step with a very long name, longer than a chunk, " : "";
+            content.append(prefix).append(stepName(i)).append(i % 5 == 0 ? " - maintenance" : " " + (i % 60 + 1) + "min")
+                   .append(i % 3 == 0 ? "\r\n" : i % 3 == 1 ? "\r" : "\n");
+        }
+
+        byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+        StepTable expected = MappedFileLineUtils.getStepTable(ByteBuffer.wrap(bytes));
+        int[] chunkSizes = {7, 64, 1 << 20};
+
+        for (int i = 0; i < chunkSizes.length; i++) {
+            StepTable table = CompressedStepFile.read(new ByteArrayInputStream(bytes), null, chunkSizes[i]);
+
+            Assert.assertEquals(expected.size(), table.size());
+            for (int j = 0; j < expected.size(); j++) {
+                Assert.assertEquals(expected.getName(j), table.getName(j));
+                Assert.assertEquals(expected.getDuration(j), table.getDuration(j));
+            }
+        }
+    }
+
+    /**
+     * The invalid lines are numbered as in the decompressed file, and the first invalid line stops the conversion
+     * when there is no report.
+     */
+    @Test
+    public void should_ReportInvalidLines_When_CompressedFileHasThem() throws IOException {
+        byte[] content = ("Step A 45min\nStep B 2 30min\nStep C\r\nStep D - maintenance\nStep E 20min\n")
+                .getBytes(StandardCharsets.UTF_8);
+        File compressed = this.compress("invalid.txt.gz", content);
+
+        ParseReport expectedReport = new ParseReport(10);
+        ParseReport report = new ParseReport(10);
+        StepTable expected = MappedFileLineUtils.getStepTable(ByteBuffer.wrap(content), expectedReport);
+
+        Assert.assertEquals(expected.toMap(), CompressedStepFile.read(compressed, report).toMap());
+        Assert.assertEquals(expectedReport.getErrors(), report.getErrors());
+        Assert.assertEquals(2, report.getErrorCount());
+
+        try {
+            CompressedStepFile.read(compressed, null);
+            Assert.fail("The invalid line should stop the conversion.");
+        } catch (StepFormatException e) {
+            Assert.assertEquals("There is a number in the production step title.", e.getMessage());
+        }
+    }
+
+    /**
+     * A zstd file is rejected with its name, and a truncated gzip file is a problem while reading.
+     */
+    @Test
+    public void should_Fail_When_FileCantBeDecompressed() throws IOException {
+        File zstd = this.temporaryFolder.newFile("steps.txt.zst");
+        Files.write(zstd.toPath(), new byte[]{0x28, (byte) 0xB5, 0x2F, (byte) 0xFD, 0, 0, 0, 0});
+
+        Assert.assertTrue(CompressedStepFile.isCompressed(zstd));
+        try {
+            CompressedStepFile.read(zstd, null);
+            Assert.fail("A zstd file should not be read.");
+        } catch (StepFormatException e) {
+            Assert.assertTrue(e.getMessage().contains("steps.txt.zst"));
+        }
+
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            content.append(stepName(i)).append(" 30min\n");
+        }
+
+        File compressed = this.compress("steps.txt.gz", content.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] bytes = Files.readAllBytes(compressed.toPath());
+        Files.write(compressed.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+
+        try {
+            CompressedStepFile.read(compressed, null);
+            Assert.fail("A truncated file should not be read.");
+        } catch (IOException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+}
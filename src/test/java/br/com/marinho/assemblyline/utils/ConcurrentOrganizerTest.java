@@ -0,0 +1,113 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Test class for the {@link ConcurrentOrganizer}.
+ */
+public class ConcurrentOrganizerTest {
+
+    /**
+     * With a single assembly line there is nothing to run at the same time, so the corner cases of
+     * {@link Organizer} (activities closing an assembly line, activities longer than a period, maintenance and a
+     * first activity that doesn't fit anywhere) must give the same result.
+     */
+    @Test
+    public void should_HaveSameResultAsOrganizer_When_ThereIsOneAssemblyLine() {
+        Random random = new Random(11);
+        StepTable activities = new StepTable();
+
+        for (int i = 0; i < 100_000; i++) {
+            int duration = i % 1000 == 0 ? 200 + random.nextInt(300) : i % 7 == 0 ? 5 : 1 + random.nextInt(180);
+            if (i % 13 == 0) {
+                activities.putMaintenance("Production step " + i);
+            } else {
+                activities.put("Production step " + i, duration);
+            }
+        }
+
+        ConcurrentOrganizer concurrentOrganizer = new ConcurrentOrganizer(1);
+        Assert.assertEquals(new Organizer().organize(activities), concurrentOrganizer.organize(activities));
+        Assert.assertEquals(new Organizer().organize(new StepTable()), concurrentOrganizer.organize(new StepTable()));
+
+        StepTable longFirstActivity = new StepTable();
+        longFirstActivity.put("Production step 1", 300);
+        longFirstActivity.put("Production step 2", 170);
+        longFirstActivity.put("Production step 3", 20);
+        Assert.assertEquals(new Organizer().organize(longFirstActivity),
+                            concurrentOrganizer.organize(longFirstActivity));
+    }
+
+    /**
+     * Each activity goes to the assembly line that is free first, so the work is spread over the assembly lines
+     * running at the same time, and new ones are only opened when all of them are full.
+     */
+    @Test
+    public void should_SpreadActivities_When_AssemblyLinesRunConcurrently() {
+        StepTable activities = new StepTable();
+        activities.put("Production step I", 120);
+        activities.put("Production step II", 60);
+        activities.put("Production step III", 60);
+        activities.put("Production step IV", 180);
+        activities.put("Production step V", 230);
+        activities.put("Production step VI", 100);
+
+        // The fourth activity doesn't fit before lunch in any assembly line, and the last one doesn't fit in any
+        String expected = "Linha de montagem 1:\n"
+                          + "09:00 Production step I 120min\n"
+                          + "12:00 Almoço\n"
+                          + "13:00 Production step IV 180min\n"
+                          + "16:00 Ginástica laboral\n"
+                          + "\n"
+                          + "Linha de montagem 2:\n"
+                          + "09:00 Production step II 60min\n"
+                          + "10:00 Production step III 60min\n"
+                          + "12:00 Almoço\n"
+                          + "13:00 Production step V 230min\n"
+                          + "16:50 Ginástica laboral\n"
+                          + "\n"
+                          + "Linha de montagem 3:\n"
+                          + "09:00 Production step VI 100min\n";
+
+        Assert.assertEquals(expected, new ConcurrentOrganizer(2).organize(activities));
+    }
+
+    /**
+     * When all the concurrent assembly lines are full, the same amount of new ones is opened, and every activity is
+     * written once.
+     */
+    @Test
+    public void should_OpenNewAssemblyLines_When_ConcurrentAssemblyLinesAreFull() {
+        StepTable activities = new StepTable();
+        for (int i = 0; i < 70; i++) {
+            activities.put("Production step " + i, 60);
+        }
+
+        // Each assembly line takes 3 activities in the morning and 3 in the afternoon, so 30 activities fill 5 of them
+        String organized = new ConcurrentOrganizer(5).organize(activities);
+        String[] splitResult = organized.split("\\n");
+        int titles = 0;
+        int activityLines = 0;
+
+        for (int i = 0; i < splitResult.length; i++) {
+            titles += splitResult[i].startsWith("Linha de montagem") ? 1 : 0;
+            activityLines += splitResult[i].contains("Production step") ? 1 : 0;
+        }
+
+        Assert.assertEquals(15, titles);
+        Assert.assertEquals(70, activityLines);
+        Assert.assertTrue(organized.contains("Linha de montagem 15:\n09:00 Production step 64 60min\n"
+                                             + "10:00 Production step 69 60min\n"));
+
+        try {
+            new ConcurrentOrganizer(0);
+            Assert.fail("An organizer without assembly lines should not be built.");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("There must be at least one assembly line, not 0.", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import br.com.marinho.assemblyline.testUtilities.RandomSteps;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Differential tests of the parsers and organizers: random step lists and step files are organized and parsed by
+ * every implementation, and the results must be the same as the ones of the reference implementations, the
+ * {@link ReferenceOrganizer} and the line reader of {@link FileLineUtils}. The schedules must also follow the
+ * {@link ScheduleInvariants}. A new parser or organizer is added to the comparisons of this class before it replaces
+ * the current one.
+ * The amounts of cases are small enough for every build, and can be raised for a large run, as in
+ * {@code mvn test -Dtest=DifferentialTest -Ddifferential.cases=1000000 -Ddifferential.files=1000}. The properties
+ * are:
+ * <ul>
+ *     <li>{@code differential.seed}: seed of the first case, each case using the next one (default 41);</li>
+ *     <li>{@code differential.cases}: amount of step lists organized (default 2000);</li>
+ *     <li>{@code differential.files}: amount of step files parsed (default 20);</li>
+ *     <li>{@code differential.parseSpeedup} and {@code differential.organizeSpeedup}: how many times the mapped
+ *     parser and the organizer must be faster than the references. The speed is only compared when one of them is
+ *     set, as in {@code -Ddifferential.parseSpeedup=1.5 -Ddifferential.organizeSpeedup=2}, since the times of a
+ *     shared build machine are too noisy to fail the build.</li>
+ * </ul>
+ */
+public class DifferentialTest {
+
+    /** Seed of the first case. */
+    private static final long SEED = Long.getLong("differential.seed", 41);
+
+    /** Amount of step lists organized. */
+    private static final int CASES = Integer.getInteger("differential.cases", 2_000);
+
+    /** Amount of step files parsed. */
+    private static final int FILES = Integer.getInteger("differential.files", 20);
+
+    /** Maximum amount of steps of each step list. */
+    private static final int MAX_STEPS = 300;
+
+    /** Maximum amount of steps of each step file. */
+    private static final int MAX_FILE_STEPS = 5_000;
+
+    /** Amount of steps of the step list used to measure the throughput. */
+    private static final int THROUGHPUT_STEPS = 200_000;
+
+    /** Amount of runs measured for each implementation, keeping the fastest one. */
+    private static final int THROUGHPUT_RUNS = 5;
+
+    /** How many times the mapped parser must be faster than the reader, or {@code null} to not compare them. */
+    private static final String PARSE_SPEEDUP = System.getProperty("differential.parseSpeedup");
+
+    /** How many times the organizer must be faster than the reference, or {@code null} to not compare them. */
+    private static final String ORGANIZE_SPEEDUP = System.getProperty("differential.organizeSpeedup");
+
+    /** Folder of the step files, deleted after each test. */
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Every organizer that builds the greedy assembly lines must write the same bytes as the reference, and the
+     * reference schedule must follow the rules of the assembly lines.
+     *
+     * @throws IOException If there is a problem while writing.
+     */
+    @Test
+    public void should_WriteSameScheduleAsReference_When_OrganizingRandomSteps() throws IOException {
+        Organizer organizer = new Organizer();
+        ConcurrentOrganizer concurrentOrganizer = new ConcurrentOrganizer(1);
+
+        for (int i = 0; i < CASES; i++) {
+            long seed = SEED + i;
+            Map<String, Integer> steps = new RandomSteps(seed).nextSteps(MAX_STEPS);
+            StepTable table = StepTable.fromMap(steps);
+            String expected = ReferenceOrganizer.organize(steps);
+            String message = "Seed " + seed + ": ";
+
+            ScheduleInvariants.check(expected, steps);
+
+            Assert.assertEquals(message + "greedy", expected, organizer.organize(table));
+            Assert.assertEquals(message + "map", expected, organizer.organize(steps));
+            Assert.assertEquals(message + "concurrent", expected, concurrentOrganizer.organize(table));
+            Assert.assertEquals(message + "incremental", expected, new IncrementalOrganizer(table).organize());
+
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            organizer.encode(table, new TextScheduleEncoder(), encoded);
+            Assert.assertEquals(message + "encoder", expected, new String(encoded.toByteArray(),
+                                                                          StandardCharsets.UTF_8));
+
+            // The parallel organizer starts a pool in each call, so it's only compared in some cases
+            if (i % 20 == 0) {
+                Assert.assertEquals(message + "parallel", expected, organizer.organize(table, 4));
+            }
+        }
+    }
+
+    /**
+     * Every parser must read the same steps, with their durations and priorities and in the same order, as the line
+     * reader, from step files with every accepted form of line, cut in small chunks and ranges.
+     *
+     * @throws IOException If there is a problem while reading or writing the files.
+     */
+    @Test
+    public void should_ReadSameStepsAsReference_When_ParsingRandomFiles() throws IOException {
+        File file = this.temporaryFolder.newFile("input.txt");
+        File compiledFile = this.temporaryFolder.newFile("input.alsf");
+
+        for (int i = 0; i < FILES; i++) {
+            long seed = SEED + i;
+            RandomSteps random = new RandomSteps(seed);
+            byte[] content = random.toLines(random.nextSteps(MAX_FILE_STEPS)).getBytes(StandardCharsets.UTF_8);
+            Files.write(file.toPath(), content);
+
+            StepTable expected = FileLineUtils.getStepTable(file);
+            String message = "Seed " + seed + ": ";
+
+            Assert.assertEquals(message + "reader map", expected.toMap(), FileLineUtils.getAssemblyMap(file));
+            assertSameSteps(message + "mapped", expected, MappedFileLineUtils.getStepTable(file));
+            assertSameSteps(message + "bytes", expected, MappedFileLineUtils.getStepTable(ByteBuffer.wrap(content)));
+            assertSameSteps(message + "parallel", expected, MappedFileLineUtils.getStepTable(file, 4, 1 << 12));
+            assertSameSteps(message + "compressed", expected,
+                            CompressedStepFile.read(new ByteArrayInputStream(content), null, 1 << 10));
+
+            CompiledStepFile.write(expected, compiledFile);
+            assertSameSteps(message + "compiled", expected, CompiledStepFile.read(compiledFile));
+        }
+    }
+
+    /**
+     * The checker of the rules must find a schedule that breaks them, so the differential tests can't pass by
+     * checking nothing.
+     */
+    @Test
+    public void should_RejectSchedule_When_ARuleIsBroken() {
+        Map<String, Integer> steps = new LinkedHashMap<>();
+        steps.put("Corte", 180);
+        steps.put("Solda", 120);
+        steps.put("Pintura", 180);
+
+        String schedule = ReferenceOrganizer.organize(steps);
+        ScheduleInvariants.check(schedule, steps);
+
+        String[] broken = {
+                schedule.replace("12:00 Almoço", "12:30 Almoço"),
+                schedule.replace("16:00 Ginástica laboral", "16:30 Ginástica laboral"),
+                schedule.replace("13:00 Solda", "12:00 Solda"),
+                schedule.replace("Linha de montagem 2", "Linha de montagem 3"),
+                schedule.replace("09:00 Pintura 180min\n", "")
+        };
+
+        for (int i = 0; i < broken.length; i++) {
+            try {
+                ScheduleInvariants.check(broken[i], steps);
+            } catch (AssertionError e) {
+                continue;
+            }
+
+            Assert.fail("The schedule " + i + " breaks a rule and was accepted.");
+        }
+    }
+
+    /**
+     * The mapped parser and the organizer must stay faster than the references by the configured factors, so a
+     * change that makes them slower is found. The fastest of some runs is compared, after a first run that warms the
+     * code up. It's skipped unless a factor is set, and only the set factors are checked.
+     *
+     * @throws IOException If there is a problem while reading or writing the file.
+     */
+    @Test
+    public void should_StayFasterThanReference_When_ParsingAndOrganizing() throws IOException {
+        Assume.assumeTrue("No speedup was set.", PARSE_SPEEDUP != null || ORGANIZE_SPEEDUP != null);
+
+        RandomSteps random = new RandomSteps(SEED);
+        Map<String, Integer> steps = random.nextSteps(THROUGHPUT_STEPS);
+        while (steps.size() < THROUGHPUT_STEPS / 2) {
+            steps = random.nextSteps(THROUGHPUT_STEPS);
+        }
+
+        File file = this.temporaryFolder.newFile("input.txt");
+        Files.write(file.toPath(), random.toLines(steps).getBytes(StandardCharsets.UTF_8));
+        StepTable table = StepTable.fromMap(steps);
+        Organizer organizer = new Organizer();
+        Map<String, Integer> finalSteps = steps;
+
+        if (PARSE_SPEEDUP != null) {
+            long readerTime = measure(() -> FileLineUtils.getStepTable(file));
+            long mappedTime = measure(() -> MappedFileLineUtils.getStepTable(file));
+
+            Assert.assertTrue("The mapped parser took " + mappedTime + "ns, and the reader " + readerTime + "ns.",
+                              mappedTime * Double.parseDouble(PARSE_SPEEDUP) <= readerTime);
+        }
+
+        if (ORGANIZE_SPEEDUP != null) {
+            long referenceTime = measure(() -> ReferenceOrganizer.organize(finalSteps));
+            long organizerTime = measure(() -> organizer.organize(table, new StringWriter()));
+
+            Assert.assertTrue("The organizer took " + organizerTime + "ns, and the reference " + referenceTime + "ns.",
+                              organizerTime * Double.parseDouble(ORGANIZE_SPEEDUP) <= referenceTime);
+        }
+    }
+
+    /**
+     * Checks that two tables have the same steps, with the same durations and priorities, in the same order.
+     *
+     * @param message  Message of the failures.
+     * @param expected Table of the reference.
+     * @param actual   Table of the implementation.
+     */
+    private static void assertSameSteps(String message, StepTable expected, StepTable actual) {
+        Assert.assertEquals(message + " size", expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(message + " name " + i, expected.getName(i), actual.getName(i));
+            Assert.assertEquals(message + " duration " + i, expected.getDuration(i), actual.getDuration(i));
+            Assert.assertEquals(message + " priority " + i, expected.getPriority(i), actual.getPriority(i));
+            Assert.assertEquals(message + " maintenance " + i, expected.isMaintenance(i), actual.isMaintenance(i));
+        }
+    }
+
+    /**
+     * Measures the fastest of {@link DifferentialTest#THROUGHPUT_RUNS} runs of a task, after a first run that isn't
+     * measured.
+     *
+     * @param task Task to measure.
+     * @return The time of the fastest run, in nanoseconds.
+     * @throws IOException If there is a problem in the task.
+     */
+    private static long measure(Task task) throws IOException {
+        long fastest = Long.MAX_VALUE;
+        task.run();
+
+        for (int i = 0; i < THROUGHPUT_RUNS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        return fastest;
+    }
+
+    /**
+     * Task measured by {@link DifferentialTest#measure(Task)}.
+     */
+    private interface Task {
+
+        /**
+         * Runs the task.
+         *
+         * @throws IOException If there is a problem in the task.
+         */
+        void run() throws IOException;
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.marinho.assemblyline.utils;
 
+import br.com.marinho.assemblyline.model.StepTable;
 import br.com.marinho.assemblyline.testUtilities.TestUtils;
 import org.junit.Assert;
 import org.junit.Ignore;
@@ -193,6 +194,26 @@ public class FileLineUtilsTest {
         Assert.assertEquals(Integer.valueOf(5), assemblyMap.get("Assemblylinecooling"));
     }
 
+    /**
+     * The {@link FileLineUtils#getStepTable(File)} method must keep the production steps in the file order, different
+     * from the map, that has no order.
+     */
+    @Test
+    public void should_KeepFileOrder_When_ReadingAStepTable() {
+        File file = Paths.get(SRC_TEST_RESOURCES + "should_ConvertLines_When_SomeTimeIsOverSixtyMinutes"
+                              + TXT_EXTENSION).toFile();
+        StepTable table = FileLineUtils.getStepTable(file);
+
+        Assert.assertEquals(8, table.size());
+        Assert.assertEquals("Cutting of steel sheets", table.getName(0));
+        Assert.assertEquals(60, table.getDuration(0));
+        Assert.assertEquals("Safety sensor assembly", table.getName(3));
+        Assert.assertEquals(100, table.getDuration(3));
+        Assert.assertEquals("Assembly line cooling", table.getName(7));
+        Assert.assertEquals(5, table.getDuration(7));
+        Assert.assertEquals(FileLineUtils.getAssemblyMap(file), table.toMap());
+    }
+
     /**
      * The production step title does not have a number on it. Then, this test method tests if a {@code System.exit
      * (1)} is called if there is a number in the production title.
@@ -224,4 +245,36 @@ public class FileLineUtilsTest {
         Assert.assertEquals(Integer.valueOf(45), assemblyMap.get("Steel bearing assembly"));
         Assert.assertEquals(Integer.valueOf(5), assemblyMap.get("Assembly line cooling"));
     }
-}
\ No newline at end of file
+
+    /**
+     * In the fail-soft mode, the invalid lines must be skipped and reported with their line numbers, while the valid
+     * ones are still converted. When the invalid lines pass the threshold, the conversion must be aborted.
+     *
+     * @throws IOException If the file can't be read.
+     */
+    @Test
+    public void should_ReportInvalidLines_When_ParsingInFailSoftMode() throws IOException {
+        File file = Paths.get(SRC_TEST_RESOURCES + TestUtils.getMethodName() + TXT_EXTENSION).toFile();
+        ParseReport report = new ParseReport(10);
+        StepTable table = FileLineUtils.getStepTable(file, report);
+
+        Assert.assertEquals(5, table.size());
+        Assert.assertEquals(45, table.getDuration(table.indexOf("Steel bearing assembly")));
+        Assert.assertEquals(3, report.getErrorCount());
+        Assert.assertArrayEquals(new long[]{2, 4, 6}, report.getLineNumbers());
+        Assert.assertEquals("Line 4: There is a number in the production step title.", report.getErrors().get(1));
+        Assert.assertEquals("Line 6: " + FileLineUtils.TOO_BIG_TIME_MESSAGE, report.getErrors().get(2));
+
+        ParseReport boundedReport = new ParseReport(10, 1);
+        FileLineUtils.getStepTable(file, boundedReport);
+        Assert.assertEquals(3, boundedReport.getErrorCount());
+        Assert.assertEquals(1, boundedReport.getErrors().size());
+
+        try {
+            FileLineUtils.getStepTable(file, new ParseReport(2));
+            Assert.fail();
+        } catch (StepFormatException e) {
+            Assert.assertEquals("There are more than 2 invalid lines, the last one at line 6.", e.getMessage());
+        }
+    }
+}
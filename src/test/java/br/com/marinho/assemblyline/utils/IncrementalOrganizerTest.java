@@ -0,0 +1,99 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Test class for the functionality of the {@link IncrementalOrganizer}.
+ */
+public class IncrementalOrganizerTest {
+
+    /** Organizer used to build the expected assembly lines from scratch. */
+    private final Organizer organizer = new Organizer();
+
+    /**
+     * Builds a table with random activities, some of them maintenance and some too long for a period.
+     *
+     * @param random Random used for the durations.
+     * @param size   Amount of activities.
+     * @return The table with the activities.
+     */
+    private static StepTable buildTable(Random random, int size) {
+        StepTable table = new StepTable();
+
+        for (int i = 0; i < size; i++) {
+            table.put("Production step " + i, randomDuration(random));
+        }
+
+        return table;
+    }
+
+    /**
+     * @param random Random used for the duration.
+     * @return A random duration, sometimes a maintenance and sometimes longer than a period.
+     */
+    private static int randomDuration(Random random) {
+        int kind = random.nextInt(50);
+        return kind == 0 ? 200 + random.nextInt(100) : kind < 5 ? 5 : 1 + random.nextInt(180);
+    }
+
+    /**
+     * After any sequence of changes, the incremental organization must be the same as organizing all activities
+     * again, including the first assembly line without activities.
+     */
+    @Test
+    public void should_HaveSameResultAsOrganizer_When_ActivitiesChange() {
+        Random random = new Random(11);
+        StepTable table = buildTable(random, 2_000);
+        IncrementalOrganizer incremental = new IncrementalOrganizer(table);
+        int nextName = table.size();
+
+        Assert.assertEquals(this.organizer.organize(table), incremental.organize());
+
+        for (int round = 0; round < 300; round++) {
+            int changes = 1 + random.nextInt(4);
+
+            for (int i = 0; i < changes; i++) {
+                int operation = random.nextInt(3);
+
+                if (operation == 0 && table.size() > 0) {
+                    int index = random.nextInt(table.size());
+                    int duration = round % 50 == 0 ? 300 : randomDuration(random);
+                    table.setDuration(index, duration);
+                    incremental.setDuration(index, duration);
+                } else if (operation == 1 && table.size() > 0) {
+                    int index = random.nextInt(table.size());
+                    table.remove(index);
+                    incremental.remove(index);
+                } else {
+                    int index = random.nextInt(table.size() + 1);
+                    String name = "Production step " + nextName++;
+                    int duration = randomDuration(random);
+                    table.insert(index, name, duration);
+                    incremental.insert(index, name, duration);
+                }
+            }
+
+            Assert.assertEquals("Round " + round, this.organizer.organize(table), incremental.organize());
+        }
+    }
+
+    /**
+     * Inserting a maintenance in the middle of a big plan must only rebuild a few assembly lines around it.
+     */
+    @Test
+    public void should_RebuildFewAssemblyLines_When_OneActivityIsInserted() {
+        StepTable table = buildTable(new Random(5), 200_000);
+        IncrementalOrganizer incremental = new IncrementalOrganizer(table);
+
+        incremental.insertMaintenance(100_000, "Quality inspection");
+        table.insertMaintenance(100_000, "Quality inspection");
+
+        Assert.assertEquals(this.organizer.organize(table), incremental.organize());
+        Assert.assertTrue(String.valueOf(incremental.getRebuiltLines()), incremental.getRebuiltLines() < 100);
+        Assert.assertEquals(100_001, incremental.indexOf("Production step 100000"));
+    }
+}
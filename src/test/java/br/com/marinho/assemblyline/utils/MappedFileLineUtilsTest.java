@@ -0,0 +1,257 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.ExpectedSystemExit;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Test class to test the {@link MappedFileLineUtils} logic. As the mapped parser must have the same results as
+ * {@link FileLineUtils}, most tests compare both using the {@link FileLineUtilsTest} files.
+ */
+public class MappedFileLineUtilsTest {
+
+    /** Testing rule that expects a {@code System.exit()}. */
+    @Rule
+    public final ExpectedSystemExit exitRule = ExpectedSystemExit.none();
+
+    /** Folder used to write the generated files. */
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Gets a file from the {@link FileLineUtilsTest} resources.
+     *
+     * @param name Name of the file, without extension.
+     * @return The resource file.
+     */
+    private static File getResource(String name) {
+        return Paths.get(FileLineUtilsTest.SRC_TEST_RESOURCES + name + ".txt").toFile();
+    }
+
+    /**
+     * The test method tests if both parsers build the same map for all the valid files used in
+     * {@link FileLineUtilsTest}, including maintenance in uppercase, separators and lines without spaces.
+     */
+    @Test
+    public void should_BuildSameMapAsFileLineUtils_When_FileIsValid() {
+        String[] files = {"should_ConvertLine_When_MaintenanceTextIsUpperCase",
+                          "should_ConvertLines_When_SomeTimeIsOverSixtyMinutes",
+                          "should_ConvertLines_When_ThereAreJustMaintenance",
+                          "should_ConvertLines_When_ThereIsASeparatorBetweenTheNameAndTime",
+                          "should_ConvertLines_When_ThereIsNoMaintenance",
+                          "should_ConvertLines_When_ThereIsNoSpace"};
+
+        for (int i = 0; i < files.length; i++) {
+            File file = getResource(files[i]);
+            Assert.assertEquals(files[i], FileLineUtils.getAssemblyMap(file), MappedFileLineUtils.getAssemblyMap(file));
+        }
+    }
+
+    /**
+     * The test method tests if the lines are converted when the file is read in several small windows and has
+     * "\r\n" line breaks. The windows are smaller than the file, so lines are cut between two windows.
+     */
+    @Test
+    public void should_ConvertLines_When_FileIsBiggerThanTheMappingWindow() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            content.append("Step ").append(Integer.toString(i, 26).replaceAll("\\d", "x"));
+            content.append(i % 7 == 0 ? " - maintenance" : " " + (i % 90 + 1) + "min").append("\r\n");
+        }
+
+        File file = this.temporaryFolder.newFile("windows.txt");
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Integer> expected = FileLineUtils.getAssemblyMap(file);
+        Assert.assertEquals(expected, MappedFileLineUtils.getStepTable(file, 1, 64).toMap());
+        Assert.assertEquals(expected, MappedFileLineUtils.getAssemblyMap(file));
+    }
+
+    /**
+     * The test method tests if the parallel conversion builds the same map, with the same iteration order, as the
+     * sequential one. The file has repeated production steps in different ranges, so the merge order matters.
+     */
+    @Test
+    public void should_BuildSameMapAsSequentialRead_When_FileIsConvertedInParallel() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 300_000; i++) {
+            content.append("Step ").append(Integer.toString(i % 50_000, 26).replaceAll("\\d", "x"));
+            content.append(i % 11 == 0 ? " - maintenance" : " " + (i % 120 + 1) + "min").append('\n');
+        }
+
+        File file = this.temporaryFolder.newFile("parallel.txt");
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Integer> expected = MappedFileLineUtils.getAssemblyMap(file);
+        Map<String, Integer> parallel = MappedFileLineUtils.getAssemblyMap(file, 4);
+
+        Assert.assertEquals(expected, parallel);
+        Assert.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(parallel.keySet()));
+        Assert.assertEquals(FileLineUtils.getAssemblyMap(file), parallel);
+    }
+
+    /**
+     * The test method tests if the {@code System.exit(0)} is called if the file does not exists, as in
+     * {@link FileLineUtilsTest#should_CallSystemExitZero_When_FileDoesNotExists()}.
+     */
+    @Test
+    public void should_CallSystemExitZero_When_FileDoesNotExists() {
+        this.exitRule.expectSystemExitWithStatus(0);
+        MappedFileLineUtils.getAssemblyMap(Paths.get("nonExistentFile").toFile());
+    }
+
+    /**
+     * The test method tests if the {@code System.exit(1)} is called if there is a line with no time.
+     */
+    @Test
+    public void should_CallSystemExitOne_When_ThereIsALineWithNoTime() {
+        this.exitRule.expectSystemExitWithStatus(1);
+        MappedFileLineUtils.getAssemblyMap(getResource("should_CallSystemExitOne_When_ThereIsALineWithNoTime"));
+    }
+
+    /**
+     * The test method tests if the {@code System.exit(1)} is called when the maintenance line has no "-".
+     */
+    @Test
+    public void should_CallSystemExitOne_When_MaintenanceLineDoesNotHaveSeparator() {
+        this.exitRule.expectSystemExitWithStatus(1);
+        MappedFileLineUtils.getAssemblyMap(
+                getResource("should_CallSystemExitOne_When_MaintenanceLineDoesNotHaveSeparator"));
+    }
+
+    /**
+     * The test method tests if the {@code System.exit(1)} is called if there is a number in the production title.
+     */
+    @Test
+    public void should_CallSystemExitOne_When_ThereIsANumberInAProductionStepTitle() {
+        this.exitRule.expectSystemExitWithStatus(1);
+        MappedFileLineUtils.getAssemblyMap(
+                getResource("should_CallSystemExitOne_When_ThereIsANumberInAProductionStepTitle"));
+    }
+
+    /**
+     * The test method tests if the lines already in memory are converted as the same lines in a file, and if an
+     * invalid line throws a {@link StepFormatException} instead of finishing the program.
+     *
+     * @throws IOException If the resource can't be read.
+     */
+    @Test
+    public void should_ConvertContentInMemory_When_ReceivingAByteBuffer() throws IOException {
+        File file = getResource("should_ConvertLines_When_ThereIsASeparatorBetweenTheNameAndTime");
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+
+        Assert.assertEquals(FileLineUtils.getAssemblyMap(file), MappedFileLineUtils.getStepTable(content).toMap());
+        Assert.assertEquals(0, content.position());
+
+        try {
+            byte[] line = "Cutting of steel sheets\n".getBytes(StandardCharsets.UTF_8);
+            MappedFileLineUtils.getStepTable(ByteBuffer.wrap(line));
+            Assert.fail();
+        } catch (StepFormatException e) {
+            Assert.assertEquals("There is no time in the line and it's not possible to determine it.", e.getMessage());
+        }
+    }
+
+    /**
+     * The fail-soft mode of the mapped parser must skip and report the same lines as the one of
+     * {@link FileLineUtils}, reading from a file or from the bytes in memory.
+     *
+     * @throws IOException If the file can't be read.
+     */
+    @Test
+    public void should_ReportSameInvalidLinesAsFileLineUtils_When_ParsingInFailSoftMode() throws IOException {
+        File file = getResource("should_ReportInvalidLines_When_ParsingInFailSoftMode");
+        ParseReport expectedReport = new ParseReport(10);
+        ParseReport report = new ParseReport(10);
+        StepTable expected = FileLineUtils.getStepTable(file, expectedReport);
+
+        Assert.assertEquals(expected.toMap(), MappedFileLineUtils.getStepTable(file, report).toMap());
+        Assert.assertEquals(expectedReport.getErrors(), report.getErrors());
+
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        report = new ParseReport(10);
+        Assert.assertEquals(expected.toMap(), MappedFileLineUtils.getStepTable(content, report).toMap());
+        Assert.assertEquals(expectedReport.getErrors(), report.getErrors());
+    }
+
+    /**
+     * The columns after ";" are converted the same way by both parsers, in timed and maintenance lines, and the
+     * lines with unknown columns or invalid priorities are reported the same way.
+     *
+     * @throws IOException If the file can't be written or read.
+     */
+    @Test
+    public void should_ConvertPriorityColumnAsFileLineUtils_When_LinesHaveColumns() throws IOException {
+        String content = "Step A 45min; priority=3\n"
+                         + "Step B - maintenance ; priority=-1\r\n"
+                         + "Step C 30min\n"
+                         + "Step D 60min;priority = 7;\n"
+                         + "Step E 20min; deadline=3\n"
+                         + "Step F 20min; priority=soon\n"
+                         + "Step G 10min; after=Step A, Step C ; priority=2\n"
+                         + "Step H 10min; after= ,\n";
+        File file = this.temporaryFolder.newFile("columns.txt");
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+        ParseReport expectedReport = new ParseReport(10);
+        ParseReport report = new ParseReport(10);
+        StepTable expected = FileLineUtils.getStepTable(file, expectedReport);
+        StepTable table = MappedFileLineUtils.getStepTable(file, report);
+
+        Assert.assertEquals(5, expected.size());
+        Assert.assertEquals("Step B", expected.getName(1));
+        Assert.assertEquals(5, expected.getDuration(1));
+        Assert.assertEquals(3, expected.getPriority(0));
+        Assert.assertEquals(-1, expected.getPriority(1));
+        Assert.assertEquals(StepTable.DEFAULT_PRIORITY, expected.getPriority(2));
+        Assert.assertEquals(7, expected.getPriority(3));
+        Assert.assertArrayEquals(new String[]{"Step A", "Step C"}, expected.getDependencies(4));
+        Assert.assertEquals(2, expected.getPriority(4));
+        Assert.assertEquals(0, expected.getDependencies(0).length);
+        Assert.assertEquals(expectedReport.getErrors(), report.getErrors());
+        Assert.assertEquals(3, report.getErrorCount());
+
+        Assert.assertEquals(expected.size(), table.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.getName(i), table.getName(i));
+            Assert.assertEquals(expected.getDuration(i), table.getDuration(i));
+            Assert.assertEquals(expected.getPriority(i), table.getPriority(i));
+            Assert.assertArrayEquals(expected.getDependencies(i), table.getDependencies(i));
+        }
+    }
+
+    /**
+     * Contents converted with the same {@link NameTable} must keep the same string for a repeated name, even when
+     * the name is in lines of different kinds, and the other names must not be mixed up.
+     */
+    @Test
+    public void should_ShareNameStrings_When_ContentsShareANameTable() {
+        NameTable names = new NameTable();
+        StepTable first = MappedFileLineUtils.getStepTable(
+                ByteBuffer.wrap("Soldagem 45min\nPintura - maintenance\n".getBytes(StandardCharsets.UTF_8)), null,
+                names);
+        StepTable second = MappedFileLineUtils.getStepTable(
+                ByteBuffer.wrap("Pintura 30min\nMontagem 20min\nSoldagem - maintenance\n"
+                                        .getBytes(StandardCharsets.UTF_8)), null, names);
+
+        Assert.assertEquals(3, names.size());
+        Assert.assertSame(first.getName(0), second.getName(2));
+        Assert.assertSame(first.getName(1), second.getName(0));
+        Assert.assertEquals("Montagem", second.getName(1));
+        Assert.assertEquals(30, second.getDuration(0));
+        Assert.assertEquals(FileLineUtils.MAINTENANCE_TIME_VALUE, second.getDuration(2));
+        Assert.assertTrue(second.isMaintenance(2));
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.marinho.assemblyline.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test class for the {@link NameTable}.
+ */
+public class NameTableTest {
+
+    /**
+     * The same bytes must always give the same string, wherever they are in the array, and different bytes, even
+     * with the same length or characters out of the ASCII table, must give other strings.
+     */
+    @Test
+    public void should_GiveSameString_When_SameBytesAreInterned() {
+        NameTable names = new NameTable();
+        byte[] line = "Soldagem Soldagem Solda Manutenção".getBytes(StandardCharsets.UTF_8);
+
+        String first = names.internName(line, 0, 8);
+        String second = names.internName(line, 9, 8);
+        String prefix = names.internName(line, 18, 5);
+        String accented = names.internName(line, 24, line.length - 24);
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals("Soldagem", first);
+        Assert.assertEquals("Solda", prefix);
+        Assert.assertEquals("Manutenção", accented);
+        Assert.assertEquals(3, names.size());
+
+        for (int i = 0; i < 10_000; i++) {
+            byte[] name = ("Step " + stepName(i)).getBytes(StandardCharsets.UTF_8);
+            Assert.assertEquals("Step " + stepName(i), names.internName(name, 0, name.length));
+        }
+
+        Assert.assertEquals(10_003, names.size());
+
+        for (int i = 0; i < 10_000; i++) {
+            byte[] name = ("Step " + stepName(i)).getBytes(StandardCharsets.UTF_8);
+            Assert.assertSame(names.internName(name, 0, name.length), names.internName(name, 0, name.length));
+        }
+
+        Assert.assertSame(first, names.internName(line, 0, 8));
+        Assert.assertEquals(10_003, names.size());
+    }
+
+    /**
+     * Threads interning the same names at the same time must agree on a single string for each name.
+     *
+     * @throws Exception If a thread fails.
+     */
+    @Test
+    public void should_GiveSingleStringPerName_When_ThreadsInternAtTheSameTime() throws Exception {
+        NameTable names = new NameTable();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<String[]>> results = new ArrayList<>();
+
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                int shift = thread * 1_000;
+
+                results.add(pool.submit(() -> {
+                    String[] interned = new String[20_000];
+
+                    for (int i = 0; i < interned.length; i++) {
+                        int name = (i + shift) % interned.length;
+                        byte[] bytes = stepName(name).getBytes(StandardCharsets.UTF_8);
+                        interned[name] = names.internName(bytes, 0, bytes.length);
+                    }
+
+                    return interned;
+                }));
+            }
+
+            String[] expected = results.get(0).get();
+            for (int i = 1; i < results.size(); i++) {
+                String[] actual = results.get(i).get();
+
+                for (int j = 0; j < expected.length; j++) {
+                    Assert.assertSame(expected[j], actual[j]);
+                }
+            }
+
+            Assert.assertEquals(20_000, names.size());
+            for (int i = 0; i < expected.length; i++) {
+                Assert.assertEquals(stepName(i), expected[i]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * A full table must keep finding the names it has, and the new names must be decoded without being kept.
+     */
+    @Test
+    public void should_DecodeNewNamesWithoutKeepingThem_When_TableIsFull() {
+        NameTable names = new NameTable(16);
+        List<Integer> kept = new ArrayList<>();
+        int rejected = 0;
+
+        for (int i = 0; i < 1_000; i++) {
+            byte[] bytes = stepName(i).getBytes(StandardCharsets.UTF_8);
+            String first = names.internName(bytes, 0, bytes.length);
+            String second = names.internName(bytes, 0, bytes.length);
+
+            Assert.assertEquals(stepName(i), first);
+            Assert.assertEquals(stepName(i), second);
+
+            if (first == second) {
+                kept.add(i);
+            } else {
+                rejected++;
+            }
+        }
+
+        Assert.assertEquals(kept.size(), names.size());
+        Assert.assertTrue(kept.size() <= 16);
+        Assert.assertEquals(1_000 - kept.size(), rejected);
+
+        for (int i = 0; i < kept.size(); i++) {
+            byte[] bytes = stepName(kept.get(i)).getBytes(StandardCharsets.UTF_8);
+            Assert.assertSame(names.internName(bytes, 0, bytes.length), names.internName(bytes, 0, bytes.length));
+        }
+
+        try {
+            new NameTable(0);
+            Assert.fail("A table without names should not be built.");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("The name table must keep at least one name, not 0.", e.getMessage());
+        }
+    }
+
+    /**
+     * Builds a step name without digits, which are not allowed in the names.
+     *
+     * @param number Number of the step.
+     * @return The name, with one letter for each digit of the number.
+     */
+    private static String stepName(int number) {
+        char[] digits = Integer.toString(number).toCharArray();
+
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = (char) ('A' + digits[i] - '0');
+        }
+
+        return new String(digits);
+    }
+}
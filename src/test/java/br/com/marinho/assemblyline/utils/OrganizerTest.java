@@ -1,12 +1,23 @@
 package br.com.marinho.assemblyline.utils;
 
+import br.com.marinho.assemblyline.model.StepTable;
 import br.com.marinho.assemblyline.testUtilities.TestUtils;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 /**
  * Test class fot the functionality of the {@link Organizer}.
@@ -19,6 +30,10 @@ public class OrganizerTest {
     /** Map with the scenarios values to run the organizer. */
     private static Map<String, Map<String, Integer>> testsScenariosMap;
 
+    /** Folder of the step files, deleted after each test. */
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     /**
      * The method initializes the {@code organizer} attribute and builds the map used in all tests, with their values
      * for each scenario.
@@ -89,6 +104,14 @@ public class OrganizerTest {
         sixth.put("Production step II", 120);
         sixth.put("Production step III", 120);
         testsScenariosMap.put("should_NotHaveAProductionLineBeforeGym_When_ItsTimeEndsOnGymTime", sixth);
+
+        // Building should_HaveAProductionBeforeLunch_When_SmallStepsEndExactlyOnLunch map
+        Map<String, Integer> seventh = new LinkedHashMap<>();
+        for (int i = 1; i <= 20; i++) {
+            seventh.put("Production step " + i, i % 2 == 0 ? 17 : 1);
+        }
+        seventh.put("Production step 21", 60);
+        testsScenariosMap.put("should_HaveAProductionBeforeLunch_When_SmallStepsEndExactlyOnLunch", seventh);
     }
 
     /**
@@ -229,4 +252,117 @@ public class OrganizerTest {
         Assert.assertEquals("Linha de montagem 2:", splitResult[6]);
         Assert.assertEquals("09:00 Production step III 120min", splitResult[7]);
     }
-}
\ No newline at end of file
+
+    /**
+     * As in {@link OrganizerTest#should_HaveAProductionBeforeLunch_When_ItsTimeEndsOnLunch}, the production steps
+     * finish exactly on the lunch time, but after a lot of small steps. The clock must not accumulate rounding errors,
+     * so the last step before lunch starts at 11:43 and the lunch isn't anticipated.
+     */
+    @Test
+    public void should_HaveAProductionBeforeLunch_When_SmallStepsEndExactlyOnLunch() {
+        String organized = organizer.organize(testsScenariosMap.get(TestUtils.getMethodName()));
+        String[] splitResult = organized.split("\\n");
+
+        Assert.assertEquals(24, splitResult.length);
+        Assert.assertEquals("Linha de montagem 1:", splitResult[0]);
+        Assert.assertEquals("09:00 Production step 1 1min", splitResult[1]);
+        Assert.assertEquals("09:01 Production step 2 17min", splitResult[2]);
+        Assert.assertEquals("11:42 Production step 19 1min", splitResult[19]);
+        Assert.assertEquals("11:43 Production step 20 17min", splitResult[20]);
+        Assert.assertEquals("12:00 Almoço", splitResult[21]);
+        Assert.assertEquals("13:00 Production step 21 60min", splitResult[22]);
+        Assert.assertEquals("16:00 Ginástica laboral", splitResult[23]);
+    }
+
+    /**
+     * The streaming organization must write each assembly line as soon as it's closed, one write per assembly line,
+     * and the written content must be the same as the organized string.
+     */
+    @Test
+    public void should_WriteEachAssemblyLine_When_OrganizingToAWriter() throws IOException {
+        StepTable activities = StepTable.fromMap(
+                testsScenariosMap.get("should_HaveTwoAssemblyLines_When_ThereAreALotOfProductionSteps"));
+        List<String> writes = new ArrayList<>();
+        Writer writer = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                writes.add(new String(buffer, offset, length));
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        organizer.organize(activities, writer);
+
+        Assert.assertEquals(2, writes.size());
+        Assert.assertTrue(writes.get(0).startsWith("Linha de montagem 1:\n"));
+        Assert.assertTrue(writes.get(0).endsWith("16:30 Ginástica laboral\n\n"));
+        Assert.assertTrue(writes.get(1).startsWith("Linha de montagem 2:\n"));
+        Assert.assertEquals(organizer.organize(activities), writes.get(0) + writes.get(1));
+    }
+
+    /**
+     * The parallel organization builds the assembly lines apart from each other, so the corner cases between two
+     * assembly lines (an activity closing the assembly line after the lunch check, activities longer than a period
+     * and assembly lines without activities) must give the same result as the sequential organization.
+     */
+    @Test
+    public void should_HaveSameResultAsSequential_When_OrganizingInParallel() {
+        Random random = new Random(7);
+        StepTable activities = new StepTable();
+
+        for (int i = 0; i < 200_000; i++) {
+            int duration = i % 1000 == 0 ? 200 + random.nextInt(300) : i % 7 == 0 ? 5 : 1 + random.nextInt(180);
+            activities.put("Production step " + i, duration);
+        }
+
+        String sequential = organizer.organize(activities);
+
+        Assert.assertEquals(sequential, organizer.organize(activities, 1));
+        Assert.assertEquals(sequential, organizer.organize(activities, 4));
+        Assert.assertEquals(organizer.organize(new StepTable()), organizer.organize(new StepTable(), 4));
+
+        StepTable longFirstActivity = new StepTable();
+        longFirstActivity.put("Production step 1", 300);
+        longFirstActivity.put("Production step 2", 170);
+        longFirstActivity.put("Production step 3", 20);
+        Assert.assertEquals(organizer.organize(longFirstActivity), organizer.organize(longFirstActivity, 2));
+    }
+
+    /**
+     * A file printed through its table and through the map of {@link FileLineUtils#getAssemblyMap(File)} must give
+     * the same assembly lines, except for a step written with the duration of a maintenance: the table keeps it as a
+     * timed step, with its duration, and the map, which can't tell it from a maintenance, prints it as one.
+     *
+     * @throws IOException If there is a problem while writing the file.
+     */
+    @Test
+    public void should_PrintTimedStepOnlyThroughTable_When_ItLastsAsLongAsAMaintenance() throws IOException {
+        File file = this.temporaryFolder.newFile("input.txt");
+        String content = "Corte 60min\nCalibração 5min\nLubrificação - maintenance\nSoldagem 120min\n"
+                         + "Pintura 45min\n";
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+        StepTable steps = FileLineUtils.getStepTable(file);
+        Map<String, Integer> assemblyMap = FileLineUtils.getAssemblyMap(file);
+
+        // The map of the file has no order, so its durations are put in the file order
+        Map<String, Integer> ordered = new LinkedHashMap<>();
+        for (int i = 0; i < steps.size(); i++) {
+            ordered.put(steps.getName(i), assemblyMap.get(steps.getName(i)));
+        }
+
+        String table = organizer.organize(steps);
+        String map = organizer.organize(ordered);
+
+        Assert.assertTrue(table.contains("\n10:00 Calibração 5min\n10:05 Lubrificação \n"));
+        Assert.assertTrue(map.contains("\n10:00 Calibração \n10:05 Lubrificação \n"));
+        Assert.assertEquals(table.replace("Calibração 5min", "Calibração "), map);
+    }
+}
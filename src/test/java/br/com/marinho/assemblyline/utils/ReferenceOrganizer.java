@@ -0,0 +1,90 @@
+package br.com.marinho.assemblyline.utils;
+
+import java.util.Map;
+
+/**
+ * Reference implementation of the greedy organization with the default calendar, written as plainly as possible,
+ * without any of the optimizations of {@link Organizer}, so it can be read against the rules of the assembly lines.
+ * The differential tests compare every organizer with it. It must only change if the rules change.
+ */
+final class ReferenceOrganizer {
+
+    /** Start of the morning, 09:00. */
+    private static final int MORNING_START = 9 * 60;
+
+    /** Lunch, 12:00, the latest end of a step in the morning. */
+    private static final int LUNCH = 12 * 60;
+
+    /** Start of the afternoon, 13:00. */
+    private static final int AFTERNOON_START = 13 * 60;
+
+    /** Latest end of a step in the afternoon, 16:59. */
+    private static final int AFTERNOON_LATEST_END = 17 * 60 - 1;
+
+    /** Earliest time of the gym, 16:00. */
+    private static final int GYM = 16 * 60;
+
+    /**
+     * Private constructor, as the class only has static methods.
+     */
+    private ReferenceOrganizer() {
+    }
+
+    /**
+     * Organizes the steps in their order. Each step goes to the morning if it ends until the lunch, or else to the
+     * afternoon, after the lunch. When it doesn't end until the latest end of the afternoon, the assembly line is
+     * closed by the gym and the step starts a new one at 09:00, whatever its duration. The last assembly line only
+     * has the gym if it reached the afternoon.
+     *
+     * @param steps Steps and their durations, in minutes, in their order.
+     * @return The assembly lines.
+     */
+    static String organize(Map<String, Integer> steps) {
+        StringBuilder schedule = new StringBuilder();
+        int assemblyLine = 1;
+        int time = MORNING_START;
+        boolean afternoon = false;
+
+        schedule.append("Linha de montagem ").append(assemblyLine).append(":\n");
+
+        for (Map.Entry<String, Integer> step : steps.entrySet()) {
+            int duration = step.getValue();
+
+            if (!afternoon && time + duration > LUNCH) {
+                schedule.append("12:00 Almoço\n");
+                time = AFTERNOON_START;
+                afternoon = true;
+            }
+
+            if (time + duration > AFTERNOON_LATEST_END) {
+                schedule.append(formatTime(Math.max(time, GYM))).append(" Ginástica laboral\n\n");
+                assemblyLine++;
+                schedule.append("Linha de montagem ").append(assemblyLine).append(":\n");
+                time = MORNING_START;
+                afternoon = false;
+            }
+
+            schedule.append(formatTime(time)).append(' ').append(step.getKey()).append(' ');
+            if (duration != FileLineUtils.MAINTENANCE_TIME_VALUE) {
+                schedule.append(duration).append("min");
+            }
+            schedule.append('\n');
+
+            time += duration;
+        }
+
+        if (afternoon) {
+            schedule.append(formatTime(Math.max(time, GYM))).append(" Ginástica laboral\n");
+        }
+
+        return schedule.toString();
+    }
+
+    /**
+     * @param time Minutes since midnight.
+     * @return The time as "HH:MM".
+     */
+    private static String formatTime(int time) {
+        return String.format("%02d:%02d", time / 60, time % 60);
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Test class for the functionality of the {@link ScheduleCache}.
+ */
+public class ScheduleCacheTest {
+
+    /** Folder used as the cache directory. */
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Gets a file from the {@link FileLineUtilsTest} resources.
+     *
+     * @param name Name of the file, without extension.
+     * @return The resource file.
+     */
+    private static File getResource(String name) {
+        return Paths.get(FileLineUtilsTest.SRC_TEST_RESOURCES + name + ".txt").toFile();
+    }
+
+    /**
+     * Files with the same activities, even if written with different separators, must have the same key, and the
+     * key must change with the durations, the order and the organizer.
+     */
+    @Test
+    public void should_HaveSameKey_When_ActivitiesAreTheSame() {
+        StepTable table = FileLineUtils.getStepTable(getResource("should_ConvertLines_When_ThereIsNoMaintenance"));
+        StepTable separated = FileLineUtils.getStepTable(
+                getResource("should_ConvertLines_When_ThereIsASeparatorBetweenTheNameAndTime"));
+        StepTable changed = FileLineUtils.getStepTable(getResource("should_ConvertLines_When_ThereIsNoMaintenance"));
+        changed.setDuration(0, changed.getDuration(0) + 1);
+
+        Assert.assertEquals(ScheduleCache.getKey(table, "greedy"), ScheduleCache.getKey(separated, "greedy"));
+        Assert.assertNotEquals(ScheduleCache.getKey(table, "greedy"), ScheduleCache.getKey(changed, "greedy"));
+        Assert.assertNotEquals(ScheduleCache.getKey(table, "greedy"), ScheduleCache.getKey(table, "optimized"));
+    }
+
+    /**
+     * The entries and counters must be kept between two runs, and the least recently used entry must be deleted
+     * when the maximum size is passed.
+     *
+     * @throws IOException If there is a problem in the cache directory.
+     */
+    @Test
+    public void should_EvictLeastRecentlyUsed_When_MaximumSizeIsPassed() throws IOException {
+        File directory = this.temporaryFolder.getRoot();
+
+        try (ScheduleCache cache = new ScheduleCache(directory, 10)) {
+            Assert.assertNull(cache.get("first"));
+            cache.put("first", "1111");
+            cache.put("second", "2222");
+            Assert.assertEquals("1111", cache.get("first"));
+            cache.put("third", "3333");
+            Assert.assertNull(cache.get("second"));
+        }
+
+        try (ScheduleCache cache = new ScheduleCache(directory, 10)) {
+            Assert.assertEquals("1111", cache.get("first"));
+            Assert.assertEquals("3333", cache.get("third"));
+            Assert.assertEquals(3, cache.getHits());
+            Assert.assertEquals(2, cache.getMisses());
+            Assert.assertEquals(1, cache.getEvictions());
+        }
+    }
+
+    /**
+     * Entries written with other organization rules are in a directory with another fingerprint, which must be
+     * deleted when the cache is opened.
+     *
+     * @throws IOException If there is a problem in the cache directory.
+     */
+    @Test
+    public void should_DeleteOldEntries_When_RulesChange() throws IOException {
+        File oldRules = this.temporaryFolder.newFolder("0123456789abcdef");
+        File oldEntry = new File(oldRules, "key.txt");
+        Assert.assertTrue(oldEntry.createNewFile());
+
+        try (ScheduleCache cache = new ScheduleCache(this.temporaryFolder.getRoot(), 10)) {
+            Assert.assertNull(cache.get("key"));
+        }
+
+        Assert.assertFalse(oldEntry.exists());
+        Assert.assertFalse(oldRules.exists());
+    }
+
+    /**
+     * The files and directories that aren't from the cache, even in a directory named as a fingerprint, must be kept
+     * when the cache is opened in a directory that already has them.
+     *
+     * @throws IOException If there is a problem in the cache directory.
+     */
+    @Test
+    public void should_KeepForeignFiles_When_CacheIsOpened() throws IOException {
+        File documents = this.temporaryFolder.newFolder("docs");
+        File notes = new File(documents, "notes.txt");
+        Assert.assertTrue(notes.createNewFile());
+        File readme = this.temporaryFolder.newFile("README.txt");
+        File hexFolder = this.temporaryFolder.newFolder("fedcba9876543210");
+        File oldEntry = new File(hexFolder, "key.txt");
+        File hexFile = new File(hexFolder, "photo.png");
+        Assert.assertTrue(oldEntry.createNewFile());
+        Assert.assertTrue(hexFile.createNewFile());
+
+        try (ScheduleCache cache = new ScheduleCache(this.temporaryFolder.getRoot(), 10)) {
+            Assert.assertNull(cache.get("key"));
+        }
+
+        Assert.assertTrue(notes.exists());
+        Assert.assertTrue(readme.exists());
+        Assert.assertTrue(hexFile.exists());
+        Assert.assertFalse(oldEntry.exists());
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.AssemblyLine;
+import br.com.marinho.assemblyline.model.StepTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test class for the {@link ScheduleEncoder} implementations, written through
+ * {@link Organizer#encode(StepTable, ScheduleEncoder, java.io.OutputStream)}.
+ */
+public class ScheduleEncoderTest {
+
+    /**
+     * The text encoder must write the same bytes as the text report, including the corner cases of the organizer
+     * and a calendar crossing midnight.
+     *
+     * @throws IOException If there is a problem while writing.
+     */
+    @Test
+    public void should_WriteSameBytesAsOrganizer_When_EncodingText() throws IOException {
+        Random random = new Random(29);
+        StepTable activities = new StepTable();
+
+        for (int i = 0; i < 20_000; i++) {
+            int duration = i % 1000 == 0 ? 200 + random.nextInt(2000) : 1 + random.nextInt(180);
+            if (i % 13 == 0) {
+                activities.putMaintenance("Produção " + i);
+            } else {
+                activities.put("Produção " + i, duration);
+            }
+        }
+
+        ShiftCalendar nightShift = ShiftCalendar.parse(Arrays.asList("window 22:00 01:59", "break 02:00 Pausa",
+                                                                     "window 02:30 06:00", "event 05:30 Limpeza"));
+
+        Assert.assertArrayEquals(new Organizer().organize(activities).getBytes(StandardCharsets.UTF_8),
+                                 encode(new Organizer(), activities, new TextScheduleEncoder()));
+        Assert.assertArrayEquals(new Organizer(nightShift).organize(activities).getBytes(StandardCharsets.UTF_8),
+                                 encode(new Organizer(nightShift), activities, new TextScheduleEncoder(nightShift)));
+        Assert.assertArrayEquals(new Organizer().organize(new StepTable()).getBytes(StandardCharsets.UTF_8),
+                                 encode(new Organizer(), new StepTable(), new TextScheduleEncoder()));
+    }
+
+    /**
+     * The CSV rows and the JSON lines have the minutes of each entry, with the names quoted or escaped when needed.
+     *
+     * @throws IOException If there is a problem while writing.
+     */
+    @Test
+    public void should_WriteStructuredEntries_When_EncodingCsvAndJsonLines() throws IOException {
+        StepTable activities = new StepTable();
+        activities.put("Corte, dobra", 120);
+        activities.putMaintenance("Manutenção \"geral\"");
+        activities.put("Solda\\Pintura", 180);
+        activities.put("Embalagem", 60);
+
+        String csv = "line,type,start,end,name\n"
+                     + "1,step,540,660,\"Corte, dobra\"\n"
+                     + "1,maintenance,660,665,\"Manutenção \"\"geral\"\"\"\n"
+                     + "1,break,720,780,Almoço\n"
+                     + "1,step,780,960,Solda\\Pintura\n"
+                     + "1,event,960,960,Ginástica laboral\n"
+                     + "2,step,540,600,Embalagem\n";
+        String jsonLines = "{\"line\":1,\"entries\":["
+                           + "{\"type\":\"step\",\"name\":\"Corte, dobra\",\"start\":540,\"end\":660},"
+                           + "{\"type\":\"maintenance\",\"name\":\"Manutenção \\\"geral\\\"\",\"start\":660,"
+                           + "\"end\":665},"
+                           + "{\"type\":\"break\",\"name\":\"Almoço\",\"start\":720,\"end\":780},"
+                           + "{\"type\":\"step\",\"name\":\"Solda\\\\Pintura\",\"start\":780,\"end\":960},"
+                           + "{\"type\":\"event\",\"name\":\"Ginástica laboral\",\"start\":960,\"end\":960}]}\n"
+                           + "{\"line\":2,\"entries\":["
+                           + "{\"type\":\"step\",\"name\":\"Embalagem\",\"start\":540,\"end\":600}]}\n";
+
+        Assert.assertEquals(csv, new String(encode(new Organizer(), activities, new CsvScheduleEncoder()),
+                                            StandardCharsets.UTF_8));
+        Assert.assertEquals(jsonLines, new String(encode(new Organizer(), activities, new JsonLinesScheduleEncoder()),
+                                                  StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The binary schedule must be read back into the same assembly lines, and other bytes must be rejected.
+     *
+     * @throws IOException If there is a problem while writing.
+     */
+    @Test
+    public void should_ReadSameAssemblyLines_When_BinaryScheduleIsRead() throws IOException {
+        Random random = new Random(31);
+        StepTable activities = new StepTable();
+
+        for (int i = 0; i < 5_000; i++) {
+            if (i % 11 == 0) {
+                activities.putMaintenance("Etapa 🔧 " + i);
+            } else {
+                activities.put("Etapa 🔧 " + i, 1 + random.nextInt(400));
+            }
+        }
+
+        List<AssemblyLine> expected = new ArrayList<>();
+        ScheduleIterator iterator = new ScheduleIterator(activities);
+        while (iterator.hasNext()) {
+            expected.add(iterator.next());
+        }
+
+        byte[] binary = encode(new Organizer(), activities, new BinaryScheduleEncoder());
+        Assert.assertEquals(expected, BinaryScheduleEncoder.read(ByteBuffer.wrap(binary)));
+
+        try {
+            BinaryScheduleEncoder.read(ByteBuffer.wrap(Arrays.copyOf(binary, binary.length - 1)));
+            Assert.fail("A truncated binary schedule should not be read.");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("The binary schedule is truncated or corrupted.", e.getMessage());
+        }
+
+        try {
+            BinaryScheduleEncoder.read(ByteBuffer.wrap("Linha de montagem 1:\n".getBytes(StandardCharsets.UTF_8)));
+            Assert.fail("A text report should not be read as a binary schedule.");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("The bytes are not a binary schedule.", e.getMessage());
+        }
+    }
+
+    /**
+     * Encodes the assembly lines of the activities.
+     *
+     * @param organizer  Organizer of the activities.
+     * @param activities Activities to organize.
+     * @param encoder    Encoder of the output format.
+     * @return The encoded bytes.
+     * @throws IOException If there is a problem while writing.
+     */
+    private static byte[] encode(Organizer organizer, StepTable activities, ScheduleEncoder encoder)
+            throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        organizer.encode(activities, encoder, output);
+        return output.toByteArray();
+    }
+}
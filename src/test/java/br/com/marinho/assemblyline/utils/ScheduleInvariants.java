@@ -0,0 +1,138 @@
+package br.com.marinho.assemblyline.utils;
+
+import org.junit.Assert;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Checker of the rules every schedule of the default calendar must follow, whatever the organizer that wrote it:
+ * <ul>
+ *     <li>the steps are all there, once and in their order, with their durations;</li>
+ *     <li>each step starts when the previous one ends, or at 13:00 after the lunch, which is always at 12:00;</li>
+ *     <li>no step crosses the lunch or the end of the afternoon, except the first step of an assembly line, which
+ *     starts at 09:00 whatever its duration;</li>
+ *     <li>the gym starts when the last step ends, but not before 16:00, so between 16:00 and 17:00 when no step is
+ *     longer than a period;</li>
+ *     <li>an assembly line is only closed when the next step doesn't fit in its afternoon, and the last one only has
+ *     the gym if it reached the afternoon.</li>
+ * </ul>
+ */
+final class ScheduleInvariants {
+
+    /** Start of the morning, 09:00. */
+    private static final int MORNING_START = 9 * 60;
+
+    /** Lunch, 12:00. */
+    private static final int LUNCH = 12 * 60;
+
+    /** Start of the afternoon, 13:00. */
+    private static final int AFTERNOON_START = 13 * 60;
+
+    /** Latest end of a step in the afternoon, 16:59. */
+    private static final int AFTERNOON_LATEST_END = 17 * 60 - 1;
+
+    /** Earliest time of the gym, 16:00. */
+    private static final int GYM = 16 * 60;
+
+    /** Text of the lunch. */
+    private static final String LUNCH_LABEL = "Almoço";
+
+    /** Text of the gym. */
+    private static final String GYM_LABEL = "Ginástica laboral";
+
+    /**
+     * Private constructor, as the class only has static methods.
+     */
+    private ScheduleInvariants() {
+    }
+
+    /**
+     * Checks the rules of a schedule.
+     *
+     * @param schedule Schedule written by an organizer.
+     * @param steps    Steps organized, in their order.
+     * @throws AssertionError If a rule is broken, with the assembly line and the rule in the message.
+     */
+    static void check(String schedule, Map<String, Integer> steps) {
+        String[] lines = schedule.split("\n", -1);
+        Iterator<Map.Entry<String, Integer>> pending = steps.entrySet().iterator();
+        Map.Entry<String, Integer> next = pending.hasNext() ? pending.next() : null;
+        int position = 0;
+        int assemblyLine = 1;
+
+        while (true) {
+            String prefix = "Assembly line " + assemblyLine + ": ";
+            Assert.assertEquals(prefix + "wrong title.", "Linha de montagem " + assemblyLine + ":", lines[position++]);
+
+            int clock = MORNING_START;
+            boolean lunch = false;
+            boolean gym = false;
+            boolean oversized = false;
+            boolean firstStep = true;
+
+            while (position < lines.length && !lines[position].isEmpty()) {
+                String line = lines[position++];
+                Assert.assertFalse(prefix + "there is an entry after the gym.", gym);
+                Assert.assertTrue(prefix + "wrong entry " + line + ".", line.length() > 6 && line.charAt(5) == ' ');
+
+                int time = Integer.parseInt(line.substring(0, 2)) * 60 + Integer.parseInt(line.substring(3, 5));
+                String text = line.substring(6);
+
+                if (text.equals(LUNCH_LABEL)) {
+                    Assert.assertFalse(prefix + "there are two lunches.", lunch);
+                    Assert.assertEquals(prefix + "the lunch isn't at 12:00.", LUNCH, time);
+                    lunch = true;
+                    clock = AFTERNOON_START;
+                } else if (text.equals(GYM_LABEL)) {
+                    Assert.assertTrue(prefix + "the gym is before the lunch.", lunch);
+                    Assert.assertEquals(prefix + "the gym doesn't start when the steps end.", Math.max(clock, GYM),
+                                        time);
+                    if (!oversized) {
+                        Assert.assertTrue(prefix + "the gym is after 17:00.", time <= AFTERNOON_LATEST_END);
+                    }
+                    gym = true;
+                } else {
+                    Assert.assertNotNull(prefix + "there are more steps than in the input.", next);
+                    int duration = next.getValue();
+                    String expected = next.getKey() + " "
+                                      + (duration == FileLineUtils.MAINTENANCE_TIME_VALUE ? "" : duration + "min");
+
+                    Assert.assertEquals(prefix + "the step " + text + " isn't the next one.", expected, text);
+                    Assert.assertEquals(prefix + "the step " + text + " doesn't start when the previous one ends.",
+                                        clock, time);
+
+                    if (firstStep && assemblyLine > 1) {
+                        Assert.assertEquals(prefix + "the first step doesn't start at 09:00.", MORNING_START, time);
+                        oversized = duration > LUNCH - MORNING_START;
+                    } else if (lunch) {
+                        Assert.assertTrue(prefix + "the step " + text + " crosses the end of the afternoon.",
+                                          time + duration <= AFTERNOON_LATEST_END);
+                    } else {
+                        Assert.assertTrue(prefix + "the step " + text + " crosses the lunch.", time + duration <= LUNCH);
+                    }
+
+                    clock = time + duration;
+                    firstStep = false;
+                    next = pending.hasNext() ? pending.next() : null;
+                }
+            }
+
+            // The schedule ends with a line break, so its last element is always empty
+            if (position >= lines.length - 1) {
+                Assert.assertNull(prefix + "a step is missing.", next);
+                Assert.assertEquals(prefix + "the last assembly line has the gym without the lunch.", lunch, gym);
+                return;
+            }
+
+            // A blank line closes the assembly line, and the next one starts with the step that didn't fit
+            Assert.assertTrue(prefix + "a closed assembly line has no gym.", gym);
+            Assert.assertNotNull(prefix + "an assembly line was closed without steps left.", next);
+            Assert.assertTrue(prefix + "the step " + next.getKey() + " fits in the closed assembly line.",
+                              clock + next.getValue() > AFTERNOON_LATEST_END);
+
+            position++;
+            assemblyLine++;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.AssemblyLine;
+import br.com.marinho.assemblyline.model.ScheduleEntry;
+import br.com.marinho.assemblyline.model.StepTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Test class for the {@link ScheduleIterator}.
+ */
+public class ScheduleIteratorTest {
+
+    /**
+     * The assembly lines built one at a time, written as text, must be the same as the result of
+     * {@link Organizer#organize(StepTable)}, including the corner cases: activities closing an assembly line,
+     * activities longer than a period, maintenance and a first activity that doesn't fit anywhere.
+     */
+    @Test
+    public void should_HaveSameResultAsOrganizer_When_AllAssemblyLinesAreIterated() {
+        Random random = new Random(17);
+        StepTable activities = new StepTable();
+
+        for (int i = 0; i < 20_000; i++) {
+            int duration = i % 1000 == 0 ? 200 + random.nextInt(300) : 1 + random.nextInt(180);
+            if (i % 13 == 0) {
+                activities.putMaintenance("Production step " + i);
+            } else {
+                activities.put("Production step " + i, duration);
+            }
+        }
+
+        StepTable longFirstActivity = new StepTable();
+        longFirstActivity.put("Production step 1", 300);
+        longFirstActivity.put("Production step 2", 170);
+        longFirstActivity.put("Production step 3", 20);
+
+        Assert.assertEquals(new Organizer().organize(activities), render(new ScheduleIterator(activities)));
+        Assert.assertEquals(new Organizer().organize(new StepTable()), render(new ScheduleIterator(new StepTable())));
+        Assert.assertEquals(new Organizer().organize(longFirstActivity),
+                            render(new ScheduleIterator(longFirstActivity)));
+    }
+
+    /**
+     * The entries have their kind and their times in minutes, with the breaks lasting until the next window and the
+     * event without duration.
+     */
+    @Test
+    public void should_BuildStructuredEntries_When_AnAssemblyLineIsBuilt() {
+        StepTable activities = new StepTable();
+        activities.put("Cutting of steel sheets", 120);
+        activities.putMaintenance("Maintenance");
+        activities.put("Welding", 180);
+        activities.put("Painting", 60);
+
+        ScheduleIterator iterator = new ScheduleIterator(activities);
+        AssemblyLine first = iterator.next();
+
+        Assert.assertEquals(1, first.getNumber());
+        Assert.assertEquals(5, first.getEntries().size());
+        Assert.assertEquals(new ScheduleEntry(ScheduleEntry.Type.STEP, "Cutting of steel sheets", 540, 660),
+                            first.getEntries().get(0));
+        Assert.assertEquals(new ScheduleEntry(ScheduleEntry.Type.MAINTENANCE, "Maintenance", 660, 665),
+                            first.getEntries().get(1));
+        Assert.assertEquals(new ScheduleEntry(ScheduleEntry.Type.BREAK, "Almoço", 720, 780),
+                            first.getEntries().get(2));
+        Assert.assertEquals(new ScheduleEntry(ScheduleEntry.Type.STEP, "Welding", 780, 960),
+                            first.getEntries().get(3));
+        Assert.assertEquals(new ScheduleEntry(ScheduleEntry.Type.EVENT, "Ginástica laboral", 960, 960),
+                            first.getEntries().get(4));
+
+        Assert.assertTrue(iterator.hasNext());
+        AssemblyLine second = iterator.next();
+        Assert.assertEquals(2, second.getNumber());
+        Assert.assertEquals(1, second.getEntries().size());
+        Assert.assertEquals(60, second.getEntries().get(0).getDuration());
+        Assert.assertFalse(iterator.hasNext());
+
+        try {
+            iterator.next();
+            Assert.fail("There should be no third assembly line.");
+        } catch (NoSuchElementException e) {
+            Assert.assertEquals("There are only 2 assembly lines.", e.getMessage());
+        }
+    }
+
+    /**
+     * Going to an assembly line without building the previous ones must give the same assembly line as building all
+     * of them, and going past the last one or backwards must be reported.
+     */
+    @Test
+    public void should_BuildSameAssemblyLine_When_SkippingToIt() {
+        Random random = new Random(23);
+        StepTable activities = new StepTable();
+
+        for (int i = 0; i < 5_000; i++) {
+            activities.put("Production step " + i, 1 + random.nextInt(180));
+        }
+
+        ScheduleIterator all = new ScheduleIterator(activities);
+        AssemblyLine expected = null;
+        int lines = 0;
+
+        while (all.hasNext()) {
+            AssemblyLine line = all.next();
+            lines++;
+            expected = line.getNumber() == 300 ? line : expected;
+        }
+
+        ScheduleIterator skipping = new ScheduleIterator(activities);
+        Assert.assertTrue(skipping.skipTo(300));
+        Assert.assertEquals(expected, skipping.next());
+        Assert.assertEquals(301, skipping.next().getNumber());
+
+        try {
+            skipping.skipTo(100);
+            Assert.fail("An iterator should not go backwards.");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("The assembly line 100 is before the next one, 302.", e.getMessage());
+        }
+
+        Assert.assertTrue(skipping.skipTo(lines));
+        Assert.assertEquals(lines, skipping.next().getNumber());
+        Assert.assertFalse(new ScheduleIterator(activities).skipTo(lines + 1));
+    }
+
+    /**
+     * Writes the assembly lines as {@link Organizer#organize(StepTable)} does.
+     *
+     * @param iterator Iterator with the assembly lines.
+     * @return The assembly lines as text.
+     */
+    private static String render(ScheduleIterator iterator) {
+        StringBuilder builder = new StringBuilder();
+
+        while (iterator.hasNext()) {
+            AssemblyLine line = iterator.next();
+
+            if (line.getNumber() > 1) {
+                builder.append(ScheduleFormat.LINE_BREAK);
+            }
+
+            ScheduleFormat.appendTitle(builder, line.getNumber());
+
+            for (ScheduleEntry entry : line.getEntries()) {
+                if (entry.getType() == ScheduleEntry.Type.STEP) {
+                    ScheduleFormat.appendActivity(builder, entry.getStart(), entry.getName(), entry.getDuration(),
+                                                  false);
+                } else if (entry.getType() == ScheduleEntry.Type.MAINTENANCE) {
+                    ScheduleFormat.appendActivity(builder, entry.getStart(), entry.getName(), entry.getDuration(),
+                                                  true);
+                } else {
+                    ScheduleFormat.appendTime(builder, entry.getStart());
+                    builder.append(' ').append(entry.getName()).append(ScheduleFormat.LINE_BREAK);
+                }
+            }
+        }
+
+        return builder.toString();
+    }
+}
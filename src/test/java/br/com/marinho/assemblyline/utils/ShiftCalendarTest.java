@@ -0,0 +1,184 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.ScheduleEntry;
+import br.com.marinho.assemblyline.model.StepTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test class for the {@link ShiftCalendar} and the assembly lines organized with it.
+ */
+public class ShiftCalendarTest {
+
+    /**
+     * Builds a table with the durations, naming the activities as "Production step N".
+     *
+     * @param durations Durations of the activities.
+     * @return The table with the activities.
+     */
+    private static StepTable buildTable(int... durations) {
+        StepTable table = new StepTable();
+
+        for (int i = 0; i < durations.length; i++) {
+            table.put("Production step " + (i + 1), durations[i]);
+        }
+
+        return table;
+    }
+
+    /**
+     * The calendar of the original program, written in the calendar format, must organize the assembly lines
+     * exactly as the organizer without a calendar.
+     */
+    @Test
+    public void should_HaveSameResultAsDefault_When_CalendarHasTheOriginalRules() {
+        ShiftCalendar calendar = ShiftCalendar.parse(Arrays.asList("# Original rules", "window 09:00 12:00",
+                                                                   "break 12:00 Almoço", "window 13:00 16:59",
+                                                                   "event 16:00 Ginástica laboral", "maintenance 5"));
+        Random random = new Random(7);
+        int[] durations = new int[5_000];
+
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = i % 10 == 0 ? 5 : 10 + random.nextInt(300);
+        }
+
+        StepTable table = buildTable(durations);
+
+        Assert.assertEquals(ShiftCalendar.DEFAULT.toString(), calendar.toString());
+        Assert.assertEquals(new Organizer().organize(table), new Organizer(calendar).organize(table));
+    }
+
+    /**
+     * A night shift crosses midnight: the clock keeps going, but the times are written in the HH:MM of the next
+     * day, including the break and the closing event.
+     */
+    @Test
+    public void should_WriteTimesOfNextDay_When_ShiftCrossesMidnight() {
+        ShiftCalendar calendar = ShiftCalendar.parse(Arrays.asList("window 22:00 01:59", "break 02:00 Pausa",
+                                                                   "window 02:30 06:00", "event 05:30 Limpeza"));
+        String organized = new Organizer(calendar).organize(buildTable(120, 90, 60));
+
+        Assert.assertEquals("Linha de montagem 1:\n"
+                            + "22:00 Production step 1 120min\n"
+                            + "00:00 Production step 2 90min\n"
+                            + "02:00 Pausa\n"
+                            + "02:30 Production step 3 60min\n"
+                            + "05:30 Limpeza\n", organized);
+    }
+
+    /**
+     * With three windows, the activities go through both breaks, the maintenance takes the duration of the calendar
+     * and the assembly line is closed when an activity doesn't fit in the last window. The parallel and the
+     * incremental organizers must build the same assembly lines.
+     */
+    @Test
+    public void should_GoThroughEveryBreak_When_CalendarHasThreeWindows() {
+        ShiftCalendar calendar = ShiftCalendar.parse(Arrays.asList("window 08:00 10:00", "break 10:00 Café",
+                                                                   "window 10:15 12:00", "break 12:00 Almoço",
+                                                                   "window 13:00 15:00", "event 15:00 Reunião",
+                                                                   "maintenance 15"));
+        Organizer organizer = new Organizer(calendar);
+        StepTable table = new StepTable();
+        table.put("Production step 1", 90);
+        table.put("Production step 2", 60);
+        table.putMaintenance("Production step 3");
+        table.put("Production step 4", 120);
+        table.put("Production step 5", 30);
+        String organized = organizer.organize(table);
+
+        Assert.assertEquals("Linha de montagem 1:\n"
+                            + "08:00 Production step 1 90min\n"
+                            + "10:00 Café\n"
+                            + "10:15 Production step 2 60min\n"
+                            + "11:15 Production step 3 \n"
+                            + "12:00 Almoço\n"
+                            + "13:00 Production step 4 120min\n"
+                            + "15:00 Reunião\n"
+                            + "\n"
+                            + "Linha de montagem 2:\n"
+                            + "08:00 Production step 5 30min\n", organized);
+        Assert.assertEquals(2, organizer.countAssemblyLines(table));
+        Assert.assertEquals(organized, organizer.organize(table, 2));
+        Assert.assertEquals(organized, new IncrementalOrganizer(table, calendar).organize());
+    }
+
+    /**
+     * A step of 5 minutes, the duration kept for the maintenances, is still a timed step: it moves the clock by its
+     * own duration and keeps its suffix, while the maintenance takes the duration of the calendar, in the text and
+     * in the structured entries.
+     */
+    @Test
+    public void should_KeepStepTimed_When_ItLastsAsLongAsTheStoredMaintenance() {
+        ShiftCalendar calendar = ShiftCalendar.parse(Arrays.asList("window 09:00 12:00", "break 12:00 Almoço",
+                                                                   "window 13:00 16:59",
+                                                                   "event 16:00 Ginástica laboral",
+                                                                   "maintenance 15"));
+        StepTable table = MappedFileLineUtils.getStepTable(ByteBuffer.wrap(
+                "Calibração 5min\nLubrificação - maintenance\nSoldagem 60min\n".getBytes(StandardCharsets.UTF_8)));
+        String expected = "Linha de montagem 1:\n"
+                          + "09:00 Calibração 5min\n"
+                          + "09:05 Lubrificação \n"
+                          + "09:20 Soldagem 60min\n";
+
+        Assert.assertFalse(table.isMaintenance(0));
+        Assert.assertTrue(table.isMaintenance(1));
+        Assert.assertEquals(expected, new Organizer(calendar).organize(table));
+        Assert.assertEquals(expected, new Organizer(calendar).organize(table, 2));
+
+        List<ScheduleEntry> entries = new ScheduleIterator(table, calendar).next().getEntries();
+        Assert.assertEquals(new ScheduleEntry(ScheduleEntry.Type.STEP, "Calibração", 540, 545), entries.get(0));
+        Assert.assertEquals(new ScheduleEntry(ScheduleEntry.Type.MAINTENANCE, "Lubrificação", 545, 560),
+                            entries.get(1));
+    }
+
+    /**
+     * Calendars without windows around the breaks, without an event, with invalid times or unknown entries must be
+     * rejected. The entries out of order, a break before the latest end of its window and a maintenance without
+     * duration must be rejected on their line.
+     */
+    @Test
+    public void should_RejectCalendar_When_DefinitionIsInvalid() {
+        List<List<String>> invalidCalendars = Arrays.asList(
+                Arrays.asList("break 12:00 Almoço", "window 13:00 16:59", "event 16:00 Ginástica laboral"),
+                Arrays.asList("window 09:00 12:00", "break 12:00 Almoço", "event 16:00 Ginástica laboral"),
+                Arrays.asList("window 09:00 12:00"),
+                Arrays.asList("window 09:00 25:00", "event 16:00 Ginástica laboral"),
+                Arrays.asList("window 09:00", "event 16:00 Ginástica laboral"),
+                Arrays.asList("window 09:00 12:00", "lunch 12:00", "event 16:00 Ginástica laboral"));
+        List<List<String>> invalidLines = Arrays.asList(
+                Arrays.asList("window 09:00 12:00", "event 16:00 Ginástica laboral", "maintenance 0"),
+                Arrays.asList("window 09:00 12:00", "event 16:00 Ginástica laboral", "maintenance -15"),
+                Arrays.asList("window 09:00 12:00", "break 11:00 Almoço", "window 13:00 16:59",
+                              "event 16:00 Ginástica laboral"),
+                Arrays.asList("window 09:00 12:00", "break 12:00 Almoço", "window 08:00 16:59",
+                              "event 16:00 Ginástica laboral"),
+                Arrays.asList("event 16:00 Ginástica laboral", "window 09:00 12:00"),
+                Arrays.asList("window 09:00 12:00", "event 16:00 Ginástica laboral", "break 12:00 Almoço",
+                              "window 13:00 16:59"),
+                Arrays.asList("window 09:00 12:00", "event 11:00 Reunião", "event 12:00 Ginástica laboral"));
+
+        for (int i = 0; i < invalidCalendars.size(); i++) {
+            try {
+                ShiftCalendar.parse(invalidCalendars.get(i));
+                Assert.fail("Accepted " + invalidCalendars.get(i));
+            } catch (IllegalArgumentException e) {
+                Assert.assertTrue(e.getMessage().startsWith("Invalid calendar"));
+            }
+        }
+
+        for (int i = 0; i < invalidLines.size(); i++) {
+            try {
+                ShiftCalendar.parse(invalidLines.get(i));
+                Assert.fail("Accepted " + invalidLines.get(i));
+            } catch (IllegalArgumentException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid calendar line "));
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Test class for the {@link StepFileFollower}.
+ */
+public class StepFileFollowerTest {
+
+    /** Folder of the followed files, deleted after each test. */
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Appending the file in pieces of any size, cutting the lines and even their characters, must write the same
+     * assembly lines as organizing the whole file, each one only once it's closed.
+     *
+     * @throws IOException If there is a problem while reading or writing the file.
+     */
+    @Test
+    public void should_WriteSameAssemblyLinesAsOrganizer_When_FileIsAppendedInPieces() throws IOException {
+        Random random = new Random(37);
+        StringBuilder content = new StringBuilder();
+
+        for (int i = 0; i < 3_000; i++) {
+            content.append("Produção ").append(letters(i));
+            content.append(i % 10 == 0 ? " - maintenance" : " " + (1 + random.nextInt(200)) + "min");
+            content.append(i % 7 == 0 ? "\r\n" : "\n");
+        }
+
+        byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+        String expected = new Organizer().organize(MappedFileLineUtils.getStepTable(ByteBuffer.wrap(bytes)));
+
+        File file = this.temporaryFolder.newFile("input.txt");
+        StepFileFollower follower = new StepFileFollower(file, ShiftCalendar.DEFAULT, null);
+        StringWriter output = new StringWriter();
+        int written = 0;
+
+        for (int position = 0; position < bytes.length; ) {
+            int length = Math.min(bytes.length - position, 1 + random.nextInt(400));
+            Files.write(file.toPath(), Arrays.copyOfRange(bytes, position, position + length),
+                        StandardOpenOption.APPEND);
+            position += length;
+
+            written += follower.poll(output);
+            Assert.assertTrue(expected.startsWith(output.toString()));
+        }
+
+        Assert.assertEquals(3_000, follower.size());
+        follower.finish(output);
+
+        Assert.assertEquals(expected, output.toString());
+        Assert.assertEquals(written + 1, expected.split("Linha de montagem").length - 1);
+    }
+
+    /**
+     * An assembly line must only be written once an activity that doesn't fit in it is appended, with the breaks
+     * the closing activity adds to it, and a line without its line break must wait for it.
+     *
+     * @throws IOException If there is a problem while reading or writing the file.
+     */
+    @Test
+    public void should_WriteAssemblyLine_When_AppendedActivityClosesIt() throws IOException {
+        File file = new File(this.temporaryFolder.getRoot(), "input.txt");
+        StepFileFollower follower = new StepFileFollower(file, ShiftCalendar.DEFAULT, null);
+        StringWriter output = new StringWriter();
+
+        // The file can be created after the follower
+        Assert.assertEquals(0, follower.poll(output));
+
+        append(file, "Corte 180min\nSolda 180min\n");
+        Assert.assertEquals(0, follower.poll(output));
+
+        append(file, "Pintura 60");
+        Assert.assertEquals(0, follower.poll(output));
+        Assert.assertEquals(2, follower.size());
+
+        append(file, "min\n");
+        Assert.assertEquals(1, follower.poll(output));
+        Assert.assertEquals("Linha de montagem 1:\n09:00 Corte 180min\n12:00 Almoço\n13:00 Solda 180min\n"
+                            + "16:00 Ginástica laboral\n\n", output.toString());
+
+        follower.finish(output);
+        Assert.assertTrue(output.toString().endsWith("Linha de montagem 2:\n09:00 Pintura 60min\n"));
+
+        Files.write(file.toPath(), "Corte 10min\n".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            follower.poll(output);
+            Assert.fail("A truncated file should not be followed.");
+        } catch (StepFormatException e) {
+            Assert.assertEquals("The file input.txt was truncated while it was followed.", e.getMessage());
+        }
+    }
+
+    /**
+     * A step repeated while its assembly line is open must replace the first one, as in a fresh organization, and a
+     * step repeated after its assembly line was written must be an invalid line, without changing the table.
+     *
+     * @throws IOException If there is a problem while reading or writing the file.
+     */
+    @Test
+    public void should_RejectRepeatedStep_When_ItsAssemblyLineWasWritten() throws IOException {
+        File file = this.temporaryFolder.newFile("input.txt");
+        ParseReport report = new ParseReport(10);
+        StepFileFollower follower = new StepFileFollower(file, ShiftCalendar.DEFAULT, report);
+        StringWriter output = new StringWriter();
+
+        append(file, "Corte 180min\nSolda 180min\nPintura 60min\n");
+        Assert.assertEquals(1, follower.poll(output));
+
+        append(file, "Corte 30min\nPintura 90min\n");
+        Assert.assertEquals(0, follower.poll(output));
+        follower.finish(output);
+
+        Assert.assertEquals(1, report.getErrorCount());
+        Assert.assertEquals("Line 4: The production step Corte is repeated after its assembly line was written.",
+                            report.getErrors().get(0));
+
+        StepTable expected = new StepTable();
+        expected.put("Corte", 180);
+        expected.put("Solda", 180);
+        expected.put("Pintura", 90);
+        Assert.assertEquals(new Organizer().organize(expected), output.toString());
+
+        File strictFile = this.temporaryFolder.newFile("strict.txt");
+        StepFileFollower strictFollower = new StepFileFollower(strictFile, ShiftCalendar.DEFAULT, null);
+        append(strictFile, "Corte 180min\nSolda 180min\nPintura 60min\n");
+        Assert.assertEquals(1, strictFollower.poll(new StringWriter()));
+        append(strictFile, "Solda - maintenance\n");
+
+        try {
+            strictFollower.poll(new StringWriter());
+            Assert.fail("A step of a written assembly line should not be repeated.");
+        } catch (StepFormatException e) {
+            Assert.assertEquals("The production step Solda is repeated after its assembly line was written.",
+                                e.getMessage());
+        }
+    }
+
+    /**
+     * Following the file must write the assembly lines closed by the lines appended while it's watched, until the
+     * thread is interrupted.
+     *
+     * @throws Exception If there is a problem while writing the file or in the following thread.
+     */
+    @Test
+    public void should_WriteClosedAssemblyLines_When_FollowedFileIsAppended() throws Exception {
+        File file = this.temporaryFolder.newFile("input.txt");
+        StepFileFollower follower = new StepFileFollower(file, ShiftCalendar.DEFAULT, null);
+        StringWriter output = new StringWriter();
+        Exception[] failure = new Exception[1];
+
+        Thread thread = new Thread(() -> {
+            try {
+                follower.follow(output);
+            } catch (InterruptedException e) {
+                // The test stops the follower
+            } catch (Exception e) {
+                failure[0] = e;
+            }
+        });
+        thread.start();
+
+        try {
+            append(file, "Corte 180min\nSolda 180min\n");
+            Thread.sleep(50);
+            append(file, "Pintura 60min\n");
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (output.toString().isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            thread.interrupt();
+            thread.join();
+        }
+
+        Assert.assertNull(failure[0]);
+        Assert.assertEquals("Linha de montagem 1:\n09:00 Corte 180min\n12:00 Almoço\n13:00 Solda 180min\n"
+                            + "16:00 Ginástica laboral\n\n", output.toString());
+    }
+
+    /**
+     * Appends a text to the file, creating it if needed.
+     *
+     * @param file File receiving the text.
+     * @param text Text to append.
+     * @throws IOException If there is a problem while writing the file.
+     */
+    private static void append(File file, String text) throws IOException {
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Writes a number with letters, as the step names can't have digits.
+     *
+     * @param number Number to write.
+     * @return The letters of the number.
+     */
+    private static String letters(int number) {
+        char[] digits = Integer.toString(number).toCharArray();
+
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = (char) ('a' + digits[i] - '0');
+        }
+
+        return new String(digits);
+    }
+}
@@ -0,0 +1,203 @@
+package br.com.marinho.assemblyline.utils;
+
+import br.com.marinho.assemblyline.model.StepTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test class for the {@link StepOrder} orderings and the {@link IntHeap} and {@link StepGraph} behind them.
+ */
+public class StepOrderTest {
+
+    /**
+     * Builds a table with random durations and priorities, with many repeated values so the ties are tested.
+     *
+     * @param size Amount of activities.
+     * @return The table with the activities.
+     */
+    private static StepTable buildTable(int size) {
+        StepTable table = new StepTable();
+        Random random = new Random(5);
+
+        for (int i = 0; i < size; i++) {
+            table.put("Production step " + i, i % 10 == 0 ? 5 : 10 + random.nextInt(20) * 10, random.nextInt(50) - 10);
+        }
+
+        return table;
+    }
+
+    /**
+     * Checks that the ordered table has the steps in the order of a stable sort of the input positions.
+     *
+     * @param table    Steps in the input order.
+     * @param ordered  Steps ordered.
+     * @param expected Comparator of the input positions.
+     */
+    private static void assertStableOrder(StepTable table, StepTable ordered, Comparator<Integer> expected) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < table.size(); i++) {
+            positions.add(i);
+        }
+
+        // List.sort is stable, so the ties keep the input order
+        positions.sort(expected);
+
+        Assert.assertEquals(table.size(), ordered.size());
+        for (int i = 0; i < positions.size(); i++) {
+            int position = positions.get(i);
+            Assert.assertEquals(table.getName(position), ordered.getName(i));
+            Assert.assertEquals(table.getDuration(position), ordered.getDuration(i));
+            Assert.assertEquals(table.getPriority(position), ordered.getPriority(i));
+        }
+    }
+
+    /**
+     * Ordering by duration puts the longest steps first and keeps the input order between steps with the same
+     * duration.
+     */
+    @Test
+    public void should_OrderLongestFirst_When_OrderingByDuration() {
+        StepTable table = buildTable(50_000);
+
+        assertStableOrder(table, StepOrder.byDurationDescending(table),
+                          (first, second) -> Integer.compare(table.getDuration(second), table.getDuration(first)));
+    }
+
+    /**
+     * Ordering by priority puts the lowest priorities first and keeps the input order between steps with the same
+     * priority, and ordering twice gives the same table.
+     */
+    @Test
+    public void should_OrderLowestPriorityFirst_When_OrderingByPriority() {
+        StepTable table = buildTable(50_000);
+        StepTable ordered = StepOrder.byPriority(table);
+
+        assertStableOrder(table, ordered,
+                          (first, second) -> Integer.compare(table.getPriority(first), table.getPriority(second)));
+        assertStableOrder(ordered, StepOrder.byPriority(ordered), (first, second) -> 0);
+    }
+
+    /**
+     * Ordering by dependencies puts every step after the steps of its after column, even when they come later in the
+     * input, keeps all the steps and keeps their dependencies.
+     */
+    @Test
+    public void should_PlaceStepsAfterDependencies_When_OrderingByDependencies() {
+        StepTable table = buildTable(20_000);
+        Random random = new Random(7);
+
+        // Each step depends on up to three steps further in the input, so the order must change
+        for (int i = 0; i < table.size() - 1; i++) {
+            String[] dependencies = new String[random.nextInt(4)];
+            for (int j = 0; j < dependencies.length; j++) {
+                dependencies[j] = table.getName(i + 1 + random.nextInt(Math.min(100, table.size() - i - 1)));
+            }
+            table.setDependencies(i, dependencies);
+        }
+
+        StepTable ordered = StepOrder.byDependencies(table, ShiftCalendar.DEFAULT);
+
+        Assert.assertEquals(table.size(), ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            int position = table.indexOf(ordered.getName(i));
+            Assert.assertEquals(table.getDuration(position), ordered.getDuration(i));
+            Assert.assertArrayEquals(table.getDependencies(position), ordered.getDependencies(i));
+
+            String[] dependencies = ordered.getDependencies(i);
+            for (int j = 0; j < dependencies.length; j++) {
+                Assert.assertTrue(ordered.indexOf(dependencies[j]) < i);
+            }
+        }
+    }
+
+    /**
+     * A step that isn't ready doesn't leave the window empty: a ready step that fits goes first, so the steps fill a
+     * single assembly line, while only moving the late step after its dependency would need two of them.
+     */
+    @Test
+    public void should_KeepAssemblyLinesFull_When_OrderingByDependencies() {
+        StepTable table = new StepTable();
+        table.put("Pintura", 180);
+        table.put("Montagem", 60);
+        table.put("Soldagem", 120);
+        table.put("Embalagem", 50);
+        table.setDependencies(0, new String[]{"Montagem"});
+
+        StepTable ordered = StepOrder.byDependencies(table, ShiftCalendar.DEFAULT);
+
+        String[] expected = {"Montagem", "Soldagem", "Pintura", "Embalagem"};
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(expected[i], ordered.getName(i));
+        }
+
+        StepTable moved = new StepTable();
+        moved.put("Montagem", 60);
+        moved.put("Pintura", 180);
+        moved.put("Soldagem", 120);
+        moved.put("Embalagem", 50);
+
+        Assert.assertEquals(1, new Organizer().countAssemblyLines(ordered));
+        Assert.assertEquals(2, new Organizer().countAssemblyLines(moved));
+    }
+
+    /**
+     * A cycle of dependencies is written in the message, and so is a dependency that isn't a step of the table.
+     */
+    @Test
+    public void should_ThrowStepFormatException_When_DependenciesAreInvalid() {
+        StepTable table = new StepTable();
+        table.put("Montagem", 60);
+        table.put("Soldagem", 120);
+        table.put("Pintura", 180);
+        table.put("Embalagem", 60);
+        table.setDependencies(0, new String[]{"Embalagem"});
+        table.setDependencies(1, new String[]{"Pintura"});
+        table.setDependencies(2, new String[]{"Montagem", "Soldagem"});
+
+        try {
+            StepOrder.byDependencies(table, ShiftCalendar.DEFAULT);
+            Assert.fail("The cycle should not be ordered.");
+        } catch (StepFormatException e) {
+            Assert.assertEquals("The steps have a cycle of dependencies: Soldagem after Pintura after Soldagem.",
+                                e.getMessage());
+        }
+
+        table.setDependencies(2, new String[]{"Lixamento"});
+        try {
+            StepOrder.byDependencies(table, ShiftCalendar.DEFAULT);
+            Assert.fail("The unknown step should not be ordered.");
+        } catch (StepFormatException e) {
+            Assert.assertEquals("The step Pintura comes after Lixamento, which is not a step of the file.",
+                                e.getMessage());
+        }
+    }
+
+    /**
+     * Ids added one by one, with keys changed between a poll and an add, leave the heap by key and then by id.
+     */
+    @Test
+    public void should_PollByKeyAndId_When_IdsAreAddedAndPolled() {
+        int[] keys = {30, 10, 30, 20, 10};
+        IntHeap heap = new IntHeap(keys, keys.length);
+
+        for (int i = keys.length - 1; i >= 0; i--) {
+            heap.add(i);
+        }
+
+        Assert.assertEquals(1, heap.poll());
+        keys[1] = 25;
+        heap.add(1);
+
+        int[] expected = {4, 3, 1, 0, 2};
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(expected[i], heap.poll());
+        }
+
+        Assert.assertTrue(heap.isEmpty());
+    }
+}